@@ -1,11 +1,31 @@
 package com.search.indexer;
 
+import com.search.indexer.config.IndexerConfig;
+import com.search.indexer.core.BloomFilterStore;
+import com.search.indexer.core.CorpusSampler;
 import com.search.indexer.core.FileProcessor;
+import com.search.indexer.core.FileResult;
+import com.search.indexer.core.SnapshotWriter;
+import com.search.indexer.daemon.DaemonClient;
+import com.search.indexer.daemon.IndexingDaemon;
+import com.search.indexer.model.CorpusReport;
+import com.search.indexer.model.IndexingResult;
+import com.search.indexer.model.SampleReport;
+import com.search.indexer.queue.LeaseWorkQueue;
+import com.search.indexer.queue.QueueWorker;
+import com.search.indexer.shard.ShardCoordinator;
+import com.search.indexer.watch.DirectoryWatcher;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,6 +41,19 @@ public class IndexingApplication {
    */
   private static final Logger logger = LoggerFactory.getLogger(IndexingApplication.class);
 
+  static final String DAEMON_MODE = "--daemon";
+  static final String CLIENT_MODE = "--client";
+  static final String WATCH_MODE = "--watch";
+  static final String QUERY_MODE = "--query";
+  static final String LOAD_MODE = "--load";
+  static final String SHARD_MODE = "--shards";
+  static final String ENQUEUE_MODE = "--enqueue";
+  static final String WORK_MODE = "--work";
+  static final String STDIN_MODE = "--stdin";
+  static final String SAMPLE_MODE = "--sample";
+  static final String ASYNC_OPTION = "--async";
+  static final String STATUS_OPTION = "--status";
+
   private static FileProcessor processor = new FileProcessor();
 
   public static void setProcessor(FileProcessor processor) {
@@ -33,6 +66,44 @@ public class IndexingApplication {
       throw new Exception("Please provide at least one file path as argument");
     }
 
+    switch (args[0]) {
+      case DAEMON_MODE:
+        startDaemon();
+        return;
+      case CLIENT_MODE:
+        runClient(Arrays.copyOfRange(args, 1, args.length));
+        return;
+      case WATCH_MODE:
+        startWatcher(args);
+        return;
+      case QUERY_MODE:
+        runQuery(args);
+        return;
+      case LOAD_MODE:
+        loadSnapshot(args);
+        return;
+      case SHARD_MODE:
+        runShards(args);
+        return;
+      case ShardCoordinator.WORKER_MODE:
+        runShardWorker(args);
+        return;
+      case ENQUEUE_MODE:
+        enqueue(args);
+        return;
+      case WORK_MODE:
+        drainQueue(args);
+        return;
+      case STDIN_MODE:
+        indexStdin(args);
+        return;
+      case SAMPLE_MODE:
+        runSample(args);
+        return;
+      default:
+        break;
+    }
+
     logger.debug("File Indexer Starting...");
     logger.debug("Number of files to process: {}", args.length);
 
@@ -40,7 +111,314 @@ public class IndexingApplication {
         .map(Paths::get)
         .collect(Collectors.toList());
 
-    processor.processFiles(filePaths);
+    try (CorpusReport report = processor.processFiles(filePaths)) {
+      logger.info("{}", report);
+      writeBloomFilters(report);
+      writeSnapshot(report);
+      writeFailureReport(report);
+    }
+  }
+
+  /**
+   * Indexes standard input, such as the output of an extraction tool in a pipeline:
+   * {@code --stdin [name]}. With {@code stream.record.delimiter} set, the input holds one
+   * document per record. The rule results of each document are printed as soon as it completes;
+   * the corpus report follows at the end of the input.
+   */
+  private static void indexStdin(String[] args) throws Exception {
+    if (args.length > 2) {
+      throw new Exception("Please provide at most one name for standard input");
+    }
+    String name = args.length == 2 ? args[1] : IndexerConfig.getStreamName();
+    byte[] delimiter = IndexerConfig.getStreamRecordDelimiter().getBytes(StandardCharsets.UTF_8);
+    try (CorpusReport report = processor.processStream(System.in, name, delimiter,
+        IndexingApplication::printResult)) {
+      logger.info("{}", report);
+      writeBloomFilters(report);
+      writeSnapshot(report);
+      writeFailureReport(report);
+    }
+  }
+
+  /**
+   * Estimates corpus totals from a random sample of the given files and directories instead of
+   * indexing them all: {@code --sample <path>...}. Directories are searched for files
+   * recursively.
+   */
+  private static void runSample(String[] args) throws Exception {
+    if (args.length < 2) {
+      throw new Exception("Please provide at least one file or directory to sample");
+    }
+    List<Path> filePaths = new ArrayList<>();
+    for (int i = 1; i < args.length; i++) {
+      Path path = Paths.get(args[i]);
+      if (Files.isDirectory(path)) {
+        try (Stream<Path> files = Files.walk(path)) {
+          files.filter(Files::isRegularFile).forEach(filePaths::add);
+        }
+      } else {
+        filePaths.add(path);
+      }
+    }
+    if (filePaths.isEmpty()) {
+      throw new Exception("No files to sample under " + String.join(", ",
+          Arrays.asList(args).subList(1, args.length)));
+    }
+    SampleReport report = CorpusSampler.fromConfig().estimate(filePaths);
+    logger.info("{}", report);
+  }
+
+  /**
+   * Prints the rule results of one document and flushes them, so a downstream consumer sees every
+   * document as soon as it is indexed.
+   */
+  private static void printResult(FileResult result) {
+    StringBuilder output = new StringBuilder();
+    output.append("File Name: ").append(result.getFilePath()).append(System.lineSeparator());
+    for (IndexingResult ruleResult : result.getResults()) {
+      output.append(' ').append(ruleResult).append(System.lineSeparator());
+    }
+    System.out.print(output);
+    System.out.flush();
+  }
+
+  /**
+   * Persists the per-file Bloom filters of a batch when {@code bloom.store} is configured.
+   */
+  private static void writeBloomFilters(CorpusReport report) throws IOException {
+    String store = IndexerConfig.getBloomStorePath();
+    if (!store.isBlank()) {
+      BloomFilterStore.write(Paths.get(store), report.getRankedFiles(),
+          IndexerConfig.getBloomFalsePositiveRate());
+      logger.info("Wrote Bloom filters of {} files to {}", report.getFileCount(), store);
+    }
+  }
+
+  /**
+   * Saves the results of a batch when {@code snapshot.store} is configured.
+   */
+  private static void writeSnapshot(CorpusReport report) throws IOException {
+    String snapshot = IndexerConfig.getSnapshotPath();
+    if (!snapshot.isBlank()) {
+      SnapshotWriter.write(Paths.get(snapshot), report.getRankedFiles(), report.getFailures());
+      logger.info("Saved snapshot of {} files to {}", report.getFileCount(), snapshot);
+    }
+  }
+
+  /**
+   * Writes the files skipped by a continue-on-error batch, one tab-separated line each, when
+   * {@code processing.failure.report} is configured.
+   */
+  private static void writeFailureReport(CorpusReport report) throws IOException {
+    String failureReport = IndexerConfig.getFailureReportPath();
+    if (!failureReport.isBlank()) {
+      List<String> lines = new ArrayList<>();
+      lines.add("path\tcategory\tattempts\tcause");
+      report.getFailures().forEach(failure -> lines.add(failure.toString()));
+      Files.write(Paths.get(failureReport), lines, StandardCharsets.UTF_8);
+      logger.info("Wrote {} failed files to {}", report.getFailures().size(), failureReport);
+    }
+  }
+
+  /**
+   * Reloads a saved batch and logs its report: {@code --load <snapshot>}. Given a directory, such
+   * as the {@code done} directory of a work queue, merges every snapshot in it.
+   */
+  private static void loadSnapshot(String[] args) throws Exception {
+    if (args.length != 2) {
+      throw new Exception("Please provide exactly one snapshot to load");
+    }
+    try (CorpusReport report = readSnapshots(Paths.get(args[1]))) {
+      logger.info("{}", report);
+    }
+  }
+
+  /**
+   * Reloads a snapshot, or every snapshot of a directory merged in path order.
+   */
+  private static CorpusReport readSnapshots(Path source) throws IOException {
+    if (!Files.isDirectory(source)) {
+      return processor.loadSnapshot(source);
+    }
+    try (Stream<Path> entries = Files.list(source)) {
+      return processor.loadSnapshots(entries
+          .filter(file -> file.getFileName().toString().endsWith(".ixsn"))
+          .sorted()
+          .collect(Collectors.toList()));
+    }
+  }
+
+  /**
+   * Adds files to a shared work queue: {@code --enqueue <queue-dir> <file>...}.
+   */
+  private static void enqueue(String[] args) throws Exception {
+    if (args.length < 3) {
+      throw new Exception("Please provide a queue directory followed by at least one file path");
+    }
+    List<Path> filePaths = Arrays.stream(args, 2, args.length)
+        .map(Paths::get)
+        .collect(Collectors.toList());
+    LeaseWorkQueue queue = new LeaseWorkQueue(Paths.get(args[1]),
+        IndexerConfig.getQueueLeaseMillis());
+    int batches = queue.enqueue(filePaths, IndexerConfig.getQueueBatchSize());
+    logger.info("Queued {} files in {} batches", filePaths.size(), batches);
+  }
+
+  /**
+   * Indexes batches of a shared work queue alongside any other instances until it is drained:
+   * {@code --work <queue-dir>}. The results are left in the queue's {@code done} directory and
+   * batches that failed in its {@code failed} directory.
+   */
+  private static void drainQueue(String[] args) throws Exception {
+    if (args.length != 2) {
+      throw new Exception("Please provide exactly one queue directory");
+    }
+    long leaseMillis = IndexerConfig.getQueueLeaseMillis();
+    LeaseWorkQueue queue = new LeaseWorkQueue(Paths.get(args[1]), leaseMillis);
+    new QueueWorker(queue, processor, QueueWorker.defaultOwner(), leaseMillis,
+        IndexerConfig.getQueuePollMillis()).run();
+    List<Path> failedBatches = queue.getFailedBatches();
+    if (!failedBatches.isEmpty()) {
+      logger.warn("{} batches failed, see {}", failedBatches.size(),
+          failedBatches.get(0).getParent());
+    }
+  }
+
+  /**
+   * Indexes the given files in {@code shard.count} worker JVMs and merges their results:
+   * {@code --shards <file>...}.
+   */
+  private static void runShards(String[] args) throws Exception {
+    if (args.length < 2) {
+      throw new Exception("Please provide at least one file path to shard");
+    }
+    List<Path> filePaths = Arrays.stream(args, 1, args.length)
+        .map(Paths::get)
+        .collect(Collectors.toList());
+    List<String> jvmOptions = Arrays.stream(IndexerConfig.getShardJvmOptions().trim().split("\\s+"))
+        .filter(option -> !option.isEmpty())
+        .collect(Collectors.toList());
+    ShardCoordinator coordinator = new ShardCoordinator(processor, IndexerConfig.getShardCount(),
+        IndexerConfig.getShardRetries(), jvmOptions, IndexingApplication.class.getName());
+    try (CorpusReport report = coordinator.processFiles(filePaths)) {
+      logger.info("{}", report);
+      writeBloomFilters(report);
+      writeSnapshot(report);
+      writeFailureReport(report);
+    }
+  }
+
+  /**
+   * Indexes one shard for a {@link ShardCoordinator}: {@code --shard-worker <file-list>
+   * <snapshot>}, where the file list holds one path per line.
+   */
+  private static void runShardWorker(String[] args) throws Exception {
+    if (args.length != 3) {
+      throw new Exception("Please provide a file list and a snapshot path");
+    }
+    List<Path> filePaths = Files.readAllLines(Paths.get(args[1]), StandardCharsets.UTF_8).stream()
+        .map(Paths::get)
+        .collect(Collectors.toList());
+    try (CorpusReport report = processor.processFiles(filePaths)) {
+      SnapshotWriter.write(Paths.get(args[2]), report.getRankedFiles(), report.getFailures());
+    }
+  }
+
+  /**
+   * Starts a warm indexing daemon that serves jobs until the JVM is terminated.
+   */
+  private static void startDaemon() throws Exception {
+    IndexingDaemon daemon = new IndexingDaemon(processor, IndexerConfig.getDaemonPort(),
+        IndexerConfig.getDaemonThreads(), IndexerConfig.getDaemonJobRetention(),
+        IndexerConfig.getDaemonTokenFile());
+    daemon.start();
+    Runtime.getRuntime().addShutdownHook(new Thread(daemon::stop, "indexer-daemon-shutdown"));
+  }
+
+  /**
+   * Indexes a directory tree and keeps re-indexing changed files until the JVM is terminated.
+   */
+  private static void startWatcher(String[] args) throws Exception {
+    if (args.length != 2) {
+      throw new Exception("Please provide exactly one directory to watch");
+    }
+    DirectoryWatcher watcher = new DirectoryWatcher(processor, Paths.get(args[1]),
+        IndexerConfig.getWatchDebounceMillis(), IndexerConfig.getWatchMaxDelayMillis());
+    watcher.start();
+    Runtime.getRuntime().addShutdownHook(new Thread(watcher::stop, "indexer-watch-shutdown"));
+    Thread.currentThread().join();
+  }
+
+  /**
+   * Prints the long words matching a query with the files containing them:
+   * {@code --query <term|prefix*|pattern> [<file>... | --load <snapshot>]}, where {@code *}
+   * matches any run of characters and {@code ?} a single one.
+   */
+  private static void runQuery(String[] args) throws Exception {
+    Map<String, List<Path>> matches;
+    try (CorpusReport report = queryReport(args)) {
+      matches = report.getTermIndex().query(args[1]);
+    }
+    StringBuilder output = new StringBuilder();
+    for (Map.Entry<String, List<Path>> match : matches.entrySet()) {
+      output.append(match.getKey()).append(": ")
+          .append(match.getValue().stream().map(Path::toString).collect(Collectors.joining(", ")))
+          .append(System.lineSeparator());
+    }
+    output.append(String.format("%d matching terms%n", matches.size()));
+    System.out.print(output);
+  }
 
+  /**
+   * Picks the results a query runs against: the snapshot after {@code --load}, the files given,
+   * or without either the {@code snapshot.store} of an earlier batch, so repeated queries do not
+   * re-index the corpus.
+   */
+  private static CorpusReport queryReport(String[] args) throws Exception {
+    if (args.length >= 3 && args[2].equals(LOAD_MODE)) {
+      if (args.length != 4) {
+        throw new Exception("Please provide exactly one snapshot to query");
+      }
+      return readSnapshots(Paths.get(args[3]));
+    }
+    if (args.length >= 3) {
+      return processor.processFiles(Arrays.stream(args, 2, args.length)
+          .map(Paths::get)
+          .collect(Collectors.toList()));
+    }
+    String snapshot = IndexerConfig.getSnapshotPath();
+    if (args.length < 2 || snapshot.isBlank()) {
+      throw new Exception("Please provide a query followed by at least one file path, "
+          + "--load <snapshot> or a snapshot.store");
+    }
+    return readSnapshots(Paths.get(snapshot));
+  }
+
+  /**
+   * Forwards the remaining arguments to a running daemon. Supported forms:
+   * <ul>
+   *   <li>{@code --client <file>...} - run a job and wait for its report</li>
+   *   <li>{@code --client --async <file>...} - queue a job and print its id</li>
+   *   <li>{@code --client --status <jobId>} - print the report of a queued job</li>
+   * </ul>
+   */
+  private static void runClient(String[] args) throws Exception {
+    if (args.length == 0) {
+      throw new Exception("Please provide at least one file path or a job id for the daemon");
+    }
+    DaemonClient client = new DaemonClient(IndexerConfig.getDaemonPort(),
+        IndexerConfig.getDaemonTokenFile());
+    DaemonClient.Response response;
+    if (STATUS_OPTION.equals(args[0]) && args.length == 2) {
+      response = client.status(args[1]);
+    } else if (ASYNC_OPTION.equals(args[0])) {
+      response = client.submit(Arrays.asList(args).subList(1, args.length), false);
+    } else {
+      response = client.submit(Arrays.asList(args), true);
+    }
+    System.out.print(response.getBody());
+    if (!response.isSuccess()) {
+      throw new Exception("Daemon request failed with status " + response.getStatusCode());
+    }
   }
-}
\ No newline at end of file
+}
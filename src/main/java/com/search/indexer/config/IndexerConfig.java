@@ -2,13 +2,19 @@ package com.search.indexer.config;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Properties;
 
 /**
- * Configuration loader for file indexer properties.
+ * Configuration loader for file indexer properties. A system property named {@code indexer.<key>}
+ * overrides {@code <key>} from {@code application.properties}.
  */
 public class IndexerConfig {
 
+  static final String OVERRIDE_PREFIX = "indexer.";
   private static final Properties properties = new Properties();
 
   static {
@@ -30,6 +36,11 @@ public class IndexerConfig {
     } catch (IOException e) {
       throw new RuntimeException("Error loading properties", e);
     }
+    for (String name : System.getProperties().stringPropertyNames()) {
+      if (name.startsWith(OVERRIDE_PREFIX)) {
+        properties.setProperty(name.substring(OVERRIDE_PREFIX.length()), System.getProperty(name));
+      }
+    }
   }
 
 
@@ -45,6 +56,12 @@ public class IndexerConfig {
     return Integer.parseInt(properties.getProperty("word.min.length", "5"));
   }
 
+  public static int[] getWordLengthThresholds() {
+    String thresholds = properties.getProperty("word.length.thresholds", "").trim();
+    return thresholds.isEmpty() ? new int[0]
+        : Arrays.stream(thresholds.split("\\s*,\\s*")).mapToInt(Integer::parseInt).toArray();
+  }
+
   public static int getWordBuilderCapacity() {
     return Integer.parseInt(properties.getProperty("word.builder.capacity", "100"));
   }
@@ -52,4 +69,259 @@ public class IndexerConfig {
   public static int getProgressLogInterval() {
     return Integer.parseInt(properties.getProperty("performance.log.interval", "10"));
   }
-}
\ No newline at end of file
+
+  public static int getDaemonPort() {
+    return Integer.parseInt(properties.getProperty("daemon.port", "7070"));
+  }
+
+  public static int getDaemonThreads() {
+    return Integer.parseInt(properties.getProperty("daemon.threads",
+        String.valueOf(Runtime.getRuntime().availableProcessors())));
+  }
+
+  public static int getDaemonJobRetention() {
+    return Integer.parseInt(properties.getProperty("daemon.job.retention", "1000"));
+  }
+
+  public static Path getDaemonTokenFile() {
+    return Paths.get(properties.getProperty("daemon.token.file",
+        Paths.get(System.getProperty("user.home"), ".file-indexer", "daemon.token").toString()));
+  }
+
+  public static long getWatchDebounceMillis() {
+    return Long.parseLong(properties.getProperty("watch.debounce.ms", "500"));
+  }
+
+  public static long getWatchMaxDelayMillis() {
+    return Long.parseLong(properties.getProperty("watch.debounce.max.ms", "5000"));
+  }
+
+  public static String getReadMode() {
+    return properties.getProperty("file.read.mode", "chunked");
+  }
+
+  public static int getMaxWordLength() {
+    return Integer.parseInt(properties.getProperty("word.max.length", "4096"));
+  }
+
+  public static String getScanKernel() {
+    return properties.getProperty("scan.kernel", "auto");
+  }
+
+  public static int getMaxTagLength() {
+    return Integer.parseInt(properties.getProperty("tag.max.length", "4096"));
+  }
+
+  public static int getProcessingThreads() {
+    return Integer.parseInt(properties.getProperty("processing.threads",
+        String.valueOf(Runtime.getRuntime().availableProcessors())));
+  }
+
+  public static Charset getFallbackCharset() {
+    return Charset.forName(properties.getProperty("file.charset.fallback", "windows-1252"));
+  }
+
+  public static String getMalformedInputAction() {
+    return properties.getProperty("file.malformed.input", "replace");
+  }
+
+  public static long getLongWordsMemoryBudget() {
+    return Long.parseLong(properties.getProperty("words.memory.budget", "67108864"));
+  }
+
+  public static int getSpilledLongWordsListLimit() {
+    return Integer.parseInt(properties.getProperty("words.list.spilled.limit", "10000"));
+  }
+
+  public static Path getSpillDirectory() {
+    return Paths.get(properties.getProperty("words.spill.dir",
+        System.getProperty("java.io.tmpdir")));
+  }
+
+  public static long getMemoryBudget() {
+    long budget = Long.parseLong(properties.getProperty("memory.budget", "0"));
+    return budget > 0 ? budget : (long) (Runtime.getRuntime().maxMemory() * 0.6);
+  }
+
+  public static double getGcPressureThreshold() {
+    return Double.parseDouble(properties.getProperty("memory.gc.threshold", "0.8"));
+  }
+
+  public static long getSmallFileSize() {
+    return Long.parseLong(properties.getProperty("schedule.small.file.size", "65536"));
+  }
+
+  public static long getScheduleBatchSize() {
+    return Long.parseLong(properties.getProperty("schedule.batch.size", "1048576"));
+  }
+
+  public static String getIoEngine() {
+    return properties.getProperty("io.engine", "sync");
+  }
+
+  public static int getIoQueueDepth() {
+    return Integer.parseInt(properties.getProperty("io.queue.depth", "4"));
+  }
+
+  public static int getIoBufferPoolSize() {
+    return Integer.parseInt(properties.getProperty("io.buffer.pool.size", "64"));
+  }
+
+  public static String getBloomStorePath() {
+    return properties.getProperty("bloom.store", "");
+  }
+
+  public static double getBloomFalsePositiveRate() {
+    return Double.parseDouble(properties.getProperty("bloom.fpp", "0.01"));
+  }
+
+  public static String getSnapshotPath() {
+    return properties.getProperty("snapshot.store", "");
+  }
+
+  public static int getShardCount() {
+    return Integer.parseInt(properties.getProperty("shard.count",
+        String.valueOf(Math.max(1, Runtime.getRuntime().availableProcessors() / 8))));
+  }
+
+  public static int getShardRetries() {
+    return Integer.parseInt(properties.getProperty("shard.retries", "2"));
+  }
+
+  public static String getShardJvmOptions() {
+    return properties.getProperty("shard.jvm.options", "");
+  }
+
+  public static long getQueueLeaseMillis() {
+    return Long.parseLong(properties.getProperty("queue.lease.ms", "60000"));
+  }
+
+  public static int getQueueBatchSize() {
+    return Integer.parseInt(properties.getProperty("queue.batch.size", "100"));
+  }
+
+  public static long getQueuePollMillis() {
+    return Long.parseLong(properties.getProperty("queue.poll.ms", "1000"));
+  }
+
+  public static boolean isContinueOnError() {
+    return Boolean.parseBoolean(properties.getProperty("processing.continue.on.error", "false"));
+  }
+
+  public static int getRetryAttempts() {
+    return Integer.parseInt(properties.getProperty("processing.retry.attempts", "3"));
+  }
+
+  public static long getRetryBackoffMillis() {
+    return Long.parseLong(properties.getProperty("processing.retry.backoff.ms", "100"));
+  }
+
+  public static String getFailureReportPath() {
+    return properties.getProperty("processing.failure.report", "");
+  }
+
+  public static String getKeywordsFile() {
+    return properties.getProperty("keywords.file", "");
+  }
+
+  public static boolean isKeywordsIgnoreCase() {
+    return Boolean.parseBoolean(properties.getProperty("keywords.ignore.case", "true"));
+  }
+
+  public static int getFrequencyTopTerms() {
+    return Integer.parseInt(properties.getProperty("frequency.top.terms", "0"));
+  }
+
+  public static long getFrequencyMemoryBudget() {
+    return Long.parseLong(properties.getProperty("frequency.memory.budget", "262144"));
+  }
+
+  public static long getCorpusFrequencyMemoryBudget() {
+    return Long.parseLong(properties.getProperty("frequency.corpus.memory.budget", "67108864"));
+  }
+
+  public static long getChunkCacheMemoryBudget() {
+    return Long.parseLong(properties.getProperty("chunk.cache.memory.budget", "0"));
+  }
+
+  public static int getChunkCacheAverageSize() {
+    return Integer.parseInt(properties.getProperty("chunk.cache.average.size", "65536"));
+  }
+
+  public static long getChunkCacheMinFileSize() {
+    return Long.parseLong(properties.getProperty("chunk.cache.min.file.size", "1048576"));
+  }
+
+  public static double getSampleRate() {
+    return Double.parseDouble(properties.getProperty("sample.rate", "0.01"));
+  }
+
+  public static double getSampleRangeRate() {
+    return Double.parseDouble(properties.getProperty("sample.range.rate", "0.1"));
+  }
+
+  public static long getSampleRangeSize() {
+    return Long.parseLong(properties.getProperty("sample.range.size", "1048576"));
+  }
+
+  public static long getSampleSeed() {
+    return Long.parseLong(properties.getProperty("sample.seed", "1"));
+  }
+
+  public static double getSampleConfidence() {
+    return Double.parseDouble(properties.getProperty("sample.confidence", "0.95"));
+  }
+
+  public static String getStreamName() {
+    return properties.getProperty("stream.name", "stdin");
+  }
+
+  /**
+   * @return the {@code stream.record.delimiter}, with the escapes {@code \0}, {@code \n},
+   *     {@code \r}, {@code \t}, {@code \f}, {@code \\} and {@code \}{@code uXXXX} resolved so
+   *     they also work in system property overrides; empty when a stream is one document
+   */
+  public static String getStreamRecordDelimiter() {
+    return unescape(properties.getProperty("stream.record.delimiter", ""));
+  }
+
+  static String unescape(String value) {
+    StringBuilder result = new StringBuilder(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c != '\\' || i + 1 == value.length()) {
+        result.append(c);
+        continue;
+      }
+      char escape = value.charAt(++i);
+      switch (escape) {
+        case '0':
+          result.append('\0');
+          break;
+        case 'n':
+          result.append('\n');
+          break;
+        case 'r':
+          result.append('\r');
+          break;
+        case 't':
+          result.append('\t');
+          break;
+        case 'f':
+          result.append('\f');
+          break;
+        case 'u':
+          if (i + 5 > value.length()) {
+            throw new IllegalArgumentException("Incomplete unicode escape in: " + value);
+          }
+          result.append((char) Integer.parseInt(value.substring(i + 1, i + 5), 16));
+          i += 4;
+          break;
+        default:
+          result.append(escape);
+          break;
+      }
+    }
+    return result.toString();
+  }
+}
@@ -0,0 +1,138 @@
+package com.search.indexer.core;
+
+/**
+ * Bloom filter over the long words of one file. Answers "might this file contain the word?" with
+ * no false negatives and a false-positive rate chosen at construction.
+ *
+ * <p>Bit positions come from double hashing ({@code h1 + i * h2}) of one 64-bit hash of the word's
+ * UTF-16 chars. The hash does not depend on the JVM, so filters stay valid when persisted by
+ * {@link BloomFilterStore}.
+ */
+public final class BloomFilter {
+
+  private static final double LN2 = Math.log(2);
+
+  private final long[] bits;
+  private final int numHashes;
+
+  private BloomFilter(long[] bits, int numHashes) {
+    this.bits = bits;
+    this.numHashes = numHashes;
+  }
+
+  /**
+   * Creates an empty filter sized for {@code expectedWords} entries.
+   *
+   * @param expectedWords     number of distinct words the filter will hold
+   * @param falsePositiveRate target probability of a false positive, in {@code (0, 1)}
+   * @return the filter
+   */
+  public static BloomFilter create(int expectedWords, double falsePositiveRate) {
+    int numLongs = numLongs(expectedWords, falsePositiveRate);
+    return new BloomFilter(new long[numLongs], numHashes(expectedWords, numLongs));
+  }
+
+  /**
+   * @return number of 64-bit words of the bit array for the given capacity and rate
+   */
+  static int numLongs(int expectedWords, double falsePositiveRate) {
+    if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("False-positive rate must be in (0, 1): "
+          + falsePositiveRate);
+    }
+    int words = Math.max(1, expectedWords);
+    long numBits = (long) Math.ceil(-words * Math.log(falsePositiveRate) / (LN2 * LN2));
+    return (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (numBits + 63) >>> 6));
+  }
+
+  /**
+   * @return optimal number of hash functions for a bit array of {@code numLongs} words
+   */
+  static int numHashes(int expectedWords, int numLongs) {
+    return Math.max(1, (int) Math.round((numLongs * 64.0 / Math.max(1, expectedWords)) * LN2));
+  }
+
+  /**
+   * Creates a filter holding every long word of a file.
+   *
+   * @param statistics        statistics of the file
+   * @param falsePositiveRate target probability of a false positive
+   * @return the filled filter
+   */
+  public static BloomFilter of(WordStatistics statistics, double falsePositiveRate) {
+    BloomFilter filter = create(statistics.getLongWordCount(), falsePositiveRate);
+    statistics.forEachLongWord(filter::add);
+    return filter;
+  }
+
+  /**
+   * @param word word to add
+   */
+  public void add(String word) {
+    long hash = hash(word);
+    long h2 = secondHash(hash);
+    long numBits = (long) bits.length << 6;
+    for (int i = 0; i < numHashes; i++) {
+      long bit = Math.floorMod(hash + i * h2, numBits);
+      bits[(int) (bit >>> 6)] |= 1L << bit;
+    }
+  }
+
+  /**
+   * @param word word to test
+   * @return {@code false} if the word was certainly never added
+   */
+  public boolean mightContain(String word) {
+    long hash = hash(word);
+    long h2 = secondHash(hash);
+    long numBits = (long) bits.length << 6;
+    for (int i = 0; i < numHashes; i++) {
+      long bit = Math.floorMod(hash + i * h2, numBits);
+      if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public int getNumHashes() {
+    return numHashes;
+  }
+
+  /**
+   * @return the bit array; callers must not modify it
+   */
+  long[] getBits() {
+    return bits;
+  }
+
+  /**
+   * FNV-1a over the UTF-16 chars of {@code word}, finished with the MurmurHash3 64-bit mixer.
+   *
+   * @param word word to hash
+   * @return stable 64-bit hash
+   */
+  static long hash(String word) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < word.length(); i++) {
+      hash = (hash ^ word.charAt(i)) * 0x100000001b3L;
+    }
+    return mix(hash);
+  }
+
+  /**
+   * @return odd second hash derived from the first, so probe steps never collapse to zero
+   */
+  static long secondHash(long hash) {
+    return mix(hash ^ 0x9e3779b97f4a7c15L) | 1;
+  }
+
+  private static long mix(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
@@ -0,0 +1,190 @@
+package com.search.indexer.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bloom filters of a whole batch in one memory-mapped file. Lookups read bits straight from the
+ * mapping, so answering membership for every file costs one hash of the word plus a few probes per
+ * file, without deserializing any per-file structure.
+ *
+ * <p>Layout, big-endian:
+ * <pre>
+ *   header     magic "BLMF", version, file count
+ *   directory  per file: bits offset (long), long count (int), hash count (int),
+ *              path offset (long), path length (int), padding (int)
+ *   paths      UTF-8 path strings
+ *   bits       per file: its bit array as longs, 8-byte aligned
+ * </pre>
+ * A store is limited to 2 GB, the size of a single mapping.
+ */
+public final class BloomFilterStore {
+
+  private static final int MAGIC = 0x424C4D46;
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 12;
+  private static final int ENTRY_BYTES = 32;
+
+  private final MappedByteBuffer buffer;
+  private final int fileCount;
+
+  private BloomFilterStore(MappedByteBuffer buffer) throws IOException {
+    this.buffer = buffer;
+    if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+      throw new IOException("Not a Bloom filter store");
+    }
+    this.fileCount = buffer.getInt(8);
+  }
+
+  /**
+   * Builds a filter for each result and writes all of them to {@code target}, replacing it. One
+   * filter is held in memory at a time.
+   *
+   * @param target            store file to write
+   * @param results           per-file results; their positions become the file ids
+   * @param falsePositiveRate target false-positive rate of each filter
+   * @throws IOException if the store cannot be written
+   */
+  public static void write(Path target, List<FileResult> results, double falsePositiveRate)
+      throws IOException {
+    int count = results.size();
+    byte[][] paths = new byte[count][];
+    int[] numLongs = new int[count];
+    int[] numHashes = new int[count];
+    long pathBytes = 0;
+    for (int i = 0; i < count; i++) {
+      paths[i] = results.get(i).getFilePath().toString().getBytes(StandardCharsets.UTF_8);
+      pathBytes += paths[i].length;
+      int words = results.get(i).getStatistics().getLongWordCount();
+      numLongs[i] = BloomFilter.numLongs(words, falsePositiveRate);
+      numHashes[i] = BloomFilter.numHashes(words, numLongs[i]);
+    }
+
+    long pathsStart = HEADER_BYTES + (long) ENTRY_BYTES * count;
+    long bitsStart = (pathsStart + pathBytes + 7) & ~7L;
+    ByteBuffer head = ByteBuffer.allocate((int) bitsStart);
+    head.putInt(MAGIC).putInt(VERSION).putInt(count);
+    long pathOffset = pathsStart;
+    long bitsOffset = bitsStart;
+    for (int i = 0; i < count; i++) {
+      head.putLong(bitsOffset).putInt(numLongs[i]).putInt(numHashes[i])
+          .putLong(pathOffset).putInt(paths[i].length).putInt(0);
+      pathOffset += paths[i].length;
+      bitsOffset += 8L * numLongs[i];
+    }
+    if (bitsOffset > Integer.MAX_VALUE) {
+      throw new IOException("Bloom filter store exceeds 2 GB: " + bitsOffset + " bytes");
+    }
+    for (byte[] path : paths) {
+      head.put(path);
+    }
+    head.position(0).limit(head.capacity());
+
+    try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      writeFully(channel, head);
+      for (int i = 0; i < count; i++) {
+        long[] bits = BloomFilter.of(results.get(i).getStatistics(), falsePositiveRate).getBits();
+        ByteBuffer block = ByteBuffer.allocate(8 * bits.length);
+        block.asLongBuffer().put(bits);
+        writeFully(channel, block);
+      }
+    }
+  }
+
+  /**
+   * Maps a store written by {@link #write}.
+   *
+   * @param source store file
+   * @return the mapped store
+   * @throws IOException if the file cannot be mapped or is not a store
+   */
+  public static BloomFilterStore open(Path source) throws IOException {
+    try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE || channel.size() < HEADER_BYTES) {
+        throw new IOException("Not a Bloom filter store: " + source);
+      }
+      return new BloomFilterStore(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * @return number of files in the store
+   */
+  public int size() {
+    return fileCount;
+  }
+
+  /**
+   * @param fileId position of the file in the stored batch
+   * @return path of the file
+   */
+  public Path getFile(int fileId) {
+    int entry = entry(fileId);
+    byte[] path = new byte[buffer.getInt(entry + 24)];
+    buffer.get((int) buffer.getLong(entry + 16), path);
+    return Paths.get(new String(path, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @param fileId position of the file in the stored batch
+   * @param word   word to test
+   * @return {@code false} if the file certainly does not contain the word as a long word
+   */
+  public boolean mightContain(int fileId, String word) {
+    long hash = BloomFilter.hash(word);
+    return probe(entry(fileId), hash, BloomFilter.secondHash(hash));
+  }
+
+  /**
+   * Tests every file for a word, hashing it once.
+   *
+   * @param word word to test
+   * @return ids of the files that might contain the word, ascending
+   */
+  public List<Integer> filesMightContain(String word) {
+    long hash = BloomFilter.hash(word);
+    long h2 = BloomFilter.secondHash(hash);
+    List<Integer> candidates = new ArrayList<>();
+    for (int fileId = 0; fileId < fileCount; fileId++) {
+      if (probe(HEADER_BYTES + fileId * ENTRY_BYTES, hash, h2)) {
+        candidates.add(fileId);
+      }
+    }
+    return candidates;
+  }
+
+  private boolean probe(int entry, long hash, long h2) {
+    int bitsOffset = (int) buffer.getLong(entry);
+    long numBits = (long) buffer.getInt(entry + 8) << 6;
+    int numHashes = buffer.getInt(entry + 12);
+    for (int i = 0; i < numHashes; i++) {
+      long bit = Math.floorMod(hash + i * h2, numBits);
+      if ((buffer.getLong(bitsOffset + (int) (bit >>> 6) * 8) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int entry(int fileId) {
+    if (fileId < 0 || fileId >= fileCount) {
+      throw new IndexOutOfBoundsException("No file " + fileId + " in store of " + fileCount);
+    }
+    return HEADER_BYTES + fileId * ENTRY_BYTES;
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+}
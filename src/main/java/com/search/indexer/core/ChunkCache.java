@@ -0,0 +1,366 @@
+package com.search.indexer.core;
+
+import com.search.indexer.config.IndexerConfig;
+import com.search.indexer.io.CharsetSniffer;
+import com.search.indexer.io.DetectedEncoding;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scans files in content-defined chunks and caches the statistics of each chunk by a hash of its
+ * bytes, so a file that is re-indexed after a small edit only tokenizes the chunks around the
+ * edit and merges the cached statistics of the rest.
+ *
+ * <p>Chunks end at line breaks. After a line break the tokenizer holds no partial word and no open
+ * tag, so each chunk is tokenized on its own and the merged statistics equal those of a full scan.
+ * Which line breaks end a chunk is decided by a gear rolling hash over the preceding bytes: a chunk
+ * ends at the first line break after the hash hits, once it holds at least a quarter of the
+ * average size, or at the first line break after twice the average. Boundaries depend only on
+ * nearby content, so an edit shifts the boundaries of the chunks around it but leaves the chunks
+ * further away, and their cache entries, intact.
+ *
+ * <p>Only encodings in which a line break is the single byte {@code 0x0A} are chunked. A file in
+ * another encoding is scanned without the cache, and so is the rest of a file from a chunk that
+ * fills the read window of four maximum chunk sizes without a line break to end it. The cache is
+ * shared by all workers and evicts the least recently used chunks beyond its memory budget.
+ */
+@Slf4j
+public class ChunkCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(ChunkCache.class);
+  /**
+   * Estimated bytes of a cache entry besides its long words and length buckets
+   */
+  private static final int ENTRY_OVERHEAD_BYTES = 256;
+  private static final int SNIFF_BYTES = IndexerConfig.getBufferSize();
+  private static final long[] GEAR = new long[256];
+  private static final VarHandle LONGS =
+      MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+  static {
+    SplittableRandom random = new SplittableRandom(0x5eed_c4c7L);
+    for (int i = 0; i < GEAR.length; i++) {
+      GEAR[i] = random.nextLong();
+    }
+  }
+
+  private final long memoryBudget;
+  private final int minChunkSize;
+  private final int maxChunkSize;
+  private final long boundaryMask;
+  private final Map<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private long memoryBytes;
+
+  /**
+   * @param memoryBudget     estimated heap bytes of the cached statistics
+   * @param averageChunkSize target average chunk size in bytes, rounded to a power of two
+   */
+  public ChunkCache(long memoryBudget, int averageChunkSize) {
+    if (memoryBudget <= 0 || averageChunkSize < 64) {
+      throw new IllegalArgumentException(
+          "Memory budget must be positive and the average chunk size at least 64 bytes");
+    }
+    int average = Integer.highestOneBit(averageChunkSize);
+    this.memoryBudget = memoryBudget;
+    this.minChunkSize = average / 4;
+    this.maxChunkSize = average * 2;
+    // The hash is tested after the minimum size, so it should hit about every 3/4 average bytes
+    this.boundaryMask = Integer.highestOneBit(average - minChunkSize) - 1L;
+  }
+
+  /**
+   * @return the cache configured by {@code chunk.cache.memory.budget}, or {@code null} if it is
+   *     disabled
+   */
+  public static ChunkCache fromConfig() {
+    long budget = IndexerConfig.getChunkCacheMemoryBudget();
+    return budget > 0 ? new ChunkCache(budget, IndexerConfig.getChunkCacheAverageSize()) : null;
+  }
+
+  /**
+   * Scans a file chunk by chunk, merging the statistics of cached chunks and tokenizing and
+   * caching the others.
+   *
+   * @param file       file to scan
+   * @param statistics statistics receiving the words of the file; must not track keywords or
+   *                   frequencies
+   * @param chars      array-backed window receiving decoded characters
+   * @param onRead     receives the number of bytes of every read
+   * @throws IOException if the file cannot be read or decoded
+   */
+  public void scan(Path file, WordStatistics statistics, CharBuffer chars, LongConsumer onRead)
+      throws IOException {
+    try (SeekableByteChannel channel = Files.newByteChannel(file)) {
+      ByteBuffer window = ByteBuffer.allocate(getWindowSize());
+      boolean endOfInput = false;
+      while (window.position() < SNIFF_BYTES && !endOfInput) {
+        endOfInput = read(channel, window, onRead);
+      }
+      // Sniff the same head as a scan without the cache, so both decode alike
+      int sample = Math.min(window.position(), SNIFF_BYTES);
+      DetectedEncoding encoding = CharsetSniffer.sniff(window.array(), 0, sample,
+          endOfInput && sample == window.position(), IndexerConfig.getFallbackCharset());
+      if (!isLineBreakByte(encoding.getCharset())) {
+        window.flip().position(encoding.getBomLength());
+        scanUncached(channel, window, endOfInput, statistics, chars, encoding, onRead);
+        logger.debug("Scanned {} as {} without chunking", file, encoding);
+        return;
+      }
+
+      byte[] bytes = window.array();
+      int start = encoding.getBomLength();
+      int end = window.position();
+      int position = start;
+      long gear = 0;
+      boolean boundaryDue = false;
+      int chunks = 0;
+      int cached = 0;
+      while (true) {
+        if (position == end) {
+          if (endOfInput) {
+            break;
+          }
+          if (start > 0) {
+            System.arraycopy(bytes, start, bytes, 0, end - start);
+            end -= start;
+            position -= start;
+            start = 0;
+          }
+          if (end == bytes.length) {
+            // No line break to end the chunk: scan the rest as one run
+            window.position(start).limit(end);
+            scanUncached(channel, window, false, statistics, chars, encoding, onRead);
+            logger.debug("Scanned {} as {}: {} of {} chunks cached, then a run without line "
+                + "breaks", file, encoding, cached, chunks);
+            return;
+          }
+          window.clear().position(end);
+          endOfInput = read(channel, window, onRead);
+          end = window.position();
+          continue;
+        }
+        byte b = bytes[position++];
+        int length = position - start;
+        // The gear hash only depends on the last 64 bytes, so it is rolled from just before the
+        // minimum chunk size on
+        if (length > minChunkSize - Long.SIZE) {
+          gear = (gear << 1) + GEAR[b & 0xff];
+          if (length >= minChunkSize && (gear & boundaryMask) == 0) {
+            boundaryDue = true;
+          }
+        }
+        if (b == '\n' && (boundaryDue || length >= maxChunkSize)) {
+          cached += mergeChunk(bytes, start, length, encoding, statistics, chars) ? 1 : 0;
+          chunks++;
+          start = position;
+          boundaryDue = false;
+        }
+      }
+      if (end > start) {
+        cached += mergeChunk(bytes, start, end - start, encoding, statistics, chars) ? 1 : 0;
+        chunks++;
+      }
+      logger.debug("Scanned {} as {}: {} of {} chunks cached", file, encoding, cached, chunks);
+    }
+  }
+
+  /**
+   * @return bytes of the read window of a scan, large enough for the longest chunk
+   */
+  public int getWindowSize() {
+    return Math.max(4 * maxChunkSize, SNIFF_BYTES);
+  }
+
+  /**
+   * Merges the cached statistics of a chunk, tokenizing and caching them first on a miss.
+   *
+   * @return {@code true} if the chunk was cached
+   */
+  private boolean mergeChunk(byte[] bytes, int offset, int length, DetectedEncoding encoding,
+      WordStatistics statistics, CharBuffer chars) throws IOException {
+    Key key = new Key(hash(bytes, offset, length), length, encoding.toString());
+    WordStatistics chunk = get(key);
+    boolean hit = chunk != null;
+    if (hit) {
+      hits.increment();
+    } else {
+      misses.increment();
+      chunk = new WordStatistics(0);
+      TextScanner scanner = new TextScanner(chunk, chars, encoding);
+      scanner.feed(ByteBuffer.wrap(bytes, offset, length), true);
+      scanner.finish();
+      put(key, chunk);
+    }
+    statistics.merge(chunk);
+    return hit;
+  }
+
+  /**
+   * Tokenizes the rest of a file straight into its statistics.
+   */
+  private static void scanUncached(SeekableByteChannel channel, ByteBuffer window,
+      boolean endOfInput, WordStatistics statistics, CharBuffer chars, DetectedEncoding encoding,
+      LongConsumer onRead) throws IOException {
+    TextScanner scanner = new TextScanner(statistics, chars, encoding);
+    while (true) {
+      scanner.feed(window, endOfInput);
+      if (endOfInput) {
+        break;
+      }
+      window.compact();
+      endOfInput = read(channel, window, onRead);
+      window.flip();
+    }
+    scanner.finish();
+  }
+
+  private static boolean read(SeekableByteChannel channel, ByteBuffer window, LongConsumer onRead)
+      throws IOException {
+    int count = channel.read(window);
+    if (count < 0) {
+      return true;
+    }
+    onRead.accept(count);
+    return false;
+  }
+
+  /**
+   * @return whether the charset encodes a line feed as the single byte {@code 0x0A} that never
+   *     occurs inside another character, so chunks can be cut at that byte
+   */
+  static boolean isLineBreakByte(Charset charset) {
+    return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII)
+        || Arrays.equals("\n".getBytes(charset), new byte[] {'\n'})
+        && charset.newEncoder().maxBytesPerChar() == 1.0f;
+  }
+
+  /**
+   * 64-bit hash of a chunk, eight bytes per multiply; the tail and the length are folded in so
+   * chunks differing in a single byte spread over all bits
+   */
+  static long hash(byte[] bytes, int offset, int length) {
+    long hash = 0xcbf29ce484222325L ^ length;
+    int end = offset + length;
+    int i = offset;
+    for (; i + Long.BYTES <= end; i += Long.BYTES) {
+      hash = Long.rotateLeft((hash ^ (long) LONGS.get(bytes, i)) * 0x9e3779b97f4a7c15L, 29);
+    }
+    for (; i < end; i++) {
+      hash = (hash ^ (bytes[i] & 0xff)) * 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    return hash ^ hash >>> 33;
+  }
+
+  private synchronized WordStatistics get(Key key) {
+    Entry entry = entries.get(key);
+    return entry != null ? entry.statistics : null;
+  }
+
+  private synchronized void put(Key key, WordStatistics statistics) {
+    long bytes = ENTRY_OVERHEAD_BYTES + statistics.getMemoryBytes()
+        + statistics.getLengthHistogram().getMemoryBytes();
+    if (bytes > memoryBudget) {
+      return;
+    }
+    Entry previous = entries.put(key, new Entry(statistics, bytes));
+    memoryBytes += bytes - (previous != null ? previous.bytes : 0);
+    Iterator<Entry> eldest = entries.values().iterator();
+    while (memoryBytes > memoryBudget && eldest.hasNext()) {
+      memoryBytes -= eldest.next().bytes;
+      eldest.remove();
+    }
+  }
+
+  /**
+   * @return chunks served from the cache so far
+   */
+  public long getHits() {
+    return hits.sum();
+  }
+
+  /**
+   * @return chunks tokenized so far because they were not cached
+   */
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  /**
+   * @return number of cached chunks
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * @return estimated heap bytes of the cached statistics
+   */
+  public synchronized long getMemoryBytes() {
+    return memoryBytes;
+  }
+
+  /**
+   * Cache key: hash and length of the chunk bytes and the encoding they were decoded with.
+   */
+  private static final class Key {
+
+    private final long hash;
+    private final int length;
+    private final String encoding;
+
+    private Key(long hash, int length, String encoding) {
+      this.hash = hash;
+      this.length = length;
+      this.encoding = encoding;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) other;
+      return hash == key.hash && length == key.length && encoding.equals(key.encoding);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(hash, length, encoding);
+    }
+  }
+
+  private static final class Entry {
+
+    private final WordStatistics statistics;
+    private final long bytes;
+
+    private Entry(WordStatistics statistics, long bytes) {
+      this.statistics = statistics;
+      this.bytes = bytes;
+    }
+  }
+}
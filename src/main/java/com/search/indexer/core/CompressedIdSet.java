@@ -0,0 +1,164 @@
+package com.search.indexer.core;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable, compressed set of non-negative int ids. The ids are sorted and stored in whichever of
+ * two encodings is smaller:
+ * <ul>
+ *   <li>a delta-varint list - gaps between consecutive ids as 7-bit groups, which suits sparse
+ *   sets drawn from a large dictionary</li>
+ *   <li>a bitmap over {@code [0, maxId]} - which suits dense sets of small ids</li>
+ * </ul>
+ */
+public final class CompressedIdSet {
+
+  private static final CompressedIdSet EMPTY = new CompressedIdSet(new byte[0], 0, false);
+
+  private final byte[] data;
+  private final int size;
+  private final boolean bitmap;
+
+  private CompressedIdSet(byte[] data, int size, boolean bitmap) {
+    this.data = data;
+    this.size = size;
+    this.bitmap = bitmap;
+  }
+
+  /**
+   * Builds a set from the first {@code count} entries of {@code ids}. The array is sorted in place
+   * and duplicates are dropped.
+   *
+   * @param ids   ids to encode, all non-negative
+   * @param count number of valid entries in {@code ids}
+   * @return the compressed set
+   */
+  public static CompressedIdSet of(int[] ids, int count) {
+    if (count == 0) {
+      return EMPTY;
+    }
+    Arrays.sort(ids, 0, count);
+    if (ids[0] < 0) {
+      throw new IllegalArgumentException("Ids must be non-negative: " + ids[0]);
+    }
+
+    byte[] buffer = new byte[count * 5];
+    int position = 0;
+    int distinct = 0;
+    int previous = -1;
+    for (int i = 0; i < count; i++) {
+      int id = ids[i];
+      if (id == previous) {
+        continue;
+      }
+      position = writeVarint(buffer, position, id - previous - 1);
+      previous = id;
+      distinct++;
+    }
+
+    int bitmapBytes = (previous >>> 3) + 1;
+    if (bitmapBytes < position) {
+      byte[] bits = new byte[bitmapBytes];
+      for (int i = 0; i < count; i++) {
+        bits[ids[i] >>> 3] |= (byte) (1 << (ids[i] & 7));
+      }
+      return new CompressedIdSet(bits, distinct, true);
+    }
+    return new CompressedIdSet(Arrays.copyOf(buffer, position), distinct, false);
+  }
+
+  /**
+   * @return number of distinct ids in the set
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return encoded size in bytes, excluding object headers
+   */
+  public int encodedBytes() {
+    return data.length;
+  }
+
+  /**
+   * @param id id to test
+   * @return {@code true} if the set contains the id
+   */
+  public boolean contains(int id) {
+    if (id < 0) {
+      return false;
+    }
+    if (bitmap) {
+      int index = id >>> 3;
+      return index < data.length && (data[index] & (1 << (id & 7))) != 0;
+    }
+    int position = 0;
+    int current = -1;
+    while (position < data.length && current < id) {
+      int gap = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = data[position++];
+        gap |= (b & 0x7F) << shift;
+        shift += 7;
+      } while (b < 0);
+      current += gap + 1;
+    }
+    return current == id;
+  }
+
+  /**
+   * Visits every id in ascending order.
+   *
+   * @param consumer receives each id
+   */
+  public void forEach(IntConsumer consumer) {
+    if (bitmap) {
+      for (int index = 0; index < data.length; index++) {
+        int bits = data[index] & 0xFF;
+        while (bits != 0) {
+          int bit = Integer.numberOfTrailingZeros(bits);
+          consumer.accept((index << 3) | bit);
+          bits &= bits - 1;
+        }
+      }
+      return;
+    }
+    int position = 0;
+    int previous = -1;
+    while (position < data.length) {
+      int gap = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = data[position++];
+        gap |= (b & 0x7F) << shift;
+        shift += 7;
+      } while (b < 0);
+      previous += gap + 1;
+      consumer.accept(previous);
+    }
+  }
+
+  /**
+   * @return the ids in ascending order
+   */
+  public int[] toArray() {
+    int[] result = new int[size];
+    int[] index = {0};
+    forEach(id -> result[index[0]++] = id);
+    return result;
+  }
+
+  private static int writeVarint(byte[] buffer, int position, int value) {
+    while ((value & ~0x7F) != 0) {
+      buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer[position++] = (byte) value;
+    return position;
+  }
+}
@@ -0,0 +1,260 @@
+package com.search.indexer.core;
+
+import com.search.indexer.config.IndexerConfig;
+import com.search.indexer.model.CorpusReport;
+import com.search.indexer.model.FileFailure;
+import com.search.indexer.model.TermCount;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Merges per-file statistics into corpus-wide totals while files are processed concurrently.
+ * Counters are striped {@link LongAdder}s, so workers adding results never contend on them. The
+ * vocabulary is hash-striped over {@value #VOCABULARY_STRIPES} {@link SpillingWordSet}s, each
+ * under its own lock and a share of the long-word memory budget, spilling sorted runs to disk
+ * beyond it; workers adding words only meet when their words fall in the same stripe.
+ * {@link #toReport()} joins the disjoint stripes into one set, adopting their runs without
+ * rewriting them, and hands it to the report. An aggregator therefore reports once.
+ *
+ * <p>Word and phrase frequencies are the exception: they are merged into corpus tables under a
+ * lock, after which the file keeps only its top terms unless the aggregator retains its tables.
+ * The merge is linear in the distinct words of one file, small next to scanning it. Statistics
+ * whose tables were already summarized, such as results aggregated a second time, contribute the
+ * counts of their top terms only, so corpus counts built from them are lower bounds.
+ */
+public class CorpusAggregator {
+
+  /**
+   * Ranking order: most uppercase words first, then most long words, then path
+   */
+  static final Comparator<FileResult> RANKING = Comparator
+      .comparingInt((FileResult result) -> result.getStatistics().getUppercaseCount()).reversed()
+      .thenComparing(Comparator.comparingInt(
+          (FileResult result) -> result.getStatistics().getLongWordCount()).reversed())
+      .thenComparing(FileResult::getFilePath);
+
+  private final LongAdder fileCount = new LongAdder();
+  private final LongAdder uppercaseTotal = new LongAdder();
+  private final LongAdder longWordTotal = new LongAdder();
+  private static final int VOCABULARY_STRIPES = 16;
+
+  private final SpillingWordSet[] vocabulary = new SpillingWordSet[VOCABULARY_STRIPES];
+  private final long vocabularyMemoryBudget;
+  private final Path spillDirectory;
+  /**
+   * Shared by workers adding results, exclusive for reporting or discarding the batch
+   */
+  private final ReadWriteLock state = new ReentrantReadWriteLock();
+  private final Queue<FileResult> results = new ConcurrentLinkedQueue<>();
+  private final Queue<FileFailure> failures = new ConcurrentLinkedQueue<>();
+  private final Object frequencyLock = new Object();
+  private final WordFrequencyTable wordFrequencies;
+  private final WordFrequencyTable summarizedPhrases;
+  private PhraseCounter phraseFrequencies;
+  private int topTerms;
+  private boolean retainFileFrequencies;
+  private boolean reported;
+  private boolean discarded;
+
+  public CorpusAggregator() {
+    this(IndexerConfig.getCorpusFrequencyMemoryBudget());
+  }
+
+  /**
+   * @param frequencyMemoryBudget estimated heap bytes of the corpus word frequencies before rare
+   *                              words are pruned
+   */
+  public CorpusAggregator(long frequencyMemoryBudget) {
+    this(frequencyMemoryBudget, IndexerConfig.getLongWordsMemoryBudget(),
+        IndexerConfig.getSpillDirectory());
+  }
+
+  /**
+   * @param frequencyMemoryBudget  estimated heap bytes of the corpus word frequencies before rare
+   *                               words are pruned
+   * @param vocabularyMemoryBudget estimated heap bytes of the vocabulary before it spills to disk;
+   *                               0 or less keeps it in memory
+   * @param spillDirectory         directory receiving spilled vocabulary runs
+   */
+  public CorpusAggregator(long frequencyMemoryBudget, long vocabularyMemoryBudget,
+      Path spillDirectory) {
+    long stripeBudget = vocabularyMemoryBudget > 0
+        ? Math.max(1, vocabularyMemoryBudget / VOCABULARY_STRIPES) : vocabularyMemoryBudget;
+    for (int i = 0; i < VOCABULARY_STRIPES; i++) {
+      vocabulary[i] = new SpillingWordSet(stripeBudget, spillDirectory);
+    }
+    this.vocabularyMemoryBudget = vocabularyMemoryBudget;
+    this.spillDirectory = spillDirectory;
+    this.wordFrequencies = new WordFrequencyTable(frequencyMemoryBudget);
+    this.summarizedPhrases = new WordFrequencyTable(frequencyMemoryBudget);
+  }
+
+  /**
+   * Adds the statistics of one file. Safe to call from many threads at once. A result added after
+   * {@link #discard()} is closed instead.
+   *
+   * @param result the completed file result
+   * @return {@code false} if the batch was discarded and the result closed
+   * @throws IllegalStateException if the aggregator has already been reported
+   */
+  public boolean add(FileResult result) {
+    WordStatistics statistics = result.getStatistics();
+    state.readLock().lock();
+    try {
+      if (discarded) {
+        result.close();
+        return false;
+      }
+      if (reported) {
+        throw new IllegalStateException("Corpus has already been reported");
+      }
+      // Compacted words resolve to canonical dictionary strings, so the vocabulary shares them
+      statistics.forEachLongWord(this::addToVocabulary);
+      results.add(result);
+    } finally {
+      state.readLock().unlock();
+    }
+    fileCount.increment();
+    uppercaseTotal.add(statistics.getUppercaseCount());
+    longWordTotal.add(statistics.getLongWordCount());
+    if (statistics.isTrackingFrequencies()) {
+      mergeFrequencies(statistics);
+    } else if (!statistics.getTopWords().isEmpty() || !statistics.getTopPhrases().isEmpty()) {
+      mergeSummaries(statistics);
+    }
+    return true;
+  }
+
+  private void addToVocabulary(String word) {
+    SpillingWordSet stripe = vocabulary[Math.floorMod(word.hashCode(), VOCABULARY_STRIPES)];
+    synchronized (stripe) {
+      stripe.add(word);
+    }
+  }
+
+  private void mergeSummaries(WordStatistics statistics) {
+    synchronized (frequencyLock) {
+      for (TermCount word : statistics.getTopWords()) {
+        wordFrequencies.add(word.getTerm(), (int) Math.min(Integer.MAX_VALUE, word.getCount()));
+      }
+      for (TermCount phrase : statistics.getTopPhrases()) {
+        summarizedPhrases.add(phrase.getTerm(),
+            (int) Math.min(Integer.MAX_VALUE, phrase.getCount()));
+      }
+      topTerms = Math.max(topTerms,
+          Math.max(statistics.getTopWords().size(), statistics.getTopPhrases().size()));
+    }
+  }
+
+  private void mergeFrequencies(WordStatistics statistics) {
+    synchronized (frequencyLock) {
+      wordFrequencies.merge(statistics.getWordFrequencies());
+      if (phraseFrequencies == null) {
+        phraseFrequencies = statistics.getPhraseFrequencies().emptyCopy();
+      }
+      phraseFrequencies.merge(statistics.getPhraseFrequencies());
+      topTerms = Math.max(topTerms, phraseFrequencies.getCapacity());
+    }
+    if (!retainFileFrequencies) {
+      statistics.summarizeFrequencies();
+    }
+  }
+
+  /**
+   * Leaves the frequency tables of added results in place instead of summarizing them, for
+   * callers that keep the results and aggregate them again exactly. Call before adding results.
+   */
+  void retainFileFrequencies() {
+    retainFileFrequencies = true;
+  }
+
+  /**
+   * Records a file that was skipped. Safe to call from many threads at once.
+   *
+   * @param failure the failure of the file
+   */
+  public void addFailure(FileFailure failure) {
+    failures.add(failure);
+  }
+
+  /**
+   * Drops a batch that will not be reported, such as one aborted by a failure: deletes the spilled
+   * vocabulary and closes every result added so far or later.
+   */
+  public void discard() {
+    state.writeLock().lock();
+    try {
+      discarded = true;
+      for (SpillingWordSet stripe : vocabulary) {
+        stripe.delete();
+      }
+    } finally {
+      state.writeLock().unlock();
+    }
+    results.forEach(FileResult::close);
+  }
+
+  /**
+   * Builds the report from everything added so far. The report takes over the vocabulary, so no
+   * further results can be added.
+   *
+   * @return corpus totals, sorted vocabulary, per-file ranking, failures ordered by path and the
+   *     most frequent words and phrases when frequencies were tracked
+   * @throws IllegalStateException if the aggregator has already been reported or discarded
+   */
+  public CorpusReport toReport() {
+    SpillingWordSet words = new SpillingWordSet(vocabularyMemoryBudget, spillDirectory);
+    state.writeLock().lock();
+    try {
+      if (reported || discarded) {
+        throw new IllegalStateException("Corpus has already been reported");
+      }
+      reported = true;
+      for (SpillingWordSet stripe : vocabulary) {
+        words.absorb(stripe);
+      }
+      words.consolidate();
+    } finally {
+      state.writeLock().unlock();
+    }
+    List<FileResult> ranked = new ArrayList<>(results);
+    ranked.sort(RANKING);
+    List<FileFailure> sortedFailures = new ArrayList<>(failures);
+    sortedFailures.sort(Comparator.comparing(FileFailure::getFilePath));
+    List<TermCount> topWords;
+    List<TermCount> topPhrases;
+    synchronized (frequencyLock) {
+      topWords = wordFrequencies.top(topTerms);
+      topPhrases = combine(phraseFrequencies != null ? phraseFrequencies.top() : List.of(),
+          summarizedPhrases.top(topTerms), topTerms);
+    }
+    return new CorpusReport(fileCount.sum(), uppercaseTotal.sum(), longWordTotal.sum(),
+        words, ranked, sortedFailures, topWords, topPhrases);
+  }
+
+  /**
+   * @return the terms of both lists with their counts summed, most frequent first
+   */
+  static List<TermCount> combine(List<TermCount> first, List<TermCount> second,
+      int limit) {
+    if (second.isEmpty()) {
+      return first;
+    }
+    Map<String, Long> counts = new HashMap<>();
+    first.forEach(term -> counts.merge(term.getTerm(), term.getCount(), Long::sum));
+    second.forEach(term -> counts.merge(term.getTerm(), term.getCount(), Long::sum));
+    List<TermCount> combined = new ArrayList<>(counts.size());
+    counts.forEach((term, count) -> combined.add(new TermCount(term, count)));
+    combined.sort(TermCount.BY_COUNT);
+    return combined.subList(0, Math.min(limit, combined.size()));
+  }
+}
@@ -0,0 +1,590 @@
+package com.search.indexer.core;
+
+import com.search.indexer.config.IndexerConfig;
+import com.search.indexer.exception.FileProcessingException;
+import com.search.indexer.io.CharsetSniffer;
+import com.search.indexer.io.DetectedEncoding;
+import com.search.indexer.model.Estimate;
+import com.search.indexer.model.SampleReport;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Estimates the totals of a corpus from a random sample instead of scanning every file, for
+ * capacity planning over archives too large to index in full.
+ *
+ * <p>Files are grouped into strata of sizes within a factor of four, and a share of the files of
+ * every stratum is drawn at random, at least two where there are. Sampled files larger than one
+ * range are split into ranges of about {@code rangeSize} bytes that start and end after a line
+ * break, where the tokenizer holds no partial word or open tag, and a share of the ranges is drawn
+ * again. Each drawn range is scanned into its own {@link WordStatistics}, so the counts are those
+ * of a normal scan. Totals are extrapolated with the two-stage estimator for stratified samples
+ * and reported with a Student-t confidence interval from its estimated variance. Strata of a few
+ * files make that variance itself uncertain, so the degrees of freedom follow Satterthwaite's
+ * approximation over the stratum and range samples it sums; the lower bound is never below the
+ * count actually seen.
+ *
+ * <p>Distinct words do not add up across ranges, so the long-word vocabulary is estimated from how
+ * many sampled ranges each word occurs in with the Chao2 estimator and its log-normal interval.
+ * Chao2 is a lower-bound estimator: a vocabulary whose rare words keep growing with the corpus is
+ * underestimated. The words seen are held in memory while sampling.
+ *
+ * <p>The draws depend only on the seed and the file sizes, so a run over an unchanged corpus is
+ * reproducible whatever the number of threads. Files in encodings in which a line break is not
+ * the single byte {@code 0x0A}, such as UTF-16, are scanned whole when drawn.
+ */
+@Slf4j
+public class CorpusSampler {
+
+  private static final Logger logger = LoggerFactory.getLogger(CorpusSampler.class);
+  private static final int WINDOW_SIZE = IndexerConfig.getBufferSize();
+  private static final int MIN_WORD_LENGTH = IndexerConfig.getMinWordLength();
+  /**
+   * Bytes read at a time while looking for the line break that ends a range boundary
+   */
+  private static final int BOUNDARY_PROBE_BYTES = 1024;
+  /**
+   * Smallest sample of a stratum or a file that still yields a variance
+   */
+  private static final int MIN_SAMPLE = 2;
+  private static final int WORDS = 0;
+  private static final int UPPERCASE = 1;
+  private static final int LONG_WORDS = 2;
+  private static final int METRICS = 3;
+
+  private final double fileRate;
+  private final double rangeRate;
+  private final long rangeSize;
+  private final long seed;
+  private final double confidence;
+  private final int threads;
+
+  /**
+   * @param fileRate   share of the files of every size stratum to sample
+   * @param rangeRate  share of the ranges of a sampled file to scan
+   * @param rangeSize  bytes per range; smaller files are scanned whole
+   * @param seed       seed of the random draws
+   * @param confidence confidence level of the intervals, such as 0.95
+   * @param threads    number of files scanned concurrently
+   */
+  public CorpusSampler(double fileRate, double rangeRate, long rangeSize, long seed,
+      double confidence, int threads) {
+    if (!(fileRate > 0 && fileRate <= 1) || !(rangeRate > 0 && rangeRate <= 1)) {
+      throw new IllegalArgumentException(
+          "Sampling rates must be in (0, 1]: " + fileRate + ", " + rangeRate);
+    }
+    if (rangeSize <= 0 || threads <= 0) {
+      throw new IllegalArgumentException("Range size and threads must be positive");
+    }
+    if (!(confidence > 0 && confidence < 1)) {
+      throw new IllegalArgumentException("Confidence must be in (0, 1): " + confidence);
+    }
+    this.fileRate = fileRate;
+    this.rangeRate = rangeRate;
+    this.rangeSize = rangeSize;
+    this.seed = seed;
+    this.confidence = confidence;
+    this.threads = threads;
+  }
+
+  /**
+   * @return a sampler configured by the {@code sample.*} properties
+   */
+  public static CorpusSampler fromConfig() {
+    return new CorpusSampler(IndexerConfig.getSampleRate(), IndexerConfig.getSampleRangeRate(),
+        IndexerConfig.getSampleRangeSize(), IndexerConfig.getSampleSeed(),
+        IndexerConfig.getSampleConfidence(), IndexerConfig.getProcessingThreads());
+  }
+
+  /**
+   * Draws the sample, scans it and extrapolates the corpus totals.
+   *
+   * @param filePaths files of the corpus
+   * @return the estimated totals with their confidence intervals
+   * @throws NullPointerException     if filePaths is null
+   * @throws IllegalArgumentException if filePaths is empty
+   * @throws FileProcessingException  if a file size cannot be read or a sampled file cannot be
+   *                                  scanned
+   */
+  public SampleReport estimate(List<Path> filePaths) {
+    Objects.requireNonNull(filePaths, "filePaths cannot be null");
+    if (filePaths.isEmpty()) {
+      throw new IllegalArgumentException("filePaths cannot be empty");
+    }
+
+    TreeMap<Integer, List<Path>> strata = new TreeMap<>();
+    long totalBytes = 0;
+    for (Path filePath : filePaths) {
+      long size = size(filePath);
+      totalBytes += size;
+      strata.computeIfAbsent(stratum(size), key -> new ArrayList<>()).add(filePath);
+    }
+
+    // Draw in a fixed order, so the sample depends only on the seed and the file sizes
+    SplittableRandom random = new SplittableRandom(seed);
+    List<Stratum> drawn = new ArrayList<>(strata.size());
+    List<FilePlan> plans = new ArrayList<>();
+    for (List<Path> files : strata.values()) {
+      files.sort(null);
+      Stratum stratum = new Stratum(files.size());
+      for (long index : draw(files.size(), sampleSize(files.size(), fileRate), random)) {
+        plans.add(new FilePlan(files.get((int) index), stratum, random.nextLong()));
+      }
+      drawn.add(stratum);
+    }
+
+    Map<String, Integer> incidence = new ConcurrentHashMap<>();
+    List<FileSample> samples = scanAll(plans, incidence);
+    for (int i = 0; i < plans.size(); i++) {
+      plans.get(i).stratum.samples.add(samples.get(i));
+    }
+
+    double z = zScore(confidence);
+    double[] total = new double[METRICS];
+    double[] variance = new double[METRICS];
+    // Squared variance components over their degrees of freedom, for Satterthwaite
+    double[] varianceSquares = new double[METRICS];
+    double[] observed = new double[METRICS];
+    long sampledBytes = 0;
+    long units = 0;
+    boolean census = true;
+    for (Stratum stratum : drawn) {
+      int n = stratum.samples.size();
+      double expansion = (double) stratum.files / n;
+      census &= n == stratum.files;
+      double[][] fileTotals = new double[METRICS][n];
+      for (int i = 0; i < n; i++) {
+        FileSample sample = stratum.samples.get(i);
+        int m = sample.values[0].length;
+        sampledBytes += sample.bytesRead;
+        units += m;
+        census &= m == sample.ranges;
+        for (int metric = 0; metric < METRICS; metric++) {
+          double sum = 0;
+          for (double value : sample.values[metric]) {
+            sum += value;
+          }
+          observed[metric] += sum;
+          fileTotals[metric][i] = sum * sample.ranges / m;
+          // Variance from sampling ranges within the file
+          double rangeVariance = expansion * sample.ranges * sample.ranges
+              * (1 - (double) m / sample.ranges) * sampleVariance(sample.values[metric]) / m;
+          variance[metric] += rangeVariance;
+          varianceSquares[metric] += squareOverDegrees(rangeVariance, m - 1);
+        }
+      }
+      for (int metric = 0; metric < METRICS; metric++) {
+        for (double fileTotal : fileTotals[metric]) {
+          total[metric] += expansion * fileTotal;
+        }
+        // Variance from sampling files within the stratum
+        double fileVariance = (double) stratum.files * stratum.files
+            * (1 - (double) n / stratum.files) * sampleVariance(fileTotals[metric]) / n;
+        variance[metric] += fileVariance;
+        varianceSquares[metric] += squareOverDegrees(fileVariance, n - 1);
+      }
+    }
+
+    long q1 = incidence.values().stream().filter(count -> count == 1).count();
+    long q2 = incidence.values().stream().filter(count -> count == 2).count();
+    Estimate vocabulary = census ? Estimate.exact(incidence.size())
+        : chao2(incidence.size(), q1, q2, units, z);
+    logger.debug("Sampled {} ranges of {} files; {} long words seen once, {} twice", units,
+        plans.size(), q1, q2);
+    return new SampleReport(filePaths.size(), plans.size(), totalBytes, sampledBytes,
+        strata.size(), confidence,
+        interval(total[WORDS], variance[WORDS], varianceSquares[WORDS], observed[WORDS]),
+        interval(total[UPPERCASE], variance[UPPERCASE], varianceSquares[UPPERCASE],
+            observed[UPPERCASE]),
+        interval(total[LONG_WORDS], variance[LONG_WORDS], varianceSquares[LONG_WORDS],
+            observed[LONG_WORDS]),
+        vocabulary, incidence.size());
+  }
+
+  private List<FileSample> scanAll(List<FilePlan> plans, Map<String, Integer> incidence) {
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, plans.size()));
+    try {
+      List<Future<FileSample>> futures = new ArrayList<>(plans.size());
+      for (FilePlan plan : plans) {
+        futures.add(executor.submit(() -> scan(plan, incidence)));
+      }
+      List<FileSample> samples = new ArrayList<>(plans.size());
+      for (Future<FileSample> future : futures) {
+        samples.add(future.get());
+      }
+      return samples;
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new FileProcessingException(cause);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new FileProcessingException("Interrupted while sampling files", e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Scans the drawn ranges of one file, each into its own statistics.
+   */
+  private FileSample scan(FilePlan plan, Map<String, Integer> incidence) {
+    try (SeekableByteChannel channel = Files.newByteChannel(plan.path)) {
+      RangeReader reader = new RangeReader(channel);
+      DetectedEncoding encoding = reader.sniff();
+      long ranges = ChunkCache.isLineBreakByte(encoding.getCharset())
+          ? Math.max(1, (reader.size + rangeSize - 1) / rangeSize) : 1;
+      long[] drawn = draw(ranges, sampleSize(ranges, rangeRate), new SplittableRandom(plan.seed));
+      double[][] values = new double[METRICS][drawn.length];
+      for (int i = 0; i < drawn.length; i++) {
+        long range = drawn[i];
+        long from = range == 0 ? encoding.getBomLength() : reader.boundary(range * rangeSize);
+        long to = range == ranges - 1 ? reader.size : reader.boundary((range + 1) * rangeSize);
+        WordStatistics statistics = new WordStatistics(0);
+        reader.scan(from, to, statistics, encoding);
+        values[WORDS][i] = statistics.getWordCount();
+        values[UPPERCASE][i] = statistics.getUppercaseCount();
+        values[LONG_WORDS][i] = statistics.getLengthHistogram().countLongerThan(MIN_WORD_LENGTH);
+        statistics.forEachLongWord(word -> incidence.merge(word, 1, Integer::sum));
+      }
+      logger.debug("Sampled {} of {} ranges of {} as {}", drawn.length, ranges, plan.path,
+          encoding);
+      return new FileSample(ranges, values, reader.bytesRead);
+    } catch (IOException e) {
+      logger.error("Error sampling file {}: {}", plan.path, e.getMessage(), e);
+      throw new FileProcessingException("Failed to sample file: " + plan.path, e);
+    }
+  }
+
+  private static long size(Path filePath) {
+    try {
+      return Files.size(filePath);
+    } catch (IOException e) {
+      throw new FileProcessingException("Failed to read the size of file: " + filePath, e);
+    }
+  }
+
+  /**
+   * @param size file size in bytes
+   * @return size stratum of the file: sizes within a factor of four share a stratum
+   */
+  static int stratum(long size) {
+    return (Long.SIZE - Long.numberOfLeadingZeros(size) + 1) / 2;
+  }
+
+  /**
+   * @return number of units to draw out of {@code population} at the given rate
+   */
+  static int sampleSize(long population, double rate) {
+    long size = Math.max(MIN_SAMPLE, (long) Math.ceil(rate * population));
+    return (int) Math.min(population, size);
+  }
+
+  /**
+   * Draws distinct indexes without replacement with Floyd's algorithm.
+   *
+   * @return {@code count} distinct indexes below {@code population}, in ascending order
+   */
+  static long[] draw(long population, int count, SplittableRandom random) {
+    Set<Long> drawn = new HashSet<>(2 * count);
+    for (long candidate = population - count; candidate < population; candidate++) {
+      long index = random.nextLong(candidate + 1);
+      drawn.add(drawn.contains(index) ? candidate : index);
+    }
+    return drawn.stream().mapToLong(Long::longValue).sorted().toArray();
+  }
+
+  private static double sampleVariance(double[] values) {
+    if (values.length < 2) {
+      return 0;
+    }
+    double mean = 0;
+    for (double value : values) {
+      mean += value;
+    }
+    mean /= values.length;
+    double squares = 0;
+    for (double value : values) {
+      squares += (value - mean) * (value - mean);
+    }
+    return squares / (values.length - 1);
+  }
+
+  private static double squareOverDegrees(double variance, int degrees) {
+    return degrees > 0 ? variance * variance / degrees : 0;
+  }
+
+  /**
+   * @param variance        estimated variance of the total, a sum of independent components
+   * @param varianceSquares sum of each squared component over its degrees of freedom
+   * @return Student-t interval of a total whose lower bound is at least the count seen, with the
+   *     Satterthwaite degrees of freedom of the variance
+   */
+  private Estimate interval(double total, double variance, double varianceSquares,
+      double observed) {
+    double degrees = varianceSquares > 0 ? variance * variance / varianceSquares
+        : Double.POSITIVE_INFINITY;
+    double t = tScore(confidence, degrees);
+    double error = Math.sqrt(variance);
+    double lower = Math.min(total, Math.max(observed, total - t * error));
+    return new Estimate(total, error, lower, total + t * error);
+  }
+
+  /**
+   * Chao2 estimate of the number of distinct words with its log-normal interval, whose lower bound
+   * is never below the words seen.
+   *
+   * @param observed distinct words seen
+   * @param q1       words seen in exactly one sampled unit
+   * @param q2       words seen in exactly two sampled units
+   * @param units    number of sampled units
+   * @param z        standard normal quantile of the interval
+   * @return the estimated number of distinct words
+   */
+  static Estimate chao2(long observed, long q1, long q2, long units, double z) {
+    if (units < 2) {
+      return new Estimate(observed, 0, observed, Double.POSITIVE_INFINITY);
+    }
+    double a = (units - 1) / (double) units;
+    double estimate;
+    double variance;
+    if (q2 > 0) {
+      double ratio = (double) q1 / q2;
+      estimate = observed + a * q1 * ratio / 2;
+      variance = q2 * (a * ratio * ratio / 2 + a * a * Math.pow(ratio, 3)
+          + a * a * Math.pow(ratio, 4) / 4);
+    } else {
+      // Bias-corrected form, defined without doubletons
+      estimate = observed + a * q1 * (q1 - 1) / 2;
+      variance = a * q1 * (q1 - 1) / 2 + a * a * q1 * Math.pow(2 * q1 - 1, 2) / 4
+          - a * a * Math.pow(q1, 4) / (4 * estimate);
+    }
+    double unseen = estimate - observed;
+    if (unseen <= 0 || variance <= 0) {
+      return new Estimate(estimate, Math.sqrt(Math.max(0, variance)), observed, estimate);
+    }
+    double factor = Math.exp(z * Math.sqrt(Math.log(1 + variance / (unseen * unseen))));
+    return new Estimate(estimate, Math.sqrt(variance), observed + unseen / factor,
+        observed + unseen * factor);
+  }
+
+  /**
+   * Standard normal quantile of a two-sided interval (Abramowitz and Stegun 26.2.23, absolute
+   * error below 4.5e-4).
+   *
+   * @param confidence confidence level of the interval
+   * @return the half-width of the interval in standard errors
+   */
+  static double zScore(double confidence) {
+    double tail = (1 - confidence) / 2;
+    double t = Math.sqrt(-2 * Math.log(tail));
+    return t - (2.515517 + 0.802853 * t + 0.010328 * t * t)
+        / (1 + 1.432788 * t + 0.189269 * t * t + 0.001308 * t * t * t);
+  }
+
+  /**
+   * Student-t quantile of a two-sided interval for real degrees of freedom of at least one (Hill,
+   * Algorithm 396, exact for 1 and 2 degrees of freedom); the normal quantile when they are
+   * infinite.
+   *
+   * @param confidence confidence level of the interval
+   * @param degrees    degrees of freedom of the variance estimate
+   * @return the half-width of the interval in standard errors
+   */
+  static double tScore(double confidence, double degrees) {
+    if (Double.isInfinite(degrees)) {
+      return zScore(confidence);
+    }
+    double n = Math.max(1, degrees);
+    double p = 1 - confidence;
+    if (n == 1) {
+      return 1 / Math.tan(p * Math.PI / 2);
+    }
+    if (n == 2) {
+      return Math.sqrt(2 / (p * (2 - p)) - 2);
+    }
+    double a = 1 / (n - 0.5);
+    double b = 48 / (a * a);
+    double c = ((20700 * a / b - 98) * a - 16) * a + 96.36;
+    double d = ((94.5 / (b + c) - 3) / b + 1) * Math.sqrt(a * Math.PI / 2) * n;
+    double y = Math.pow(d * p, 2 / n);
+    if (y > 0.05 + a) {
+      // Asymptotic expansion around the normal quantile
+      double x = zScore(confidence);
+      y = x * x;
+      if (n < 5) {
+        c += 0.3 * (n - 4.5) * (x + 0.6);
+      }
+      c = (((0.05 * d * x - 5) * x - 7) * x - 2) * x + b + c;
+      y = (((((0.4 * y + 6.3) * y + 36) * y + 94.5) / c - y - 3) / b + 1) * x;
+      y = Math.expm1(a * y * y);
+    } else {
+      y = ((1 / (((n + 6) / (n * y) - 0.089 * d - 0.822) * (n + 2) * 3) + 0.5 / (n + 4)) * y
+          - 1) * (n + 1) / (n + 2) + 1 / y;
+    }
+    return Math.sqrt(n * y);
+  }
+
+  /**
+   * Reads ranges of one file through a single window. A range boundary at offset {@code o} is the
+   * first position at or after {@code o} that follows a line break, or the end of the file, so
+   * consecutive boundaries split the file into whole lines.
+   */
+  private static final class RangeReader {
+
+    private final SeekableByteChannel channel;
+    private final long size;
+    private final ByteBuffer window = ByteBuffer.allocate(WINDOW_SIZE);
+    private final CharBuffer chars = CharBuffer.allocate(WINDOW_SIZE);
+    /**
+     * Bytes of the file start still held by the window after sniffing
+     */
+    private int head;
+    private long bytesRead;
+
+    private RangeReader(SeekableByteChannel channel) throws IOException {
+      this.channel = channel;
+      this.size = channel.size();
+    }
+
+    /**
+     * Detects the encoding from the same head as a full scan.
+     */
+    private DetectedEncoding sniff() throws IOException {
+      window.clear();
+      int count = 0;
+      while (window.hasRemaining() && count >= 0) {
+        count = read();
+      }
+      head = window.position();
+      return CharsetSniffer.sniff(window.array(), 0, window.position(),
+          window.position() >= size, IndexerConfig.getFallbackCharset());
+    }
+
+    private long boundary(long offset) throws IOException {
+      if (offset >= size) {
+        return size;
+      }
+      long position = offset - 1;
+      channel.position(position);
+      head = 0;
+      while (true) {
+        window.clear().limit(Math.min(BOUNDARY_PROBE_BYTES, window.capacity()));
+        int count = read();
+        if (count < 0) {
+          return size;
+        }
+        byte[] bytes = window.array();
+        for (int i = 0; i < count; i++) {
+          if (bytes[i] == '\n') {
+            return position + i + 1;
+          }
+        }
+        position += count;
+      }
+    }
+
+    private void scan(long from, long to, WordStatistics statistics, DetectedEncoding encoding)
+        throws IOException {
+      TextScanner scanner = new TextScanner(statistics, chars, encoding);
+      if (to <= head) {
+        // Small files were read whole by the sniff
+        scanner.feed(window.limit((int) to).position((int) from), true);
+        scanner.finish();
+        head = 0;
+        return;
+      }
+      head = 0;
+      channel.position(from);
+      window.clear();
+      long remaining = to - from;
+      boolean endOfInput = remaining <= 0;
+      while (!endOfInput) {
+        window.limit(window.position() + (int) Math.min(window.remaining(), remaining));
+        int count = read();
+        remaining -= Math.max(0, count);
+        endOfInput = count < 0 || remaining == 0;
+        window.flip();
+        scanner.feed(window, endOfInput);
+        window.compact();
+      }
+      scanner.finish();
+    }
+
+    private int read() throws IOException {
+      int count = channel.read(window);
+      bytesRead += Math.max(0, count);
+      return count;
+    }
+  }
+
+  /**
+   * Files of one size stratum and the samples drawn from them.
+   */
+  private static final class Stratum {
+
+    private final int files;
+    private final List<FileSample> samples = new ArrayList<>();
+
+    private Stratum(int files) {
+      this.files = files;
+    }
+  }
+
+  private static final class FilePlan {
+
+    private final Path path;
+    private final Stratum stratum;
+    /**
+     * Seed of the range draw, taken from the file draw so it does not depend on scan order
+     */
+    private final long seed;
+
+    private FilePlan(Path path, Stratum stratum, long seed) {
+      this.path = path;
+      this.stratum = stratum;
+      this.seed = seed;
+    }
+  }
+
+  /**
+   * Counts of the drawn ranges of one file, by metric and range.
+   */
+  private static final class FileSample {
+
+    private final long ranges;
+    private final double[][] values;
+    private final long bytesRead;
+
+    private FileSample(long ranges, double[][] values, long bytesRead) {
+      this.ranges = ranges;
+      this.values = values;
+      this.bytesRead = bytesRead;
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package com.search.indexer.core;
+
+/**
+ * Count-Min sketch: {@code depth} rows of {@code width} counters, each item hashed to one counter
+ * per row. An estimate is the minimum of the item's counters, never below its true count and above
+ * it by at most {@code e / width} of all counted occurrences with probability
+ * {@code 1 - exp(-depth)}.
+ *
+ * <p>Updates are conservative: only the counters at the current minimum grow, which tightens the
+ * estimates without losing the upper-bound guarantee. Sketches of the same dimensions merge by
+ * adding counters. Items are given as 64-bit hashes so callers can hash composite keys without
+ * building them. Not thread-safe.
+ */
+public final class CountMinSketch {
+
+  private static final int DEFAULT_DEPTH = 4;
+
+  private final int depth;
+  private final int width;
+  private final int[] counters;
+  private long total;
+
+  /**
+   * @param depth number of rows, each with an independent hash
+   * @param width counters per row, rounded up to a power of two of at most 2<sup>30</sup>
+   */
+  public CountMinSketch(int depth, int width) {
+    if (depth <= 0 || width <= 0) {
+      throw new IllegalArgumentException("Depth and width must be positive");
+    }
+    this.depth = depth;
+    this.width = width == 1 ? 1 : Integer.highestOneBit(width - 1) << 1;
+    this.counters = new int[Math.multiplyExact(depth, this.width)];
+  }
+
+  /**
+   * Creates the widest sketch of the default depth that fits in a memory budget.
+   *
+   * @param memoryBudget bytes of the counters
+   * @return the sketch
+   */
+  public static CountMinSketch forBudget(long memoryBudget) {
+    long counters = Math.max(DEFAULT_DEPTH, memoryBudget / Integer.BYTES);
+    int width = Integer.highestOneBit((int) Math.min(1 << 28, counters / DEFAULT_DEPTH));
+    return new CountMinSketch(DEFAULT_DEPTH, width);
+  }
+
+  /**
+   * Counts occurrences of an item.
+   *
+   * @param hash  64-bit hash of the item
+   * @param count occurrences to add
+   * @return the item's estimate after the update
+   */
+  public int add(long hash, int count) {
+    total += count;
+    int estimate = estimate(hash);
+    long target = Math.min(Integer.MAX_VALUE, (long) estimate + count);
+    long step = BloomFilter.secondHash(hash);
+    for (int row = 0; row < depth; row++) {
+      int index = index(hash, step, row);
+      if (counters[index] < target) {
+        counters[index] = (int) target;
+      }
+    }
+    return (int) target;
+  }
+
+  /**
+   * @param hash 64-bit hash of the item
+   * @return upper estimate of the item's count
+   */
+  public int estimate(long hash) {
+    long step = BloomFilter.secondHash(hash);
+    int estimate = Integer.MAX_VALUE;
+    for (int row = 0; row < depth; row++) {
+      estimate = Math.min(estimate, counters[index(hash, step, row)]);
+    }
+    return estimate;
+  }
+
+  /**
+   * Adds the counters of a sketch of the same dimensions to this one.
+   *
+   * @param other sketch to merge
+   */
+  public void merge(CountMinSketch other) {
+    if (other.depth != depth || other.width != width) {
+      throw new IllegalArgumentException(String.format(
+          "Cannot merge a %dx%d sketch into a %dx%d sketch", other.depth, other.width, depth,
+          width));
+    }
+    for (int i = 0; i < counters.length; i++) {
+      counters[i] = (int) Math.min(Integer.MAX_VALUE, (long) counters[i] + other.counters[i]);
+    }
+    total += other.total;
+  }
+
+  private int index(long hash, long step, int row) {
+    return row * width + (int) ((hash + row * step) & (width - 1));
+  }
+
+  public int getDepth() {
+    return depth;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  /**
+   * @return occurrences counted
+   */
+  public long getTotal() {
+    return total;
+  }
+
+  /**
+   * @return bound on the overestimate of any item, exceeded with probability {@code exp(-depth)}
+   */
+  public long getErrorBound() {
+    return (long) Math.ceil(Math.E * total / width);
+  }
+
+  /**
+   * @return bytes of the counters
+   */
+  public long getMemoryBytes() {
+    return (long) counters.length * Integer.BYTES;
+  }
+}
@@ -0,0 +1,158 @@
+package com.search.indexer.core;
+
+import com.search.indexer.config.IndexerConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Kernel finding the next character of a window at which the tokenizers must stop: whitespace
+ * ending a word, {@code <} opening a tag, or the end of a tag. Everything before the returned
+ * index is plain word or tag content that callers copy in bulk; the character at the index is
+ * re-checked with the exact scalar rules, so a kernel may stop early at a candidate that turns out
+ * not to be a delimiter.
+ *
+ * <p>{@link #SCALAR} tests one character at a time. When the {@code jdk.incubator.vector} module
+ * is present ({@code --add-modules jdk.incubator.vector}), {@link #forKernel(String)} can return a
+ * {@link VectorDelimiterScanner} that compares a whole SIMD register of characters per step.
+ */
+@Slf4j
+public abstract class DelimiterScanner {
+
+  public static final String KERNEL_AUTO = "auto";
+  public static final String KERNEL_VECTOR = "vector";
+  public static final String KERNEL_SCALAR = "scalar";
+  public static final String VECTOR_MODULE = "jdk.incubator.vector";
+  /**
+   * Narrowest register worth using; below it the vector path is not faster than the scalar one
+   */
+  private static final int MIN_VECTOR_LANES = 16;
+
+  public static final DelimiterScanner SCALAR = new Scalar();
+
+  private static final Logger logger = LoggerFactory.getLogger(DelimiterScanner.class);
+  private static DelimiterScanner configured;
+
+  /**
+   * @param buffer source characters
+   * @param from   first index to inspect
+   * @param to     index after the last one to inspect
+   * @return index of the first character in {@code [from, to)} that may be whitespace or
+   *     {@code <}, or {@code to}
+   */
+  public abstract int wordEnd(char[] buffer, int from, int to);
+
+  /**
+   * @param buffer source characters
+   * @param from   first index to inspect
+   * @param to     index after the last one to inspect
+   * @return index of the first {@code >}, {@code \n} or {@code \r} in {@code [from, to)}, or
+   *     {@code to}
+   */
+  public abstract int tagEnd(char[] buffer, int from, int to);
+
+  /**
+   * @param buffer source characters
+   * @param from   first index to inspect
+   * @param to     index after the last one to inspect
+   * @return index of the first character in {@code [from, to)} that may be whitespace, or
+   *     {@code to}
+   */
+  public abstract int whitespace(char[] buffer, int from, int to);
+
+  /**
+   * @return short description of the kernel for logs
+   */
+  public abstract String getName();
+
+  /**
+   * @return the kernel chosen by {@code scan.kernel}, selected once per JVM
+   */
+  public static synchronized DelimiterScanner fromConfig() {
+    if (configured == null) {
+      configured = forKernel(IndexerConfig.getScanKernel());
+      logger.info("Scanning with the {} kernel", configured.getName());
+    }
+    return configured;
+  }
+
+  /**
+   * Selects a kernel. {@code auto} uses the vector kernel when its module is present and the
+   * preferred register holds at least {@value #MIN_VECTOR_LANES} characters, {@code vector} uses it
+   * whenever the module is present, and {@code scalar} never does. Without the module every choice
+   * falls back to {@link #SCALAR}.
+   *
+   * @param kernel {@code auto}, {@code vector} or {@code scalar}
+   * @return the kernel
+   */
+  public static DelimiterScanner forKernel(String kernel) {
+    if (KERNEL_SCALAR.equalsIgnoreCase(kernel)) {
+      return SCALAR;
+    }
+    if (!isVectorModulePresent()) {
+      if (KERNEL_VECTOR.equalsIgnoreCase(kernel)) {
+        logger.warn("scan.kernel=vector needs --add-modules {}; using the scalar kernel",
+            VECTOR_MODULE);
+      }
+      return SCALAR;
+    }
+    try {
+      // Loaded reflectively so the scalar path never links against the incubator module
+      VectorDelimiterScanner vector = (VectorDelimiterScanner) Class.forName(
+          DelimiterScanner.class.getPackageName() + ".VectorDelimiterScanner")
+          .getDeclaredConstructor().newInstance();
+      if (KERNEL_AUTO.equalsIgnoreCase(kernel) && vector.getLanes() < MIN_VECTOR_LANES) {
+        return SCALAR;
+      }
+      return vector;
+    } catch (ReflectiveOperationException | LinkageError e) {
+      logger.warn("Vector kernel unavailable, using the scalar kernel: {}", e.toString());
+      return SCALAR;
+    }
+  }
+
+  /**
+   * @return whether the Vector API module is resolved in the boot layer
+   */
+  public static boolean isVectorModulePresent() {
+    return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+  }
+
+  /**
+   * One character at a time with the exact predicates.
+   */
+  private static final class Scalar extends DelimiterScanner {
+
+    @Override
+    public int wordEnd(char[] buffer, int from, int to) {
+      int i = from;
+      while (i < to && buffer[i] != '<' && !Character.isWhitespace(buffer[i])) {
+        i++;
+      }
+      return i;
+    }
+
+    @Override
+    public int tagEnd(char[] buffer, int from, int to) {
+      int i = from;
+      while (i < to && buffer[i] != '>' && buffer[i] != '\n' && buffer[i] != '\r') {
+        i++;
+      }
+      return i;
+    }
+
+    @Override
+    public int whitespace(char[] buffer, int from, int to) {
+      int i = from;
+      while (i < to && !Character.isWhitespace(buffer[i])) {
+        i++;
+      }
+      return i;
+    }
+
+    @Override
+    public String getName() {
+      return "scalar";
+    }
+  }
+}
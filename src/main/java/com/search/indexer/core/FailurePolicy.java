@@ -0,0 +1,68 @@
+package com.search.indexer.core;
+
+import com.search.indexer.config.IndexerConfig;
+
+/**
+ * How a batch reacts to a file that cannot be processed. Fail-fast aborts the batch with the
+ * file's exception. Continue-on-error retries transient I/O errors with exponential backoff,
+ * then records the file as failed and keeps processing the rest of the batch.
+ */
+public final class FailurePolicy {
+
+  public static final FailurePolicy FAIL_FAST = new FailurePolicy(false, 1, 0);
+  /**
+   * Upper bound of a single backoff delay
+   */
+  private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+  private final boolean continueOnError;
+  private final int maxAttempts;
+  private final long backoffMillis;
+
+  private FailurePolicy(boolean continueOnError, int maxAttempts, long backoffMillis) {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("maxAttempts must be at least 1");
+    }
+    if (backoffMillis < 0) {
+      throw new IllegalArgumentException("backoffMillis cannot be negative");
+    }
+    this.continueOnError = continueOnError;
+    this.maxAttempts = maxAttempts;
+    this.backoffMillis = backoffMillis;
+  }
+
+  /**
+   * @param maxAttempts   attempts per file, including the first
+   * @param backoffMillis delay before the first retry; doubled for every further retry
+   * @return a continue-on-error policy
+   */
+  public static FailurePolicy continueOnError(int maxAttempts, long backoffMillis) {
+    return new FailurePolicy(true, maxAttempts, backoffMillis);
+  }
+
+  /**
+   * @return the policy set by {@code processing.continue.on.error},
+   *     {@code processing.retry.attempts} and {@code processing.retry.backoff.ms}
+   */
+  public static FailurePolicy fromConfig() {
+    return IndexerConfig.isContinueOnError()
+        ? continueOnError(IndexerConfig.getRetryAttempts(), IndexerConfig.getRetryBackoffMillis())
+        : FAIL_FAST;
+  }
+
+  public boolean isContinueOnError() {
+    return continueOnError;
+  }
+
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  /**
+   * @param attempt number of the attempt that just failed, starting at 1
+   * @return delay before the next attempt
+   */
+  public long backoffMillis(int attempt) {
+    return Math.min(MAX_BACKOFF_MILLIS, backoffMillis << Math.min(attempt - 1, 20));
+  }
+}
@@ -2,19 +2,48 @@ package com.search.indexer.core;
 
 import com.search.indexer.config.IndexerConfig;
 import com.search.indexer.exception.FileProcessingException;
+import com.search.indexer.io.AsyncChunkReader;
+import com.search.indexer.io.BufferPool;
+import com.search.indexer.io.CharsetSniffer;
+import com.search.indexer.io.ChunkDecoder;
+import com.search.indexer.io.DecodingReader;
+import com.search.indexer.io.DetectedEncoding;
+import com.search.indexer.model.CorpusReport;
+import com.search.indexer.model.FileFailure;
+import com.search.indexer.model.IndexingResult;
 import com.search.indexer.rules.IndexingRule;
+import com.search.indexer.rules.KeywordRule;
+import com.search.indexer.rules.LengthThresholdRule;
 import com.search.indexer.rules.LongWordsRule;
+import com.search.indexer.rules.TopPhrasesRule;
+import com.search.indexer.rules.TopWordsRule;
 import com.search.indexer.rules.UppercaseWordsRule;
 import com.search.indexer.util.PerformanceMonitor;
+import com.search.indexer.util.ProgressReporter;
 import com.search.indexer.util.TextCleaner;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.CharacterCodingException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,171 +56,1017 @@ import org.slf4j.LoggerFactory;
 public class FileProcessor {
 
   private static final long MAX_FILE_SIZE = IndexerConfig.getMaxFileSize();
-  private static final int PROGRESS_LOG_INTERVAL = IndexerConfig.getProgressLogInterval();
+  private static final long PROGRESS_INTERVAL_MILLIS =
+      IndexerConfig.getProgressLogInterval() * 1000L;
+  private static final int PROCESSING_THREADS = IndexerConfig.getProcessingThreads();
+  private static final String READ_MODE_LINE = "line";
+  private static final String READ_MODE = IndexerConfig.getReadMode();
+  private static final int CHUNK_SIZE = IndexerConfig.getBufferSize();
+  private static final String IO_ENGINE_ASYNC = "async";
+  private static final boolean ASYNC_IO = IO_ENGINE_ASYNC.equals(IndexerConfig.getIoEngine());
+  private static final int IO_QUEUE_DEPTH = IndexerConfig.getIoQueueDepth();
+  private static final int WORD_BUILDER_CAPACITY = IndexerConfig.getWordBuilderCapacity();
+  private static final DelimiterScanner SCANNER = DelimiterScanner.fromConfig();
+  private static final long LONG_WORDS_MEMORY_BUDGET = IndexerConfig.getLongWordsMemoryBudget();
+  private static final long FREQUENCY_MEMORY_BUDGET = IndexerConfig.getFrequencyMemoryBudget();
+  private static final long CHUNK_CACHE_MIN_FILE_SIZE = IndexerConfig.getChunkCacheMinFileSize();
+  /**
+   * Fixed per-file memory: the byte window, the decoded char window and its copy in the tokenizer
+   */
+  private static final long BUFFER_MEMORY = 6L * CHUNK_SIZE;
+  /**
+   * Per-worker windows reused for every file the worker scans
+   */
+  private static final ThreadLocal<ByteBuffer> BYTE_WINDOW =
+      ThreadLocal.withInitial(() -> ByteBuffer.allocate(CHUNK_SIZE));
+  private static final ThreadLocal<CharBuffer> CHAR_WINDOW =
+      ThreadLocal.withInitial(() -> CharBuffer.allocate(CHUNK_SIZE));
+  /**
+   * Read-ahead buffers shared by all workers when the async I/O engine is enabled
+   */
+  private static final BufferPool READ_AHEAD_POOL = ASYNC_IO
+      ? new BufferPool(IndexerConfig.getIoBufferPoolSize(), CHUNK_SIZE + AsyncChunkReader.HEADROOM)
+      : null;
   private static final Logger logger = LoggerFactory.getLogger(FileProcessor.class);
   /**
    * List of indexing rules to be applied to the processed files
    */// 100MB
   private final List<IndexingRule> rules;
-
+  /**
+   * Admits files only while their estimated memory fits the heap budget
+   */
+  private final MemoryGovernor governor;
+  /**
+   * Orders batch inputs largest first and packs small files together
+   */
+  private final WorkScheduler scheduler = new WorkScheduler(IndexerConfig.getSmallFileSize(),
+      IndexerConfig.getScheduleBatchSize());
+  /**
+   * Whether a failing file aborts the batch or is retried and skipped
+   */
+  private final FailurePolicy failurePolicy;
+  /**
+   * Watch list counted during the word scan, or {@code null}
+   */
+  private final KeywordAutomaton keywords;
+  /**
+   * Number of most frequent words and phrases reported per file, 0 when frequencies are off
+   */
+  private final int topTerms;
+  /**
+   * Statistics of content-defined chunks of large files, reused when a file is re-indexed, or
+   * {@code null}
+   */
+  private final ChunkCache chunkCache = ChunkCache.fromConfig();
 
   /**
    * Constructs a new FileProcessor with default indexing rules. Default rules include:
    * <ul>
    *   <li>UppercaseWordsRule - counts words starting with uppercase letters</li>
    *   <li>LongWordsRule - identifies words exceeding a specified length</li>
+   *   <li>LengthThresholdRule - reports the words longer than each of
+   *   {@code word.length.thresholds}, when set</li>
+   *   <li>KeywordRule - counts watch-list terms, when {@code keywords.file} is set</li>
+   *   <li>TopWordsRule and TopPhrasesRule - list the most frequent words, bigrams and trigrams,
+   *   when {@code frequency.top.terms} is positive</li>
    * </ul>
    */
   public FileProcessor() {
+    this(MemoryGovernor.forHeap(IndexerConfig.getMemoryBudget(), PROCESSING_THREADS,
+        IndexerConfig.getGcPressureThreshold()));
+  }
+
+  /**
+   * Constructs a FileProcessor with the default indexing rules and the given memory governor.
+   *
+   * @param governor governor admitting files into processing
+   */
+  public FileProcessor(MemoryGovernor governor) {
+    this(governor, FailurePolicy.fromConfig());
+  }
+
+  /**
+   * Constructs a FileProcessor with the default indexing rules, the given memory governor and
+   * failure handling.
+   *
+   * @param governor      governor admitting files into processing
+   * @param failurePolicy reaction to files that cannot be processed
+   */
+  public FileProcessor(MemoryGovernor governor, FailurePolicy failurePolicy) {
+    this(governor, failurePolicy, loadKeywords());
+  }
+
+  /**
+   * Constructs a FileProcessor that also counts the terms of a watch list in every file, reported
+   * by a {@link KeywordRule}.
+   *
+   * @param governor      governor admitting files into processing
+   * @param failurePolicy reaction to files that cannot be processed
+   * @param keywords      compiled watch list, or {@code null} for none
+   */
+  public FileProcessor(MemoryGovernor governor, FailurePolicy failurePolicy,
+      KeywordAutomaton keywords) {
+    this(governor, failurePolicy, keywords, IndexerConfig.getFrequencyTopTerms());
+  }
+
+  /**
+   * Constructs a FileProcessor that also counts word and phrase frequencies within
+   * {@code frequency.memory.budget} per file, reported by a {@link TopWordsRule} and a
+   * {@link TopPhrasesRule} and merged into the corpus report.
+   *
+   * @param governor      governor admitting files into processing
+   * @param failurePolicy reaction to files that cannot be processed
+   * @param keywords      compiled watch list, or {@code null} for none
+   * @param topTerms      number of most frequent words and phrases reported; 0 disables
+   *                      frequency counting
+   */
+  public FileProcessor(MemoryGovernor governor, FailurePolicy failurePolicy,
+      KeywordAutomaton keywords, int topTerms) {
+    this.governor = governor;
+    this.failurePolicy = Objects.requireNonNull(failurePolicy, "failurePolicy cannot be null");
+    this.keywords = keywords;
+    this.topTerms = topTerms;
     rules = new ArrayList<>();
     rules.add(new UppercaseWordsRule());
     rules.add(new LongWordsRule());
+    int[] lengthThresholds = IndexerConfig.getWordLengthThresholds();
+    if (lengthThresholds.length > 0) {
+      rules.add(new LengthThresholdRule(lengthThresholds));
+    }
+    if (keywords != null) {
+      rules.add(new KeywordRule());
+    }
+    if (topTerms > 0) {
+      rules.add(new TopWordsRule());
+      rules.add(new TopPhrasesRule());
+    }
+  }
+
+  private static KeywordAutomaton loadKeywords() {
+    try {
+      return KeywordAutomaton.fromConfig();
+    } catch (IOException e) {
+      throw new FileProcessingException("Failed to load keywords file", e);
+    }
   }
 
   /**
-   * Processes a list of files applying all configured indexing rules. Tracks progress and monitors
-   * performance during processing.
+   * Processes a list of files applying all configured indexing rules. Files are processed
+   * concurrently on up to {@code processing.threads} workers, as admitted by the memory governor,
+   * and merged into corpus-wide totals as they complete. Work is scheduled largest first, with
+   * small files packed into shared tasks; the predicted and actual makespan are logged. Throughput
+   * and ETA are logged every {@code performance.log.interval} seconds by a background ticker. With
+   * a continue-on-error {@link FailurePolicy}, files that fail are retried or skipped and listed in
+   * the report's failures instead of aborting the batch.
    *
    * @param filePaths List of paths to the files to be processed
+   * @return the aggregate report of the batch
    * @throws NullPointerException     if filePaths is null
    * @throws IllegalArgumentException if filePaths is empty
-   * @throws FileProcessingException  if there are errors during file processing
-   * @throws SecurityException        if file validation fails (size/type)
+   * @throws FileProcessingException  if there are errors during file processing, or on interrupt
+   *                                  in continue-on-error mode
+   * @throws SecurityException        if file validation fails (size/type) in fail-fast mode
+   */
+  public CorpusReport processFiles(List<Path> filePaths) {
+    return processFiles(filePaths, result -> { });
+  }
+
+  /**
+   * Processes a list of files like {@link #processFiles(List)}, handing each file's result to a
+   * listener as soon as the file is complete.
+   *
+   * @param filePaths List of paths to the files to be processed
+   * @param listener  receives each file's result on the worker that processed it; if the batch
+   *                  fails, the results it received are closed with the batch
+   * @return the aggregate report of the batch
    */
-  public void processFiles(List<Path> filePaths) {
+  public CorpusReport processFiles(List<Path> filePaths, Consumer<FileResult> listener) {
+    return processFiles(filePaths, listener, false);
+  }
+
+  /**
+   * Processes a list of files like {@link #processFiles(List, Consumer)}. Retained results suit
+   * callers that keep each result and later replace it on its own: their long words stay plain
+   * strings instead of joining a dictionary shared by the batch, and they keep their frequency
+   * tables instead of only their top terms, so they can be aggregated again exactly.
+   *
+   * @param filePaths     List of paths to the files to be processed
+   * @param listener      receives each file's result on the worker that processed it
+   * @param retainResults whether results keep plain long words and full frequency tables
+   * @return the aggregate report of the batch
+   */
+  public CorpusReport processFiles(List<Path> filePaths, Consumer<FileResult> listener,
+      boolean retainResults) {
     Objects.requireNonNull(filePaths, "filePaths cannot be null");
     if (filePaths.isEmpty()) {
       throw new IllegalArgumentException("filePaths cannot be empty");
     }
 
     PerformanceMonitor monitor = new PerformanceMonitor();
+    WordDictionary dictionary = retainResults ? null : new WordDictionary();
+    CorpusAggregator aggregator = new CorpusAggregator();
+    if (retainResults) {
+      aggregator.retainFileFrequencies();
+    }
+    int totalFiles = filePaths.size();
+    long startNanos = System.nanoTime();
+    int workers = Math.max(1, Math.min(PROCESSING_THREADS, totalFiles));
+    WorkScheduler.Schedule schedule = scheduler.plan(filePaths, workers);
+    ExecutorService executor = Executors.newFixedThreadPool(
+        Math.min(workers, schedule.getUnits().size()));
+    ProgressReporter progress = new ProgressReporter(schedule.getTotalBytes(), totalFiles)
+        .start(PROGRESS_INTERVAL_MILLIS);
 
     try {
-      int totalFiles = filePaths.size();
-      int processedFiles = 0;
+      List<Future<?>> futures = new ArrayList<>(schedule.getUnits().size());
+      for (WorkScheduler.WorkUnit unit : schedule.getUnits()) {
+        futures.add(executor.submit(() -> {
+          long unitStart = System.nanoTime();
+          List<Path> files = unit.getFiles();
+          AsyncChunkReader[] readAhead = new AsyncChunkReader[files.size()];
+          try {
+            for (int i = 0; i < files.size(); i++) {
+              prefetch(files, readAhead, i);
+              Path filePath = files.get(i);
+              FileResult result = failurePolicy.isContinueOnError()
+                  ? processIsolated(filePath, dictionary, readAhead[i], progress, aggregator)
+                  : processFile(filePath, dictionary, readAhead[i], progress);
+              if (result == null) {
+                continue;
+              }
+              if (!aggregator.add(result)) {
+                continue;
+              }
+              listener.accept(result);
+              for (IndexingResult ruleResult : result.getResults()) {
+                logger.info("\nFile Name: {}\n {}\n", filePath.getFileName(), ruleResult);
+              }
+            }
+          } finally {
+            for (AsyncChunkReader reader : readAhead) {
+              closeQuietly(reader);
+            }
+          }
+          schedule.record(unitStart, System.nanoTime());
+        }));
+      }
+      awaitAll(futures);
+      logger.info("Schedule: {}", schedule.summarize(startNanos, System.nanoTime()));
+      return aggregator.toReport();
+    } catch (RuntimeException | Error e) {
+      // Results of workers still finishing their file are closed as they are added
+      aggregator.discard();
+      throw e;
+    } finally {
+      executor.shutdownNow();
+      progress.close();
+      monitor.stop();
+      monitor.printPerformanceMetrics();
+    }
+  }
 
-      for (Path filePath : filePaths) {
-        processFileStream(filePath);
-        processedFiles++;
-        printProgress(processedFiles, totalFiles);
+  /**
+   * Reloads the results of an earlier run from a snapshot instead of re-indexing its files. The
+   * configured rules render the reloaded statistics.
+   *
+   * @param snapshot snapshot written by {@link SnapshotWriter}
+   * @return the report of the saved batch
+   * @throws FileProcessingException if the snapshot cannot be read or is corrupt
+   */
+  public CorpusReport loadSnapshot(Path snapshot) {
+    return loadSnapshots(List.of(snapshot));
+  }
+
+  /**
+   * Merges several snapshots, such as the shards of one batch, into a single report.
+   *
+   * @param snapshots snapshots written by {@link SnapshotWriter}
+   * @return the report of all files of the snapshots, listing the files their batches skipped
+   * @throws FileProcessingException if a snapshot cannot be read or is corrupt
+   */
+  public CorpusReport loadSnapshots(List<Path> snapshots) {
+    CorpusAggregator aggregator = new CorpusAggregator();
+    for (Path snapshot : snapshots) {
+      try (SnapshotReader reader = SnapshotReader.open(snapshot)) {
+        for (int fileId = 0; fileId < reader.size(); fileId++) {
+          // Streams the words into the vocabulary; the result keeps reading them from the mapping
+          aggregator.add(reader.loadResult(fileId, rules));
+        }
+        reader.getFailures().forEach(aggregator::addFailure);
+      } catch (IOException e) {
+        aggregator.discard();
+        throw new FileProcessingException("Failed to load snapshot: " + snapshot, e);
+      } catch (UncheckedIOException e) {
+        aggregator.discard();
+        throw new FileProcessingException("Failed to load snapshot: " + snapshot, e.getCause());
+      } catch (RuntimeException e) {
+        aggregator.discard();
+        throw e;
       }
+    }
+    return aggregator.toReport();
+  }
+
+  /**
+   * Indexes the documents of a byte stream, such as standard input, as they arrive. See
+   * {@link #processStream(ReadableByteChannel, String, byte[], Consumer)}.
+   *
+   * @param input     stream to index; not closed by this call
+   * @param name      name of the stream, used to name its documents
+   * @param delimiter bytes separating the documents, or an empty array for a single document
+   * @param listener  receives each document's result as soon as the document is complete
+   * @return the aggregate report of all documents of the stream
+   */
+  public CorpusReport processStream(InputStream input, String name, byte[] delimiter,
+      Consumer<FileResult> listener) {
+    return processStream(Channels.newChannel(input), name, delimiter, listener);
+  }
 
+  /**
+   * Indexes the documents of a channel as they arrive, without staging them in files. The channel
+   * is read into a {@code file.buffer.size} window and split at every occurrence of the record
+   * delimiter, which is matched on the raw bytes and so must not occur inside the encoded text of
+   * a document. Each document is sniffed, decoded and tokenized like a file and named
+   * {@code <name>#<n>}, counting from 1; a stream without a delimiter is one document named
+   * {@code name}. A delimiter at the very end of the stream does not open another document, so
+   * an empty stream split by a delimiter has none.
+   *
+   * <p>Documents are scanned one at a time on the calling thread, each admitted by the memory
+   * governor, and handed to the listener when complete, so results stream out while the rest of
+   * the input is still being produced. With a continue-on-error {@link FailurePolicy}, a document
+   * that cannot be decoded is skipped up to the next delimiter and listed in the report's
+   * failures; streams cannot be re-read, so it is not retried.
+   *
+   * @param channel   channel to index; not closed by this call
+   * @param name      name of the stream, used to name its documents
+   * @param delimiter bytes separating the documents, or an empty array for a single document
+   * @param listener  receives each document's result as soon as the document is complete
+   * @return the aggregate report of all documents of the stream
+   * @throws FileProcessingException if the stream cannot be read, a document cannot be decoded in
+   *                                 fail-fast mode, or on interrupt
+   */
+  public CorpusReport processStream(ReadableByteChannel channel, String name, byte[] delimiter,
+      Consumer<FileResult> listener) {
+    Objects.requireNonNull(channel, "channel cannot be null");
+    Objects.requireNonNull(delimiter, "delimiter cannot be null");
+    PerformanceMonitor monitor = new PerformanceMonitor();
+    WordDictionary dictionary = new WordDictionary();
+    CorpusAggregator aggregator = new CorpusAggregator();
+    // Large enough that a window always holds the sniffed head, a delimiter and a partial one
+    ByteBuffer bytes = ByteBuffer.allocate(Math.max(CHUNK_SIZE, 4 * delimiter.length + 16));
+    StreamDocument document = null;
+    int documents = 0;
+    try {
+      boolean endOfInput = false;
+      while (!endOfInput) {
+        // One read at a time, so a document completes as soon as its delimiter arrives
+        endOfInput = channel.read(bytes) < 0;
+        bytes.flip();
+        while (true) {
+          if (document == null) {
+            // Open a document only for bytes that belong to it, or for an empty undelimited stream
+            if (!bytes.hasRemaining()
+                && !(endOfInput && documents == 0 && delimiter.length == 0)) {
+              break;
+            }
+            documents++;
+            document = new StreamDocument(delimiter.length == 0 ? Paths.get(name)
+                : Paths.get(name + "#" + documents));
+          }
+          int match = indexOf(bytes, delimiter);
+          if (match >= 0) {
+            int limit = bytes.limit();
+            bytes.limit(match);
+            document.feed(bytes, true);
+            bytes.limit(limit).position(match + delimiter.length);
+            complete(document, dictionary, aggregator, listener);
+            document = null;
+            continue;
+          }
+          // Sniff the encoding of a document from a full window or the whole document
+          if (!document.isStarted() && !endOfInput
+              && (bytes.position() > 0 || bytes.limit() < bytes.capacity())) {
+            break;
+          }
+          int limit = bytes.limit();
+          bytes.limit(endOfInput ? limit
+              : Math.max(bytes.position(), limit - Math.max(0, delimiter.length - 1)));
+          document.feed(bytes, endOfInput);
+          bytes.limit(limit);
+          break;
+        }
+        bytes.compact();
+      }
+      if (document != null) {
+        complete(document, dictionary, aggregator, listener);
+        document = null;
+      }
+      return aggregator.toReport();
+    } catch (IOException e) {
+      aggregator.discard();
+      logger.error("Error reading stream {}: {}", name, e.getMessage(), e);
+      throw new FileProcessingException("Failed to read stream: " + name, e);
+    } catch (RuntimeException e) {
+      aggregator.discard();
+      throw e;
     } finally {
+      if (document != null) {
+        document.close();
+      }
       monitor.stop();
       monitor.printPerformanceMetrics();
     }
   }
 
   /**
-   * Logs the processing progress at specified intervals. Progress is logged at the start,
-   * completion, and at every PROGRESS_LOG_INTERVAL percentage.
+   * Finishes a stream document and hands its result to the aggregator and the listener, or
+   * records its failure.
+   */
+  private void complete(StreamDocument document, WordDictionary dictionary,
+      CorpusAggregator aggregator, Consumer<FileResult> listener) throws IOException {
+    FileResult result = document.finish(dictionary);
+    if (result == null) {
+      aggregator.addFailure(document.failure);
+      return;
+    }
+    if (aggregator.add(result)) {
+      listener.accept(result);
+    }
+  }
+
+  /**
+   * Returns the first occurrence of a byte sequence between the position and the limit of a
+   * buffer.
+   *
+   * @param bytes  buffer to search
+   * @param needle bytes to find; an empty needle never matches
+   * @return absolute index of the first match, or -1
+   */
+  static int indexOf(ByteBuffer bytes, byte[] needle) {
+    if (needle.length == 0) {
+      return -1;
+    }
+    byte[] array = bytes.array();
+    int offset = bytes.arrayOffset();
+    int last = bytes.limit() - needle.length;
+    byte first = needle[0];
+    for (int i = bytes.position(); i <= last; i++) {
+      if (array[offset + i] != first) {
+        continue;
+      }
+      int j = 1;
+      while (j < needle.length && array[offset + i + j] == needle[j]) {
+        j++;
+      }
+      if (j == needle.length) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * One document of a stream: its statistics, its scanner and the memory admitted for it. Created
+   * before its first byte and admitted on the first feed.
+   */
+  private final class StreamDocument implements AutoCloseable {
+
+    private final Path path;
+    private WordStatistics statistics;
+    private TextScanner scanner;
+    private MemoryGovernor.Ticket ticket;
+    private FileFailure failure;
+    private boolean completed;
+
+    private StreamDocument(Path path) {
+      this.path = path;
+    }
+
+    private boolean isStarted() {
+      return scanner != null || failure != null;
+    }
+
+    /**
+     * Scans the bytes up to the limit of the buffer, unless the document already failed, in which
+     * case they are discarded.
+     */
+    private void feed(ByteBuffer bytes, boolean endOfInput) throws IOException {
+      if (failure != null) {
+        bytes.position(bytes.limit());
+        return;
+      }
+      if (scanner == null) {
+        start();
+      }
+      try {
+        scanner.feed(bytes, endOfInput);
+      } catch (CharacterCodingException e) {
+        if (!failurePolicy.isContinueOnError()) {
+          throw new FileProcessingException("Failed to process stream document: " + path, e);
+        }
+        failure = FileFailure.of(path, e, 1);
+        logger.error("Skipping {} ({}): {}", path, failure.getCategory(), failure.getCause());
+        bytes.position(bytes.limit());
+        close();
+        return;
+      }
+      ticket.update(BUFFER_MEMORY + statistics.getMemoryBytes());
+    }
+
+    private void start() {
+      long frequencyMemory = topTerms > 0 ? FREQUENCY_MEMORY_BUDGET : 0;
+      try {
+        ticket = governor.acquire(BUFFER_MEMORY + frequencyMemory);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new FileProcessingException("Interrupted while waiting for memory: " + path, e);
+      }
+      statistics = new WordStatistics();
+      if (keywords != null) {
+        statistics.trackKeywords(keywords);
+      }
+      if (topTerms > 0) {
+        statistics.trackFrequencies(FREQUENCY_MEMORY_BUDGET, topTerms);
+      }
+      scanner = new TextScanner(statistics, CHAR_WINDOW.get());
+    }
+
+    /**
+     * @return the result of the document, or {@code null} if it failed
+     */
+    private FileResult finish(WordDictionary dictionary) throws IOException {
+      if (!isStarted()) {
+        feed(ByteBuffer.allocate(0), true);
+      }
+      try {
+        if (failure != null) {
+          return null;
+        }
+        scanner.finish();
+        logger.debug("Scanned {} as {}", path, scanner.getEncoding());
+        statistics.compact(dictionary);
+        completed = true;
+        return new FileResult(path, statistics, rules);
+      } finally {
+        close();
+      }
+    }
+
+    /**
+     * Releases the admitted memory and, unless the statistics went into a result, their spill
+     * files.
+     */
+    @Override
+    public void close() {
+      if (ticket != null) {
+        ticket.close();
+      }
+      if (statistics != null && !completed) {
+        statistics.close();
+      }
+    }
+  }
+
+  /**
+   * With the async I/O engine, opens read-ahead for the current file and the next
+   * {@code io.queue.depth - 1} files of a unit, so reads of upcoming small files overlap the
+   * tokenizing of the current one. Files are validated first, so no read is issued on a FIFO, a
+   * device or an oversized file; files that fail validation or cannot be opened are left to
+   * {@link #processFile(Path, WordDictionary)}, which reports the error.
    *
-   * @param processed number of files processed so far
-   * @param total     total number of files to process
+   * @param files     files of the unit
+   * @param readAhead readers opened so far, indexed like {@code files}
+   * @param current   index of the file about to be processed
    */
-  private void printProgress(int processed, int total) {
-    if (logger.isDebugEnabled()) {  // Only calculate if logging will actually occur
-      double percentage = (processed * 100.0) / total;
+  private void prefetch(List<Path> files, AsyncChunkReader[] readAhead, int current) {
+    if (!ASYNC_IO || READ_MODE_LINE.equals(READ_MODE)) {
+      return;
+    }
+    int end = Math.min(files.size(), current + IO_QUEUE_DEPTH);
+    for (int i = current; i < end; i++) {
+      if (readAhead[i] == null) {
+        try {
+          validateFile(files.get(i));
+          readAhead[i] = new AsyncChunkReader(files.get(i), READ_AHEAD_POOL, IO_QUEUE_DEPTH);
+        } catch (IOException | SecurityException e) {
+          logger.debug("Read-ahead unavailable for {}: {}", files.get(i), e.getMessage());
+        }
+      }
+    }
+  }
 
-      if (processed == 1 || processed == total || percentage % PROGRESS_LOG_INTERVAL == 0) {
-        String formattedPercentage = String.format("%.1f", percentage);
-        logger.debug("Progress: {}/{} files processed ({}%)",
-            processed, total, formattedPercentage);
+  private static void closeQuietly(AsyncChunkReader reader) {
+    if (reader != null) {
+      try {
+        reader.close();
+      } catch (IOException e) {
+        logger.debug("Failed to close read-ahead: {}", e.getMessage());
       }
     }
   }
 
+  /**
+   * Waits for every task in submission order and rethrows the first failure unchanged, so callers
+   * see the same exceptions as with sequential processing.
+   *
+   * @param futures tasks to wait for
+   */
+  private static void awaitAll(List<Future<?>> futures) {
+    try {
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new FileProcessingException(cause);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new FileProcessingException("Interrupted while processing files", e);
+    }
+  }
+
   /**
    * Processes a single file, applying all configured indexing rules. Each word in the file is
-   * processed according to the rules.
+   * counted once into a {@link WordStatistics} instance shared by every rule. The method holds no
+   * state between calls, so it can be invoked concurrently for different files.
    *
    * @param filePath path to the file to be processed
-   * @throws IOException             if there are issues reading the file
+   * @return the statistics and rule results of the file
    * @throws FileProcessingException if processing fails
+   * @throws SecurityException       if file validation fails (size/type)
    */
-  private void processFileStream(Path filePath) {
-    try {
-      validateFile(filePath);
-      try (BufferedReader reader = Files.newBufferedReader(filePath)) {
-        List<RuleAccumulator> accumulators = rules.stream()
-            .map(RuleAccumulator::new)
-            .collect(Collectors.toList());
-
-        String line;
-        StringBuilder wordBuilder = new StringBuilder(100);
+  public FileResult processFile(Path filePath) {
+    return processFile(filePath, null);
+  }
 
-        //done : remove this
+  /**
+   * Processes a single file like {@link #processFile(Path)} and compacts its long words into a
+   * dictionary shared by the batch, for callers that retain many results at once. The call blocks
+   * until the memory governor admits the file.
+   *
+   * @param filePath   path to the file to be processed
+   * @param dictionary batch dictionary receiving the long words, or {@code null} to keep them as
+   *                   plain strings
+   * @return the statistics and rule results of the file
+   * @throws FileProcessingException if processing fails or is interrupted
+   * @throws SecurityException       if file validation fails (size/type)
+   */
+  public FileResult processFile(Path filePath, WordDictionary dictionary) {
+    return processFile(filePath, dictionary, null, new ProgressReporter(0, 1));
+  }
 
-        while ((line = reader.readLine()) != null) {
-          processLine(line, wordBuilder, accumulators);
+  /**
+   * Processes a file without letting its failure abort the batch. Transient I/O errors are
+   * retried after the policy's backoff; a file that still fails is recorded in the aggregator.
+   *
+   * @param filePath   file to process
+   * @param dictionary batch dictionary receiving the long words, or {@code null}
+   * @param readAhead  reader for the first attempt, or {@code null}; closed by this call
+   * @param progress   progress of the batch
+   * @param aggregator receives the failure of a file that is skipped
+   * @return the result, or {@code null} if the file was skipped
+   * @throws FileProcessingException if interrupted
+   */
+  private FileResult processIsolated(Path filePath, WordDictionary dictionary,
+      AsyncChunkReader readAhead, ProgressReporter progress, CorpusAggregator aggregator) {
+    AsyncChunkReader reader = readAhead;
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return processFile(filePath, dictionary, reader, progress);
+      } catch (RuntimeException e) {
+        if (Thread.currentThread().isInterrupted()) {
+          throw e;
+        }
+        FileFailure failure = FileFailure.of(filePath, e, attempt);
+        if (failure.getCategory().isTransient() && attempt < failurePolicy.getMaxAttempts()) {
+          long backoff = failurePolicy.backoffMillis(attempt);
+          logger.warn("Attempt {} of {} failed, retrying in {} ms: {}", attempt, filePath,
+              backoff, failure.getCause());
+          reader = null;
+          sleep(backoff);
+          continue;
         }
+        logger.error("Skipping {} ({}): {}", filePath, failure.getCategory(), failure.getCause());
+        aggregator.addFailure(failure);
+        progress.fileCompleted(0);
+        return null;
+      }
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new FileProcessingException("Interrupted while waiting to retry", e);
+    }
+  }
 
-        for (RuleAccumulator accumulator : accumulators) {
-          logger.info("\nFile Name: {}\n {}\n", filePath.getFileName(),
-              accumulator.getResult());
+  /**
+   * Processes a single file, scanning it from read-ahead already in flight when given one.
+   *
+   * @param filePath   path to the file to be processed
+   * @param dictionary batch dictionary receiving the long words, or {@code null}
+   * @param readAhead  reader opened on the file by {@link #prefetch}, or {@code null}; closed by
+   *                   this call
+   * @param progress   progress of the batch, receiving the bytes read and the finished file
+   * @return the statistics and rule results of the file
+   */
+  private FileResult processFile(Path filePath, WordDictionary dictionary,
+      AsyncChunkReader readAhead, ProgressReporter progress) {
+    try (AsyncChunkReader prefetched = readAhead) {
+      long size = validateFile(filePath);
+      long frequencyMemory = topTerms > 0 ? FREQUENCY_MEMORY_BUDGET : 0;
+      try (MemoryGovernor.Ticket ticket =
+          governor.acquire(estimateMemory(size) + frequencyMemory)) {
+        WordStatistics statistics = new WordStatistics();
+        try {
+          scan(filePath, size, statistics, prefetched, ticket, progress);
+        } catch (IOException | RuntimeException e) {
+          statistics.close();
+          throw e;
         }
+        progress.fileCompleted(statistics.getWordCount());
+        if (dictionary != null) {
+          statistics.compact(dictionary);
+        }
+        return new FileResult(filePath, statistics, rules);
       }
     } catch (IOException e) {
       logger.error("Error processing file {}: {}", filePath, e.getMessage(), e);
       throw new FileProcessingException("Failed to process file: " + filePath, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new FileProcessingException("Interrupted while waiting for memory: " + filePath, e);
+    }
+  }
+
+  /**
+   * Fills the statistics of a file with the configured read mode.
+   */
+  private void scan(Path filePath, long size, WordStatistics statistics,
+      AsyncChunkReader prefetched, MemoryGovernor.Ticket ticket, ProgressReporter progress)
+      throws IOException {
+    if (keywords != null) {
+      statistics.trackKeywords(keywords);
+    }
+    if (topTerms > 0) {
+      statistics.trackFrequencies(FREQUENCY_MEMORY_BUDGET, topTerms);
+    }
+    if (READ_MODE_LINE.equals(READ_MODE)) {
+      processLines(filePath, statistics, ticket);
+      progress.addBytes(size);
+    } else if (isChunkCached(size)) {
+      long windowMemory = BUFFER_MEMORY + chunkCache.getWindowSize();
+      chunkCache.scan(filePath, statistics, CHAR_WINDOW.get(), count -> {
+        progress.addBytes(count);
+        ticket.update(windowMemory + statistics.getMemoryBytes());
+      });
+    } else if (prefetched != null) {
+      processReadAhead(filePath, prefetched, statistics, ticket, progress);
+    } else if (ASYNC_IO) {
+      try (AsyncChunkReader reader =
+          new AsyncChunkReader(filePath, READ_AHEAD_POOL, IO_QUEUE_DEPTH)) {
+        processReadAhead(filePath, reader, statistics, ticket, progress);
+      }
+    } else {
+      processChunks(filePath, size, statistics, ticket, progress);
+    }
+  }
+
+  /**
+   * @param size file size in bytes
+   * @return whether the file is scanned through the chunk cache: it is enabled, the file is large
+   *     enough, and no watch list or frequencies follow phrases across chunk boundaries
+   */
+  private boolean isChunkCached(long size) {
+    return chunkCache != null && size >= CHUNK_CACHE_MIN_FILE_SIZE && keywords == null
+        && topTerms == 0;
+  }
+
+  /**
+   * Estimates the memory a file needs while it is scanned: the fixed buffers plus two bytes per
+   * input byte for distinct long words, capped by the spill budget. The reservation is corrected
+   * from the live accumulator size while the file is scanned.
+   *
+   * @param size file size in bytes
+   * @return estimated bytes
+   */
+  static long estimateMemory(long size) {
+    long words = 2 * size;
+    if (LONG_WORDS_MEMORY_BUDGET > 0) {
+      words = Math.min(words, LONG_WORDS_MEMORY_BUDGET);
+    }
+    return BUFFER_MEMORY + words;
+  }
+
+  /**
+   * Scans the file in fixed-size windows regardless of its line structure. The encoding is sniffed
+   * from the first window and each window is decoded with a decoder specialised for it. Memory use
+   * is bounded by the window size, so single-line inputs of any size are handled without building
+   * a string per line. The windows belong to the worker thread and are reused across files; a file
+   * that fits into one window is read with a single bulk read and tokenized straight from it.
+   *
+   * @param filePath   file to scan
+   * @param size       file size from validation
+   * @param statistics statistics collector receiving each word
+   * @param ticket     memory reservation updated after every window
+   * @param progress   progress receiving the bytes of every window
+   * @throws IOException if the file cannot be read or decoded
+   */
+  private void processChunks(Path filePath, long size, WordStatistics statistics,
+      MemoryGovernor.Ticket ticket, ProgressReporter progress) throws IOException {
+    try (SeekableByteChannel channel = Files.newByteChannel(filePath)) {
+      TextScanner scanner = new TextScanner(statistics, CHAR_WINDOW.get());
+      ByteBuffer bytes = BYTE_WINDOW.get();
+      bytes.clear();
+      boolean endOfInput = false;
+      while (!endOfInput) {
+        int carried = bytes.position();
+        endOfInput = size < CHUNK_SIZE ? fillExactly(channel, bytes, size) : fill(channel, bytes);
+        progress.addBytes(bytes.position() - carried);
+        bytes.flip();
+        scanner.feed(bytes, endOfInput);
+        bytes.compact();
+        ticket.update(BUFFER_MEMORY + statistics.getMemoryBytes());
+      }
+      scanner.finish();
+      logger.debug("Scanned {} as {}", filePath, scanner.getEncoding());
+    }
+  }
+
+  /**
+   * Scans chunks delivered by asynchronous read-ahead, so the next chunks are read while the
+   * current one is tokenized. An incomplete character sequence at the end of a chunk is carried
+   * into the headroom of the next chunk.
+   *
+   * @param filePath   file to scan
+   * @param reader     read-ahead on the file
+   * @param statistics statistics collector receiving each word
+   * @param ticket     memory reservation updated after every chunk
+   * @param progress   progress receiving the bytes of every chunk
+   * @throws IOException if the file cannot be read or decoded
+   */
+  private void processReadAhead(Path filePath, AsyncChunkReader reader, WordStatistics statistics,
+      MemoryGovernor.Ticket ticket, ProgressReporter progress) throws IOException {
+    TextScanner scanner = new TextScanner(statistics, CHAR_WINDOW.get());
+    ByteBuffer chunk = reader.take();
+    if (chunk == null) {
+      scanner.feed(ByteBuffer.allocate(0), true);
+    } else {
+      progress.addBytes(chunk.remaining());
+    }
+    while (chunk != null) {
+      boolean endOfInput = reader.isExhausted();
+      scanner.feed(chunk, endOfInput);
+      ByteBuffer next = endOfInput ? null : reader.take();
+      if (next != null) {
+        progress.addBytes(next.remaining());
+      }
+      if (next != null && chunk.hasRemaining()) {
+        next = reader.carryOver(chunk, next);
+      }
+      reader.release(chunk);
+      chunk = next;
+      ticket.update(BUFFER_MEMORY + statistics.getMemoryBytes());
+    }
+    scanner.finish();
+    logger.debug("Scanned {} with read-ahead as {}", filePath, scanner.getEncoding());
+  }
+
+  /**
+   * Reads a file known to fit into the buffer, stopping once {@code size} bytes arrived instead of
+   * issuing a further read to detect the end of the file.
+   *
+   * @return always {@code true}; the whole file is in the buffer
+   */
+  private static boolean fillExactly(ReadableByteChannel channel, ByteBuffer buffer, long size)
+      throws IOException {
+    while (buffer.position() < size && channel.read(buffer) >= 0) {
+      // keep reading until the file is complete
+    }
+    return true;
+  }
+
+  /**
+   * Reads until the buffer is full or the channel is exhausted.
+   *
+   * @return {@code true} if the end of the channel was reached
+   */
+  private static boolean fill(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) < 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Scans the file line by line, removing HTML tags from each line before splitting it into words.
+   * The charset is sniffed from the first block of the file and decoded by the same
+   * {@link ChunkDecoder} as chunked scanning, so an ASCII head still falls back to the single-byte
+   * charset when later bytes are not UTF-8.
+   *
+   * @param filePath   file to scan
+   * @param statistics statistics collector receiving each word
+   * @param ticket     memory reservation updated after every line
+   * @throws IOException if the file cannot be read or decoded
+   */
+  private void processLines(Path filePath, WordStatistics statistics,
+      MemoryGovernor.Ticket ticket) throws IOException {
+    DetectedEncoding encoding;
+    try (InputStream head = Files.newInputStream(filePath)) {
+      byte[] sample = head.readNBytes(CHUNK_SIZE);
+      encoding = CharsetSniffer.sniff(sample, 0, sample.length, sample.length < CHUNK_SIZE,
+          IndexerConfig.getFallbackCharset());
+    }
+    ChunkDecoder decoder = ChunkDecoder.forEncoding(encoding,
+        ChunkDecoder.parseErrorAction(IndexerConfig.getMalformedInputAction()));
+    try (InputStream input = Files.newInputStream(filePath)) {
+      input.skipNBytes(encoding.getBomLength());
+      BufferedReader reader = new BufferedReader(new DecodingReader(input, decoder, CHUNK_SIZE));
+      String line;
+      StringBuilder wordBuilder = new StringBuilder(WORD_BUILDER_CAPACITY);
+      char[] lineChars = new char[WORD_BUILDER_CAPACITY];
+
+      while ((line = reader.readLine()) != null) {
+        lineChars = processLine(line, lineChars, wordBuilder, statistics);
+        ticket.update(BUFFER_MEMORY + 2L * line.length() + statistics.getMemoryBytes());
+      }
     }
   }
 
   /**
    * Processes a single line of text, breaking it into words and applying rules. Words are
-   * identified by whitespace boundaries.
+   * identified by whitespace boundaries, located by the {@link DelimiterScanner} over a copy of
+   * the cleaned line.
    *
-   * @param line         the line of text to process
-   * @param wordBuilder  StringBuilder used for word construction
-   * @param accumulators list of rule accumulators to apply to each word
+   * @param line        the line of text to process
+   * @param lineChars   reusable buffer for the cleaned line
+   * @param wordBuilder StringBuilder used for word construction
+   * @param statistics  statistics collector receiving each word
+   * @return the buffer, grown if the line did not fit
    */
-  private void processLine(String line, StringBuilder wordBuilder,
-      List<RuleAccumulator> accumulators) {
+  private char[] processLine(String line, char[] lineChars, StringBuilder wordBuilder,
+      WordStatistics statistics) {
     String cleanedLine = TextCleaner.removeHtmlTags(line);
     int len = cleanedLine.length();
+    char[] chars = len <= lineChars.length
+        ? lineChars : new char[Math.max(len, 2 * lineChars.length)];
+    cleanedLine.getChars(0, len, chars, 0);
 
-    for (int i = 0; i < len; i++) {
-      char c = cleanedLine.charAt(i);
-
-      if (Character.isWhitespace(c)) {
+    int i = 0;
+    while (i < len) {
+      int stop = SCANNER.whitespace(chars, i, len);
+      wordBuilder.append(chars, i, stop - i);
+      if (stop == len || Character.isWhitespace(chars[stop])) {
         if (!wordBuilder.isEmpty()) {
-          String word = wordBuilder.toString();
-          for (RuleAccumulator accumulator : accumulators) {
-            accumulator.processWord(word);
-          }
+          statistics.processWord(wordBuilder.toString());
           wordBuilder.setLength(0);
         }
       } else {
-        wordBuilder.append(c);
-      }
-    }
-
-    if (!wordBuilder.isEmpty()) {
-      String word = wordBuilder.toString();
-      for (RuleAccumulator accumulator : accumulators) {
-        accumulator.processWord(word);
+        // A candidate that is not whitespace after all, such as an em dash
+        wordBuilder.append(chars[stop]);
       }
-      wordBuilder.setLength(0);
+      i = stop + 1;
     }
+    return chars;
   }
 
   /**
-   * Validates a file before processing. Checks if:
+   * Validates a file before processing with a single attribute lookup. Checks if:
    * <ul>
    *   <li>The file exists and is a regular file</li>
-   *   <li>The file size is within the allowed limit</li>
+   *   <li>The file size is within the allowed limit, when a positive limit is configured</li>
    * </ul>
    *
    * @param filePath path to the file to validate
+   * @return the file size in bytes
    * @throws SecurityException if validation fails
    * @throws IOException       if file attributes cannot be read
    */
-  private void validateFile(Path filePath) throws IOException {
-    if (!Files.exists(filePath) || !Files.isRegularFile(filePath)) {
+  private long validateFile(Path filePath) throws IOException {
+    BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+    } catch (NoSuchFileException e) {
+      throw new SecurityException("Not a regular file: " + filePath);
+    }
+    if (!attributes.isRegularFile()) {
       throw new SecurityException("Not a regular file: " + filePath);
     }
-    if (Files.size(filePath) > MAX_FILE_SIZE) {
+    long size = attributes.size();
+    if (MAX_FILE_SIZE > 0 && size > MAX_FILE_SIZE) {
       throw new SecurityException("File too large: " + filePath);
     }
+    return size;
   }
 }
\ No newline at end of file
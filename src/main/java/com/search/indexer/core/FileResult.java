@@ -0,0 +1,67 @@
+package com.search.indexer.core;
+
+import com.search.indexer.model.IndexingResult;
+import com.search.indexer.rules.IndexingRule;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Outcome of indexing a single file: the statistics collected for it and the rules that render
+ * them. Rule output is produced on demand so callers that only need the raw statistics never pay
+ * for formatting. Closing a result deletes the spill files of its statistics.
+ */
+public class FileResult implements AutoCloseable {
+
+  /**
+   * Path of the indexed file
+   */
+  private final Path filePath;
+  /**
+   * Statistics shared by every rule of this file
+   */
+  private final WordStatistics statistics;
+  /**
+   * Accumulators rendering the shared statistics, one per rule
+   */
+  private final List<RuleAccumulator> accumulators;
+
+  public FileResult(Path filePath, WordStatistics statistics, List<IndexingRule> rules) {
+    this.filePath = Objects.requireNonNull(filePath, "filePath cannot be null");
+    this.statistics = Objects.requireNonNull(statistics, "statistics cannot be null");
+    this.accumulators = new ArrayList<>(rules.size());
+    for (IndexingRule rule : rules) {
+      accumulators.add(new RuleAccumulator(rule, statistics));
+    }
+  }
+
+  public Path getFilePath() {
+    return filePath;
+  }
+
+  public WordStatistics getStatistics() {
+    return statistics;
+  }
+
+  /**
+   * Applies every rule to the collected statistics.
+   *
+   * @return one result per configured rule, in rule order
+   */
+  public List<IndexingResult> getResults() {
+    List<IndexingResult> results = new ArrayList<>(accumulators.size());
+    for (RuleAccumulator accumulator : accumulators) {
+      results.add(accumulator.getResult());
+    }
+    return results;
+  }
+
+  /**
+   * Deletes the spill files of the statistics. The result must not be rendered afterwards.
+   */
+  @Override
+  public void close() {
+    statistics.close();
+  }
+}
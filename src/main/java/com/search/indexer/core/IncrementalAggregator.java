@@ -0,0 +1,163 @@
+package com.search.indexer.core;
+
+import com.search.indexer.config.IndexerConfig;
+import com.search.indexer.model.CorpusReport;
+import com.search.indexer.model.TermCount;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Corpus totals of a set of results that changes over time. Where {@link CorpusAggregator} reports
+ * a batch once, results here can be removed as well as added, so a long-running caller keeps the
+ * totals current in time linear in the changed files instead of aggregating the corpus again.
+ * Totals, the number of files holding each long word, the ranking and exact corpus word counts are
+ * maintained on every change. Phrase counts live in count-min sketches, which cannot subtract, so
+ * they are merged from the current results when a report is built.
+ *
+ * <p>A result contributes its full frequency tables while it tracks them and its top terms once
+ * summarized; it must not be summarized between being added and removed, and at most one result
+ * per path may be held. Thread-safe.
+ */
+public class IncrementalAggregator {
+
+  private final Map<String, Integer> documentFrequencies = new HashMap<>();
+  private final Map<String, Long> wordCounts = new HashMap<>();
+  private final NavigableSet<FileResult> ranked = new TreeSet<>(CorpusAggregator.RANKING);
+  private final long vocabularyMemoryBudget;
+  private final Path spillDirectory;
+  private long uppercaseTotal;
+  private long longWordTotal;
+  private int topTerms;
+
+  public IncrementalAggregator() {
+    this(IndexerConfig.getLongWordsMemoryBudget(), IndexerConfig.getSpillDirectory());
+  }
+
+  /**
+   * @param vocabularyMemoryBudget estimated heap bytes of a report's vocabulary before it spills
+   *                               to disk; 0 or less keeps it in memory
+   * @param spillDirectory         directory receiving spilled vocabulary runs
+   */
+  public IncrementalAggregator(long vocabularyMemoryBudget, Path spillDirectory) {
+    this.vocabularyMemoryBudget = vocabularyMemoryBudget;
+    this.spillDirectory = spillDirectory;
+  }
+
+  /**
+   * Adds the statistics of one file.
+   *
+   * @param result the completed file result
+   * @throws IllegalArgumentException if a result for the same path is already held
+   */
+  public synchronized void add(FileResult result) {
+    if (!ranked.add(result)) {
+      throw new IllegalArgumentException("Already aggregated: " + result.getFilePath());
+    }
+    update(result.getStatistics(), 1);
+  }
+
+  /**
+   * Removes the statistics of a file added earlier.
+   *
+   * @param result the result passed to {@link #add(FileResult)}
+   * @throws IllegalArgumentException if the result is not held
+   */
+  public synchronized void remove(FileResult result) {
+    if (!ranked.remove(result)) {
+      throw new IllegalArgumentException("Not aggregated: " + result.getFilePath());
+    }
+    update(result.getStatistics(), -1);
+  }
+
+  private void update(WordStatistics statistics, int sign) {
+    uppercaseTotal += sign * statistics.getUppercaseCount();
+    longWordTotal += sign * statistics.getLongWordCount();
+    statistics.forEachLongWord(word -> documentFrequencies.merge(word, sign,
+        (held, delta) -> held + delta == 0 ? null : held + delta));
+    if (statistics.isTrackingFrequencies()) {
+      statistics.getWordFrequencies().forEach((word, count) -> count(word, sign * (long) count));
+      topTerms = Math.max(topTerms, statistics.getPhraseFrequencies().getCapacity());
+    } else {
+      for (TermCount word : statistics.getTopWords()) {
+        count(word.getTerm(), sign * word.getCount());
+      }
+      topTerms = Math.max(topTerms,
+          Math.max(statistics.getTopWords().size(), statistics.getTopPhrases().size()));
+    }
+  }
+
+  private void count(String word, long delta) {
+    wordCounts.merge(word, delta, (held, change) -> held + change == 0 ? null : held + change);
+  }
+
+  /**
+   * @return number of files currently aggregated
+   */
+  public synchronized int getFileCount() {
+    return ranked.size();
+  }
+
+  public synchronized long getUppercaseTotal() {
+    return uppercaseTotal;
+  }
+
+  public synchronized long getLongWordTotal() {
+    return longWordTotal;
+  }
+
+  /**
+   * Builds a report of the files currently aggregated. Each report owns its vocabulary, so the
+   * caller closes it; later changes do not affect reports already built.
+   *
+   * @return corpus totals, sorted vocabulary, per-file ranking and the most frequent words and
+   *     phrases when frequencies were tracked
+   */
+  public synchronized CorpusReport toReport() {
+    SpillingWordSet words = new SpillingWordSet(vocabularyMemoryBudget, spillDirectory);
+    documentFrequencies.keySet().forEach(words::add);
+    words.consolidate();
+    return new CorpusReport(ranked.size(), uppercaseTotal, longWordTotal, words,
+        new ArrayList<>(ranked), List.of(), topWords(), topPhrases());
+  }
+
+  private List<TermCount> topWords() {
+    PriorityQueue<TermCount> heap = new PriorityQueue<>(TermCount.BY_COUNT.reversed());
+    if (topTerms > 0) {
+      wordCounts.forEach((word, count) -> {
+        heap.add(new TermCount(word, count));
+        if (heap.size() > topTerms) {
+          heap.remove();
+        }
+      });
+    }
+    List<TermCount> top = new ArrayList<>(heap);
+    top.sort(TermCount.BY_COUNT);
+    return top;
+  }
+
+  private List<TermCount> topPhrases() {
+    PhraseCounter phrases = null;
+    WordFrequencyTable summarized = new WordFrequencyTable(0);
+    for (FileResult result : ranked) {
+      WordStatistics statistics = result.getStatistics();
+      if (statistics.isTrackingFrequencies()) {
+        if (phrases == null) {
+          phrases = statistics.getPhraseFrequencies().emptyCopy();
+        }
+        phrases.merge(statistics.getPhraseFrequencies());
+      } else {
+        for (TermCount phrase : statistics.getTopPhrases()) {
+          summarized.add(phrase.getTerm(), (int) Math.min(Integer.MAX_VALUE, phrase.getCount()));
+        }
+      }
+    }
+    return CorpusAggregator.combine(phrases != null ? phrases.top() : List.of(),
+        summarized.top(topTerms), topTerms);
+  }
+}
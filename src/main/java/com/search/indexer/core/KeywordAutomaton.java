@@ -0,0 +1,246 @@
+package com.search.indexer.core;
+
+import com.search.indexer.config.IndexerConfig;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Aho-Corasick automaton over words, compiled from a watch list of terms. A term is one word or a
+ * phrase of several; the automaton consumes the word stream of a file, so all terms are counted in
+ * the same pass that collects the other statistics. Each word costs one hash lookup plus amortized
+ * constant transitions, independent of the number of terms.
+ *
+ * <p>Words are compared after trimming leading and trailing characters that are neither letters
+ * nor digits, and optionally case-insensitively. Instances are immutable and shared by all files;
+ * each file counts with its own {@link Matcher}.
+ */
+public final class KeywordAutomaton {
+
+  private static final int ROOT = 0;
+
+  private final boolean ignoreCase;
+  private final List<String> terms;
+  private final Map<String, Integer> wordIds;
+  /**
+   * Goto function, keyed by state in the high and word id in the low 32 bits
+   */
+  private final Map<Long, Integer> transitions;
+  private final int[] failure;
+  /**
+   * Terms ending in each state, including those reached through failure links
+   */
+  private final int[][] outputs;
+
+  private KeywordAutomaton(boolean ignoreCase, List<String> terms, Map<String, Integer> wordIds,
+      Map<Long, Integer> transitions, int[] failure, int[][] outputs) {
+    this.ignoreCase = ignoreCase;
+    this.terms = terms;
+    this.wordIds = wordIds;
+    this.transitions = transitions;
+    this.failure = failure;
+    this.outputs = outputs;
+  }
+
+  /**
+   * Compiles a watch list. Blank terms are ignored and duplicates are counted once.
+   *
+   * @param terms      words or whitespace-separated phrases
+   * @param ignoreCase whether matching ignores case
+   * @return the automaton
+   */
+  public static KeywordAutomaton compile(Collection<String> terms, boolean ignoreCase) {
+    Map<String, List<String>> unique = new LinkedHashMap<>();
+    for (String term : terms) {
+      List<String> words = new ArrayList<>();
+      for (String word : term.trim().split("\\s+")) {
+        String normalized = normalize(word, ignoreCase);
+        if (!normalized.isEmpty()) {
+          words.add(normalized);
+        }
+      }
+      if (!words.isEmpty()) {
+        unique.putIfAbsent(String.join(" ", words), words);
+      }
+    }
+
+    Map<String, Integer> wordIds = new HashMap<>();
+    Map<Long, Integer> transitions = new HashMap<>();
+    List<List<int[]>> children = new ArrayList<>();
+    List<List<Integer>> ends = new ArrayList<>();
+    children.add(new ArrayList<>());
+    ends.add(new ArrayList<>());
+    int termIndex = 0;
+    for (List<String> words : unique.values()) {
+      int state = ROOT;
+      for (String word : words) {
+        int wordId = wordIds.computeIfAbsent(word, key -> wordIds.size());
+        Integer next = transitions.get(key(state, wordId));
+        if (next == null) {
+          next = children.size();
+          transitions.put(key(state, wordId), next);
+          children.get(state).add(new int[] {wordId, next});
+          children.add(new ArrayList<>());
+          ends.add(new ArrayList<>());
+        }
+        state = next;
+      }
+      ends.get(state).add(termIndex++);
+    }
+
+    int[] failure = new int[children.size()];
+    int[][] outputs = new int[children.size()][];
+    outputs[ROOT] = new int[0];
+    Queue<Integer> queue = new ArrayDeque<>();
+    for (int[] edge : children.get(ROOT)) {
+      queue.add(edge[1]);
+    }
+    while (!queue.isEmpty()) {
+      int state = queue.remove();
+      List<Integer> matched = new ArrayList<>(ends.get(state));
+      for (int term : outputs[failure[state]]) {
+        matched.add(term);
+      }
+      outputs[state] = matched.stream().mapToInt(Integer::intValue).toArray();
+      for (int[] edge : children.get(state)) {
+        int fallback = failure[state];
+        Integer target = transitions.get(key(fallback, edge[0]));
+        while (target == null && fallback != ROOT) {
+          fallback = failure[fallback];
+          target = transitions.get(key(fallback, edge[0]));
+        }
+        failure[edge[1]] = target != null ? target : ROOT;
+        queue.add(edge[1]);
+      }
+    }
+    return new KeywordAutomaton(ignoreCase, List.copyOf(unique.keySet()), wordIds, transitions,
+        failure, outputs);
+  }
+
+  /**
+   * Compiles the watch list in a file with one term per line; blank lines and lines starting
+   * with {@code #} are skipped.
+   *
+   * @param file       watch-list file
+   * @param ignoreCase whether matching ignores case
+   * @return the automaton
+   * @throws IOException if the file cannot be read
+   */
+  public static KeywordAutomaton load(Path file, boolean ignoreCase) throws IOException {
+    List<String> terms = Files.readAllLines(file, StandardCharsets.UTF_8).stream()
+        .filter(line -> !line.isBlank() && !line.startsWith("#"))
+        .collect(Collectors.toList());
+    return compile(terms, ignoreCase);
+  }
+
+  /**
+   * @return the automaton of the {@code keywords.file} watch list, or {@code null} if none is
+   *     configured
+   * @throws IOException if the watch list cannot be read
+   */
+  public static KeywordAutomaton fromConfig() throws IOException {
+    String file = IndexerConfig.getKeywordsFile();
+    return file.isBlank() ? null
+        : load(Paths.get(file), IndexerConfig.isKeywordsIgnoreCase());
+  }
+
+  /**
+   * @return number of distinct terms
+   */
+  public int size() {
+    return terms.size();
+  }
+
+  /**
+   * @param index term index reported by a matcher
+   * @return the normalized term, its words joined by single spaces
+   */
+  public String getTerm(int index) {
+    return terms.get(index);
+  }
+
+  /**
+   * @return a matcher for one word stream
+   */
+  public Matcher matcher() {
+    return new Matcher();
+  }
+
+  private static long key(int state, int wordId) {
+    return ((long) state << 32) | wordId;
+  }
+
+  /**
+   * @return the word without leading and trailing characters that are neither letters nor digits,
+   *     lowercased when {@code ignoreCase} is set
+   */
+  static String normalize(String word, boolean ignoreCase) {
+    int start = 0;
+    int end = word.length();
+    while (start < end && !Character.isLetterOrDigit(word.charAt(start))) {
+      start++;
+    }
+    while (end > start && !Character.isLetterOrDigit(word.charAt(end - 1))) {
+      end--;
+    }
+    String core = start == 0 && end == word.length() ? word : word.substring(start, end);
+    return ignoreCase ? core.toLowerCase(Locale.ROOT) : core;
+  }
+
+  /**
+   * Counts the terms occurring in one word stream. Not thread-safe.
+   */
+  public final class Matcher {
+
+    private final Map<Integer, Integer> counts = new HashMap<>();
+    private int state = ROOT;
+
+    /**
+     * Advances over the next word of the stream and counts every term ending at it.
+     *
+     * @param word next word
+     */
+    public void next(String word) {
+      Integer wordId = wordIds.get(normalize(word, ignoreCase));
+      if (wordId == null) {
+        state = ROOT;
+        return;
+      }
+      Integer target = transitions.get(key(state, wordId));
+      while (target == null && state != ROOT) {
+        state = failure[state];
+        target = transitions.get(key(state, wordId));
+      }
+      state = target != null ? target : ROOT;
+      for (int term : outputs[state]) {
+        counts.merge(term, 1, Integer::sum);
+      }
+    }
+
+    /**
+     * @return occurrences of every matched term, ordered by term
+     */
+    public Map<String, Integer> getCounts() {
+      if (counts.isEmpty()) {
+        return Collections.emptyMap();
+      }
+      Map<String, Integer> named = new TreeMap<>();
+      counts.forEach((term, count) -> named.put(terms.get(term), count));
+      return named;
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package com.search.indexer.core;
+
+import java.util.Arrays;
+
+/**
+ * Occurrences of words by length, counted during the word scan at the cost of one array increment
+ * per word. Together with the distinct long words it answers "how many words are longer than
+ * {@code n}" for any threshold from the statistics of a single scan. Not thread-safe.
+ */
+public final class LengthHistogram {
+
+  private static final int INITIAL_LENGTHS = 32;
+
+  private long[] counts = new long[INITIAL_LENGTHS];
+  private int maxLength;
+  private long total;
+
+  /**
+   * Counts one occurrence of a word.
+   *
+   * @param length length of the word in chars
+   */
+  public void add(int length) {
+    if (length >= counts.length) {
+      counts = Arrays.copyOf(counts, Math.max(length + 1, 2 * counts.length));
+    }
+    counts[length]++;
+    maxLength = Math.max(maxLength, length);
+    total++;
+  }
+
+  /**
+   * Counts several occurrences of words of one length, such as a bucket reloaded from a snapshot.
+   *
+   * @param length      length of the words in chars
+   * @param occurrences number of occurrences to add
+   */
+  void add(int length, long occurrences) {
+    if (occurrences == 0) {
+      return;
+    }
+    if (length >= counts.length) {
+      counts = Arrays.copyOf(counts, Math.max(length + 1, 2 * counts.length));
+    }
+    counts[length] += occurrences;
+    maxLength = Math.max(maxLength, length);
+    total += occurrences;
+  }
+
+  /**
+   * Adds the counts of another histogram to this one.
+   *
+   * @param other histogram to merge
+   */
+  public void merge(LengthHistogram other) {
+    if (other.maxLength >= counts.length) {
+      counts = Arrays.copyOf(counts, other.maxLength + 1);
+    }
+    for (int length = 0; length <= other.maxLength; length++) {
+      counts[length] += other.counts[length];
+    }
+    maxLength = Math.max(maxLength, other.maxLength);
+    total += other.total;
+  }
+
+  /**
+   * @return estimated heap bytes of the buckets
+   */
+  public long getMemoryBytes() {
+    return (long) counts.length * Long.BYTES;
+  }
+
+  /**
+   * @param length word length in chars
+   * @return occurrences of words of exactly this length
+   */
+  public long getCount(int length) {
+    return length >= 0 && length < counts.length ? counts[length] : 0;
+  }
+
+  /**
+   * @param threshold length in chars
+   * @return occurrences of words longer than {@code threshold}
+   */
+  public long countLongerThan(int threshold) {
+    long count = 0;
+    for (int length = Math.max(0, threshold + 1); length <= maxLength; length++) {
+      count += counts[length];
+    }
+    return count;
+  }
+
+  /**
+   * @return length of the longest word counted, 0 if none
+   */
+  public int getMaxLength() {
+    return maxLength;
+  }
+
+  /**
+   * @return occurrences counted
+   */
+  public long getTotal() {
+    return total;
+  }
+}
@@ -0,0 +1,212 @@
+package com.search.indexer.core;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Admits files for processing only while their estimated memory fits a heap budget, and adapts how
+ * many files run at once to garbage collection pressure.
+ *
+ * <p>Every file holds a {@link Ticket} reserving an estimate of its in-flight memory. The
+ * reservation grows with the live size of the file's accumulators, so one unexpectedly large file
+ * holds back new admissions. A file is always admitted when nothing else runs, so a file larger
+ * than the budget still makes progress on its own.
+ *
+ * <p>Concurrency follows additive-increase / multiplicative-decrease: each new GC pressure event,
+ * a heap pool still above its collection usage threshold after a collection, halves the limit; a
+ * file finishing without a new event raises it by one, up to the configured maximum.
+ */
+@Slf4j
+public class MemoryGovernor {
+
+  private static final Logger logger = LoggerFactory.getLogger(MemoryGovernor.class);
+
+  private final long budget;
+  private final int maxConcurrency;
+  private final LongSupplier pressureEvents;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition released = lock.newCondition();
+  private long reserved;
+  private int active;
+  private int limit;
+  private long lastPressureEvents;
+
+  /**
+   * @param budget         bytes that admitted files may reserve in total
+   * @param maxConcurrency upper bound for the number of files processed at once
+   * @param pressureEvents running count of GC pressure events
+   */
+  public MemoryGovernor(long budget, int maxConcurrency, LongSupplier pressureEvents) {
+    if (budget <= 0 || maxConcurrency <= 0) {
+      throw new IllegalArgumentException("Budget and concurrency must be positive");
+    }
+    this.budget = budget;
+    this.maxConcurrency = maxConcurrency;
+    this.limit = maxConcurrency;
+    this.pressureEvents = pressureEvents;
+    this.lastPressureEvents = pressureEvents.getAsLong();
+  }
+
+  /**
+   * Creates a governor watching the heap pools of this JVM. Each pool supporting collection usage
+   * thresholds gets one at {@code thresholdFraction} of its maximum size, and every collection
+   * leaving a pool above it counts as a pressure event.
+   *
+   * @param budget            bytes that admitted files may reserve in total
+   * @param maxConcurrency    upper bound for the number of files processed at once
+   * @param thresholdFraction fraction of each pool's maximum treated as pressure after a GC
+   * @return a governor for the current heap
+   */
+  public static MemoryGovernor forHeap(long budget, int maxConcurrency, double thresholdFraction) {
+    List<MemoryPoolMXBean> pools = new ArrayList<>();
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      long max = pool.getUsage().getMax();
+      if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported()
+          && max > 0) {
+        pool.setCollectionUsageThreshold((long) (max * thresholdFraction));
+        pools.add(pool);
+      }
+    }
+    logger.debug("Memory governor: budget {} bytes, {} workers, watching {} heap pools",
+        budget, maxConcurrency, pools.size());
+    return new MemoryGovernor(budget, maxConcurrency, () -> {
+      long events = 0;
+      for (MemoryPoolMXBean pool : pools) {
+        events += pool.getCollectionUsageThresholdCount();
+      }
+      return events;
+    });
+  }
+
+  /**
+   * Waits until a file with the given estimate may start.
+   *
+   * @param estimate estimated bytes the file needs while it is processed
+   * @return ticket to update while processing and to close when done
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public Ticket acquire(long estimate) throws InterruptedException {
+    lock.lock();
+    try {
+      adjustLimit(false);
+      while (active > 0 && (active >= limit || reserved + estimate > budget)) {
+        released.await();
+      }
+      active++;
+      reserved += estimate;
+      return new Ticket(estimate);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return number of files allowed to run at once under current GC pressure
+   */
+  public int getConcurrencyLimit() {
+    lock.lock();
+    try {
+      return limit;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return bytes currently reserved by admitted files
+   */
+  public long getReservedBytes() {
+    lock.lock();
+    try {
+      return reserved;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Halves the limit on a new pressure event; otherwise raises it by one when {@code grow}.
+   * Must be called with the lock held.
+   */
+  private void adjustLimit(boolean grow) {
+    long events = pressureEvents.getAsLong();
+    if (events != lastPressureEvents) {
+      lastPressureEvents = events;
+      if (limit > 1) {
+        limit = Math.max(1, limit / 2);
+        logger.warn("GC pressure detected, lowering concurrency to {}", limit);
+      }
+    } else if (grow && limit < maxConcurrency) {
+      limit++;
+      logger.debug("No GC pressure, raising concurrency to {}", limit);
+    }
+  }
+
+  /**
+   * Memory reservation of one admitted file. Owned by the thread processing the file.
+   */
+  public final class Ticket implements AutoCloseable {
+
+    private long bytes;
+    private boolean closed;
+
+    private Ticket(long bytes) {
+      this.bytes = bytes;
+    }
+
+    /**
+     * Grows the reservation to the live memory of the file when it exceeds the current one. Cheap
+     * when it does not, so it can be called for every chunk.
+     *
+     * @param liveBytes current estimated memory of the file
+     */
+    public void update(long liveBytes) {
+      if (liveBytes <= bytes || closed) {
+        return;
+      }
+      lock.lock();
+      try {
+        reserved += liveBytes - bytes;
+        bytes = liveBytes;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * @return bytes currently reserved by this ticket
+     */
+    public long getBytes() {
+      return bytes;
+    }
+
+    /**
+     * Releases the reservation and lets waiting files re-check admission.
+     */
+    @Override
+    public void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      lock.lock();
+      try {
+        reserved -= bytes;
+        active--;
+        adjustLimit(true);
+        released.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
@@ -0,0 +1,195 @@
+package com.search.indexer.core;
+
+import com.search.indexer.model.TermCount;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the bigrams and trigrams of a word stream in a {@link CountMinSketch} and keeps the
+ * {@code k} most frequent of them as heavy-hitter candidates. The sketch is indexed by hashes
+ * combined from the word hashes, so a phrase is only built as a string once its estimate beats the
+ * weakest candidate; memory stays at the sketch plus {@code k} candidates however many distinct
+ * phrases the stream holds.
+ *
+ * <p>Counts are upper estimates within {@link CountMinSketch#getErrorBound()}. Counters with
+ * sketches of the same dimensions merge; the candidates of both are then re-estimated against the
+ * merged sketch. Not thread-safe.
+ */
+public final class PhraseCounter {
+
+  private final CountMinSketch sketch;
+  private final int capacity;
+  private final Map<String, Candidate> candidates = new HashMap<>();
+  /**
+   * Lower bound of the smallest candidate estimate, refreshed when a newcomer exceeds it
+   */
+  private int floor;
+  private String previous;
+  private String beforePrevious;
+  private long previousHash;
+  private long beforePreviousHash;
+
+  /**
+   * @param sketch   sketch receiving the phrase counts
+   * @param capacity number of most frequent phrases kept
+   */
+  public PhraseCounter(CountMinSketch sketch, int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    this.sketch = sketch;
+    this.capacity = capacity;
+  }
+
+  /**
+   * Advances over the next word and counts the bigram and trigram ending at it.
+   *
+   * @param word next normalized word of the stream
+   */
+  public void next(String word) {
+    long hash = BloomFilter.hash(word);
+    if (previous != null) {
+      long bigram = combine(previousHash, hash);
+      offer(bigram, 2, word);
+      if (beforePrevious != null) {
+        offer(combine(beforePreviousHash, bigram), 3, word);
+      }
+    }
+    beforePrevious = previous;
+    beforePreviousHash = previousHash;
+    previous = word;
+    previousHash = hash;
+  }
+
+  /**
+   * Ends the current phrase, so the next word starts a new one.
+   */
+  public void reset() {
+    previous = null;
+    beforePrevious = null;
+  }
+
+  /**
+   * Adds the counts of another counter whose sketch has the same dimensions.
+   *
+   * @param other counter to merge
+   */
+  public void merge(PhraseCounter other) {
+    sketch.merge(other.sketch);
+    Map<String, Candidate> union = new HashMap<>(candidates);
+    other.candidates.forEach(union::putIfAbsent);
+    List<Candidate> all = new ArrayList<>(union.size());
+    for (Candidate candidate : union.values()) {
+      all.add(new Candidate(candidate.phrase, candidate.hash, sketch.estimate(candidate.hash)));
+    }
+    all.sort((a, b) -> a.estimate != b.estimate
+        ? Integer.compare(b.estimate, a.estimate) : a.phrase.compareTo(b.phrase));
+    candidates.clear();
+    for (Candidate candidate : all.subList(0, Math.min(capacity, all.size()))) {
+      candidates.put(candidate.phrase, candidate);
+    }
+    floor = candidates.size() < capacity ? 0 : minEstimate();
+  }
+
+  /**
+   * @return an empty counter with a sketch of the same dimensions, able to merge this one
+   */
+  PhraseCounter emptyCopy() {
+    return new PhraseCounter(new CountMinSketch(sketch.getDepth(), sketch.getWidth()), capacity);
+  }
+
+  /**
+   * @return the most frequent phrases with their estimates, most frequent first
+   */
+  public List<TermCount> top() {
+    List<TermCount> top = new ArrayList<>(candidates.size());
+    for (Candidate candidate : candidates.values()) {
+      top.add(new TermCount(candidate.phrase, candidate.estimate));
+    }
+    top.sort(TermCount.BY_COUNT);
+    return top;
+  }
+
+  /**
+   * @return number of most frequent phrases kept
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * @return bound on the overestimate of the reported counts
+   */
+  public long getErrorBound() {
+    return sketch.getErrorBound();
+  }
+
+  /**
+   * @return bytes of the sketch; the candidates are not counted
+   */
+  public long getMemoryBytes() {
+    return sketch.getMemoryBytes();
+  }
+
+  private void offer(long hash, int length, String last) {
+    int estimate = sketch.add(hash, 1);
+    // Estimates only grow, so a phrase at or below the floor of a full set cannot be a candidate
+    if (candidates.size() >= capacity && estimate <= floor) {
+      return;
+    }
+    String phrase = length == 2 ? previous + " " + last
+        : beforePrevious + " " + previous + " " + last;
+    Candidate candidate = candidates.get(phrase);
+    if (candidate != null) {
+      candidate.estimate = estimate;
+      return;
+    }
+    if (candidates.size() < capacity) {
+      candidates.put(phrase, new Candidate(phrase, hash, estimate));
+      return;
+    }
+    Candidate weakest = null;
+    for (Candidate current : candidates.values()) {
+      if (weakest == null || current.estimate < weakest.estimate) {
+        weakest = current;
+      }
+    }
+    if (estimate > weakest.estimate) {
+      candidates.remove(weakest.phrase);
+      candidates.put(phrase, new Candidate(phrase, hash, estimate));
+      floor = minEstimate();
+    } else {
+      floor = weakest.estimate;
+    }
+  }
+
+  private int minEstimate() {
+    int min = Integer.MAX_VALUE;
+    for (Candidate candidate : candidates.values()) {
+      min = Math.min(min, candidate.estimate);
+    }
+    return min;
+  }
+
+  private static long combine(long first, long second) {
+    long hash = first * 0x9e3779b97f4a7c15L ^ second;
+    hash ^= hash >>> 32;
+    hash *= 0xd6e8feb86659fd93L;
+    return hash ^ hash >>> 32;
+  }
+
+  private static final class Candidate {
+
+    private final String phrase;
+    private final long hash;
+    private int estimate;
+
+    private Candidate(String phrase, long hash, int estimate) {
+      this.phrase = phrase;
+      this.hash = hash;
+      this.estimate = estimate;
+    }
+  }
+}
@@ -21,8 +21,19 @@ public class RuleAccumulator {
   private final WordStatistics statistics;
 
   public RuleAccumulator(IndexingRule rule) {
+    this(rule, new WordStatistics());
+  }
+
+  /**
+   * Creates an accumulator over an existing statistics instance, so several rules can render the
+   * same per-file statistics without each of them re-counting every word.
+   *
+   * @param rule       the rule to apply
+   * @param statistics the shared statistics collector
+   */
+  public RuleAccumulator(IndexingRule rule, WordStatistics statistics) {
     this.rule = Objects.requireNonNull(rule, "IndexingRule cannot be null");
-    this.statistics = new WordStatistics();
+    this.statistics = Objects.requireNonNull(statistics, "WordStatistics cannot be null");
   }
 
   /**
@@ -35,6 +46,13 @@ public class RuleAccumulator {
     statistics.processWord(word);
   }
 
+  /**
+   * @return the statistics this accumulator renders
+   */
+  public WordStatistics getStatistics() {
+    return statistics;
+  }
+
   /**
    * Generates the final result by applying the rule to the accumulated statistics. This method
    * triggers the rule processing and returns the final indexing result.
@@ -0,0 +1,116 @@
+package com.search.indexer.core;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Constants and primitives shared by {@link SnapshotWriter} and {@link SnapshotReader}.
+ *
+ * <p>A snapshot file, big-endian:
+ * <pre>
+ *   header     magic "IXSN", version, segment size, file count, directory offset (long),
+ *              directory length, directory CRC32
+ *   records    one per file, never crossing a segment boundary unless larger than a segment
+ *   directory  per file: record offset (long), record length, record CRC32, uppercase count,
+ *              long-word count, path, varlong word count, word lengths, top words, top
+ *              phrases, keyword counts; then the varint count of skipped files and per skipped
+ *              file: path, category name, varint attempts, cause
+ * </pre>
+ * Word lengths are the varint number of buckets, one more than the longest word, followed by the
+ * varlong occurrences of each length from 0.
+ * Top words and phrases are a varint count followed by each term and its varlong count; keyword
+ * counts a varint count followed by each term and its varint count.
+ * Strings are a varint byte length followed by UTF-8 bytes; a string that may be absent stores its
+ * length plus one, with 0 for none.
+ * A record holds the long words of one file, sorted and front-coded in blocks of
+ * {@link #BLOCK_SIZE}: the block count, each block's offset from the start of the words, then the
+ * words. The first word of a block is stored whole; every other word as a varint count of bytes
+ * shared with its predecessor, a varint suffix length and the UTF-8 suffix.
+ */
+final class SnapshotFormat {
+
+  static final int MAGIC = 0x4958534E;
+  static final int VERSION = 4;
+  static final int HEADER_BYTES = 32;
+  static final int BLOCK_SIZE = 16;
+  /**
+   * Default mapping window; records are aligned so lookups map each window once
+   */
+  static final int DEFAULT_SEGMENT_SIZE = 1 << 30;
+
+  private SnapshotFormat() {
+  }
+
+  static void writeVarint(ByteArrayOutputStream out, int value) {
+    while ((value & ~0x7F) != 0) {
+      out.write((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.write(value);
+  }
+
+  static void writeVarlong(ByteArrayOutputStream out, long value) {
+    while ((value & ~0x7FL) != 0) {
+      out.write((int) (value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.write((int) value);
+  }
+
+  static void writeString(ByteArrayOutputStream out, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarint(out, bytes.length);
+    out.write(bytes, 0, bytes.length);
+  }
+
+  static void writeNullableString(ByteArrayOutputStream out, String value) {
+    if (value == null) {
+      writeVarint(out, 0);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarint(out, bytes.length + 1);
+    out.write(bytes, 0, bytes.length);
+  }
+
+  static String readString(ByteBuffer in) {
+    byte[] bytes = new byte[readVarint(in)];
+    in.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  static String readNullableString(ByteBuffer in) {
+    int length = readVarint(in);
+    if (length == 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length - 1];
+    in.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  static long readVarlong(ByteBuffer in) {
+    long value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = in.get();
+      value |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while (b < 0);
+    return value;
+  }
+
+  static int readVarint(ByteBuffer in) {
+    int value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = in.get();
+      value |= (b & 0x7F) << shift;
+      shift += 7;
+    } while (b < 0);
+    return value;
+  }
+}
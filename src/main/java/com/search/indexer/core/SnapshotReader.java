@@ -0,0 +1,361 @@
+package com.search.indexer.core;
+
+import com.search.indexer.model.FailureCategory;
+import com.search.indexer.model.FileFailure;
+import com.search.indexer.model.TermCount;
+import com.search.indexer.rules.IndexingRule;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Memory-mapped view of a snapshot written by {@link SnapshotWriter}. Opening reads only the
+ * header and the file directory; a file's words are decoded from the mapping when first asked
+ * for, and its record checksum is verified on that first access. Word lookups binary-search the
+ * front-coding blocks and decode a single block.
+ *
+ * <p>Mappings are created per segment on demand and stay valid after {@link #close()}, which only
+ * releases the file handle. Instances are safe for concurrent readers.
+ */
+public final class SnapshotReader implements AutoCloseable {
+
+  private final FileChannel channel;
+  private final int segmentSize;
+  private final long[] offsets;
+  private final int[] lengths;
+  private final int[] checksums;
+  private final int[] uppercaseCounts;
+  private final int[] longWordCounts;
+  private final Path[] files;
+  private final long[] wordCounts;
+  private final LengthHistogram[] wordLengths;
+  private final List<List<TermCount>> topWords;
+  private final List<List<TermCount>> topPhrases;
+  private final List<Map<String, Integer>> keywordCounts;
+  private final List<FileFailure> failures;
+  private final MappedByteBuffer[] segments;
+  /**
+   * Records larger than a segment, each mapped on its own
+   */
+  private final Map<Integer, MappedByteBuffer> largeRecords = new HashMap<>();
+  private final BitSet verified = new BitSet();
+
+  private SnapshotReader(FileChannel channel) throws IOException {
+    this.channel = channel;
+    if (channel.size() < SnapshotFormat.HEADER_BYTES) {
+      throw new IOException("Not a snapshot");
+    }
+    ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, SnapshotFormat.HEADER_BYTES);
+    if (header.getInt() != SnapshotFormat.MAGIC) {
+      throw new IOException("Not a snapshot");
+    }
+    int version = header.getInt();
+    if (version != SnapshotFormat.VERSION) {
+      throw new IOException("Unsupported snapshot version " + version);
+    }
+    this.segmentSize = header.getInt();
+    int count = header.getInt();
+    long directoryOffset = header.getLong();
+    int directoryLength = header.getInt();
+    int directoryChecksum = header.getInt();
+    if (segmentSize <= 0 || count < 0 || directoryLength < 0
+        || directoryOffset + directoryLength > channel.size()) {
+      throw new IOException("Snapshot header is corrupt");
+    }
+
+    ByteBuffer directory = channel.map(FileChannel.MapMode.READ_ONLY, directoryOffset,
+        directoryLength);
+    if (checksum(directory.duplicate()) != directoryChecksum) {
+      throw new IOException("Snapshot directory is corrupt");
+    }
+    offsets = new long[count];
+    lengths = new int[count];
+    checksums = new int[count];
+    uppercaseCounts = new int[count];
+    longWordCounts = new int[count];
+    files = new Path[count];
+    wordCounts = new long[count];
+    wordLengths = new LengthHistogram[count];
+    topWords = new ArrayList<>(count);
+    topPhrases = new ArrayList<>(count);
+    keywordCounts = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      offsets[i] = directory.getLong();
+      lengths[i] = directory.getInt();
+      checksums[i] = directory.getInt();
+      uppercaseCounts[i] = directory.getInt();
+      longWordCounts[i] = directory.getInt();
+      byte[] path = new byte[SnapshotFormat.readVarint(directory)];
+      directory.get(path);
+      files[i] = Paths.get(new String(path, StandardCharsets.UTF_8));
+      wordCounts[i] = SnapshotFormat.readVarlong(directory);
+      wordLengths[i] = readLengths(directory);
+      topWords.add(readTerms(directory));
+      topPhrases.add(readTerms(directory));
+      keywordCounts.add(readKeywordCounts(directory));
+    }
+    int failureCount = SnapshotFormat.readVarint(directory);
+    List<FileFailure> skipped = new ArrayList<>(failureCount);
+    for (int i = 0; i < failureCount; i++) {
+      Path file = Paths.get(SnapshotFormat.readString(directory));
+      FailureCategory category = FailureCategory.valueOf(SnapshotFormat.readString(directory));
+      int attempts = SnapshotFormat.readVarint(directory);
+      skipped.add(new FileFailure(file, category, SnapshotFormat.readNullableString(directory),
+          attempts));
+    }
+    failures = List.copyOf(skipped);
+    segments = new MappedByteBuffer[(int) (directoryOffset / segmentSize) + 1];
+  }
+
+  /**
+   * Opens a snapshot.
+   *
+   * @param snapshot snapshot file
+   * @return the reader
+   * @throws IOException if the file cannot be read, is not a snapshot or its directory is corrupt
+   */
+  public static SnapshotReader open(Path snapshot) throws IOException {
+    FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ);
+    try {
+      return new SnapshotReader(channel);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * @return number of files in the snapshot
+   */
+  public int size() {
+    return files.length;
+  }
+
+  public Path getFile(int fileId) {
+    return files[fileId];
+  }
+
+  public int getUppercaseCount(int fileId) {
+    return uppercaseCounts[fileId];
+  }
+
+  public int getLongWordCount(int fileId) {
+    return longWordCounts[fileId];
+  }
+
+  public long getWordCount(int fileId) {
+    return wordCounts[fileId];
+  }
+
+  /**
+   * @return files the saved batch skipped, in the order they were saved
+   */
+  public List<FileFailure> getFailures() {
+    return failures;
+  }
+
+  /**
+   * Decodes the long words of a file in ascending order.
+   *
+   * @param fileId   position of the file in the snapshot
+   * @param consumer receives each word
+   * @throws IOException if the record is corrupt
+   */
+  public void forEachLongWord(int fileId, Consumer<String> consumer) throws IOException {
+    ByteBuffer record = record(fileId);
+    int count = record.getInt(0);
+    int blocks = record.getInt(4);
+    ByteBuffer words = record.position(8 + 4 * blocks).slice();
+    byte[] previous = new byte[0];
+    for (int i = 0; i < count; i++) {
+      previous = nextWord(words, previous);
+      consumer.accept(new String(previous, StandardCharsets.UTF_8));
+    }
+  }
+
+  /**
+   * Tests whether a file contains a long word by binary-searching its blocks.
+   *
+   * @param fileId position of the file in the snapshot
+   * @param word   word to look up
+   * @return {@code true} if the word is one of the file's long words
+   * @throws IOException if the record is corrupt
+   */
+  public boolean containsLongWord(int fileId, String word) throws IOException {
+    ByteBuffer record = record(fileId);
+    int count = record.getInt(0);
+    int blocks = record.getInt(4);
+    ByteBuffer words = record.position(8 + 4 * blocks).slice();
+    int low = 0;
+    int high = blocks - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      words.position(record.getInt(8 + 4 * mid));
+      int comparison = new String(nextWord(words, new byte[0]), StandardCharsets.UTF_8)
+          .compareTo(word);
+      if (comparison == 0) {
+        return true;
+      } else if (comparison < 0) {
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    if (high < 0) {
+      return false;
+    }
+    words.position(record.getInt(8 + 4 * high));
+    byte[] previous = new byte[0];
+    int inBlock = Math.min(SnapshotFormat.BLOCK_SIZE, count - high * SnapshotFormat.BLOCK_SIZE);
+    for (int i = 0; i < inBlock; i++) {
+      previous = nextWord(words, previous);
+      int comparison = new String(previous, StandardCharsets.UTF_8).compareTo(word);
+      if (comparison >= 0) {
+        return comparison == 0;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Rebuilds the result of a file from its directory entry. The long words are not copied: the
+   * record is mapped, so the result stays readable after this reader is closed, and the statistics
+   * decode the words from the mapping whenever they are visited. The record is only read, and its
+   * checksum verified, once a rule or the caller needs the words.
+   *
+   * @param fileId position of the file in the snapshot
+   * @param rules  rules rendering the statistics
+   * @return the reloaded result
+   * @throws IOException if the record cannot be mapped
+   */
+  public FileResult loadResult(int fileId, List<IndexingRule> rules) throws IOException {
+    map(fileId);
+    WordStatistics statistics = new WordStatistics();
+    statistics.restoreUppercaseCount(uppercaseCounts[fileId]);
+    statistics.restoreWordCount(wordCounts[fileId]);
+    statistics.restoreLengthHistogram(wordLengths[fileId]);
+    statistics.restoreTopTerms(topWords.get(fileId), topPhrases.get(fileId));
+    statistics.restoreKeywordCounts(keywordCounts.get(fileId));
+    statistics.restoreLongWords(this, fileId);
+    return new FileResult(files[fileId], statistics, rules);
+  }
+
+  /**
+   * Releases the file handle. Views already handed out, and records mapped before, remain
+   * readable; other records can no longer be read.
+   */
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * @return a private view of the record, verified against its checksum on first access
+   */
+  private ByteBuffer record(int fileId) throws IOException {
+    ByteBuffer record = map(fileId);
+    synchronized (verified) {
+      if (!verified.get(fileId)) {
+        if (checksum(record.duplicate()) != checksums[fileId]) {
+          throw new IOException("Snapshot record of " + files[fileId] + " is corrupt");
+        }
+        verified.set(fileId);
+      }
+    }
+    return record;
+  }
+
+  /**
+   * @return a private view of the record, mapping its segment on first use without reading it
+   */
+  private ByteBuffer map(int fileId) throws IOException {
+    long offset = offsets[fileId];
+    int length = lengths[fileId];
+    if (length > segmentSize) {
+      synchronized (largeRecords) {
+        MappedByteBuffer mapped = largeRecords.get(fileId);
+        if (mapped == null) {
+          mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+          largeRecords.put(fileId, mapped);
+        }
+        return mapped.duplicate();
+      }
+    }
+    ByteBuffer segment = segment((int) (offset / segmentSize));
+    return segment.slice((int) (offset % segmentSize), length);
+  }
+
+  private ByteBuffer segment(int index) throws IOException {
+    synchronized (segments) {
+      if (segments[index] == null) {
+        long start = (long) index * segmentSize;
+        long length = Math.min(segmentSize, channel.size() - start);
+        segments[index] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+      }
+      return segments[index];
+    }
+  }
+
+  private static LengthHistogram readLengths(ByteBuffer directory) {
+    LengthHistogram histogram = new LengthHistogram();
+    int buckets = SnapshotFormat.readVarint(directory);
+    for (int length = 0; length < buckets; length++) {
+      histogram.add(length, SnapshotFormat.readVarlong(directory));
+    }
+    return histogram;
+  }
+
+  private static List<TermCount> readTerms(ByteBuffer directory) {
+    int count = SnapshotFormat.readVarint(directory);
+    List<TermCount> terms = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      terms.add(new TermCount(SnapshotFormat.readString(directory),
+          SnapshotFormat.readVarlong(directory)));
+    }
+    return terms;
+  }
+
+  private static Map<String, Integer> readKeywordCounts(ByteBuffer directory) {
+    int count = SnapshotFormat.readVarint(directory);
+    if (count == 0) {
+      return Collections.emptyMap();
+    }
+    Map<String, Integer> counts = new TreeMap<>();
+    for (int i = 0; i < count; i++) {
+      counts.put(SnapshotFormat.readString(directory), SnapshotFormat.readVarint(directory));
+    }
+    return counts;
+  }
+
+  /**
+   * Decodes the word following {@code previous} at the position of {@code words}.
+   */
+  private static byte[] nextWord(ByteBuffer words, byte[] previous) {
+    int shared = SnapshotFormat.readVarint(words);
+    int suffix = SnapshotFormat.readVarint(words);
+    byte[] word = new byte[shared + suffix];
+    System.arraycopy(previous, 0, word, 0, shared);
+    words.get(word, shared, suffix);
+    return word;
+  }
+
+  private static int checksum(ByteBuffer buffer) {
+    CRC32 crc = new CRC32();
+    crc.update(buffer);
+    return (int) crc.getValue();
+  }
+}
@@ -0,0 +1,209 @@
+package com.search.indexer.core;
+
+import com.search.indexer.model.FileFailure;
+import com.search.indexer.model.TermCount;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Saves the per-file results of a run as a snapshot in the {@link SnapshotFormat} layout, so they
+ * can be reloaded with {@link SnapshotReader} instead of re-indexing. One record is encoded in
+ * memory at a time; spilled long words are streamed from their sorted runs. The snapshot is
+ * written to a temporary file and moved into place, so readers never see a partial snapshot.
+ * Files a continue-on-error batch skipped are saved with it, so a reloaded or merged batch still
+ * reports them, and so are the word counts, word lengths, top terms and watch-list counts the
+ * rules report.
+ */
+public final class SnapshotWriter {
+
+  private SnapshotWriter() {
+  }
+
+  /**
+   * Writes a snapshot of a batch without failures.
+   *
+   * @param target  snapshot file to create or replace
+   * @param results per-file results; their positions become the file ids
+   * @throws IOException if the snapshot cannot be written
+   */
+  public static void write(Path target, List<FileResult> results) throws IOException {
+    write(target, results, List.of());
+  }
+
+  /**
+   * Writes a snapshot with the default segment size.
+   *
+   * @param target   snapshot file to create or replace
+   * @param results  per-file results; their positions become the file ids
+   * @param failures files the batch skipped
+   * @throws IOException if the snapshot cannot be written
+   */
+  public static void write(Path target, List<FileResult> results, List<FileFailure> failures)
+      throws IOException {
+    write(target, results, failures, SnapshotFormat.DEFAULT_SEGMENT_SIZE);
+  }
+
+  /**
+   * Writes a snapshot whose records are aligned to {@code segmentSize} byte windows.
+   */
+  static void write(Path target, List<FileResult> results, List<FileFailure> failures,
+      int segmentSize) throws IOException {
+    Path absolute = target.toAbsolutePath();
+    Path temporary = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(),
+        ".tmp");
+    try {
+      ByteArrayOutputStream directory = new ByteArrayOutputStream();
+      try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+        long position = SnapshotFormat.HEADER_BYTES;
+        CRC32 crc = new CRC32();
+        for (FileResult result : results) {
+          byte[] record = encodeRecord(result.getStatistics());
+          long segmentEnd = (position / segmentSize + 1) * segmentSize;
+          if (record.length <= segmentSize && position + record.length > segmentEnd) {
+            position = segmentEnd;
+          }
+          writeFully(channel, ByteBuffer.wrap(record), position);
+          crc.reset();
+          crc.update(record);
+
+          byte[] path = result.getFilePath().toString().getBytes(StandardCharsets.UTF_8);
+          ByteBuffer entry = ByteBuffer.allocate(24);
+          entry.putLong(position).putInt(record.length).putInt((int) crc.getValue())
+              .putInt(result.getStatistics().getUppercaseCount())
+              .putInt(result.getStatistics().getLongWordCount());
+          directory.write(entry.array(), 0, entry.capacity());
+          SnapshotFormat.writeVarint(directory, path.length);
+          directory.write(path, 0, path.length);
+          writeSummary(directory, result.getStatistics());
+          position += record.length;
+        }
+        SnapshotFormat.writeVarint(directory, failures.size());
+        for (FileFailure failure : failures) {
+          SnapshotFormat.writeString(directory, failure.getFilePath().toString());
+          SnapshotFormat.writeString(directory, failure.getCategory().name());
+          SnapshotFormat.writeVarint(directory, failure.getAttempts());
+          SnapshotFormat.writeNullableString(directory, failure.getCause());
+        }
+
+        byte[] directoryBytes = directory.toByteArray();
+        writeFully(channel, ByteBuffer.wrap(directoryBytes), position);
+        crc.reset();
+        crc.update(directoryBytes);
+        ByteBuffer header = ByteBuffer.allocate(SnapshotFormat.HEADER_BYTES);
+        header.putInt(SnapshotFormat.MAGIC).putInt(SnapshotFormat.VERSION).putInt(segmentSize)
+            .putInt(results.size()).putLong(position).putInt(directoryBytes.length)
+            .putInt((int) crc.getValue()).flip();
+        writeFully(channel, header, 0);
+        channel.force(false);
+      }
+      Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  /**
+   * Appends the word count, word lengths, top terms and watch-list counts of one file to its
+   * directory entry.
+   */
+  private static void writeSummary(ByteArrayOutputStream directory, WordStatistics statistics) {
+    SnapshotFormat.writeVarlong(directory, statistics.getWordCount());
+    LengthHistogram lengths = statistics.getLengthHistogram();
+    int buckets = lengths.getTotal() > 0 ? lengths.getMaxLength() + 1 : 0;
+    SnapshotFormat.writeVarint(directory, buckets);
+    for (int length = 0; length < buckets; length++) {
+      SnapshotFormat.writeVarlong(directory, lengths.getCount(length));
+    }
+    writeTerms(directory, statistics.getTopWords());
+    writeTerms(directory, statistics.getTopPhrases());
+    Map<String, Integer> keywords = statistics.getKeywordCounts();
+    SnapshotFormat.writeVarint(directory, keywords.size());
+    keywords.forEach((term, count) -> {
+      SnapshotFormat.writeString(directory, term);
+      SnapshotFormat.writeVarint(directory, count);
+    });
+  }
+
+  private static void writeTerms(ByteArrayOutputStream directory, List<TermCount> terms) {
+    SnapshotFormat.writeVarint(directory, terms.size());
+    for (TermCount term : terms) {
+      SnapshotFormat.writeString(directory, term.getTerm());
+      SnapshotFormat.writeVarlong(directory, term.getCount());
+    }
+  }
+
+  /**
+   * Front-codes the sorted long words of one file into a record.
+   */
+  private static byte[] encodeRecord(WordStatistics statistics) {
+    RecordEncoder encoder = new RecordEncoder();
+    statistics.forEachLongWordSorted(encoder::add);
+    return encoder.toByteArray();
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer, long position)
+      throws IOException {
+    while (buffer.hasRemaining()) {
+      position += channel.write(buffer, position);
+    }
+  }
+
+  /**
+   * Accumulates the front-coded words of one record and the offsets of its blocks.
+   */
+  private static final class RecordEncoder {
+
+    private final ByteArrayOutputStream words = new ByteArrayOutputStream();
+    private int[] blockOffsets = new int[16];
+    private byte[] previous = new byte[0];
+    private int count;
+
+    private void add(String word) {
+      byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+      int shared = 0;
+      if (count % SnapshotFormat.BLOCK_SIZE == 0) {
+        int block = count / SnapshotFormat.BLOCK_SIZE;
+        if (block == blockOffsets.length) {
+          blockOffsets = Arrays.copyOf(blockOffsets, block * 2);
+        }
+        blockOffsets[block] = words.size();
+      } else {
+        int max = Math.min(previous.length, bytes.length);
+        while (shared < max && previous[shared] == bytes[shared]) {
+          shared++;
+        }
+      }
+      SnapshotFormat.writeVarint(words, shared);
+      SnapshotFormat.writeVarint(words, bytes.length - shared);
+      words.write(bytes, shared, bytes.length - shared);
+      previous = bytes;
+      count++;
+    }
+
+    /**
+     * @return word count, block count, block offsets and the front-coded words
+     */
+    private byte[] toByteArray() {
+      int blocks = (count + SnapshotFormat.BLOCK_SIZE - 1) / SnapshotFormat.BLOCK_SIZE;
+      ByteBuffer record = ByteBuffer.allocate(8 + 4 * blocks + words.size());
+      record.putInt(count).putInt(blocks);
+      for (int i = 0; i < blocks; i++) {
+        record.putInt(blockOffsets[i]);
+      }
+      record.put(words.toByteArray());
+      return record.array();
+    }
+  }
+}
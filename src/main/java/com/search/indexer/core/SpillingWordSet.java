@@ -0,0 +1,290 @@
+package com.search.indexer.core;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Set of distinct words kept within a memory budget. Words are held in a hash set until its
+ * estimated size exceeds the budget; the set is then sorted and written to a temporary run file,
+ * one word per line, and emptied. Reading merges all runs and the in-memory remainder with a
+ * k-way merge that drops duplicates, so heap use stays bounded by the budget plus one buffered
+ * reader per run regardless of vocabulary size.
+ *
+ * <p>Words never contain line terminators, since the tokenizer splits on whitespace, which makes
+ * plain lines a safe run format. Run files are removed by {@link #delete()}, which the owner calls
+ * once the words are no longer needed; long-running processes would otherwise accumulate them.
+ */
+@Slf4j
+public class SpillingWordSet {
+
+  private static final Logger logger = LoggerFactory.getLogger(SpillingWordSet.class);
+
+  /**
+   * Estimated bytes per entry besides its characters: String and array headers plus the hash
+   * set node
+   */
+  private static final int ENTRY_OVERHEAD_BYTES = 72;
+  private static final int INITIAL_SET_CAPACITY = 1000;
+
+  private final long memoryBudget;
+  private final Path spillDirectory;
+  private final List<Path> runs = new ArrayList<>();
+  private Set<String> memory = new HashSet<>(INITIAL_SET_CAPACITY);
+  private long memoryBytes;
+  private int spilledDistinctCount = -1;
+
+  /**
+   * @param memoryBudget   estimated bytes of words kept in memory before spilling; 0 or less
+   *                       never spills
+   * @param spillDirectory directory receiving run files
+   */
+  public SpillingWordSet(long memoryBudget, Path spillDirectory) {
+    this.memoryBudget = memoryBudget;
+    this.spillDirectory = spillDirectory;
+  }
+
+  /**
+   * @param word word to add
+   * @return {@code true} if the word was not yet held in memory; a word already spilled to a run
+   *     may still be reported as new
+   */
+  public boolean add(String word) {
+    if (!memory.add(word)) {
+      return false;
+    }
+    spilledDistinctCount = -1;
+    memoryBytes += ENTRY_OVERHEAD_BYTES + 2L * word.length();
+    if (memoryBudget > 0 && memoryBytes > memoryBudget) {
+      spill();
+    }
+    return true;
+  }
+
+  /**
+   * @return {@code true} once at least one run has been written to disk
+   */
+  public boolean hasSpilled() {
+    return !runs.isEmpty();
+  }
+
+  /**
+   * @return the words currently held in memory, which is every word unless
+   *     {@link #hasSpilled()}
+   */
+  public Set<String> inMemory() {
+    return memory;
+  }
+
+  /**
+   * @return estimated heap bytes of the words held in memory
+   */
+  public long getMemoryBytes() {
+    return memoryBytes;
+  }
+
+  /**
+   * @return number of distinct words; requires a merge pass once spilled
+   */
+  public int size() {
+    if (!hasSpilled()) {
+      return memory.size();
+    }
+    if (spilledDistinctCount < 0) {
+      int[] count = {0};
+      forEachSorted(word -> count[0]++);
+      spilledDistinctCount = count[0];
+    }
+    return spilledDistinctCount;
+  }
+
+  /**
+   * Visits every distinct word once in ascending order.
+   *
+   * @param consumer receives each word
+   * @throws UncheckedIOException if a run cannot be read
+   */
+  public void forEachSorted(Consumer<String> consumer) {
+    List<String> sortedMemory = new ArrayList<>(memory);
+    Collections.sort(sortedMemory);
+    if (!hasSpilled()) {
+      sortedMemory.forEach(consumer);
+      return;
+    }
+
+    List<BufferedReader> readers = new ArrayList<>(runs.size());
+    try {
+      PriorityQueue<RunCursor> queue = new PriorityQueue<>(runs.size() + 1);
+      RunCursor memoryCursor = new RunCursor(sortedMemory.iterator(), null);
+      if (memoryCursor.advance()) {
+        queue.add(memoryCursor);
+      }
+      for (Path run : runs) {
+        BufferedReader reader = Files.newBufferedReader(run, StandardCharsets.UTF_8);
+        readers.add(reader);
+        RunCursor cursor = new RunCursor(null, reader);
+        if (cursor.advance()) {
+          queue.add(cursor);
+        }
+      }
+
+      String previous = null;
+      while (!queue.isEmpty()) {
+        RunCursor cursor = queue.poll();
+        if (!cursor.current.equals(previous)) {
+          previous = cursor.current;
+          consumer.accept(previous);
+        }
+        if (cursor.advance()) {
+          queue.add(cursor);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to merge spilled words", e);
+    } finally {
+      for (BufferedReader reader : readers) {
+        try {
+          reader.close();
+        } catch (IOException e) {
+          // best effort, the merge result is already complete or failed
+        }
+      }
+    }
+  }
+
+  /**
+   * Moves the words of another set into this one without rewriting them: its runs are adopted as
+   * they are and its in-memory words added, spilling if this set then exceeds its budget. Sets
+   * holding disjoint words, such as the hash stripes of one vocabulary, keep the memory estimate
+   * exact. The other set is left empty and owns no run files afterwards.
+   *
+   * @param other set to empty into this one
+   */
+  public void absorb(SpillingWordSet other) {
+    runs.addAll(other.runs);
+    other.runs.clear();
+    memory.addAll(other.memory);
+    memoryBytes += other.memoryBytes;
+    spilledDistinctCount = -1;
+    other.memory = new HashSet<>(INITIAL_SET_CAPACITY);
+    other.memoryBytes = 0;
+    other.spilledDistinctCount = -1;
+    if (memoryBudget > 0 && memoryBytes > memoryBudget) {
+      spill();
+    }
+  }
+
+  /**
+   * Merges every run and the in-memory words into a single deduplicated run, so a finished set
+   * holds one file and no words in memory.
+   */
+  public void consolidate() {
+    if (!hasSpilled() || (runs.size() == 1 && memory.isEmpty())) {
+      return;
+    }
+    Path merged = createRunFile();
+    int[] count = {0};
+    try (BufferedWriter writer = Files.newBufferedWriter(merged, StandardCharsets.UTF_8)) {
+      forEachSorted(word -> {
+        try {
+          writer.write(word);
+          writer.newLine();
+          count[0]++;
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to consolidate spilled words", e);
+    }
+    delete();
+    runs.add(merged);
+    spilledDistinctCount = count[0];
+  }
+
+  /**
+   * Deletes every run file and forgets all words.
+   */
+  public void delete() {
+    for (Path run : runs) {
+      try {
+        Files.deleteIfExists(run);
+      } catch (IOException e) {
+        logger.warn("Failed to delete spill file {}: {}", run, e.getMessage());
+      }
+    }
+    runs.clear();
+    memory = new HashSet<>(INITIAL_SET_CAPACITY);
+    memoryBytes = 0;
+    spilledDistinctCount = -1;
+  }
+
+  private void spill() {
+    List<String> sorted = new ArrayList<>(memory);
+    Collections.sort(sorted);
+    Path run = createRunFile();
+    try (BufferedWriter writer = Files.newBufferedWriter(run, StandardCharsets.UTF_8)) {
+      for (String word : sorted) {
+        writer.write(word);
+        writer.newLine();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to spill words to " + run, e);
+    }
+    runs.add(run);
+    memory = new HashSet<>(INITIAL_SET_CAPACITY);
+    memoryBytes = 0;
+  }
+
+  private Path createRunFile() {
+    try {
+      return Files.createTempFile(spillDirectory, "longwords-", ".run");
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to create spill file in " + spillDirectory, e);
+    }
+  }
+
+  /**
+   * Head of one sorted source: either the in-memory iterator or a run reader.
+   */
+  private static final class RunCursor implements Comparable<RunCursor> {
+
+    private final Iterator<String> iterator;
+    private final BufferedReader reader;
+    private String current;
+
+    private RunCursor(Iterator<String> iterator, BufferedReader reader) {
+      this.iterator = iterator;
+      this.reader = reader;
+    }
+
+    private boolean advance() throws IOException {
+      if (iterator != null) {
+        current = iterator.hasNext() ? iterator.next() : null;
+      } else {
+        current = reader.readLine();
+      }
+      return current != null;
+    }
+
+    @Override
+    public int compareTo(RunCursor other) {
+      return current.compareTo(other.current);
+    }
+  }
+}
@@ -0,0 +1,163 @@
+package com.search.indexer.core;
+
+import java.util.Objects;
+
+/**
+ * Splits a character stream into words while removing HTML tags, one fixed-size window at a time.
+ * Words and tags may span window boundaries; the tokenizer carries the partial word or tag over to
+ * the next call, so memory use depends only on the window size and the configured caps, never on
+ * file size or line length.
+ *
+ * <p>Results match the line-based path ({@link com.search.indexer.util.TextCleaner} followed by a
+ * whitespace split): a tag is a {@code <} followed by at least one character up to the next
+ * {@code >} on the same line, and a {@code <} without a closing {@code >} on its line is kept as
+ * text. Two bounded deviations keep memory constant:
+ * <ul>
+ *   <li>a tag longer than {@code maxTagLength} is treated as text</li>
+ *   <li>a word longer than {@code maxWordLength} is truncated to that length</li>
+ * </ul>
+ *
+ * <p>Runs of word or tag characters are located by a {@link DelimiterScanner} and appended in
+ * bulk; only the character that ends a run goes through the per-character rules.
+ */
+public class StreamingTokenizer {
+
+  private final WordStatistics statistics;
+  private final int maxWordLength;
+  private final int maxTagLength;
+  private final DelimiterScanner scanner;
+  private final StringBuilder wordBuilder;
+  private final StringBuilder tagBuilder;
+  private boolean inTag;
+
+  /**
+   * @param statistics      collector receiving every completed word
+   * @param initialCapacity initial capacity of the word buffer
+   * @param maxWordLength   longest word kept; longer words are truncated
+   * @param maxTagLength    longest tag body buffered before it is treated as text
+   */
+  public StreamingTokenizer(WordStatistics statistics, int initialCapacity, int maxWordLength,
+      int maxTagLength) {
+    this(statistics, initialCapacity, maxWordLength, maxTagLength, DelimiterScanner.fromConfig());
+  }
+
+  /**
+   * @param statistics      collector receiving every completed word
+   * @param initialCapacity initial capacity of the word buffer
+   * @param maxWordLength   longest word kept; longer words are truncated
+   * @param maxTagLength    longest tag body buffered before it is treated as text
+   * @param scanner         kernel locating the end of each run of word or tag characters
+   */
+  public StreamingTokenizer(WordStatistics statistics, int initialCapacity, int maxWordLength,
+      int maxTagLength, DelimiterScanner scanner) {
+    this.scanner = Objects.requireNonNull(scanner, "scanner cannot be null");
+    this.statistics = Objects.requireNonNull(statistics, "statistics cannot be null");
+    if (maxWordLength <= 0 || maxTagLength <= 0) {
+      throw new IllegalArgumentException("maxWordLength and maxTagLength must be positive");
+    }
+    this.maxWordLength = maxWordLength;
+    this.maxTagLength = maxTagLength;
+    this.wordBuilder = new StringBuilder(Math.min(initialCapacity, maxWordLength));
+    this.tagBuilder = new StringBuilder();
+  }
+
+  /**
+   * Consumes the next window of characters.
+   *
+   * @param buffer source characters
+   * @param offset index of the first character to consume
+   * @param length number of characters to consume
+   */
+  public void feed(char[] buffer, int offset, int length) {
+    int end = offset + length;
+    int i = offset;
+    while (i < end) {
+      if (inTag) {
+        // Bulk-append up to the cap; the next character closes, breaks or overflows the tag
+        int run = Math.min(scanner.tagEnd(buffer, i, end) - i,
+            maxTagLength - tagBuilder.length());
+        tagBuilder.append(buffer, i, run);
+        i += run;
+        if (i < end) {
+          feedTag(buffer[i++]);
+        }
+      } else {
+        int stop = scanner.wordEnd(buffer, i, end);
+        int run = Math.min(stop - i, maxWordLength - wordBuilder.length());
+        if (run > 0) {
+          wordBuilder.append(buffer, i, run);
+        }
+        i = stop;
+        if (i < end) {
+          char c = buffer[i++];
+          if (c == '<') {
+            inTag = true;
+          } else {
+            appendText(c);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Flushes any pending tag or word. Must be called once after the last window.
+   */
+  public void finish() {
+    if (inTag) {
+      replayTagAsText();
+    }
+    emitWord();
+  }
+
+  private void feedTag(char c) {
+    if (c == '>') {
+      if (tagBuilder.length() == 0) {
+        // "<>" is not a tag: the pattern needs at least one character between the brackets
+        inTag = false;
+        appendText('<');
+        appendText('>');
+      } else {
+        tagBuilder.setLength(0);
+        inTag = false;
+      }
+    } else if (c == '\n' || c == '\r') {
+      // Tags never span lines, so an unclosed '<' and everything after it stays as text
+      replayTagAsText();
+      appendText(c);
+    } else if (tagBuilder.length() >= maxTagLength) {
+      replayTagAsText();
+      if (c == '<') {
+        inTag = true;
+      } else {
+        appendText(c);
+      }
+    } else {
+      tagBuilder.append(c);
+    }
+  }
+
+  private void replayTagAsText() {
+    inTag = false;
+    appendText('<');
+    for (int i = 0; i < tagBuilder.length(); i++) {
+      appendText(tagBuilder.charAt(i));
+    }
+    tagBuilder.setLength(0);
+  }
+
+  private void appendText(char c) {
+    if (Character.isWhitespace(c)) {
+      emitWord();
+    } else if (wordBuilder.length() < maxWordLength) {
+      wordBuilder.append(c);
+    }
+  }
+
+  private void emitWord() {
+    if (!wordBuilder.isEmpty()) {
+      statistics.processWord(wordBuilder.toString());
+      wordBuilder.setLength(0);
+    }
+  }
+}
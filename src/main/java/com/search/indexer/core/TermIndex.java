@@ -0,0 +1,231 @@
+package com.search.indexer.core;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable in-memory index from long words to the files containing them. Terms are kept in one
+ * sorted array, so exact and prefix lookups are binary searches and a prefix result is a view of
+ * a contiguous range; every term has a {@link CompressedIdSet} posting list of file ids.
+ *
+ * <p>Wildcard patterns support {@code *} (any run of characters) and {@code ?} (one character).
+ * The literal text before the first wildcard narrows the scan to a prefix range.
+ */
+public final class TermIndex {
+
+  private static final TermIndex EMPTY =
+      new TermIndex(new String[0], new Path[0], new CompressedIdSet[0]);
+
+  private final String[] terms;
+  private final Path[] files;
+  private final CompressedIdSet[] postings;
+  private final List<String> termList;
+
+  private TermIndex(String[] terms, Path[] files, CompressedIdSet[] postings) {
+    this.terms = terms;
+    this.files = files;
+    this.postings = postings;
+    this.termList = Collections.unmodifiableList(Arrays.asList(terms));
+  }
+
+  /**
+   * @return an index without terms
+   */
+  public static TermIndex empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Builds the index of a batch. File ids are positions in {@code results}.
+   *
+   * @param sortedTerms distinct long words of all results in ascending order
+   * @param results     per-file results
+   * @return the index
+   */
+  public static TermIndex build(List<String> sortedTerms, List<FileResult> results) {
+    String[] terms = sortedTerms.toArray(new String[0]);
+    Path[] files = new Path[results.size()];
+    int[][] lists = new int[terms.length][];
+    int[] counts = new int[terms.length];
+    for (int fileId = 0; fileId < files.length; fileId++) {
+      FileResult result = results.get(fileId);
+      files[fileId] = result.getFilePath();
+      int id = fileId;
+      result.getStatistics().forEachLongWord(word -> {
+        int ordinal = Arrays.binarySearch(terms, word);
+        if (ordinal < 0) {
+          return;
+        }
+        int[] list = lists[ordinal];
+        if (list == null) {
+          list = new int[2];
+          lists[ordinal] = list;
+        } else if (counts[ordinal] == list.length) {
+          list = Arrays.copyOf(list, list.length * 2);
+          lists[ordinal] = list;
+        }
+        list[counts[ordinal]++] = id;
+      });
+    }
+    CompressedIdSet[] postings = new CompressedIdSet[terms.length];
+    for (int i = 0; i < terms.length; i++) {
+      postings[i] = CompressedIdSet.of(lists[i] != null ? lists[i] : new int[0], counts[i]);
+      lists[i] = null;
+    }
+    return new TermIndex(terms, files, postings);
+  }
+
+  /**
+   * @return number of distinct terms
+   */
+  public int size() {
+    return terms.length;
+  }
+
+  /**
+   * @param term term to look up
+   * @return a list holding {@code term} if it is indexed, otherwise an empty list
+   */
+  public List<String> exact(String term) {
+    return Arrays.binarySearch(terms, term) >= 0 ? List.of(term) : List.of();
+  }
+
+  /**
+   * @param prefix prefix to look up
+   * @return view of the indexed terms starting with {@code prefix}, in ascending order
+   */
+  public List<String> prefix(String prefix) {
+    int from = lowerBound(prefix);
+    return termList.subList(from, prefixEnd(prefix, from));
+  }
+
+  /**
+   * @param pattern pattern where {@code *} matches any run of characters and {@code ?} one
+   * @return indexed terms matching the whole pattern, in ascending order
+   */
+  public List<String> wildcard(String pattern) {
+    int literal = 0;
+    while (literal < pattern.length() && !isWildcard(pattern.charAt(literal))) {
+      literal++;
+    }
+    if (literal == pattern.length()) {
+      return exact(pattern);
+    }
+    String prefix = pattern.substring(0, literal);
+    int from = lowerBound(prefix);
+    int to = prefixEnd(prefix, from);
+    List<String> matches = new ArrayList<>();
+    for (int i = from; i < to; i++) {
+      if (matches(terms[i], literal, pattern, literal)) {
+        matches.add(terms[i]);
+      }
+    }
+    return matches;
+  }
+
+  /**
+   * Runs a query in the form the CLI accepts: an exact term, a prefix ending in a single
+   * {@code *}, or any other wildcard pattern.
+   *
+   * @param query query text
+   * @return matching terms mapped to the files containing them, in ascending term order
+   */
+  public Map<String, List<Path>> query(String query) {
+    List<String> matched;
+    int firstWildcard = indexOfWildcard(query);
+    if (firstWildcard < 0) {
+      matched = exact(query);
+    } else if (firstWildcard == query.length() - 1 && query.charAt(firstWildcard) == '*') {
+      matched = prefix(query.substring(0, firstWildcard));
+    } else {
+      matched = wildcard(query);
+    }
+    Map<String, List<Path>> result = new LinkedHashMap<>();
+    for (String term : matched) {
+      result.put(term, filesOf(term));
+    }
+    return result;
+  }
+
+  /**
+   * @param term indexed term
+   * @return files containing {@code term}, or an empty list if it is not indexed
+   */
+  public List<Path> filesOf(String term) {
+    int ordinal = Arrays.binarySearch(terms, term);
+    if (ordinal < 0) {
+      return List.of();
+    }
+    List<Path> paths = new ArrayList<>(postings[ordinal].size());
+    postings[ordinal].forEach(fileId -> paths.add(files[fileId]));
+    return paths;
+  }
+
+  private int lowerBound(String key) {
+    int ordinal = Arrays.binarySearch(terms, key);
+    return ordinal >= 0 ? ordinal : -ordinal - 1;
+  }
+
+  /**
+   * Terms starting with {@code prefix} are contiguous from {@code from}; finds the end of that run.
+   */
+  private int prefixEnd(String prefix, int from) {
+    int low = from;
+    int high = terms.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (terms[mid].startsWith(prefix)) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private static int indexOfWildcard(String text) {
+    for (int i = 0; i < text.length(); i++) {
+      if (isWildcard(text.charAt(i))) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean isWildcard(char c) {
+    return c == '*' || c == '?';
+  }
+
+  /**
+   * Glob match of {@code text} from {@code t} against {@code pattern} from {@code p}, backtracking
+   * only to the most recent {@code *}.
+   */
+  private static boolean matches(String text, int t, String pattern, int p) {
+    int star = -1;
+    int starText = 0;
+    while (t < text.length()) {
+      if (p < pattern.length()
+          && (pattern.charAt(p) == '?' || pattern.charAt(p) == text.charAt(t))) {
+        t++;
+        p++;
+      } else if (p < pattern.length() && pattern.charAt(p) == '*') {
+        star = p++;
+        starText = t;
+      } else if (star >= 0) {
+        p = star + 1;
+        t = ++starText;
+      } else {
+        return false;
+      }
+    }
+    while (p < pattern.length() && pattern.charAt(p) == '*') {
+      p++;
+    }
+    return p == pattern.length();
+  }
+}
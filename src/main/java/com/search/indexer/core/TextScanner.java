@@ -0,0 +1,123 @@
+package com.search.indexer.core;
+
+import com.search.indexer.config.IndexerConfig;
+import com.search.indexer.io.CharsetSniffer;
+import com.search.indexer.io.ChunkDecoder;
+import com.search.indexer.io.DetectedEncoding;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Turns a byte stream into word statistics: sniffs the encoding from the first chunk, decodes each
+ * chunk with the matching {@link ChunkDecoder} and feeds the characters to a
+ * {@link StreamingTokenizer}. One instance scans one stream.
+ */
+public class TextScanner {
+
+  private static final int WORD_BUILDER_CAPACITY = IndexerConfig.getWordBuilderCapacity();
+  private static final int MAX_WORD_LENGTH = IndexerConfig.getMaxWordLength();
+  private static final int MAX_TAG_LENGTH = IndexerConfig.getMaxTagLength();
+  private static final Charset FALLBACK_CHARSET = IndexerConfig.getFallbackCharset();
+  private static final CodingErrorAction ERROR_ACTION =
+      ChunkDecoder.parseErrorAction(IndexerConfig.getMalformedInputAction());
+
+  private final StreamingTokenizer tokenizer;
+  private final CharBuffer chars;
+  private ChunkDecoder decoder;
+  private DetectedEncoding encoding;
+
+  /**
+   * @param statistics collector receiving every word
+   * @param chunkSize  size of the decoded character window
+   */
+  public TextScanner(WordStatistics statistics, int chunkSize) {
+    this(statistics, CharBuffer.allocate(chunkSize));
+  }
+
+  /**
+   * Creates a scanner decoding into a caller-owned window, so workers can reuse one window for
+   * every file they scan. The window is cleared and must not be used elsewhere until the scanner
+   * is finished.
+   *
+   * @param statistics collector receiving every word
+   * @param chars      array-backed window receiving decoded characters
+   */
+  public TextScanner(WordStatistics statistics, CharBuffer chars) {
+    this.tokenizer = new StreamingTokenizer(statistics, WORD_BUILDER_CAPACITY, MAX_WORD_LENGTH,
+        MAX_TAG_LENGTH);
+    this.chars = chars;
+    chars.clear();
+  }
+
+  /**
+   * Creates a scanner for a part of a stream whose encoding is already known, such as a chunk cut
+   * from a file at a line break. No byte order mark is skipped.
+   *
+   * @param statistics collector receiving every word
+   * @param chars      array-backed window receiving decoded characters
+   * @param encoding   encoding of the stream the bytes belong to
+   */
+  public TextScanner(WordStatistics statistics, CharBuffer chars, DetectedEncoding encoding) {
+    this(statistics, chars);
+    this.encoding = encoding;
+    this.decoder = ChunkDecoder.forEncoding(encoding, ERROR_ACTION);
+  }
+
+  /**
+   * Decodes and tokenizes the remaining bytes of {@code bytes}. The first call also detects the
+   * encoding, so it should receive a full chunk unless the stream is shorter. An incomplete
+   * multi-byte sequence at the end is left in the buffer; callers compact the buffer and append
+   * the following bytes before the next call.
+   *
+   * @param bytes      bytes to scan, positioned at the first unread byte
+   * @param endOfInput {@code true} if no bytes follow
+   * @throws CharacterCodingException if the input is malformed and malformed input is reported
+   */
+  public void feed(ByteBuffer bytes, boolean endOfInput) throws CharacterCodingException {
+    if (decoder == null) {
+      detectEncoding(bytes, endOfInput);
+    }
+    while (true) {
+      int before = bytes.remaining();
+      decoder.decode(bytes, chars, endOfInput);
+      int produced = chars.position();
+      if (produced > 0) {
+        tokenizer.feed(chars.array(), 0, produced);
+        chars.clear();
+      }
+      if (!bytes.hasRemaining() || (produced == 0 && bytes.remaining() == before)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Flushes the last word. Must be called once after the final {@link #feed}.
+   */
+  public void finish() {
+    tokenizer.finish();
+  }
+
+  /**
+   * @return the encoding detected from the first chunk, or {@code null} before the first feed
+   */
+  public DetectedEncoding getEncoding() {
+    return encoding;
+  }
+
+  private void detectEncoding(ByteBuffer bytes, boolean endOfInput) {
+    if (bytes.hasArray()) {
+      encoding = CharsetSniffer.sniff(bytes.array(), bytes.arrayOffset() + bytes.position(),
+          bytes.remaining(), endOfInput, FALLBACK_CHARSET);
+    } else {
+      byte[] sample = new byte[bytes.remaining()];
+      bytes.duplicate().get(sample);
+      encoding = CharsetSniffer.sniff(sample, 0, sample.length, endOfInput, FALLBACK_CHARSET);
+    }
+    bytes.position(bytes.position() + encoding.getBomLength());
+    decoder = ChunkDecoder.forEncoding(encoding, ERROR_ACTION);
+  }
+}
@@ -0,0 +1,83 @@
+package com.search.indexer.core;
+
+import static jdk.incubator.vector.VectorOperators.UNSIGNED_LE;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link DelimiterScanner} on the incubating Vector API. Each step loads a register of chars (16
+ * on AVX2, 32 on AVX-512) as unsigned shorts and compares them all at once; the first set lane of
+ * the match mask is the stop index. The remainder shorter than one register goes through the
+ * scalar kernel.
+ *
+ * <p>{@link Character#isWhitespace(char)} holds only for chars up to {@code ' '} and for a few
+ * separators between {@code U+1680} and {@code U+3000}, so those two ranges are the whitespace
+ * candidates; callers re-check the candidate they stop at. Only instantiated by
+ * {@link DelimiterScanner#forKernel(String)} once the module is known to be present.
+ */
+final class VectorDelimiterScanner extends DelimiterScanner {
+
+  private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+  private static final short SPACE = ' ';
+  private static final short FIRST_WIDE_SPACE = 0x1680;
+  private static final short WIDE_SPACE_RANGE = 0x3000 - FIRST_WIDE_SPACE;
+
+  @Override
+  public int wordEnd(char[] buffer, int from, int to) {
+    int i = from;
+    for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+      ShortVector chars = ShortVector.fromCharArray(SPECIES, buffer, i);
+      int lane = mayBeWhitespace(chars).or(chars.eq((short) '<')).firstTrue();
+      if (lane < SPECIES.length()) {
+        return i + lane;
+      }
+    }
+    return SCALAR.wordEnd(buffer, i, to);
+  }
+
+  @Override
+  public int tagEnd(char[] buffer, int from, int to) {
+    int i = from;
+    for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+      ShortVector chars = ShortVector.fromCharArray(SPECIES, buffer, i);
+      int lane = chars.eq((short) '>').or(chars.eq((short) '\n')).or(chars.eq((short) '\r'))
+          .firstTrue();
+      if (lane < SPECIES.length()) {
+        return i + lane;
+      }
+    }
+    return SCALAR.tagEnd(buffer, i, to);
+  }
+
+  @Override
+  public int whitespace(char[] buffer, int from, int to) {
+    int i = from;
+    for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+      int lane = mayBeWhitespace(ShortVector.fromCharArray(SPECIES, buffer, i)).firstTrue();
+      if (lane < SPECIES.length()) {
+        return i + lane;
+      }
+    }
+    return SCALAR.whitespace(buffer, i, to);
+  }
+
+  @Override
+  public String getName() {
+    return "vector (" + SPECIES.vectorBitSize() + "-bit)";
+  }
+
+  /**
+   * @return chars per register
+   */
+  int getLanes() {
+    return SPECIES.length();
+  }
+
+  private static VectorMask<Short> mayBeWhitespace(ShortVector chars) {
+    // One unsigned compare tests the wide range: chars below its start wrap around to large values
+    return chars.compare(UNSIGNED_LE, SPACE)
+        .or(chars.sub(FIRST_WIDE_SPACE).compare(UNSIGNED_LE, WIDE_SPACE_RANGE));
+  }
+}
@@ -0,0 +1,88 @@
+package com.search.indexer.core;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe dictionary assigning compact, dense int ids to distinct words. Each distinct word is
+ * stored once for the whole batch; per-file structures keep only ids and resolve them back to
+ * strings when rendering.
+ *
+ * <p>Ids are assigned in first-seen order starting at 0. The reverse mapping is kept in fixed-size
+ * pages so it can grow without copying existing entries. The dictionary only grows, so its
+ * lifetime should match the batch whose results reference it.
+ */
+public class WordDictionary {
+
+  private static final int PAGE_BITS = 12;
+  private static final int PAGE_SIZE = 1 << PAGE_BITS;
+  private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+  private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+  private final Object pagesLock = new Object();
+  private volatile String[][] pages = new String[16][];
+  private int nextId;
+
+  /**
+   * Returns the id of a word, assigning the next free id when the word is new.
+   *
+   * @param word the word to look up
+   * @return the id of the word
+   */
+  public int idOf(String word) {
+    Integer id = ids.get(word);
+    if (id != null) {
+      return id;
+    }
+    return ids.computeIfAbsent(word, this::assign);
+  }
+
+  /**
+   * @param word the word to look up
+   * @return the id of the word, or -1 if it has never been added
+   */
+  public int lookup(String word) {
+    Integer id = ids.get(word);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * @param id id returned by {@link #idOf(String)}
+   * @return the word with that id
+   * @throws IndexOutOfBoundsException if the id was never assigned
+   */
+  public String wordOf(int id) {
+    String[][] current = pages;
+    int page = id >>> PAGE_BITS;
+    String word = id >= 0 && page < current.length && current[page] != null
+        ? current[page][id & PAGE_MASK] : null;
+    if (word == null) {
+      throw new IndexOutOfBoundsException("Unknown word id: " + id);
+    }
+    return word;
+  }
+
+  /**
+   * @return number of distinct words in the dictionary
+   */
+  public int size() {
+    return ids.size();
+  }
+
+  private Integer assign(String word) {
+    synchronized (pagesLock) {
+      int id = nextId++;
+      int page = id >>> PAGE_BITS;
+      String[][] current = pages;
+      if (page >= current.length) {
+        current = Arrays.copyOf(current, current.length * 2);
+      }
+      if (current[page] == null) {
+        current[page] = new String[PAGE_SIZE];
+      }
+      current[page][id & PAGE_MASK] = word;
+      pages = current;
+      return id;
+    }
+  }
+}
@@ -0,0 +1,269 @@
+package com.search.indexer.core;
+
+import com.search.indexer.model.TermCount;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Word to count map on open addressing: parallel arrays of keys and primitive {@code int} counts
+ * with linear probing, so counting a word allocates nothing once the word is present.
+ *
+ * <p>Counts are exact until the estimated heap size of the table reaches its memory budget. The
+ * table then prunes the words with the lowest counts, as in lossy counting: every count it reports
+ * afterwards may be short by at most {@link #getMaxError()}, so frequent words keep their rank
+ * while rare words make room. Tables merge by summing counts and errors. Not thread-safe.
+ */
+public final class WordFrequencyTable {
+
+  /**
+   * Estimated bytes per entry besides its characters: String and array headers plus the key
+   * reference and count of its slot
+   */
+  private static final int ENTRY_OVERHEAD_BYTES = 56;
+  private static final int SLOT_BYTES = 8;
+  private static final int INITIAL_CAPACITY = 64;
+  /**
+   * Fraction of the budget a prune frees at least
+   */
+  private static final double PRUNE_TARGET = 0.75;
+
+  private final long memoryBudget;
+  private String[] keys;
+  private int[] counts;
+  private int size;
+  private long wordBytes;
+  private long total;
+  private long maxError;
+
+  /**
+   * @param memoryBudget estimated heap bytes of the table before it prunes rare words; 0 or less
+   *                     keeps every word
+   */
+  public WordFrequencyTable(long memoryBudget) {
+    this.memoryBudget = memoryBudget;
+    this.keys = new String[INITIAL_CAPACITY];
+    this.counts = new int[INITIAL_CAPACITY];
+  }
+
+  /**
+   * Counts one occurrence of a word.
+   *
+   * @param word word to count
+   */
+  public void add(String word) {
+    add(word, 1);
+  }
+
+  /**
+   * Counts occurrences of a word.
+   *
+   * @param word  word to count
+   * @param count occurrences to add
+   */
+  public void add(String word, int count) {
+    total += count;
+    int mask = keys.length - 1;
+    int slot = mix(word.hashCode()) & mask;
+    String key;
+    while ((key = keys[slot]) != null) {
+      if (key.equals(word)) {
+        counts[slot] = saturatedAdd(counts[slot], count);
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = word;
+    counts[slot] = count;
+    size++;
+    wordBytes += ENTRY_OVERHEAD_BYTES + 2L * word.length();
+    if (size * 3 > keys.length * 2) {
+      rehash(keys.length * 2);
+    }
+    if (memoryBudget > 0 && getMemoryBytes() > memoryBudget) {
+      prune();
+    }
+  }
+
+  /**
+   * @param word word to look up
+   * @return counted occurrences of the word, 0 if absent
+   */
+  public int get(String word) {
+    int mask = keys.length - 1;
+    int slot = mix(word.hashCode()) & mask;
+    String key;
+    while ((key = keys[slot]) != null) {
+      if (key.equals(word)) {
+        return counts[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return 0;
+  }
+
+  /**
+   * Adds every count of another table to this one.
+   *
+   * @param other table to merge
+   */
+  public void merge(WordFrequencyTable other) {
+    for (int slot = 0; slot < other.keys.length; slot++) {
+      if (other.keys[slot] != null) {
+        add(other.keys[slot], other.counts[slot]);
+      }
+    }
+    total += other.total - sumOf(other);
+    maxError += other.maxError;
+  }
+
+  /**
+   * Visits every word held with its count, in no particular order.
+   *
+   * @param consumer receives each word and its count
+   */
+  void forEach(ObjIntConsumer<String> consumer) {
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (keys[slot] != null) {
+        consumer.accept(keys[slot], counts[slot]);
+      }
+    }
+  }
+
+  /**
+   * @param limit maximum number of words returned
+   * @return the most frequent words, most frequent first
+   */
+  public List<TermCount> top(int limit) {
+    PriorityQueue<TermCount> heap = new PriorityQueue<>(TermCount.BY_COUNT.reversed());
+    for (int slot = 0; slot < keys.length && limit > 0; slot++) {
+      if (keys[slot] != null) {
+        heap.add(new TermCount(keys[slot], counts[slot]));
+        if (heap.size() > limit) {
+          heap.remove();
+        }
+      }
+    }
+    List<TermCount> top = new ArrayList<>(heap);
+    top.sort(TermCount.BY_COUNT);
+    return top;
+  }
+
+  /**
+   * @return number of distinct words held
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return occurrences counted, including those of pruned words
+   */
+  public long getTotal() {
+    return total;
+  }
+
+  /**
+   * @return bound on how much any reported count may be short of the true count; 0 while exact
+   */
+  public long getMaxError() {
+    return maxError;
+  }
+
+  /**
+   * @return estimated heap bytes of the slots and the words held
+   */
+  public long getMemoryBytes() {
+    return (long) keys.length * SLOT_BYTES + wordBytes;
+  }
+
+  /**
+   * Drops the words with the lowest counts, raising the threshold until the table is back under
+   * {@link #PRUNE_TARGET} of its budget. A word dropped here and seen again later is short by at
+   * most the threshold, so the error bound grows by it.
+   */
+  private void prune() {
+    long target = (long) (memoryBudget * PRUNE_TARGET);
+    long threshold = 0;
+    while (size > 0 && getMemoryBytes() > target) {
+      threshold = Math.max(threshold + 1, minCount());
+      String[] oldKeys = keys;
+      int[] oldCounts = counts;
+      keys = new String[keys.length];
+      counts = new int[counts.length];
+      size = 0;
+      wordBytes = 0;
+      for (int slot = 0; slot < oldKeys.length; slot++) {
+        if (oldKeys[slot] != null && oldCounts[slot] > threshold) {
+          insert(oldKeys[slot], oldCounts[slot]);
+        }
+      }
+      if (getMemoryBytes() > target && keys.length > INITIAL_CAPACITY
+          && size * 3 < keys.length) {
+        rehash(keys.length / 2);
+      }
+    }
+    maxError += threshold;
+  }
+
+  private int minCount() {
+    int min = Integer.MAX_VALUE;
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (keys[slot] != null) {
+        min = Math.min(min, counts[slot]);
+      }
+    }
+    return min;
+  }
+
+  private void rehash(int capacity) {
+    String[] oldKeys = keys;
+    int[] oldCounts = counts;
+    keys = new String[capacity];
+    counts = new int[capacity];
+    size = 0;
+    wordBytes = 0;
+    for (int slot = 0; slot < oldKeys.length; slot++) {
+      if (oldKeys[slot] != null) {
+        insert(oldKeys[slot], oldCounts[slot]);
+      }
+    }
+  }
+
+  private void insert(String word, int count) {
+    int mask = keys.length - 1;
+    int slot = mix(word.hashCode()) & mask;
+    while (keys[slot] != null) {
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = word;
+    counts[slot] = count;
+    size++;
+    wordBytes += ENTRY_OVERHEAD_BYTES + 2L * word.length();
+  }
+
+  private static long sumOf(WordFrequencyTable table) {
+    long sum = 0;
+    for (int slot = 0; slot < table.keys.length; slot++) {
+      if (table.keys[slot] != null) {
+        sum += table.counts[slot];
+      }
+    }
+    return sum;
+  }
+
+  private static int saturatedAdd(int count, int increment) {
+    long sum = (long) count + increment;
+    return sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+  }
+
+  /**
+   * Spreads the bits of {@link String#hashCode()}, whose low bits alone cluster under linear
+   * probing
+   */
+  private static int mix(int hash) {
+    hash *= 0x9e3779b9;
+    return hash ^ (hash >>> 16);
+  }
+}
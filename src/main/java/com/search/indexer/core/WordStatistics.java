@@ -2,31 +2,96 @@ package com.search.indexer.core;
 
 
 import com.search.indexer.config.IndexerConfig;
+import com.search.indexer.model.TermCount;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * This class is responsible for collecting statistics about words processed during indexing. It
  * tracks the number of uppercase words and stores long words (greater than 5 characters).
+ *
+ * <p>Long words are collected in a {@link SpillingWordSet}, so a file with a pathological number
+ * of distinct words spills sorted runs to disk instead of exhausting the heap. Once a file is
+ * complete, {@link #compact(WordDictionary)} replaces in-memory long words with a compressed set
+ * of ids from a shared dictionary, so results retained for a whole batch hold each distinct word
+ * only once. Spilled words stay on disk in a single consolidated run. Statistics reloaded from a
+ * snapshot hold no long words at all and decode them from the snapshot's mapping when visited.
+ *
+ * <p>When {@link #trackFrequencies(long, int)} is enabled, every word is also counted in a
+ * {@link WordFrequencyTable} and its bigrams and trigrams in a {@link PhraseCounter}, both within
+ * the given memory budget.
+ *
+ * <p>A {@link LengthHistogram} counts every word by length, so reports for any length threshold
+ * come from the same scan.
+ *
+ * <p>Statistics that spilled long words to disk must be closed once they are no longer needed, so
+ * their run files are deleted.
  */
-public class WordStatistics {
+public class WordStatistics implements AutoCloseable {
 
-  /**
-   * Initial capacity for the long words set to minimize resizing operations
-   */
-  private static final int INITIAL_SET_CAPACITY = 1000;
   private static final long MIN_WORD_LENGTH = IndexerConfig.getMinWordLength();
-  private final Set<String> longWords;
+  private static final long LONG_WORDS_MEMORY_BUDGET = IndexerConfig.getLongWordsMemoryBudget();
+  private static final Path SPILL_DIRECTORY = IndexerConfig.getSpillDirectory();
+  private SpillingWordSet longWords;
+  private CompressedIdSet longWordIds;
+  private WordDictionary dictionary;
+  private SnapshotReader snapshot;
+  private int snapshotFileId;
+  private boolean sealed;
   private int uppercaseCount;
+  private long wordCount;
+  private final LengthHistogram lengths = new LengthHistogram();
+  private KeywordAutomaton.Matcher keywords;
+  private WordFrequencyTable wordFrequencies;
+  private PhraseCounter phraseFrequencies;
+  private int topTerms;
+  private List<TermCount> topWords = Collections.emptyList();
+  private List<TermCount> topPhrases = Collections.emptyList();
+  private Map<String, Integer> keywordCounts = Collections.emptyMap();
 
   public WordStatistics() {
+    this(LONG_WORDS_MEMORY_BUDGET);
+  }
+
+  /**
+   * @param longWordsMemoryBudget estimated bytes of long words held in memory before spilling to
+   *                              disk; 0 or less keeps every word in memory
+   */
+  public WordStatistics(long longWordsMemoryBudget) {
+    this(longWordsMemoryBudget, SPILL_DIRECTORY);
+  }
+
+  /**
+   * @param longWordsMemoryBudget estimated bytes of long words held in memory before spilling to
+   *                              disk; 0 or less keeps every word in memory
+   * @param spillDirectory        directory receiving spilled runs
+   */
+  public WordStatistics(long longWordsMemoryBudget, Path spillDirectory) {
     this.uppercaseCount = 0;
-    // Initialize with expected capacity to avoid resizing
-    this.longWords = new HashSet<>(INITIAL_SET_CAPACITY);
+    this.longWords = new SpillingWordSet(longWordsMemoryBudget, spillDirectory);
   }
 
   public void processWord(String word) {
+    if (sealed) {
+      throw new IllegalStateException("Statistics have been compacted and are read-only");
+    }
     if (!word.isEmpty()) {
+      wordCount++;
+      lengths.add(word.length());
+      if (keywords != null) {
+        keywords.next(word);
+      }
+      if (wordFrequencies != null) {
+        countFrequencies(word);
+      }
       if (Character.isUpperCase(word.charAt(0))) {
         uppercaseCount++;
       }
@@ -36,11 +101,348 @@ public class WordStatistics {
     }
   }
 
+  private void countFrequencies(String word) {
+    String term = KeywordAutomaton.normalize(word, true);
+    if (term.isEmpty()) {
+      phraseFrequencies.reset();
+    } else {
+      wordFrequencies.add(term);
+      phraseFrequencies.next(term);
+    }
+  }
+
+  /**
+   * Adds the statistics of another part of the same text, such as a chunk that ends at a line
+   * break: counts are summed and long words united. Watch-list and frequency tracking follow
+   * phrases across part boundaries, so statistics tracking either cannot be merged into.
+   *
+   * @param other statistics of a part that ended on a word boundary; not modified
+   * @throws IllegalStateException if these statistics are compacted or track keywords or
+   *                               frequencies
+   */
+  public void merge(WordStatistics other) {
+    if (sealed) {
+      throw new IllegalStateException("Statistics have been compacted and are read-only");
+    }
+    if (keywords != null || wordFrequencies != null) {
+      throw new IllegalStateException("Keyword and frequency statistics cannot be merged");
+    }
+    uppercaseCount += other.uppercaseCount;
+    wordCount += other.wordCount;
+    lengths.merge(other.lengths);
+    other.forEachLongWord(longWords::add);
+  }
+
+  /**
+   * Sets the uppercase count of statistics reloaded from a snapshot.
+   *
+   * @param uppercaseCount saved uppercase count
+   */
+  void restoreUppercaseCount(int uppercaseCount) {
+    this.uppercaseCount = uppercaseCount;
+  }
+
+  /**
+   * Sets the word count of statistics reloaded from a snapshot.
+   *
+   * @param wordCount saved word count
+   */
+  void restoreWordCount(long wordCount) {
+    this.wordCount = wordCount;
+  }
+
+  /**
+   * Sets the word lengths of statistics reloaded from a snapshot.
+   *
+   * @param lengths saved occurrences of words by length
+   */
+  void restoreLengthHistogram(LengthHistogram lengths) {
+    this.lengths.merge(lengths);
+  }
+
+  /**
+   * Sets the watch-list counts of statistics reloaded from a snapshot.
+   *
+   * @param keywordCounts saved occurrences of each term found, ordered by term
+   */
+  void restoreKeywordCounts(Map<String, Integer> keywordCounts) {
+    this.keywordCounts = Collections.unmodifiableMap(keywordCounts);
+  }
+
+  /**
+   * Sets the summarized frequencies of statistics reloaded from a snapshot.
+   *
+   * @param topWords   saved most frequent words
+   * @param topPhrases saved most frequent phrases
+   */
+  void restoreTopTerms(List<TermCount> topWords, List<TermCount> topPhrases) {
+    this.topWords = List.copyOf(topWords);
+    this.topPhrases = List.copyOf(topPhrases);
+  }
+
+  /**
+   * Backs the long words of statistics reloaded from a snapshot by the snapshot itself. The words
+   * are decoded from its mapping on every visit instead of being held, and the statistics become
+   * read-only.
+   *
+   * @param reader snapshot holding the file
+   * @param fileId position of the file in the snapshot
+   */
+  void restoreLongWords(SnapshotReader reader, int fileId) {
+    longWords.delete();
+    longWords = null;
+    snapshot = reader;
+    snapshotFileId = fileId;
+    sealed = true;
+  }
+
+  /**
+   * Finishes the statistics. In-memory long words move into {@code dictionary} and only their
+   * compressed ids are kept; spilled long words are consolidated into a single run on disk. After
+   * this call the statistics are read-only.
+   *
+   * @param dictionary dictionary shared by the files of a batch
+   */
+  public void compact(WordDictionary dictionary) {
+    if (sealed) {
+      return;
+    }
+    sealed = true;
+    if (longWords.hasSpilled()) {
+      longWords.consolidate();
+      return;
+    }
+    Set<String> words = longWords.inMemory();
+    int[] ids = new int[words.size()];
+    int count = 0;
+    for (String word : words) {
+      ids[count++] = dictionary.idOf(word);
+    }
+    this.longWordIds = CompressedIdSet.of(ids, count);
+    this.dictionary = dictionary;
+    this.longWords = null;
+  }
+
+  /**
+   * @return {@code true} if the long words are held as dictionary ids
+   */
+  public boolean isCompacted() {
+    return longWordIds != null;
+  }
+
+  /**
+   * @return {@code true} if some long words live in spill files on disk
+   */
+  public boolean hasSpilled() {
+    return longWords != null && longWords.hasSpilled();
+  }
+
+  /**
+   * Deletes the spill files of the long words. The statistics must not be used afterwards; closing
+   * them again has no effect.
+   */
+  @Override
+  public void close() {
+    if (longWords != null) {
+      longWords.delete();
+    }
+  }
+
+  /**
+   * @return estimated heap bytes of long words not yet compacted or spilled
+   */
+  public long getLongWordsMemoryBytes() {
+    return longWords != null ? longWords.getMemoryBytes() : 0;
+  }
+
+  /**
+   * @return estimated heap bytes of long words not yet compacted or spilled, plus the word and
+   *     phrase frequencies while they are tracked
+   */
+  public long getMemoryBytes() {
+    long bytes = getLongWordsMemoryBytes();
+    if (wordFrequencies != null) {
+      bytes += wordFrequencies.getMemoryBytes() + phraseFrequencies.getMemoryBytes();
+    }
+    return bytes;
+  }
+
+  /**
+   * Counts the terms of a watch list in the words processed from now on.
+   *
+   * @param automaton compiled watch list
+   */
+  public void trackKeywords(KeywordAutomaton automaton) {
+    this.keywords = automaton.matcher();
+  }
+
+  /**
+   * @return occurrences of each watch-list term found, ordered by term, tracked or restored from a
+   *     snapshot; empty when there are none
+   */
+  public Map<String, Integer> getKeywordCounts() {
+    return keywords != null ? keywords.getCounts() : keywordCounts;
+  }
+
+  /**
+   * Counts word, bigram and trigram frequencies in the words processed from now on. Words are
+   * lowercased and stripped of surrounding punctuation.
+   *
+   * @param memoryBudget bytes for the frequencies, split evenly between the exact word table and
+   *                     the phrase sketch
+   * @param topTerms     number of most frequent words and phrases reported
+   */
+  public void trackFrequencies(long memoryBudget, int topTerms) {
+    this.topTerms = topTerms;
+    this.wordFrequencies = new WordFrequencyTable(memoryBudget / 2);
+    this.phraseFrequencies =
+        new PhraseCounter(CountMinSketch.forBudget(memoryBudget / 2), topTerms);
+  }
+
+  /**
+   * @return whether word and phrase frequencies are counted and not yet summarized
+   */
+  public boolean isTrackingFrequencies() {
+    return wordFrequencies != null;
+  }
+
+  WordFrequencyTable getWordFrequencies() {
+    return wordFrequencies;
+  }
+
+  PhraseCounter getPhraseFrequencies() {
+    return phraseFrequencies;
+  }
+
+  /**
+   * Keeps only the most frequent words and phrases and releases the tables behind them, once
+   * their counts have been merged into corpus totals.
+   */
+  void summarizeFrequencies() {
+    if (wordFrequencies != null) {
+      topWords = getTopWords();
+      topPhrases = getTopPhrases();
+      wordFrequencies = null;
+      phraseFrequencies = null;
+    }
+  }
+
+  /**
+   * @return the most frequent words with exact counts, short by at most the pruning error when the
+   *     table outgrew its budget; empty unless frequencies are tracked
+   */
+  public List<TermCount> getTopWords() {
+    return wordFrequencies != null ? wordFrequencies.top(topTerms) : topWords;
+  }
+
+  /**
+   * @return the most frequent bigrams and trigrams with upper estimates of their counts; empty
+   *     unless frequencies are tracked
+   */
+  public List<TermCount> getTopPhrases() {
+    return phraseFrequencies != null ? phraseFrequencies.top() : topPhrases;
+  }
+
+  /**
+   * @return number of words processed
+   */
+  public long getWordCount() {
+    return wordCount;
+  }
+
+  /**
+   * @return occurrences of the words processed by length
+   */
+  public LengthHistogram getLengthHistogram() {
+    return lengths;
+  }
+
   public int getUppercaseCount() {
     return uppercaseCount;
   }
 
+  /**
+   * @return number of distinct long words
+   */
+  public int getLongWordCount() {
+    if (snapshot != null) {
+      return snapshot.getLongWordCount(snapshotFileId);
+    }
+    return longWords != null ? longWords.size() : longWordIds.size();
+  }
+
+  /**
+   * @return compressed ids of the long words, or {@code null} if the statistics are not compacted
+   */
+  public CompressedIdSet getLongWordIds() {
+    return longWordIds;
+  }
+
+  /**
+   * @return dictionary resolving {@link #getLongWordIds()}, or {@code null} if not compacted
+   */
+  public WordDictionary getDictionary() {
+    return dictionary;
+  }
+
+  /**
+   * Visits every distinct long word once, in no particular order unless spilled.
+   *
+   * @param consumer receives each word
+   */
+  public void forEachLongWord(Consumer<String> consumer) {
+    if (snapshot != null) {
+      forEachSnapshotWord(consumer);
+    } else if (longWordIds != null) {
+      longWordIds.forEach(id -> consumer.accept(dictionary.wordOf(id)));
+    } else if (longWords.hasSpilled()) {
+      longWords.forEachSorted(consumer);
+    } else {
+      longWords.inMemory().forEach(consumer);
+    }
+  }
+
+  /**
+   * Visits every distinct long word once in ascending order. Spilled words are streamed through a
+   * k-way merge of their runs instead of being loaded at once.
+   *
+   * @param consumer receives each word
+   */
+  public void forEachLongWordSorted(Consumer<String> consumer) {
+    if (snapshot != null) {
+      forEachSnapshotWord(consumer);
+      return;
+    }
+    if (longWords != null && longWords.hasSpilled()) {
+      longWords.forEachSorted(consumer);
+      return;
+    }
+    List<String> sorted = new ArrayList<>(getLongWordCount());
+    forEachLongWord(sorted::add);
+    Collections.sort(sorted);
+    sorted.forEach(consumer);
+  }
+
+  private void forEachSnapshotWord(Consumer<String> consumer) {
+    try {
+      snapshot.forEachLongWord(snapshotFileId, consumer);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read long words of a snapshot", e);
+    }
+  }
+
+  /**
+   * Returns the distinct long words. Compacted or spilled words are materialized on every call;
+   * prefer {@link #forEachLongWord(Consumer)} for large sets.
+   *
+   * @return the long words
+   */
   public Set<String> getLongWords() {
-    return longWords;
+    if (longWords != null && !longWords.hasSpilled()) {
+      return longWords.inMemory();
+    }
+    Set<String> resolved = new HashSet<>(getLongWordCount() * 2);
+    forEachLongWord(resolved::add);
+    return Collections.unmodifiableSet(resolved);
   }
-}
\ No newline at end of file
+}
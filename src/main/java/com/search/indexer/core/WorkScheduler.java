@@ -0,0 +1,185 @@
+package com.search.indexer.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Orders a batch of files for parallel processing by size. Every input is stat-ed up front; files
+ * smaller than {@code smallFileBytes} are packed into units of up to {@code batchBytes} to amortize
+ * per-task overhead, and all units are returned largest first (LPT scheduling). Handing the largest
+ * work out first keeps a big file from starting last and running alone while the other workers
+ * idle.
+ */
+public class WorkScheduler {
+
+  private final long smallFileBytes;
+  private final long batchBytes;
+
+  /**
+   * @param smallFileBytes files below this size are packed together; 0 disables packing
+   * @param batchBytes     maximum total size of a packed unit
+   */
+  public WorkScheduler(long smallFileBytes, long batchBytes) {
+    this.smallFileBytes = smallFileBytes;
+    this.batchBytes = batchBytes;
+  }
+
+  /**
+   * Builds the schedule of a batch. Files whose size cannot be read count as empty; their error
+   * surfaces when they are processed.
+   *
+   * @param files   files to process
+   * @param workers number of parallel workers
+   * @return units in processing order and the predicted makespan
+   */
+  public Schedule plan(List<Path> files, int workers) {
+    List<WorkUnit> units = new ArrayList<>();
+    List<WorkUnit> small = new ArrayList<>();
+    for (Path file : files) {
+      WorkUnit unit = new WorkUnit(List.of(file), sizeOf(file));
+      (unit.bytes < smallFileBytes ? small : units).add(unit);
+    }
+    small.sort(Comparator.comparingLong(WorkUnit::getBytes).reversed());
+    List<Path> packed = new ArrayList<>();
+    long packedBytes = 0;
+    for (WorkUnit unit : small) {
+      if (!packed.isEmpty() && packedBytes + unit.bytes > batchBytes) {
+        units.add(new WorkUnit(packed, packedBytes));
+        packed = new ArrayList<>();
+        packedBytes = 0;
+      }
+      packed.add(unit.files.get(0));
+      packedBytes += unit.bytes;
+    }
+    if (!packed.isEmpty()) {
+      units.add(new WorkUnit(packed, packedBytes));
+    }
+    units.sort(Comparator.comparingLong(WorkUnit::getBytes).reversed());
+    return new Schedule(units, Math.max(1, workers));
+  }
+
+  private static long sizeOf(Path file) {
+    try {
+      return Files.size(file);
+    } catch (IOException | SecurityException e) {
+      return 0;
+    }
+  }
+
+  /**
+   * One task of a schedule: a single large file or a pack of small ones.
+   */
+  public static final class WorkUnit {
+
+    private final List<Path> files;
+    private final long bytes;
+
+    WorkUnit(List<Path> files, long bytes) {
+      this.files = Collections.unmodifiableList(files);
+      this.bytes = bytes;
+    }
+
+    public List<Path> getFiles() {
+      return files;
+    }
+
+    public long getBytes() {
+      return bytes;
+    }
+  }
+
+  /**
+   * Units in processing order with the makespan predicted by greedily assigning each unit to the
+   * least loaded worker. Records the timing of executed units to compare the prediction with the
+   * actual run.
+   */
+  public static final class Schedule {
+
+    private final List<WorkUnit> units;
+    private final int workers;
+    private final long totalBytes;
+    private final long predictedMakespanBytes;
+    private final LongAdder busyNanos = new LongAdder();
+    private final Map<Thread, Long> workerFinish = new ConcurrentHashMap<>();
+
+    Schedule(List<WorkUnit> units, int workers) {
+      this.units = Collections.unmodifiableList(units);
+      this.workers = workers;
+      PriorityQueue<long[]> loads = new PriorityQueue<>(Comparator.comparingLong(load -> load[0]));
+      for (int i = 0; i < workers; i++) {
+        loads.add(new long[1]);
+      }
+      long total = 0;
+      long makespan = 0;
+      for (WorkUnit unit : units) {
+        long[] load = loads.poll();
+        load[0] += unit.bytes;
+        makespan = Math.max(makespan, load[0]);
+        loads.add(load);
+        total += unit.bytes;
+      }
+      this.totalBytes = total;
+      this.predictedMakespanBytes = makespan;
+    }
+
+    public List<WorkUnit> getUnits() {
+      return units;
+    }
+
+    public long getTotalBytes() {
+      return totalBytes;
+    }
+
+    /**
+     * @return bytes assigned to the busiest worker by the LPT prediction
+     */
+    public long getPredictedMakespanBytes() {
+      return predictedMakespanBytes;
+    }
+
+    /**
+     * Records one executed unit. Called by the worker thread that ran it.
+     *
+     * @param startNanos {@link System#nanoTime()} when the unit started
+     * @param endNanos   {@link System#nanoTime()} when the unit finished
+     */
+    public void record(long startNanos, long endNanos) {
+      busyNanos.add(endNanos - startNanos);
+      workerFinish.merge(Thread.currentThread(), endNanos, Math::max);
+    }
+
+    /**
+     * Compares the prediction with the recorded run. The predicted time converts the busiest
+     * worker's bytes at the throughput measured over all units; tail idle is the share of worker
+     * time spent waiting for the last unit to finish.
+     *
+     * @param startNanos {@link System#nanoTime()} when the batch started
+     * @param endNanos   {@link System#nanoTime()} when the last unit finished
+     * @return one-line summary
+     */
+    public String summarize(long startNanos, long endNanos) {
+      long actualNanos = Math.max(1, endNanos - startNanos);
+      long busy = busyNanos.sum();
+      double predictedMillis = totalBytes > 0
+          ? predictedMakespanBytes * (busy / (double) totalBytes) / 1_000_000.0 : 0;
+      long idleNanos = (long) (workers - workerFinish.size()) * actualNanos;
+      for (long finish : workerFinish.values()) {
+        idleNanos += endNanos - finish;
+      }
+      double tailIdle = 100.0 * idleNanos / ((double) workers * actualNanos);
+      return String.format("%d units on %d workers, predicted makespan %.1f ms "
+              + "(%d of %d bytes on the busiest worker), actual %.1f ms, tail idle %.1f%%",
+          units.size(), workers, predictedMillis, predictedMakespanBytes, totalBytes,
+          actualNanos / 1_000_000.0, tailIdle);
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package com.search.indexer.daemon;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Thin client forwarding indexing requests to a local {@link IndexingDaemon}. Paths are resolved
+ * to absolute paths before sending, since the daemon may run from a different working directory.
+ * Every request carries the token the daemon wrote to its token file.
+ */
+public class DaemonClient {
+
+  private final HttpClient httpClient;
+  private final URI baseUri;
+  private final String token;
+
+  /**
+   * @param port      loopback port of the daemon
+   * @param tokenFile token file written by the daemon on start
+   * @throws IOException if the token file cannot be read, typically because no daemon runs
+   */
+  public DaemonClient(int port, Path tokenFile) throws IOException {
+    this(port, Files.readString(tokenFile, StandardCharsets.US_ASCII).strip());
+  }
+
+  /**
+   * @param port  loopback port of the daemon
+   * @param token access token of the daemon
+   */
+  public DaemonClient(int port, String token) {
+    this.token = token;
+    this.httpClient = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    this.baseUri = URI.create("http://" + InetAddress.getLoopbackAddress().getHostAddress()
+        + ":" + port);
+  }
+
+  /**
+   * Submits a job to the daemon.
+   *
+   * @param filePaths files to index
+   * @param wait      {@code true} to block until the job finishes and receive its full report,
+   *                  {@code false} to return immediately with the job id
+   * @return the daemon response
+   * @throws IOException if the daemon cannot be reached
+   */
+  public Response submit(List<String> filePaths, boolean wait)
+      throws IOException, InterruptedException {
+    String body = filePaths.stream()
+        .map(Paths::get)
+        .map(Path::toAbsolutePath)
+        .map(Path::toString)
+        .collect(Collectors.joining("\n"));
+    HttpRequest request = HttpRequest.newBuilder(
+            baseUri.resolve(IndexingDaemon.JOBS_PATH + (wait ? "?wait=true" : "")))
+        .header(IndexingDaemon.AUTHORIZATION_HEADER, IndexingDaemon.BEARER_PREFIX + token)
+        .POST(HttpRequest.BodyPublishers.ofString(body))
+        .build();
+    return send(request);
+  }
+
+  /**
+   * Fetches the current report of a previously submitted job.
+   *
+   * @param jobId id returned by {@link #submit(List, boolean)}
+   * @return the daemon response
+   * @throws IOException if the daemon cannot be reached
+   */
+  public Response status(String jobId) throws IOException, InterruptedException {
+    HttpRequest request = HttpRequest.newBuilder(
+            baseUri.resolve(IndexingDaemon.JOBS_PATH + "/" + jobId))
+        .header(IndexingDaemon.AUTHORIZATION_HEADER, IndexingDaemon.BEARER_PREFIX + token)
+        .GET()
+        .build();
+    return send(request);
+  }
+
+  private Response send(HttpRequest request) throws IOException, InterruptedException {
+    HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    return new Response(response.statusCode(), response.body());
+  }
+
+  /**
+   * Status code and plain-text body returned by the daemon.
+   */
+  public static class Response {
+
+    private final int statusCode;
+    private final String body;
+
+    public Response(int statusCode, String body) {
+      this.statusCode = statusCode;
+      this.body = body;
+    }
+
+    public int getStatusCode() {
+      return statusCode;
+    }
+
+    public String getBody() {
+      return body;
+    }
+
+    public boolean isSuccess() {
+      return statusCode >= 200 && statusCode < 300;
+    }
+  }
+}
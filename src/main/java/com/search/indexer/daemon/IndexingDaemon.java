@@ -0,0 +1,321 @@
+package com.search.indexer.daemon;
+
+import com.search.indexer.core.FileProcessor;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Long-running indexing server. Keeps a single warm {@link FileProcessor} in memory and accepts
+ * jobs over the JDK built-in HTTP server bound to the loopback interface, so repeated small
+ * batches skip JVM startup, configuration loading and JIT warm-up.
+ *
+ * <p>Loopback alone does not keep other local users or browser pages from submitting jobs, so on
+ * start the daemon writes a random token to a file only its owner can read, and every request
+ * other than the health probe must present it as {@code Authorization: Bearer <token>}. Browsers
+ * cannot attach that header to a cross-origin request without a preflight the daemon rejects.
+ *
+ * <p>Endpoints:
+ * <ul>
+ *   <li>{@code POST /jobs} - body holds one file path per line; returns the job id
+ *   ({@code 202}), or the full report when called with {@code ?wait=true} ({@code 200})</li>
+ *   <li>{@code GET /jobs/<id>} - returns the current report of a job</li>
+ *   <li>{@code GET /health} - liveness probe</li>
+ * </ul>
+ */
+@Slf4j
+public class IndexingDaemon {
+
+  static final String JOBS_PATH = "/jobs";
+  static final String HEALTH_PATH = "/health";
+  static final String AUTHORIZATION_HEADER = "Authorization";
+  static final String BEARER_PREFIX = "Bearer ";
+  private static final int TOKEN_BYTES = 32;
+  private static final Logger logger = LoggerFactory.getLogger(IndexingDaemon.class);
+
+  private final FileProcessor processor;
+  private final int port;
+  private final int workerThreads;
+  private final int jobRetention;
+  private final Path tokenFile;
+  private final Map<String, IndexingJob> jobs = new ConcurrentHashMap<>();
+  private final Queue<String> jobOrder = new ConcurrentLinkedQueue<>();
+  private HttpServer server;
+  private ExecutorService jobExecutor;
+  private ExecutorService requestExecutor;
+  private byte[] token;
+
+  /**
+   * @param processor     warm processor running every job
+   * @param port          loopback port to bind, or 0 for any free port
+   * @param workerThreads number of jobs run concurrently
+   * @param jobRetention  number of finished jobs kept for status requests
+   * @param tokenFile     file receiving the access token on start, readable by its owner only
+   */
+  public IndexingDaemon(FileProcessor processor, int port, int workerThreads, int jobRetention,
+      Path tokenFile) {
+    this.processor = Objects.requireNonNull(processor, "processor cannot be null");
+    this.tokenFile = Objects.requireNonNull(tokenFile, "tokenFile cannot be null");
+    if (workerThreads <= 0) {
+      throw new IllegalArgumentException("workerThreads must be positive");
+    }
+    this.port = port;
+    this.workerThreads = workerThreads;
+    this.jobRetention = jobRetention;
+  }
+
+  /**
+   * Writes a fresh access token, binds the HTTP server and starts accepting jobs.
+   *
+   * @throws IOException if the token cannot be written or the port cannot be bound
+   */
+  public synchronized void start() throws IOException {
+    if (server != null) {
+      throw new IllegalStateException("Daemon already started");
+    }
+    token = writeToken(tokenFile);
+    jobExecutor = Executors.newFixedThreadPool(workerThreads);
+    requestExecutor = Executors.newCachedThreadPool();
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    server.createContext(JOBS_PATH, this::handleJobs);
+    server.createContext(HEALTH_PATH, exchange -> respond(exchange, 200, "OK\n"));
+    server.setExecutor(requestExecutor);
+    server.start();
+    logger.info("Indexing daemon listening on {}", server.getAddress());
+  }
+
+  /**
+   * Stops accepting requests and waits briefly for running jobs to finish.
+   */
+  public synchronized void stop() {
+    if (server == null) {
+      return;
+    }
+    server.stop(0);
+    requestExecutor.shutdownNow();
+    jobExecutor.shutdown();
+    try {
+      if (!jobExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+        jobExecutor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      jobExecutor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+    server = null;
+    jobs.values().forEach(IndexingJob::close);
+    try {
+      Files.deleteIfExists(tokenFile);
+    } catch (IOException e) {
+      logger.warn("Could not delete daemon token {}: {}", tokenFile, e.getMessage());
+    }
+    logger.info("Indexing daemon stopped");
+  }
+
+  /**
+   * Writes a new random token to a file created with owner-only permissions, replacing any token
+   * of an earlier daemon.
+   *
+   * @return the token bytes as sent by clients
+   */
+  private static byte[] writeToken(Path tokenFile) throws IOException {
+    byte[] random = new byte[TOKEN_BYTES];
+    new SecureRandom().nextBytes(random);
+    byte[] token = HexFormat.of().formatHex(random).getBytes(StandardCharsets.US_ASCII);
+    Path parent = tokenFile.toAbsolutePath().getParent();
+    Files.deleteIfExists(tokenFile);
+    if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+      Files.createDirectories(parent, PosixFilePermissions.asFileAttribute(
+          EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE,
+              PosixFilePermission.OWNER_EXECUTE)));
+      Files.createFile(tokenFile, PosixFilePermissions.asFileAttribute(
+          EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE)));
+    } else {
+      Files.createDirectories(parent);
+      Files.createFile(tokenFile);
+      logger.warn("Cannot restrict permissions of daemon token {} on this file system",
+          tokenFile);
+    }
+    Files.write(tokenFile, token);
+    return token;
+  }
+
+  /**
+   * @return whether the request carries the token of this daemon; compared in constant time
+   */
+  private boolean isAuthorized(HttpExchange exchange) {
+    String header = exchange.getRequestHeaders().getFirst(AUTHORIZATION_HEADER);
+    if (header == null || !header.startsWith(BEARER_PREFIX)) {
+      return false;
+    }
+    byte[] presented = header.substring(BEARER_PREFIX.length()).strip()
+        .getBytes(StandardCharsets.US_ASCII);
+    return MessageDigest.isEqual(presented, token);
+  }
+
+  /**
+   * @return the bound port, useful when the daemon was started on port 0
+   */
+  public int getPort() {
+    if (server == null) {
+      throw new IllegalStateException("Daemon not started");
+    }
+    return server.getAddress().getPort();
+  }
+
+  /**
+   * Queues a job for the given files. A job is indexed as one batch with the processor's
+   * concurrency, failure policy and corpus aggregation, while separate jobs run concurrently.
+   *
+   * @param filePaths files to index
+   * @return the queued job
+   */
+  public IndexingJob submit(List<Path> filePaths) {
+    if (filePaths.isEmpty()) {
+      throw new IllegalArgumentException("filePaths cannot be empty");
+    }
+    IndexingJob job = new IndexingJob(UUID.randomUUID().toString(), filePaths);
+    jobs.put(job.getId(), job);
+    jobOrder.add(job.getId());
+    evictCompletedJobs();
+    jobExecutor.execute(() -> runJob(job));
+    return job;
+  }
+
+  /**
+   * @param id job id
+   * @return the job, or {@code null} if it is unknown or has been evicted
+   */
+  public IndexingJob getJob(String id) {
+    return jobs.get(id);
+  }
+
+  private void runJob(IndexingJob job) {
+    job.markRunning();
+    try {
+      job.markSucceeded(processor.processFiles(job.getFilePaths(), job::addResult));
+    } catch (RuntimeException e) {
+      logger.error("Job {} failed: {}", job.getId(), e.getMessage(), e);
+      job.markFailed(e.getMessage());
+    }
+  }
+
+  /**
+   * Drops the oldest finished jobs once more than {@code jobRetention} jobs are tracked, deleting
+   * the spill files of their results. Jobs that are still queued or running are never evicted.
+   */
+  private void evictCompletedJobs() {
+    int excess = jobs.size() - jobRetention;
+    for (String id : jobOrder) {
+      if (excess <= 0) {
+        break;
+      }
+      IndexingJob job = jobs.get(id);
+      if (job == null || job.isDone()) {
+        jobs.remove(id);
+        jobOrder.remove(id);
+        if (job != null) {
+          job.close();
+        }
+        excess--;
+      }
+    }
+  }
+
+  private void handleJobs(HttpExchange exchange) throws IOException {
+    try {
+      if (!isAuthorized(exchange)) {
+        exchange.getRequestBody().close();
+        respond(exchange, 401, "Missing or invalid daemon token\n");
+        return;
+      }
+      String method = exchange.getRequestMethod();
+      URI uri = exchange.getRequestURI();
+      String path = uri.getPath();
+      if ("POST".equals(method) && JOBS_PATH.equals(path)) {
+        handleSubmit(exchange, "wait=true".equals(uri.getQuery()));
+      } else if ("GET".equals(method) && path.startsWith(JOBS_PATH + "/")) {
+        IndexingJob job = getJob(path.substring(JOBS_PATH.length() + 1));
+        if (job == null) {
+          respond(exchange, 404, "Unknown job\n");
+        } else {
+          respond(exchange, 200, job.render());
+        }
+      } else {
+        respond(exchange, 405, "Unsupported request\n");
+      }
+    } catch (RuntimeException e) {
+      logger.error("Daemon request failed: {}", e.getMessage(), e);
+      respond(exchange, 500, "ERROR " + e.getMessage() + "\n");
+    }
+  }
+
+  private void handleSubmit(HttpExchange exchange, boolean wait) throws IOException {
+    List<Path> filePaths;
+    try (InputStream body = exchange.getRequestBody()) {
+      filePaths = new String(body.readAllBytes(), StandardCharsets.UTF_8).lines()
+          .map(String::strip)
+          .filter(line -> !line.isEmpty())
+          .map(Paths::get)
+          .collect(Collectors.toList());
+    }
+    if (filePaths.isEmpty()) {
+      respond(exchange, 400, "No file paths supplied\n");
+      return;
+    }
+
+    IndexingJob job = submit(filePaths);
+    if (!wait) {
+      respond(exchange, 202, job.render());
+      return;
+    }
+    try {
+      job.getCompletion().get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      // runJob never completes the future exceptionally; status carries the failure
+    }
+    respond(exchange, job.getStatus() == IndexingJob.Status.FAILED ? 500 : 200, job.render());
+  }
+
+  private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+}
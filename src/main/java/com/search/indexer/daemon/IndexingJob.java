@@ -0,0 +1,158 @@
+package com.search.indexer.daemon;
+
+import com.search.indexer.core.FileResult;
+import com.search.indexer.model.CorpusReport;
+import com.search.indexer.model.FileFailure;
+import com.search.indexer.model.IndexingResult;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A batch of files submitted to the {@link IndexingDaemon}. Each job keeps its own results and
+ * failure state, so a failing job never affects the output of the jobs running beside it. File
+ * results are added as they complete; the corpus report is attached once the batch is done, and a
+ * failed batch takes its file results along.
+ */
+public class IndexingJob {
+
+  /**
+   * Lifecycle states of a job
+   */
+  public enum Status {
+    QUEUED, RUNNING, SUCCEEDED, FAILED
+  }
+
+  private final String id;
+  private final List<Path> filePaths;
+  private final List<FileResult> results;
+  private final CompletableFuture<IndexingJob> completion;
+  private volatile Status status;
+  private volatile String error;
+  private volatile CorpusReport report;
+
+  public IndexingJob(String id, List<Path> filePaths) {
+    this.id = id;
+    this.filePaths = List.copyOf(filePaths);
+    this.results = Collections.synchronizedList(new ArrayList<>(filePaths.size()));
+    this.completion = new CompletableFuture<>();
+    this.status = Status.QUEUED;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public List<Path> getFilePaths() {
+    return filePaths;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  /**
+   * @return the corpus report of the finished batch, or {@code null} while it runs or if it failed
+   */
+  public CorpusReport getReport() {
+    return report;
+  }
+
+  /**
+   * @return future completed once the job has either succeeded or failed
+   */
+  public CompletableFuture<IndexingJob> getCompletion() {
+    return completion;
+  }
+
+  void markRunning() {
+    status = Status.RUNNING;
+  }
+
+  /**
+   * Lists a completed file of the running batch. Results of a failed batch are closed with it, so
+   * a failed job lists none.
+   */
+  void addResult(FileResult result) {
+    synchronized (results) {
+      if (status != Status.FAILED) {
+        results.add(result);
+      }
+    }
+  }
+
+  void markSucceeded(CorpusReport report) {
+    this.report = report;
+    status = Status.SUCCEEDED;
+    completion.complete(this);
+  }
+
+  /**
+   * Fails the job and forgets its file results, which the aborted batch has already closed.
+   */
+  void markFailed(String message) {
+    error = message;
+    synchronized (results) {
+      status = Status.FAILED;
+      results.clear();
+    }
+    completion.complete(this);
+  }
+
+  boolean isDone() {
+    return completion.isDone();
+  }
+
+  /**
+   * Deletes the spill files of a finished job's report and results once the job is dropped.
+   */
+  void close() {
+    if (!isDone()) {
+      return;
+    }
+    if (report != null) {
+      report.close();
+    }
+    synchronized (results) {
+      results.forEach(FileResult::close);
+    }
+  }
+
+  /**
+   * Renders the job in the plain-text format returned by the daemon: a header with the job id and
+   * status, followed by the rule results of every file processed so far and, once the batch is
+   * done, the files it skipped and the corpus report.
+   *
+   * @return textual job report
+   */
+  public String render() {
+    StringBuilder builder = new StringBuilder();
+    builder.append("JOB ").append(id).append('\n');
+    builder.append("STATUS ").append(status).append('\n');
+    if (error != null) {
+      builder.append("ERROR ").append(error).append('\n');
+    }
+    synchronized (results) {
+      for (FileResult result : results) {
+        builder.append("\nFile Name: ").append(result.getFilePath().getFileName()).append('\n');
+        for (IndexingResult ruleResult : result.getResults()) {
+          builder.append(ruleResult).append('\n');
+        }
+      }
+    }
+    CorpusReport finished = report;
+    if (finished != null) {
+      for (FileFailure failure : finished.getFailures()) {
+        builder.append("\nSKIPPED ").append(failure).append('\n');
+      }
+      builder.append(finished).append('\n');
+    }
+    return builder.toString();
+  }
+}
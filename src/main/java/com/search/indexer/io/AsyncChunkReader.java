@@ -0,0 +1,214 @@
+package com.search.indexer.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Reads one file as a sequence of chunks through an {@link AsynchronousFileChannel}, keeping up to
+ * {@code depth} reads in flight ahead of the consumer. Chunks are handed out in file order, so the
+ * tokenizer works on one chunk while the following ones are being read.
+ *
+ * <p>Each chunk is positioned after {@link #HEADROOM} spare bytes. A consumer left with an
+ * incomplete multi-byte sequence at the end of a chunk moves it into the headroom of the next one
+ * with {@link #carryOver}, instead of copying whole chunks. The file is read up to the size it had
+ * when the reader was opened.
+ *
+ * <p>Instances are used by a single consumer thread; only the read completions run elsewhere.
+ */
+public class AsyncChunkReader implements AutoCloseable {
+
+  /**
+   * Spare bytes before the data of each chunk, enough for any incomplete character sequence
+   */
+  public static final int HEADROOM = 16;
+
+  private final AsynchronousFileChannel channel;
+  private final BufferPool pool;
+  private final int depth;
+  private final int chunkSize;
+  private final long size;
+  private final Deque<PendingRead> pending = new ArrayDeque<>();
+  private long nextOffset;
+  private long deliveredBytes;
+  private boolean truncated;
+  private boolean closed;
+
+  /**
+   * Opens the file and issues the first reads.
+   *
+   * @param path  file to read
+   * @param pool  pool supplying chunk buffers of at least {@code HEADROOM + 1} bytes
+   * @param depth maximum number of reads in flight
+   * @throws IOException if the file cannot be opened
+   */
+  public AsyncChunkReader(Path path, BufferPool pool, int depth) throws IOException {
+    this.channel = AsynchronousFileChannel.open(path, StandardOpenOption.READ);
+    this.pool = pool;
+    this.depth = Math.max(1, depth);
+    this.chunkSize = pool.getBufferSize() - HEADROOM;
+    try {
+      this.size = channel.size();
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    issueReads(false);
+  }
+
+  /**
+   * Waits for the next chunk and tops up the read-ahead.
+   *
+   * @return the next chunk positioned at its first byte, or {@code null} at the end of the file
+   * @throws IOException if the read failed or the thread was interrupted
+   */
+  public ByteBuffer take() throws IOException {
+    if (pending.isEmpty()) {
+      issueReads(true);
+    }
+    PendingRead next = pending.poll();
+    if (next == null) {
+      return null;
+    }
+    ByteBuffer chunk = next.buffer;
+    try {
+      next.done.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      pending.addFirst(next);
+      throw new InterruptedIOException("Interrupted while reading ahead");
+    } catch (ExecutionException e) {
+      pool.release(chunk);
+      Throwable cause = e.getCause();
+      throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+    }
+    int read = chunk.remaining();
+    deliveredBytes += read;
+    if (read < chunkSize && deliveredBytes < size) {
+      truncated = true;
+    }
+    issueReads(false);
+    return chunk;
+  }
+
+  /**
+   * @return {@code true} once every byte of the file has been handed out by {@link #take()}
+   */
+  public boolean isExhausted() {
+    return truncated || deliveredBytes >= size;
+  }
+
+  /**
+   * Returns a chunk obtained from {@link #take()} to the pool.
+   *
+   * @param chunk chunk no longer used
+   */
+  public void release(ByteBuffer chunk) {
+    pool.release(chunk);
+  }
+
+  /**
+   * Moves the unread bytes of {@code from} in front of the data of {@code to}.
+   *
+   * @param from chunk with a few unread bytes at its end
+   * @param to   next chunk, as returned by {@link #take()}
+   * @return {@code to} positioned at the carried bytes, or a merged copy, with {@code to} already
+   *     released, if they exceed the headroom
+   */
+  public ByteBuffer carryOver(ByteBuffer from, ByteBuffer to) {
+    int carried = from.remaining();
+    if (carried <= to.position()) {
+      int start = to.position() - carried;
+      to.put(start, from, from.position(), carried);
+      from.position(from.limit());
+      return to.position(start);
+    }
+    ByteBuffer merged = ByteBuffer.allocate(carried + to.remaining());
+    merged.put(from).put(to).flip();
+    pool.release(to);
+    return merged;
+  }
+
+  /**
+   * Closes the file and returns the buffers of reads still in flight to the pool once they
+   * finish.
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      channel.close();
+    } finally {
+      for (PendingRead read : pending) {
+        read.done.whenComplete((ignored, failure) -> pool.release(read.buffer));
+      }
+      pending.clear();
+    }
+  }
+
+  /**
+   * Issues reads until {@code depth} are in flight, the file is covered or the pool is exhausted.
+   *
+   * @param force allocate a buffer outside the pool if none is free and nothing is in flight
+   */
+  private void issueReads(boolean force) {
+    while (pending.size() < depth && nextOffset < size && !truncated) {
+      ByteBuffer buffer = pool.tryAcquire();
+      if (buffer == null) {
+        if (!force || !pending.isEmpty()) {
+          return;
+        }
+        buffer = pool.acquire();
+      }
+      int length = (int) Math.min(chunkSize, size - nextOffset);
+      buffer.clear().position(HEADROOM).limit(HEADROOM + length);
+      PendingRead read = new PendingRead(buffer);
+      pending.add(read);
+      readFully(buffer, nextOffset, read.done);
+      nextOffset += length;
+    }
+  }
+
+  private void readFully(ByteBuffer buffer, long position, CompletableFuture<Void> read) {
+    channel.read(buffer, position, null, new CompletionHandler<Integer, Void>() {
+      @Override
+      public void completed(Integer count, Void attachment) {
+        if (count < 0 || !buffer.hasRemaining()) {
+          buffer.limit(buffer.position()).position(HEADROOM);
+          read.complete(null);
+        } else {
+          readFully(buffer, position + count, read);
+        }
+      }
+
+      @Override
+      public void failed(Throwable failure, Void attachment) {
+        read.completeExceptionally(failure);
+      }
+    });
+  }
+
+  /**
+   * Buffer of a read in flight and the signal of its completion.
+   */
+  private static final class PendingRead {
+
+    private final ByteBuffer buffer;
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    private PendingRead(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+  }
+}
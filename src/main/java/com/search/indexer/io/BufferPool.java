@@ -0,0 +1,71 @@
+package com.search.indexer.io;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared pool of equally sized heap buffers for read-ahead. Buffers are allocated lazily up to the
+ * pool size; beyond that, {@link #tryAcquire()} refuses while {@link #acquire()} allocates a
+ * temporary buffer, so a reader that needs a buffer to make progress never waits for read-ahead
+ * held by other files. Released buffers above the pool size are dropped.
+ */
+public class BufferPool {
+
+  private final int bufferSize;
+  private final int maxPooled;
+  private final ConcurrentLinkedQueue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger allocated = new AtomicInteger();
+
+  /**
+   * @param maxPooled  number of buffers kept by the pool
+   * @param bufferSize capacity of each buffer in bytes
+   */
+  public BufferPool(int maxPooled, int bufferSize) {
+    this.maxPooled = maxPooled;
+    this.bufferSize = bufferSize;
+  }
+
+  /**
+   * @return a free pooled buffer, or {@code null} if every pooled buffer is in use
+   */
+  public ByteBuffer tryAcquire() {
+    ByteBuffer buffer = free.poll();
+    if (buffer != null) {
+      return buffer;
+    }
+    while (true) {
+      int count = allocated.get();
+      if (count >= maxPooled) {
+        return null;
+      }
+      if (allocated.compareAndSet(count, count + 1)) {
+        return ByteBuffer.allocate(bufferSize);
+      }
+    }
+  }
+
+  /**
+   * @return a pooled buffer, or a temporary one if the pool is exhausted
+   */
+  public ByteBuffer acquire() {
+    ByteBuffer buffer = tryAcquire();
+    return buffer != null ? buffer : ByteBuffer.allocate(bufferSize);
+  }
+
+  /**
+   * Returns a buffer to the pool. The caller must not use it afterwards.
+   *
+   * @param buffer buffer obtained from this pool
+   */
+  public void release(ByteBuffer buffer) {
+    if (buffer.capacity() == bufferSize && free.size() < maxPooled) {
+      buffer.clear();
+      free.offer(buffer);
+    }
+  }
+
+  public int getBufferSize() {
+    return bufferSize;
+  }
+}
@@ -0,0 +1,125 @@
+package com.search.indexer.io;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Guesses the encoding of a file from its first block of bytes. Checks, in order:
+ * <ol>
+ *   <li>a byte order mark (UTF-8, UTF-16BE, UTF-16LE)</li>
+ *   <li>pure 7-bit content, decoded without a charset decoder</li>
+ *   <li>UTF-16 without a BOM, recognised by NUL bytes at alternating positions</li>
+ *   <li>well-formed UTF-8 multi-byte sequences</li>
+ *   <li>otherwise the configured single-byte fallback, such as windows-1252</li>
+ * </ol>
+ */
+public final class CharsetSniffer {
+
+  private CharsetSniffer() {
+    throw new UnsupportedOperationException("CharsetSniffer is a utility class");
+  }
+
+  /**
+   * Detects the encoding of a sample.
+   *
+   * @param sample   buffer holding the first bytes of the input
+   * @param offset   index of the first sample byte
+   * @param length   number of sample bytes
+   * @param complete {@code true} if the sample holds the whole input, so a multi-byte sequence
+   *                 cut at the end of the sample is malformed rather than truncated
+   * @param fallback charset used when the sample is neither ASCII, UTF-16 nor UTF-8
+   * @return the detected encoding
+   */
+  public static DetectedEncoding sniff(byte[] sample, int offset, int length, boolean complete,
+      Charset fallback) {
+    Objects.requireNonNull(fallback, "fallback cannot be null");
+    int end = offset + length;
+    if (length >= 3 && (sample[offset] & 0xFF) == 0xEF && (sample[offset + 1] & 0xFF) == 0xBB
+        && (sample[offset + 2] & 0xFF) == 0xBF) {
+      return new DetectedEncoding(StandardCharsets.UTF_8, 3, false);
+    }
+    if (length >= 2 && (sample[offset] & 0xFF) == 0xFE && (sample[offset + 1] & 0xFF) == 0xFF) {
+      return new DetectedEncoding(StandardCharsets.UTF_16BE, 2, false);
+    }
+    if (length >= 2 && (sample[offset] & 0xFF) == 0xFF && (sample[offset + 1] & 0xFF) == 0xFE) {
+      return new DetectedEncoding(StandardCharsets.UTF_16LE, 2, false);
+    }
+
+    Charset utf16 = detectUtf16(sample, offset, end);
+    if (utf16 != null) {
+      return new DetectedEncoding(utf16, 0, false);
+    }
+
+    int firstHighByte = offset;
+    while (firstHighByte < end && sample[firstHighByte] >= 0) {
+      firstHighByte++;
+    }
+    if (firstHighByte == end) {
+      return new DetectedEncoding(StandardCharsets.US_ASCII, 0, true, fallback);
+    }
+    if (isUtf8(sample, firstHighByte, end, complete)) {
+      return new DetectedEncoding(StandardCharsets.UTF_8, 0, false);
+    }
+    return new DetectedEncoding(fallback, 0, false);
+  }
+
+  /**
+   * Text in UTF-16 without BOM has a NUL in every other byte for Latin characters. Requires most
+   * of the even or odd positions to be NUL and almost none of the other.
+   */
+  private static Charset detectUtf16(byte[] sample, int offset, int end) {
+    int pairs = (end - offset) / 2;
+    if (pairs < 4) {
+      return null;
+    }
+    int evenZeros = 0;
+    int oddZeros = 0;
+    for (int i = offset; i + 1 < end; i += 2) {
+      if (sample[i] == 0) {
+        evenZeros++;
+      }
+      if (sample[i + 1] == 0) {
+        oddZeros++;
+      }
+    }
+    if (evenZeros > pairs * 0.7 && oddZeros < pairs * 0.1) {
+      return StandardCharsets.UTF_16BE;
+    }
+    if (oddZeros > pairs * 0.7 && evenZeros < pairs * 0.1) {
+      return StandardCharsets.UTF_16LE;
+    }
+    return null;
+  }
+
+  static boolean isUtf8(byte[] sample, int from, int end, boolean complete) {
+    int i = from;
+    while (i < end) {
+      int b = sample[i] & 0xFF;
+      int continuation;
+      if (b < 0x80) {
+        i++;
+        continue;
+      } else if (b >= 0xC2 && b <= 0xDF) {
+        continuation = 1;
+      } else if (b >= 0xE0 && b <= 0xEF) {
+        continuation = 2;
+      } else if (b >= 0xF0 && b <= 0xF4) {
+        continuation = 3;
+      } else {
+        return false;
+      }
+      for (int k = 1; k <= continuation; k++) {
+        if (i + k >= end) {
+          // Sequence cut by the end of the sample
+          return !complete;
+        }
+        if ((sample[i + k] & 0xC0) != 0x80) {
+          return false;
+        }
+      }
+      i += continuation + 1;
+    }
+    return true;
+  }
+}
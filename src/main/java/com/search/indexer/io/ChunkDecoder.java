@@ -0,0 +1,232 @@
+package com.search.indexer.io;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decodes a byte stream chunk by chunk, specialised per detected encoding:
+ * <ul>
+ *   <li>ASCII - bytes are widened to chars directly; at the first non-ASCII byte the rest of the
+ *   stream switches to UTF-8, of which ASCII is a subset, if the remaining bytes at hand are valid
+ *   UTF-8, and to the sniffer's single-byte fallback otherwise</li>
+ *   <li>single-byte charsets - a 256-entry byte to char table built once per charset</li>
+ *   <li>everything else - a {@link CharsetDecoder} with the configured error action</li>
+ * </ul>
+ *
+ * <p>Like {@link CharsetDecoder}, {@link #decode} consumes as many bytes as fit into the output and
+ * leaves an incomplete trailing sequence in the input for the next call. Instances are stateful
+ * and belong to a single stream.
+ */
+public abstract class ChunkDecoder {
+
+  /**
+   * Char used by single-byte tables for bytes the charset does not map
+   */
+  private static final char UNMAPPED = '\uFFFF';
+
+  /**
+   * Decodes bytes into chars.
+   *
+   * @param in         bytes to decode, positioned at the first unread byte
+   * @param out        destination, positioned at the first free char
+   * @param endOfInput {@code true} if no bytes follow those in {@code in}
+   * @throws CharacterCodingException if the input is malformed and the error action is REPORT
+   */
+  public abstract void decode(ByteBuffer in, CharBuffer out, boolean endOfInput)
+      throws CharacterCodingException;
+
+  /**
+   * Creates the fastest decoder for an encoding.
+   *
+   * @param encoding    detected encoding
+   * @param errorAction action for malformed or unmappable input
+   * @return a new decoder
+   */
+  public static ChunkDecoder forEncoding(DetectedEncoding encoding, CodingErrorAction errorAction) {
+    if (encoding.isAscii()) {
+      return new AsciiDecoder(errorAction, encoding.getFallback());
+    }
+    return forCharset(encoding.getCharset(), errorAction);
+  }
+
+  private static ChunkDecoder forCharset(Charset charset, CodingErrorAction errorAction) {
+    if (isSingleByte(charset)) {
+      return new SingleByteDecoder(charset, errorAction);
+    }
+    return new CharsetChunkDecoder(newDecoder(charset, errorAction));
+  }
+
+  /**
+   * Parses the {@code file.malformed.input} setting.
+   *
+   * @param action one of {@code replace}, {@code report} or {@code ignore}
+   * @return the matching error action
+   */
+  public static CodingErrorAction parseErrorAction(String action) {
+    switch (action.toLowerCase()) {
+      case "report":
+        return CodingErrorAction.REPORT;
+      case "ignore":
+        return CodingErrorAction.IGNORE;
+      case "replace":
+        return CodingErrorAction.REPLACE;
+      default:
+        throw new IllegalArgumentException("Unknown malformed input action: " + action);
+    }
+  }
+
+  private static CharsetDecoder newDecoder(Charset charset, CodingErrorAction errorAction) {
+    return charset.newDecoder()
+        .onMalformedInput(errorAction)
+        .onUnmappableCharacter(errorAction);
+  }
+
+  private static boolean isSingleByte(Charset charset) {
+    return charset.newEncoder().maxBytesPerChar() == 1.0f
+        && charset.newDecoder().maxCharsPerByte() == 1.0f;
+  }
+
+  /**
+   * Decoder for 7-bit input that hands the rest of the stream to a UTF-8 or single-byte decoder at
+   * the first non-ASCII byte.
+   */
+  static final class AsciiDecoder extends ChunkDecoder {
+
+    private final CodingErrorAction errorAction;
+    private final Charset fallback;
+    private ChunkDecoder rest;
+
+    AsciiDecoder(CodingErrorAction errorAction, Charset fallback) {
+      this.errorAction = errorAction;
+      this.fallback = fallback;
+    }
+
+    @Override
+    public void decode(ByteBuffer in, CharBuffer out, boolean endOfInput)
+        throws CharacterCodingException {
+      if (rest == null) {
+        int count = Math.min(in.remaining(), out.remaining());
+        int inPosition = in.position();
+        int outPosition = out.position();
+        int i = 0;
+        if (in.hasArray() && out.hasArray()) {
+          byte[] src = in.array();
+          char[] dst = out.array();
+          int srcOffset = in.arrayOffset() + inPosition;
+          int dstOffset = out.arrayOffset() + outPosition;
+          for (; i < count; i++) {
+            byte b = src[srcOffset + i];
+            if (b < 0) {
+              break;
+            }
+            dst[dstOffset + i] = (char) b;
+          }
+        } else {
+          for (; i < count; i++) {
+            byte b = in.get(inPosition + i);
+            if (b < 0) {
+              break;
+            }
+            out.put(outPosition + i, (char) b);
+          }
+        }
+        in.position(inPosition + i);
+        out.position(outPosition + i);
+        if (i == count) {
+          return;
+        }
+        rest = fallback == null || isUtf8(in, endOfInput)
+            ? new CharsetChunkDecoder(newDecoder(StandardCharsets.UTF_8, errorAction))
+            : forCharset(fallback, errorAction);
+      }
+      rest.decode(in, out, endOfInput);
+    }
+
+    /**
+     * Checks the unread bytes, starting at the first non-ASCII one. A sequence cut by the end of
+     * the buffer counts as valid unless no bytes follow.
+     */
+    private static boolean isUtf8(ByteBuffer in, boolean endOfInput) {
+      if (in.hasArray()) {
+        return CharsetSniffer.isUtf8(in.array(), in.arrayOffset() + in.position(),
+            in.arrayOffset() + in.limit(), endOfInput);
+      }
+      byte[] bytes = new byte[in.remaining()];
+      in.duplicate().get(bytes);
+      return CharsetSniffer.isUtf8(bytes, 0, bytes.length, endOfInput);
+    }
+  }
+
+  /**
+   * Table-driven decoder for charsets mapping every byte to at most one char.
+   */
+  static final class SingleByteDecoder extends ChunkDecoder {
+
+    private final char[] table = new char[256];
+    private final CodingErrorAction errorAction;
+
+    SingleByteDecoder(Charset charset, CodingErrorAction errorAction) {
+      this.errorAction = errorAction;
+      CharsetDecoder decoder = charset.newDecoder()
+          .onMalformedInput(CodingErrorAction.REPORT)
+          .onUnmappableCharacter(CodingErrorAction.REPORT);
+      for (int b = 0; b < 256; b++) {
+        try {
+          CharBuffer decoded = decoder.decode(ByteBuffer.wrap(new byte[] {(byte) b}));
+          table[b] = decoded.length() == 1 ? decoded.get(0) : UNMAPPED;
+        } catch (CharacterCodingException e) {
+          table[b] = UNMAPPED;
+        }
+      }
+    }
+
+    @Override
+    public void decode(ByteBuffer in, CharBuffer out, boolean endOfInput)
+        throws CharacterCodingException {
+      while (in.hasRemaining() && out.hasRemaining()) {
+        byte b = in.get();
+        char c = table[b & 0xFF];
+        if (c != UNMAPPED) {
+          out.put(c);
+        } else if (errorAction == CodingErrorAction.REPLACE) {
+          out.put('\uFFFD');
+        } else if (errorAction == CodingErrorAction.REPORT) {
+          in.position(in.position() - 1);
+          throw new MalformedInputException(1);
+        }
+      }
+    }
+  }
+
+  /**
+   * General decoder delegating to a {@link CharsetDecoder}.
+   */
+  static final class CharsetChunkDecoder extends ChunkDecoder {
+
+    private final CharsetDecoder decoder;
+    private boolean flushed;
+
+    CharsetChunkDecoder(CharsetDecoder decoder) {
+      this.decoder = decoder;
+    }
+
+    @Override
+    public void decode(ByteBuffer in, CharBuffer out, boolean endOfInput)
+        throws CharacterCodingException {
+      CoderResult result = decoder.decode(in, out, endOfInput);
+      if (result.isError()) {
+        result.throwException();
+      }
+      if (endOfInput && result.isUnderflow() && !flushed) {
+        flushed = decoder.flush(out).isUnderflow();
+      }
+    }
+  }
+}
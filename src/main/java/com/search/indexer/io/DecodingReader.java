@@ -0,0 +1,70 @@
+package com.search.indexer.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Objects;
+
+/**
+ * {@link Reader} over a byte stream decoded by a {@link ChunkDecoder}, so line-oriented scanning
+ * handles encodings exactly like chunked scanning: an ASCII head still switches to the sniffer's
+ * single-byte fallback at the first byte that is not UTF-8, even past the sniffed window. Not
+ * thread-safe; wrap it in a {@link java.io.BufferedReader} to read lines.
+ */
+public class DecodingReader extends Reader {
+
+  private final InputStream input;
+  private final ChunkDecoder decoder;
+  private final ByteBuffer bytes;
+  private boolean endOfInput;
+
+  /**
+   * @param input      bytes to decode, positioned after any byte order mark; closed with the
+   *                   reader
+   * @param decoder    decoder for the stream's detected encoding
+   * @param bufferSize bytes read from the input at a time, which also bound the look-ahead the
+   *                   ASCII decoder inspects when it leaves the fast path
+   */
+  public DecodingReader(InputStream input, ChunkDecoder decoder, int bufferSize) {
+    this.input = Objects.requireNonNull(input, "input cannot be null");
+    this.decoder = Objects.requireNonNull(decoder, "decoder cannot be null");
+    this.bytes = ByteBuffer.allocate(bufferSize).flip();
+  }
+
+  @Override
+  public int read(char[] buffer, int offset, int length) throws IOException {
+    Objects.checkFromIndexSize(offset, length, buffer.length);
+    if (length == 0) {
+      return 0;
+    }
+    CharBuffer out = CharBuffer.wrap(buffer, offset, length);
+    while (true) {
+      decoder.decode(bytes, out, endOfInput);
+      if (out.position() > offset) {
+        return out.position() - offset;
+      }
+      if (endOfInput) {
+        return -1;
+      }
+      fill();
+    }
+  }
+
+  private void fill() throws IOException {
+    bytes.compact();
+    int read = input.read(bytes.array(), bytes.position(), bytes.remaining());
+    if (read < 0) {
+      endOfInput = true;
+    } else {
+      bytes.position(bytes.position() + read);
+    }
+    bytes.flip();
+  }
+
+  @Override
+  public void close() throws IOException {
+    input.close();
+  }
+}
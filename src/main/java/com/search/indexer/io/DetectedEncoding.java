@@ -0,0 +1,64 @@
+package com.search.indexer.io;
+
+import java.nio.charset.Charset;
+
+/**
+ * Result of {@link CharsetSniffer#sniff}: the charset to decode with, the length of a byte order
+ * mark to skip, and whether the sample was plain 7-bit ASCII. For ASCII samples it also carries the
+ * single-byte charset to switch to if later bytes turn out not to be UTF-8.
+ */
+public class DetectedEncoding {
+
+  private final Charset charset;
+  private final int bomLength;
+  private final boolean ascii;
+  private final Charset fallback;
+
+  public DetectedEncoding(Charset charset, int bomLength, boolean ascii) {
+    this(charset, bomLength, ascii, null);
+  }
+
+  /**
+   * @param charset   charset to decode with
+   * @param bomLength number of leading bytes forming a byte order mark
+   * @param ascii     {@code true} if the sample contained only 7-bit bytes
+   * @param fallback  charset for non-ASCII bytes that are not valid UTF-8, or {@code null} to
+   *                  decode them as UTF-8 regardless
+   */
+  public DetectedEncoding(Charset charset, int bomLength, boolean ascii, Charset fallback) {
+    this.charset = charset;
+    this.bomLength = bomLength;
+    this.ascii = ascii;
+    this.fallback = fallback;
+  }
+
+  public Charset getCharset() {
+    return charset;
+  }
+
+  /**
+   * @return number of leading bytes forming a byte order mark
+   */
+  public int getBomLength() {
+    return bomLength;
+  }
+
+  /**
+   * @return {@code true} if the sample contained only 7-bit bytes
+   */
+  public boolean isAscii() {
+    return ascii;
+  }
+
+  /**
+   * @return charset for non-ASCII bytes that are not valid UTF-8, or {@code null}
+   */
+  public Charset getFallback() {
+    return fallback;
+  }
+
+  @Override
+  public String toString() {
+    return ascii ? "ASCII" : charset.name();
+  }
+}
@@ -0,0 +1,248 @@
+package com.search.indexer.model;
+
+import com.search.indexer.core.FileResult;
+import com.search.indexer.core.SpillingWordSet;
+import com.search.indexer.core.TermIndex;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+
+/**
+ * Corpus-level result of a batch: totals across all files, the distinct long-word vocabulary, the
+ * files ranked by their statistics, the files skipped in continue-on-error mode and, when
+ * frequencies were counted, the most frequent words and phrases. Immutable; the searchable
+ * {@link TermIndex} is built on first use.
+ *
+ * <p>The vocabulary of a large corpus may live in spill files on disk. It is streamed by
+ * {@link #forEachVocabularyWord(Consumer)}, and {@link #close()} deletes it together with the spill
+ * files of the ranked results once the report is no longer needed.
+ *
+ * @since 1.0
+ */
+public class CorpusReport implements AutoCloseable {
+
+  /**
+   * Number of ranked files shown by {@link #toString()}
+   */
+  private static final int TOP_FILES = 10;
+
+  private final long fileCount;
+  private final long uppercaseTotal;
+  private final long longWordTotal;
+  private final SpillingWordSet vocabulary;
+  private final List<FileResult> rankedFiles;
+  private final List<FileFailure> failures;
+  private final List<TermCount> topWords;
+  private final List<TermCount> topPhrases;
+  private TermIndex termIndex;
+
+  /**
+   * Creates a report.
+   *
+   * @param fileCount      number of files processed
+   * @param uppercaseTotal sum of uppercase word counts
+   * @param longWordTotal  sum of the per-file distinct long-word counts
+   * @param vocabulary     sorted distinct long words of the corpus
+   * @param rankedFiles    file results, best ranked first
+   */
+  public CorpusReport(long fileCount, long uppercaseTotal, long longWordTotal,
+      List<String> vocabulary, List<FileResult> rankedFiles) {
+    this(fileCount, uppercaseTotal, longWordTotal, vocabulary, rankedFiles, List.of());
+  }
+
+  /**
+   * Creates a report of a batch that skipped failed files.
+   *
+   * @param fileCount      number of files processed
+   * @param uppercaseTotal sum of uppercase word counts
+   * @param longWordTotal  sum of the per-file distinct long-word counts
+   * @param vocabulary     sorted distinct long words of the corpus
+   * @param rankedFiles    file results, best ranked first
+   * @param failures       files that could not be processed
+   */
+  public CorpusReport(long fileCount, long uppercaseTotal, long longWordTotal,
+      List<String> vocabulary, List<FileResult> rankedFiles, List<FileFailure> failures) {
+    this(fileCount, uppercaseTotal, longWordTotal, inMemory(vocabulary), rankedFiles, failures,
+        List.of(), List.of());
+  }
+
+  /**
+   * Creates a report of a batch that counted word and phrase frequencies.
+   *
+   * @param fileCount      number of files processed
+   * @param uppercaseTotal sum of uppercase word counts
+   * @param longWordTotal  sum of the per-file distinct long-word counts
+   * @param vocabulary     distinct long words of the corpus, owned by the report from now on
+   * @param rankedFiles    file results, best ranked first
+   * @param failures       files that could not be processed
+   * @param topWords       most frequent words of the corpus, most frequent first
+   * @param topPhrases     most frequent bigrams and trigrams, most frequent first
+   */
+  public CorpusReport(long fileCount, long uppercaseTotal, long longWordTotal,
+      SpillingWordSet vocabulary, List<FileResult> rankedFiles, List<FileFailure> failures,
+      List<TermCount> topWords, List<TermCount> topPhrases) {
+    this.fileCount = fileCount;
+    this.uppercaseTotal = uppercaseTotal;
+    this.longWordTotal = longWordTotal;
+    this.vocabulary = vocabulary;
+    this.rankedFiles = List.copyOf(rankedFiles);
+    this.failures = List.copyOf(failures);
+    this.topWords = List.copyOf(topWords);
+    this.topPhrases = List.copyOf(topPhrases);
+  }
+
+  public long getFileCount() {
+    return fileCount;
+  }
+
+  public long getUppercaseTotal() {
+    return uppercaseTotal;
+  }
+
+  public long getLongWordTotal() {
+    return longWordTotal;
+  }
+
+  /**
+   * Loads the whole vocabulary into memory; prefer {@link #forEachVocabularyWord(Consumer)} for
+   * large corpora.
+   *
+   * @return sorted distinct long words across all files
+   */
+  public List<String> getVocabulary() {
+    List<String> words = new ArrayList<>(getVocabularySize());
+    forEachVocabularyWord(words::add);
+    return words;
+  }
+
+  /**
+   * Visits every distinct long word across all files once, in ascending order. Spilled words are
+   * streamed from disk.
+   *
+   * @param consumer receives each word
+   */
+  public void forEachVocabularyWord(Consumer<String> consumer) {
+    synchronized (vocabulary) {
+      vocabulary.forEachSorted(consumer);
+    }
+  }
+
+  /**
+   * @return number of distinct long words across all files
+   */
+  public int getVocabularySize() {
+    synchronized (vocabulary) {
+      return vocabulary.size();
+    }
+  }
+
+  /**
+   * @return file results ordered by uppercase count, then long-word count, descending
+   */
+  public List<FileResult> getRankedFiles() {
+    return rankedFiles;
+  }
+
+  /**
+   * @return files that could not be processed, ordered by path
+   */
+  public List<FileFailure> getFailures() {
+    return failures;
+  }
+
+  /**
+   * @return most frequent words across all files, empty unless frequencies were counted
+   */
+  public List<TermCount> getTopWords() {
+    return topWords;
+  }
+
+  /**
+   * @return most frequent bigrams and trigrams with estimated counts, empty unless frequencies
+   *     were counted
+   */
+  public List<TermCount> getTopPhrases() {
+    return topPhrases;
+  }
+
+  /**
+   * Returns the index from long words to the files containing them, building it on the first call.
+   * File ids of the index are positions in {@link #getRankedFiles()}.
+   *
+   * @return the term index of the batch
+   */
+  public synchronized TermIndex getTermIndex() {
+    if (termIndex == null) {
+      termIndex = TermIndex.build(getVocabulary(), rankedFiles);
+    }
+    return termIndex;
+  }
+
+  /**
+   * @return summary with totals, vocabulary size, the top ranked files, the first failures and the
+   *     most frequent terms
+   */
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    builder.append(String.format("%nCORPUS : %d files%n", fileCount));
+    builder.append(String.format("Total words starting with uppercase: %d%n", uppercaseTotal));
+    builder.append(String.format("Distinct long words: %d (%d across files)%n",
+        getVocabularySize(), longWordTotal));
+    builder.append("Top files:");
+    int rank = 1;
+    for (FileResult result : rankedFiles.subList(0, Math.min(TOP_FILES, rankedFiles.size()))) {
+      builder.append(String.format("%n  %d. %s - uppercase: %d, long words: %d", rank++,
+          result.getFilePath(), result.getStatistics().getUppercaseCount(),
+          result.getStatistics().getLongWordCount()));
+    }
+    if (!topWords.isEmpty()) {
+      builder.append(String.format("%nTop words: %s", join(topWords)));
+    }
+    if (!topPhrases.isEmpty()) {
+      builder.append(String.format("%nTop phrases: %s", join(topPhrases)));
+    }
+    if (!failures.isEmpty()) {
+      builder.append(String.format("%nFailed files: %d", failures.size()));
+      for (FileFailure failure : failures.subList(0, Math.min(TOP_FILES, failures.size()))) {
+        builder.append(String.format("%n  %s - %s after %d attempt(s): %s",
+            failure.getFilePath(), failure.getCategory(), failure.getAttempts(),
+            failure.getCause()));
+      }
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Deletes the spilled vocabulary and the spill files of every ranked result. The report and its
+   * results must not be used afterwards.
+   */
+  @Override
+  public void close() {
+    closeVocabulary();
+    rankedFiles.forEach(FileResult::close);
+  }
+
+  /**
+   * Deletes the spilled vocabulary but leaves the ranked results open, for owners that keep using
+   * the results after dropping the report.
+   */
+  public void closeVocabulary() {
+    synchronized (vocabulary) {
+      vocabulary.delete();
+    }
+  }
+
+  private static SpillingWordSet inMemory(List<String> words) {
+    SpillingWordSet set = new SpillingWordSet(0, null);
+    words.forEach(set::add);
+    return set;
+  }
+
+  private static String join(List<TermCount> terms) {
+    StringJoiner joiner = new StringJoiner(", ");
+    terms.forEach(term -> joiner.add(term.toString()));
+    return joiner.toString();
+  }
+}
@@ -0,0 +1,71 @@
+package com.search.indexer.model;
+
+/**
+ * A corpus total extrapolated from a sample, with its standard error and a confidence interval.
+ * Immutable.
+ *
+ * @since 1.0
+ */
+public class Estimate {
+
+  private final double value;
+  private final double standardError;
+  private final double lower;
+  private final double upper;
+
+  /**
+   * @param value         estimated total
+   * @param standardError estimated standard error of the total
+   * @param lower         lower bound of the confidence interval
+   * @param upper         upper bound of the confidence interval
+   */
+  public Estimate(double value, double standardError, double lower, double upper) {
+    if (lower > value || upper < value) {
+      throw new IllegalArgumentException(
+          "Interval [" + lower + ", " + upper + "] does not contain " + value);
+    }
+    this.value = value;
+    this.standardError = standardError;
+    this.lower = lower;
+    this.upper = upper;
+  }
+
+  /**
+   * @param value total counted without sampling
+   * @return an estimate without error
+   */
+  public static Estimate exact(double value) {
+    return new Estimate(value, 0, value, value);
+  }
+
+  public double getValue() {
+    return value;
+  }
+
+  public double getStandardError() {
+    return standardError;
+  }
+
+  public double getLower() {
+    return lower;
+  }
+
+  public double getUpper() {
+    return upper;
+  }
+
+  /**
+   * @return whether the interval holds the given total
+   */
+  public boolean contains(double total) {
+    return total >= lower && total <= upper;
+  }
+
+  /**
+   * @return the rounded total followed by the rounded interval
+   */
+  @Override
+  public String toString() {
+    return String.format("%.0f [%.0f, %.0f]", value, lower, upper);
+  }
+}
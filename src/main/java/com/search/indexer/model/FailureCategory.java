@@ -0,0 +1,74 @@
+package com.search.indexer.model;
+
+import java.io.IOException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.NoSuchFileException;
+
+/**
+ * Reason a file could not be indexed. Only {@link #IO_ERROR} is considered transient and worth
+ * retrying; the other categories fail the same way on every attempt.
+ *
+ * @since 1.0
+ */
+public enum FailureCategory {
+
+  /**
+   * Rejected by validation: not a regular file or larger than {@code file.max.size}
+   */
+  REJECTED,
+  /**
+   * Deleted or moved after it was queued
+   */
+  NOT_FOUND,
+  /**
+   * Not readable by this process
+   */
+  ACCESS_DENIED,
+  /**
+   * Not decodable in its detected charset with {@code file.malformed.input=report}
+   */
+  MALFORMED_INPUT,
+  /**
+   * Any other I/O error, such as a read failing on a network volume
+   */
+  IO_ERROR,
+  /**
+   * Failure that is not an I/O error
+   */
+  UNEXPECTED;
+
+  /**
+   * @return {@code true} if another attempt may succeed
+   */
+  public boolean isTransient() {
+    return this == IO_ERROR;
+  }
+
+  /**
+   * Classifies a processing failure by the first I/O error in its cause chain.
+   *
+   * @param failure exception thrown while processing a file
+   * @return the category
+   */
+  public static FailureCategory of(Throwable failure) {
+    if (failure instanceof SecurityException) {
+      return REJECTED;
+    }
+    for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+      if (cause instanceof NoSuchFileException) {
+        return NOT_FOUND;
+      }
+      if (cause instanceof AccessDeniedException) {
+        return ACCESS_DENIED;
+      }
+      if (cause instanceof CharacterCodingException) {
+        return MALFORMED_INPUT;
+      }
+      if (cause instanceof IOException) {
+        return IO_ERROR;
+      }
+    }
+    return UNEXPECTED;
+  }
+}
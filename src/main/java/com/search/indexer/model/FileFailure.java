@@ -0,0 +1,73 @@
+package com.search.indexer.model;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * A file skipped by a continue-on-error batch, with the reason of its last attempt. Immutable.
+ *
+ * @since 1.0
+ */
+public class FileFailure {
+
+  private final Path filePath;
+  private final FailureCategory category;
+  private final String cause;
+  private final int attempts;
+
+  /**
+   * Creates a failure record.
+   *
+   * @param filePath file that failed
+   * @param category classified reason
+   * @param cause    description of the last error
+   * @param attempts number of attempts made
+   */
+  public FileFailure(Path filePath, FailureCategory category, String cause, int attempts) {
+    this.filePath = Objects.requireNonNull(filePath, "filePath cannot be null");
+    this.category = Objects.requireNonNull(category, "category cannot be null");
+    this.cause = cause;
+    this.attempts = attempts;
+  }
+
+  /**
+   * Records a failure from the exception of its last attempt, described by its root cause.
+   *
+   * @param filePath file that failed
+   * @param failure  exception of the last attempt
+   * @param attempts number of attempts made
+   * @return the failure record
+   */
+  public static FileFailure of(Path filePath, Throwable failure, int attempts) {
+    Throwable root = failure;
+    while (root.getCause() != null) {
+      root = root.getCause();
+    }
+    return new FileFailure(filePath, FailureCategory.of(failure),
+        root.getClass().getSimpleName() + ": " + root.getMessage(), attempts);
+  }
+
+  public Path getFilePath() {
+    return filePath;
+  }
+
+  public FailureCategory getCategory() {
+    return category;
+  }
+
+  public String getCause() {
+    return cause;
+  }
+
+  public int getAttempts() {
+    return attempts;
+  }
+
+  /**
+   * @return tab-separated path, category, attempts and cause
+   */
+  @Override
+  public String toString() {
+    return String.format("%s\t%s\t%d\t%s", filePath, category, attempts, cause);
+  }
+}
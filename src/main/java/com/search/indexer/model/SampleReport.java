@@ -0,0 +1,124 @@
+package com.search.indexer.model;
+
+import java.util.Objects;
+
+/**
+ * Corpus-level result of a sampling run: totals extrapolated from the sampled files and byte
+ * ranges with their confidence intervals, and how much of the corpus was read to obtain them.
+ * Immutable.
+ *
+ * @since 1.0
+ */
+public class SampleReport {
+
+  private final long fileCount;
+  private final long sampledFiles;
+  private final long totalBytes;
+  private final long sampledBytes;
+  private final int strata;
+  private final double confidence;
+  private final Estimate wordTotal;
+  private final Estimate uppercaseTotal;
+  private final Estimate longWordTotal;
+  private final Estimate vocabulary;
+  private final long observedVocabulary;
+
+  /**
+   * Creates a report.
+   *
+   * @param fileCount          number of files in the corpus
+   * @param sampledFiles       number of files read
+   * @param totalBytes         bytes of all files in the corpus
+   * @param sampledBytes       bytes read from the sampled files
+   * @param strata             number of size strata the files were drawn from
+   * @param confidence         confidence level of the intervals, such as 0.95
+   * @param wordTotal          estimated number of words
+   * @param uppercaseTotal     estimated number of words starting with uppercase
+   * @param longWordTotal      estimated occurrences of long words
+   * @param vocabulary         estimated number of distinct long words
+   * @param observedVocabulary distinct long words seen in the sample
+   */
+  public SampleReport(long fileCount, long sampledFiles, long totalBytes, long sampledBytes,
+      int strata, double confidence, Estimate wordTotal, Estimate uppercaseTotal,
+      Estimate longWordTotal, Estimate vocabulary, long observedVocabulary) {
+    this.fileCount = fileCount;
+    this.sampledFiles = sampledFiles;
+    this.totalBytes = totalBytes;
+    this.sampledBytes = sampledBytes;
+    this.strata = strata;
+    this.confidence = confidence;
+    this.wordTotal = Objects.requireNonNull(wordTotal, "wordTotal cannot be null");
+    this.uppercaseTotal = Objects.requireNonNull(uppercaseTotal, "uppercaseTotal cannot be null");
+    this.longWordTotal = Objects.requireNonNull(longWordTotal, "longWordTotal cannot be null");
+    this.vocabulary = Objects.requireNonNull(vocabulary, "vocabulary cannot be null");
+    this.observedVocabulary = observedVocabulary;
+  }
+
+  public long getFileCount() {
+    return fileCount;
+  }
+
+  public long getSampledFiles() {
+    return sampledFiles;
+  }
+
+  public long getTotalBytes() {
+    return totalBytes;
+  }
+
+  public long getSampledBytes() {
+    return sampledBytes;
+  }
+
+  public int getStrata() {
+    return strata;
+  }
+
+  public double getConfidence() {
+    return confidence;
+  }
+
+  public Estimate getWordTotal() {
+    return wordTotal;
+  }
+
+  public Estimate getUppercaseTotal() {
+    return uppercaseTotal;
+  }
+
+  public Estimate getLongWordTotal() {
+    return longWordTotal;
+  }
+
+  public Estimate getVocabulary() {
+    return vocabulary;
+  }
+
+  public long getObservedVocabulary() {
+    return observedVocabulary;
+  }
+
+  /**
+   * @return the estimates with their intervals and the share of the corpus read
+   */
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    builder.append(String.format("%nSAMPLE : %d of %d files from %d size strata, %d of %d bytes "
+        + "read%n", sampledFiles, fileCount, strata, sampledBytes, totalBytes));
+    builder.append(String.format("Estimates with %s%% confidence intervals:%n",
+        formatPercent(confidence)));
+    builder.append(String.format("  Words: %s%n", wordTotal));
+    builder.append(String.format("  Words starting with uppercase: %s%n", uppercaseTotal));
+    builder.append(String.format("  Long word occurrences: %s%n", longWordTotal));
+    builder.append(String.format("  Distinct long words: %s, %d observed", vocabulary,
+        observedVocabulary));
+    return builder.toString();
+  }
+
+  private static String formatPercent(double fraction) {
+    double percent = fraction * 100;
+    return percent == Math.rint(percent) ? String.format("%.0f", percent)
+        : String.valueOf(percent);
+  }
+}
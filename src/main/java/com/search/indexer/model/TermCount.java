@@ -0,0 +1,48 @@
+package com.search.indexer.model;
+
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * A word or phrase with its number of occurrences. The count is exact or an upper estimate,
+ * depending on the structure that produced it. Immutable.
+ *
+ * @since 1.0
+ */
+public class TermCount {
+
+  /**
+   * Most frequent first, then by term
+   */
+  public static final Comparator<TermCount> BY_COUNT = Comparator
+      .comparingLong(TermCount::getCount).reversed()
+      .thenComparing(TermCount::getTerm);
+
+  private final String term;
+  private final long count;
+
+  /**
+   * @param term  word, or words of a phrase joined by single spaces
+   * @param count occurrences of the term
+   */
+  public TermCount(String term, long count) {
+    this.term = Objects.requireNonNull(term, "term cannot be null");
+    this.count = count;
+  }
+
+  public String getTerm() {
+    return term;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * @return the term followed by its count in parentheses
+   */
+  @Override
+  public String toString() {
+    return term + " (" + count + ")";
+  }
+}
@@ -0,0 +1,321 @@
+package com.search.indexer.queue;
+
+import com.search.indexer.core.FileResult;
+import com.search.indexer.core.SnapshotWriter;
+import com.search.indexer.model.FileFailure;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Work queue kept in a directory that several indexer instances share, for example on a common
+ * volume. Every state change is a single atomic rename, so concurrent instances need no other
+ * coordination:
+ * <pre>
+ *   pending/&lt;batch&gt;          batch waiting to be claimed, one path per line
+ *   leased/&lt;batch&gt;~&lt;owner&gt;  batch claimed by an instance; its mtime is the last renewal
+ *   done/&lt;batch&gt;.ixsn       snapshot of a finished batch
+ *   failed/&lt;batch&gt;         batch whose indexing failed, next to failed/&lt;batch&gt;.cause
+ * </pre>
+ * Claiming moves a batch from {@code pending} to {@code leased}; exactly one instance wins each
+ * move. A lease not renewed within the lease duration is moved back to {@code pending} by whichever
+ * instance notices first. Lease ages come from the mtime the owner sets, so instances need clocks
+ * that agree to well within the lease duration. Failed batches are not retried; they stay in
+ * {@code failed} until moved back to {@code pending} by hand.
+ */
+@Slf4j
+public class LeaseWorkQueue {
+
+  static final String PENDING = "pending";
+  static final String LEASED = "leased";
+  static final String DONE = "done";
+  static final String FAILED = "failed";
+  static final String CAUSE_SUFFIX = ".cause";
+  static final String OWNER_SEPARATOR = "~";
+  static final String SNAPSHOT_SUFFIX = ".ixsn";
+  private static final Logger logger = LoggerFactory.getLogger(LeaseWorkQueue.class);
+
+  private final Path pending;
+  private final Path leased;
+  private final Path done;
+  private final Path failed;
+  private final long leaseMillis;
+
+  /**
+   * Opens the queue in {@code directory}, creating its layout if needed.
+   *
+   * @param directory   queue directory
+   * @param leaseMillis time after its last renewal at which a lease is lost
+   * @throws IOException if the layout cannot be created
+   */
+  public LeaseWorkQueue(Path directory, long leaseMillis) throws IOException {
+    if (leaseMillis <= 0) {
+      throw new IllegalArgumentException("leaseMillis must be positive");
+    }
+    this.pending = Files.createDirectories(directory.resolve(PENDING));
+    this.leased = Files.createDirectories(directory.resolve(LEASED));
+    this.done = Files.createDirectories(directory.resolve(DONE));
+    this.failed = Files.createDirectories(directory.resolve(FAILED));
+    this.leaseMillis = leaseMillis;
+  }
+
+  /**
+   * Splits files into batches and makes them available to claim.
+   *
+   * @param files     files to index
+   * @param batchSize maximum number of files per batch
+   * @return number of batches added
+   * @throws IOException if a batch cannot be written
+   */
+  public int enqueue(List<Path> files, int batchSize) throws IOException {
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("batchSize must be positive");
+    }
+    String prefix = "batch-" + System.currentTimeMillis() + "-" + ProcessHandle.current().pid();
+    int batches = 0;
+    for (int from = 0; from < files.size(); from += batchSize) {
+      List<String> lines = files.subList(from, Math.min(files.size(), from + batchSize)).stream()
+          .map(Path::toString)
+          .collect(Collectors.toList());
+      Path temporary = Files.createTempFile(pending.getParent(), prefix, ".tmp");
+      Files.write(temporary, lines, StandardCharsets.UTF_8);
+      moveAtomically(temporary, pending.resolve(String.format("%s-%06d", prefix, batches)));
+      batches++;
+    }
+    return batches;
+  }
+
+  /**
+   * Claims the oldest pending batch for {@code owner}.
+   *
+   * @param owner id of the claiming instance; must not contain {@value #OWNER_SEPARATOR}
+   * @return the lease, or empty if no batch is pending
+   * @throws IOException if the queue cannot be read
+   */
+  public Optional<Lease> claim(String owner) throws IOException {
+    if (owner.isEmpty() || owner.contains(OWNER_SEPARATOR)) {
+      throw new IllegalArgumentException("Invalid owner id: " + owner);
+    }
+    for (Path batch : list(pending)) {
+      Path lease = leased.resolve(batch.getFileName() + OWNER_SEPARATOR + owner);
+      List<Path> files;
+      try {
+        // touched before the move, so the new lease never looks expired
+        Files.setLastModifiedTime(batch, FileTime.fromMillis(System.currentTimeMillis()));
+        moveAtomically(batch, lease);
+        files = Files.readAllLines(lease, StandardCharsets.UTF_8).stream()
+            .filter(line -> !line.isEmpty())
+            .map(Paths::get)
+            .collect(Collectors.toList());
+      } catch (NoSuchFileException e) {
+        continue;
+      }
+      logger.debug("{} claimed {} with {} files", owner, batch.getFileName(), files.size());
+      return Optional.of(new Lease(batch.getFileName().toString(), lease, files));
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Extends a lease by the lease duration.
+   *
+   * @param lease lease to renew
+   * @return {@code false} if the lease was already lost
+   * @throws IOException if the lease cannot be touched
+   */
+  public boolean renew(Lease lease) throws IOException {
+    try {
+      Files.setLastModifiedTime(lease.file, FileTime.fromMillis(System.currentTimeMillis()));
+      return true;
+    } catch (NoSuchFileException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Records the results of a leased batch and releases the lease. Results of a lost lease are
+   * discarded, since the batch is back in the queue for another instance.
+   *
+   * @param lease   lease of the batch
+   * @param results results of its files
+   * @return {@code false} if the lease was lost and the results were discarded
+   * @throws IOException if the results cannot be written
+   */
+  public boolean complete(Lease lease, List<FileResult> results) throws IOException {
+    return complete(lease, results, List.of());
+  }
+
+  /**
+   * Records the results of a leased batch together with the files it skipped, and releases the
+   * lease.
+   *
+   * @param lease    lease of the batch
+   * @param results  results of its files
+   * @param failures files the batch skipped in continue-on-error mode
+   * @return {@code false} if the lease was lost and the results were discarded
+   * @throws IOException if the results cannot be written
+   */
+  public boolean complete(Lease lease, List<FileResult> results, List<FileFailure> failures)
+      throws IOException {
+    if (!renew(lease)) {
+      logger.warn("Lease of {} was lost, discarding its results", lease.batch);
+      return false;
+    }
+    SnapshotWriter.write(done.resolve(lease.batch + SNAPSHOT_SUFFIX), results, failures);
+    Files.deleteIfExists(lease.file);
+    return true;
+  }
+
+  /**
+   * Moves a leased batch that could not be indexed to {@code failed}, next to a file holding the
+   * stack trace of the cause, and releases the lease.
+   *
+   * @param lease lease of the batch
+   * @param cause failure that stopped the batch
+   * @return {@code false} if the lease was lost and the batch was left to another instance
+   * @throws IOException if the batch cannot be moved or the cause cannot be written
+   */
+  public boolean fail(Lease lease, Throwable cause) throws IOException {
+    if (!renew(lease)) {
+      logger.warn("Lease of {} was lost, not marking it failed", lease.batch);
+      return false;
+    }
+    StringWriter trace = new StringWriter();
+    cause.printStackTrace(new PrintWriter(trace));
+    Path causeFile = failed.resolve(lease.batch + CAUSE_SUFFIX);
+    Path temporary = Files.createTempFile(failed.getParent(), lease.batch, ".tmp");
+    Files.writeString(temporary, trace.toString(), StandardCharsets.UTF_8);
+    moveAtomically(temporary, causeFile);
+    try {
+      moveAtomically(lease.file, failed.resolve(lease.batch));
+    } catch (NoSuchFileException e) {
+      // re-queued concurrently; another instance owns the batch now
+      Files.deleteIfExists(causeFile);
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Moves every lease not renewed within the lease duration back to {@code pending}.
+   *
+   * @return number of batches re-queued by this call
+   * @throws IOException if the queue cannot be read
+   */
+  public int requeueExpired() throws IOException {
+    long expiry = System.currentTimeMillis() - leaseMillis;
+    int requeued = 0;
+    for (Path lease : list(leased)) {
+      String name = lease.getFileName().toString();
+      try {
+        if (Files.getLastModifiedTime(lease).toMillis() >= expiry) {
+          continue;
+        }
+        String batch = name.substring(0, name.lastIndexOf(OWNER_SEPARATOR));
+        if (Files.exists(done.resolve(batch + SNAPSHOT_SUFFIX))
+            || Files.exists(failed.resolve(batch))) {
+          Files.deleteIfExists(lease);
+          continue;
+        }
+        moveAtomically(lease, pending.resolve(batch));
+        logger.warn("Lease {} expired, re-queued {}", name, batch);
+        requeued++;
+      } catch (NoSuchFileException e) {
+        // renewed, completed or re-queued concurrently
+      }
+    }
+    return requeued;
+  }
+
+  /**
+   * @return {@code true} when no batch is pending or leased
+   * @throws IOException if the queue cannot be read
+   */
+  public boolean isDrained() throws IOException {
+    return list(pending).isEmpty() && list(leased).isEmpty();
+  }
+
+  /**
+   * @return snapshots of all finished batches, in batch order
+   * @throws IOException if the queue cannot be read
+   */
+  public List<Path> getCompletedSnapshots() throws IOException {
+    return list(done).stream()
+        .filter(file -> file.getFileName().toString().endsWith(SNAPSHOT_SUFFIX))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * @return batches that failed, in batch order; each has its cause in a file of the same name
+   *     ending in {@value #CAUSE_SUFFIX}
+   * @throws IOException if the queue cannot be read
+   */
+  public List<Path> getFailedBatches() throws IOException {
+    return list(failed).stream()
+        .filter(file -> !file.getFileName().toString().endsWith(CAUSE_SUFFIX))
+        .collect(Collectors.toList());
+  }
+
+  private static List<Path> list(Path directory) throws IOException {
+    List<Path> entries = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+      stream.forEach(entries::add);
+    }
+    Collections.sort(entries);
+    return entries;
+  }
+
+  /**
+   * Renames in one step, so that of several instances moving the same file exactly one succeeds
+   * and the others get {@link NoSuchFileException}.
+   */
+  private static void moveAtomically(Path source, Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      throw new IOException("Queue directory must support atomic renames: " + target, e);
+    }
+  }
+
+  /**
+   * A batch claimed by one instance.
+   */
+  public static final class Lease {
+
+    private final String batch;
+    private final Path file;
+    private final List<Path> files;
+
+    private Lease(String batch, Path file, List<Path> files) {
+      this.batch = Objects.requireNonNull(batch);
+      this.file = file;
+      this.files = List.copyOf(files);
+    }
+
+    public String getBatch() {
+      return batch;
+    }
+
+    public List<Path> getFiles() {
+      return files;
+    }
+  }
+}
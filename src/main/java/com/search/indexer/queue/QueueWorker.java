@@ -0,0 +1,120 @@
+package com.search.indexer.queue;
+
+import com.search.indexer.core.FileProcessor;
+import com.search.indexer.model.CorpusReport;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drains a {@link LeaseWorkQueue} as one of any number of instances. Each claimed batch is
+ * indexed with the {@link FileProcessor} while a background thread renews its lease every third
+ * of the lease duration; expired leases of crashed instances are re-queued before every claim.
+ * A batch that fails, such as on the first bad file in fail-fast mode, is moved to the queue's
+ * {@code failed} directory with its cause and the worker goes on with the next batch. The worker
+ * returns once no batch is pending or leased anywhere.
+ */
+@Slf4j
+public class QueueWorker {
+
+  private static final Logger logger = LoggerFactory.getLogger(QueueWorker.class);
+
+  private final LeaseWorkQueue queue;
+  private final FileProcessor processor;
+  private final String owner;
+  private final long renewMillis;
+  private final long pollMillis;
+
+  /**
+   * @param queue       queue to drain
+   * @param processor   indexes the claimed batches
+   * @param owner       id of this instance, unique among the instances sharing the queue
+   * @param leaseMillis lease duration of the queue
+   * @param pollMillis  wait before looking again while other instances hold the last batches
+   */
+  public QueueWorker(LeaseWorkQueue queue, FileProcessor processor, String owner,
+      long leaseMillis, long pollMillis) {
+    this.queue = Objects.requireNonNull(queue, "queue cannot be null");
+    this.processor = Objects.requireNonNull(processor, "processor cannot be null");
+    this.owner = Objects.requireNonNull(owner, "owner cannot be null");
+    this.renewMillis = Math.max(1, leaseMillis / 3);
+    this.pollMillis = pollMillis;
+  }
+
+  /**
+   * @return an owner id made of the host name and process id
+   */
+  public static String defaultOwner() {
+    String host;
+    try {
+      host = InetAddress.getLocalHost().getHostName();
+    } catch (IOException e) {
+      host = "localhost";
+    }
+    return host.replace(LeaseWorkQueue.OWNER_SEPARATOR, "-") + "-" + ProcessHandle.current().pid();
+  }
+
+  /**
+   * Claims and indexes batches until the queue is drained.
+   *
+   * @return number of batches this instance completed
+   * @throws IOException          if the queue cannot be read or written
+   * @throws InterruptedException if interrupted while waiting for other instances
+   */
+  public int run() throws IOException, InterruptedException {
+    ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "indexer-lease-renewer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    int completed = 0;
+    try {
+      while (true) {
+        queue.requeueExpired();
+        Optional<LeaseWorkQueue.Lease> claimed = queue.claim(owner);
+        if (claimed.isEmpty()) {
+          if (queue.isDrained()) {
+            logger.info("Queue drained, {} completed {} batches", owner, completed);
+            return completed;
+          }
+          Thread.sleep(pollMillis);
+          continue;
+        }
+        LeaseWorkQueue.Lease lease = claimed.get();
+        ScheduledFuture<?> renewal = renewer.scheduleAtFixedRate(() -> renew(lease),
+            renewMillis, renewMillis, TimeUnit.MILLISECONDS);
+        try (CorpusReport report = processor.processFiles(lease.getFiles())) {
+          if (queue.complete(lease, report.getRankedFiles(), report.getFailures())) {
+            completed++;
+          }
+        } catch (RuntimeException e) {
+          logger.error("Batch {} failed, moving it to the failed batches", lease.getBatch(), e);
+          queue.fail(lease, e);
+        } finally {
+          renewal.cancel(false);
+        }
+      }
+    } finally {
+      renewer.shutdownNow();
+    }
+  }
+
+  private void renew(LeaseWorkQueue.Lease lease) {
+    try {
+      if (!queue.renew(lease)) {
+        logger.warn("Lease of {} was lost while indexing", lease.getBatch());
+      }
+    } catch (IOException e) {
+      // keep the schedule alive; the next renewal may succeed before the lease expires
+      logger.warn("Failed to renew lease of {}", lease.getBatch(), e);
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package com.search.indexer.rules;
+
+import com.search.indexer.core.WordStatistics;
+import com.search.indexer.model.IndexingResult;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Rule that lists the watch-list terms found in a file with their occurrence counts. The counting
+ * happens while the file is scanned, in the {@link com.search.indexer.core.KeywordAutomaton}
+ * tracked by the statistics.
+ *
+ * @since 1.0
+ */
+public class KeywordRule implements IndexingRule {
+
+  /**
+   * Returns the matched watch-list terms and their counts.
+   *
+   * @param statistics collected word data
+   * @return result containing the total and per-term occurrence counts
+   */
+  @Override
+  public IndexingResult process(WordStatistics statistics) {
+    Map<String, Integer> counts = statistics.getKeywordCounts();
+    StringJoiner matches = new StringJoiner(", ");
+    long total = 0;
+    for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+      matches.add(entry.getKey() + " (" + entry.getValue() + ")");
+      total += entry.getValue();
+    }
+    return new IndexingResult(
+        "\nRULE : Watch-List Keywords\n",
+        String.format("%nRESULT : %d occurrences of %d terms: %s", total, counts.size(), matches)
+    );
+  }
+}
@@ -0,0 +1,93 @@
+package com.search.indexer.rules;
+
+import com.search.indexer.config.IndexerConfig;
+import com.search.indexer.core.LengthHistogram;
+import com.search.indexer.core.WordStatistics;
+import com.search.indexer.model.IndexingResult;
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+/**
+ * Rule that reports the words longer than each of several thresholds from the statistics of one
+ * scan. Occurrence counts come from the {@link LengthHistogram} and are available for any
+ * threshold; word lists are filtered from the distinct long words, so they are available for
+ * thresholds of at least {@code word.min.length}. Like {@link LongWordsRule}, statistics whose
+ * long words spilled to disk list at most {@code words.list.spilled.limit} words per threshold.
+ *
+ * @since 1.0
+ */
+public class LengthThresholdRule implements IndexingRule {
+
+  /**
+   * Length above which words are kept by the statistics
+   */
+  private static final int MIN_WORD_LENGTH = IndexerConfig.getMinWordLength();
+
+  private final int[] thresholds;
+  /**
+   * Most words listed per threshold for statistics whose long words spilled to disk
+   */
+  private final int spilledListLimit;
+
+  /**
+   * @param thresholds word lengths to report, in any order; duplicates are reported once
+   */
+  public LengthThresholdRule(int... thresholds) {
+    this(thresholds, IndexerConfig.getSpilledLongWordsListLimit());
+  }
+
+  /**
+   * @param thresholds       word lengths to report, in any order; duplicates are reported once
+   * @param spilledListLimit most words listed per threshold when the long words spilled to disk
+   */
+  LengthThresholdRule(int[] thresholds, int spilledListLimit) {
+    this.spilledListLimit = spilledListLimit;
+    if (thresholds.length == 0) {
+      throw new IllegalArgumentException("At least one threshold is required");
+    }
+    this.thresholds = Arrays.stream(thresholds).sorted().distinct().toArray();
+  }
+
+  /**
+   * Lists, per threshold, the occurrences and the sorted distinct words longer than it. All
+   * thresholds are served from a single sorted pass over the long words.
+   *
+   * @param statistics collected word data
+   * @return result with one line per threshold
+   */
+  @Override
+  public IndexingResult process(WordStatistics statistics) {
+    StringJoiner[] words = new StringJoiner[thresholds.length];
+    int[] distinct = new int[thresholds.length];
+    for (int i = 0; i < thresholds.length; i++) {
+      words[i] = new StringJoiner(", ");
+    }
+    int limit = statistics.hasSpilled() ? spilledListLimit : Integer.MAX_VALUE;
+    statistics.forEachLongWordSorted(word -> {
+      for (int i = 0; i < thresholds.length && word.length() > thresholds[i]; i++) {
+        if (thresholds[i] >= MIN_WORD_LENGTH && distinct[i]++ < limit) {
+          words[i].add(word);
+        }
+      }
+    });
+
+    StringBuilder lines = new StringBuilder();
+    for (int i = 0; i < thresholds.length; i++) {
+      lines.append(String.format("%n  Longer than %d characters: %d occurrences,", thresholds[i],
+          statistics.getLengthHistogram().countLongerThan(thresholds[i])));
+      if (thresholds[i] >= MIN_WORD_LENGTH) {
+        lines.append(String.format(" %d distinct: %s", distinct[i], words[i]));
+        if (distinct[i] > limit) {
+          lines.append(String.format(" ... and %d more", distinct[i] - limit));
+        }
+      } else {
+        lines.append(String.format(" words not kept below %d characters",
+            MIN_WORD_LENGTH + 1));
+      }
+    }
+    return new IndexingResult(
+        "\nRULE : Word Length Thresholds\n",
+        String.format("%nRESULT :%s", lines)
+    );
+  }
+}
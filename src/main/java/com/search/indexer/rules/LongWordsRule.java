@@ -3,9 +3,7 @@ package com.search.indexer.rules;
 import com.search.indexer.config.IndexerConfig;
 import com.search.indexer.core.WordStatistics;
 import com.search.indexer.model.IndexingResult;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.util.StringJoiner;
 
 /**
  * Rule that identifies and sorts words exceeding minimum length.
@@ -20,6 +18,23 @@ public class LongWordsRule implements IndexingRule {
    */
   private static final int MIN_WORD_LENGTH = IndexerConfig.getMinWordLength();
 
+  /**
+   * Most words listed for statistics whose long words spilled to disk; the rest are only counted,
+   * so rendering never holds the whole spilled set in one string
+   */
+  private final int spilledListLimit;
+
+  public LongWordsRule() {
+    this(IndexerConfig.getSpilledLongWordsListLimit());
+  }
+
+  /**
+   * @param spilledListLimit most words listed when the long words spilled to disk
+   */
+  LongWordsRule(int spilledListLimit) {
+    this.spilledListLimit = spilledListLimit;
+  }
+
   /**
    * Creates sorted list of words longer than {@value MIN_WORD_LENGTH} characters.
    *
@@ -28,14 +43,24 @@ public class LongWordsRule implements IndexingRule {
    */
   @Override
   public IndexingResult process(WordStatistics statistics) {
-    List<String> sortedLongWords = new ArrayList<>(statistics.getLongWords());
-    Collections.sort(sortedLongWords); // Sort only once at the end
+    // Sort only once at the end; spilled words arrive pre-sorted from a merge of their runs
+    StringJoiner sortedLongWords = new StringJoiner(", ");
+    int limit = statistics.hasSpilled() ? spilledListLimit : Integer.MAX_VALUE;
+    int[] listed = {0};
+    statistics.forEachLongWordSorted(word -> {
+      if (listed[0]++ < limit) {
+        sortedLongWords.add(word);
+      }
+    });
+    String omitted = listed[0] > limit
+        ? String.format(" ... and %d more", listed[0] - limit) : "";
 
     return new IndexingResult(
         "\nRULE : Long Words List\n",
-        String.format("%nRESULT : Words longer than %d characters: %s",
+        String.format("%nRESULT : Words longer than %d characters: %s%s",
             MIN_WORD_LENGTH,
-            String.join(", ", sortedLongWords))
+            sortedLongWords,
+            omitted)
     );
   }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.search.indexer.rules;
+
+import com.search.indexer.core.WordStatistics;
+import com.search.indexer.model.IndexingResult;
+import com.search.indexer.model.TermCount;
+import java.util.StringJoiner;
+
+/**
+ * Rule that lists the most frequent bigrams and trigrams of a file. Counts come from a
+ * Count-Min sketch and may overestimate rare phrases, never underestimate.
+ *
+ * @since 1.0
+ */
+public class TopPhrasesRule implements IndexingRule {
+
+  /**
+   * Returns the most frequent phrases, most frequent first.
+   *
+   * @param statistics collected word data
+   * @return result containing the top phrases and their estimated counts
+   */
+  @Override
+  public IndexingResult process(WordStatistics statistics) {
+    StringJoiner phrases = new StringJoiner(", ");
+    for (TermCount phrase : statistics.getTopPhrases()) {
+      phrases.add(phrase.toString());
+    }
+    return new IndexingResult(
+        "\nRULE : Most Frequent Phrases\n",
+        String.format("%nRESULT : %s", phrases)
+    );
+  }
+}
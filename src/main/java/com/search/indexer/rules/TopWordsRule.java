@@ -0,0 +1,32 @@
+package com.search.indexer.rules;
+
+import com.search.indexer.core.WordStatistics;
+import com.search.indexer.model.IndexingResult;
+import com.search.indexer.model.TermCount;
+import java.util.StringJoiner;
+
+/**
+ * Rule that lists the most frequent words of a file with their counts.
+ *
+ * @since 1.0
+ */
+public class TopWordsRule implements IndexingRule {
+
+  /**
+   * Returns the most frequent words, most frequent first.
+   *
+   * @param statistics collected word data
+   * @return result containing the top words and their counts
+   */
+  @Override
+  public IndexingResult process(WordStatistics statistics) {
+    StringJoiner words = new StringJoiner(", ");
+    for (TermCount word : statistics.getTopWords()) {
+      words.add(word.toString());
+    }
+    return new IndexingResult(
+        "\nRULE : Most Frequent Words\n",
+        String.format("%nRESULT : %s", words)
+    );
+  }
+}
@@ -0,0 +1,213 @@
+package com.search.indexer.shard;
+
+import com.search.indexer.core.DelimiterScanner;
+import com.search.indexer.core.FileProcessor;
+import com.search.indexer.core.WorkScheduler;
+import com.search.indexer.exception.FileProcessingException;
+import com.search.indexer.model.CorpusReport;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Indexes a batch across several worker JVMs, so one batch can use more cores than a single heap
+ * and garbage collector keep busy. The files are split into shards of similar total size; each
+ * shard runs in a child JVM started with {@code --shard-worker <file-list> <snapshot>}, which
+ * indexes it and saves its results as a snapshot. The coordinator maps the finished snapshots and
+ * merges them into one report.
+ *
+ * <p>A worker that exits abnormally or leaves no snapshot only causes its own shard to be re-run,
+ * up to {@code retries} times. Worker output goes to a log file per shard attempt, kept in the
+ * work directory when the batch fails.
+ */
+@Slf4j
+public class ShardCoordinator {
+
+  public static final String WORKER_MODE = "--shard-worker";
+  private static final Logger logger = LoggerFactory.getLogger(ShardCoordinator.class);
+
+  private final FileProcessor processor;
+  private final int shardCount;
+  private final int retries;
+  private final List<String> jvmOptions;
+  private final String mainClass;
+
+  /**
+   * @param processor  merges the shard snapshots with its configured rules
+   * @param shardCount maximum number of worker JVMs
+   * @param retries    re-runs allowed per shard after a crash
+   * @param jvmOptions extra options of the worker JVMs
+   * @param mainClass  entry point of the workers, accepting {@link #WORKER_MODE}
+   */
+  public ShardCoordinator(FileProcessor processor, int shardCount, int retries,
+      List<String> jvmOptions, String mainClass) {
+    this.processor = Objects.requireNonNull(processor, "processor cannot be null");
+    if (shardCount <= 0) {
+      throw new IllegalArgumentException("shardCount must be positive");
+    }
+    if (retries < 0) {
+      throw new IllegalArgumentException("retries cannot be negative");
+    }
+    this.shardCount = shardCount;
+    this.retries = retries;
+    this.jvmOptions = List.copyOf(jvmOptions);
+    this.mainClass = Objects.requireNonNull(mainClass, "mainClass cannot be null");
+  }
+
+  /**
+   * Indexes the files in worker JVMs and merges their results.
+   *
+   * @param files files to index
+   * @return the report of the whole batch
+   * @throws FileProcessingException if a shard still fails after its retries
+   * @throws InterruptedException    if interrupted while waiting; running workers are killed
+   */
+  public CorpusReport processFiles(List<Path> files) throws InterruptedException {
+    List<List<Path>> shards = partition(files, shardCount);
+    Path workDirectory;
+    try {
+      workDirectory = Files.createTempDirectory("indexer-shards");
+    } catch (IOException e) {
+      throw new FileProcessingException("Failed to create shard work directory", e);
+    }
+    logger.info("Indexing {} files in {} shards", files.size(), shards.size());
+
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, shards.size()));
+    List<Path> snapshots = new ArrayList<>();
+    try {
+      List<Future<Path>> results = new ArrayList<>();
+      for (int shard = 0; shard < shards.size(); shard++) {
+        int id = shard;
+        results.add(executor.submit(() -> runShard(id, shards.get(id), workDirectory)));
+      }
+      for (Future<Path> result : results) {
+        snapshots.add(result.get());
+      }
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      throw cause instanceof FileProcessingException
+          ? (FileProcessingException) cause
+          : new FileProcessingException("Shard failed, logs kept in " + workDirectory, cause);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    CorpusReport report = processor.loadSnapshots(snapshots);
+    deleteQuietly(workDirectory);
+    return report;
+  }
+
+  /**
+   * Runs one shard until a worker succeeds or its attempts are used up.
+   *
+   * @return snapshot written by the successful worker
+   */
+  private Path runShard(int shard, List<Path> files, Path workDirectory)
+      throws IOException, InterruptedException {
+    Path fileList = workDirectory.resolve("shard-" + shard + ".files");
+    Files.write(fileList, files.stream().map(Path::toString).collect(Collectors.toList()),
+        StandardCharsets.UTF_8);
+    Path snapshot = workDirectory.resolve("shard-" + shard + ".ixsn");
+    for (int attempt = 0; ; attempt++) {
+      Path log = workDirectory.resolve("shard-" + shard + "-" + attempt + ".log");
+      Process worker = startWorker(workerCommand(fileList, snapshot), log);
+      int exitCode;
+      try {
+        exitCode = worker.waitFor();
+      } catch (InterruptedException e) {
+        worker.destroyForcibly();
+        throw e;
+      }
+      if (exitCode == 0 && Files.exists(snapshot)) {
+        logger.debug("Shard {} finished with {} files", shard, files.size());
+        return snapshot;
+      }
+      if (attempt == retries) {
+        throw new FileProcessingException("Shard " + shard + " failed after " + (attempt + 1)
+            + " attempts with exit code " + exitCode + ", see " + log);
+      }
+      logger.warn("Shard {} worker exited with code {}, retrying (see {})", shard, exitCode, log);
+    }
+  }
+
+  /**
+   * @return command line of a worker JVM running this JVM's class path
+   */
+  List<String> workerCommand(Path fileList, Path snapshot) {
+    List<String> command = new ArrayList<>();
+    command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+    int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / shardCount);
+    command.add("-Dindexer.processing.threads=" + threads);
+    if (DelimiterScanner.isVectorModulePresent()) {
+      command.add("--add-modules=" + DelimiterScanner.VECTOR_MODULE);
+    }
+    command.addAll(jvmOptions);
+    command.addAll(Arrays.asList("-cp", System.getProperty("java.class.path"), mainClass,
+        WORKER_MODE, fileList.toString(), snapshot.toString()));
+    return command;
+  }
+
+  /**
+   * Starts one worker attempt with its output redirected to {@code log}.
+   */
+  Process startWorker(List<String> command, Path log) throws IOException {
+    return new ProcessBuilder(command)
+        .redirectErrorStream(true)
+        .redirectOutput(log.toFile())
+        .start();
+  }
+
+  /**
+   * Splits files into at most {@code shardCount} non-empty shards of similar total size, giving
+   * each file, largest first, to the shard with the fewest bytes so far.
+   *
+   * @param files      files to split
+   * @param shardCount maximum number of shards
+   * @return the shards
+   */
+  static List<List<Path>> partition(List<Path> files, int shardCount) {
+    int count = Math.min(shardCount, files.size());
+    List<List<Path>> shards = new ArrayList<>();
+    PriorityQueue<long[]> loads = new PriorityQueue<>(
+        Comparator.<long[]>comparingLong(load -> load[0]).thenComparingLong(load -> load[1]));
+    for (int shard = 0; shard < count; shard++) {
+      shards.add(new ArrayList<>());
+      loads.add(new long[] {0, shard});
+    }
+    for (WorkScheduler.WorkUnit unit : new WorkScheduler(0, 0).plan(files, count).getUnits()) {
+      long[] lightest = loads.poll();
+      shards.get((int) lightest[1]).addAll(unit.getFiles());
+      lightest[0] += unit.getBytes();
+      loads.add(lightest);
+    }
+    return shards;
+  }
+
+  private static void deleteQuietly(Path directory) {
+    try (Stream<Path> entries = Files.list(directory)) {
+      for (Path entry : (Iterable<Path>) entries::iterator) {
+        Files.deleteIfExists(entry);
+      }
+      Files.deleteIfExists(directory);
+    } catch (IOException e) {
+      logger.warn("Failed to delete shard work directory {}", directory, e);
+    }
+  }
+}
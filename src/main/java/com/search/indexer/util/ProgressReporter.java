@@ -0,0 +1,148 @@
+package com.search.indexer.util;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reports the progress of a batch from a background ticker. Workers only add to striped
+ * {@link LongAdder} counters of bytes, words and files; the ticker samples them at a fixed interval
+ * and logs the instantaneous and average byte throughput with an ETA weighted by the bytes still
+ * to read.
+ */
+@Slf4j
+public class ProgressReporter implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(ProgressReporter.class);
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+  private final LongAdder bytes = new LongAdder();
+  private final LongAdder words = new LongAdder();
+  private final LongAdder files = new LongAdder();
+  private final long totalBytes;
+  private final int totalFiles;
+  private final long startNanos;
+  private long lastBytes;
+  private long lastNanos;
+  private ScheduledExecutorService ticker;
+
+  /**
+   * Creates a reporter without a ticker; {@link #start} begins periodic reports.
+   *
+   * @param totalBytes bytes of all files of the batch
+   * @param totalFiles number of files of the batch
+   */
+  public ProgressReporter(long totalBytes, int totalFiles) {
+    this(totalBytes, totalFiles, System.nanoTime());
+  }
+
+  ProgressReporter(long totalBytes, int totalFiles, long startNanos) {
+    this.totalBytes = totalBytes;
+    this.totalFiles = totalFiles;
+    this.startNanos = startNanos;
+    this.lastNanos = startNanos;
+  }
+
+  /**
+   * Logs a progress report every {@code intervalMillis} on a daemon thread.
+   *
+   * @param intervalMillis report interval; 0 or less disables periodic reports
+   * @return this reporter
+   */
+  public synchronized ProgressReporter start(long intervalMillis) {
+    if (intervalMillis > 0 && ticker == null) {
+      ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "indexer-progress");
+        thread.setDaemon(true);
+        return thread;
+      });
+      ticker.scheduleAtFixedRate(() -> logger.info("Progress: {}", sample(System.nanoTime())),
+          intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+    return this;
+  }
+
+  /**
+   * @param count bytes just read
+   */
+  public void addBytes(long count) {
+    bytes.add(count);
+  }
+
+  /**
+   * @param wordCount words of the file just finished
+   */
+  public void fileCompleted(long wordCount) {
+    words.add(wordCount);
+    files.increment();
+  }
+
+  public long getBytes() {
+    return bytes.sum();
+  }
+
+  public long getWords() {
+    return words.sum();
+  }
+
+  public long getFiles() {
+    return files.sum();
+  }
+
+  /**
+   * Describes the progress since the previous sample and since the start.
+   *
+   * @param nowNanos current {@link System#nanoTime()}
+   * @return the report line
+   */
+  synchronized String sample(long nowNanos) {
+    long read = bytes.sum();
+    double interval = Math.max(1, nowNanos - lastNanos) / NANOS_PER_SECOND;
+    double elapsed = Math.max(1, nowNanos - startNanos) / NANOS_PER_SECOND;
+    double current = (read - lastBytes) / interval;
+    double average = read / elapsed;
+    lastBytes = read;
+    lastNanos = nowNanos;
+
+    double percentage = totalBytes > 0 ? Math.min(100.0, read * 100.0 / totalBytes) : 0;
+    String eta = average > 0
+        ? formatDuration((long) (Math.max(0, totalBytes - read) / average))
+        : "unknown";
+    return String.format("%d/%d files, %s/%s (%.1f%%), %d words, %s/s now, %s/s avg, ETA %s",
+        files.sum(), totalFiles, formatBytes(read), formatBytes(totalBytes), percentage,
+        words.sum(), formatBytes((long) current), formatBytes((long) average), eta);
+  }
+
+  /**
+   * Stops the ticker and logs the totals of the batch.
+   */
+  @Override
+  public synchronized void close() {
+    if (ticker != null) {
+      ticker.shutdownNow();
+      ticker = null;
+    }
+    if (logger.isDebugEnabled()) {
+      double elapsed = Math.max(1, System.nanoTime() - startNanos) / NANOS_PER_SECOND;
+      logger.debug("Processed {} files, {} and {} words in {} s ({}/s)", files.sum(),
+          formatBytes(bytes.sum()), words.sum(), String.format("%.2f", elapsed),
+          formatBytes((long) (bytes.sum() / elapsed)));
+    }
+  }
+
+  static String formatBytes(long count) {
+    if (count < 1024) {
+      return count + " B";
+    }
+    int unit = (63 - Long.numberOfLeadingZeros(count)) / 10;
+    return String.format("%.1f %sB", count / (double) (1L << (10 * unit)), " KMGTPE".charAt(unit));
+  }
+
+  static String formatDuration(long seconds) {
+    return String.format("%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+  }
+}
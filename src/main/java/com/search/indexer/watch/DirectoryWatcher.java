@@ -0,0 +1,341 @@
+package com.search.indexer.watch;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import com.search.indexer.core.CorpusAggregator;
+import com.search.indexer.core.FileProcessor;
+import com.search.indexer.core.FileResult;
+import com.search.indexer.core.IncrementalAggregator;
+import com.search.indexer.model.CorpusReport;
+import com.search.indexer.model.IndexingResult;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the indexing results of a directory tree current using {@link WatchService}. Created and
+ * modified files are re-run through the {@link FileProcessor}, deleted files are dropped, and
+ * bursts of events are coalesced: a batch is flushed once no new event arrived for the debounce
+ * window, or once the oldest pending event reaches the maximum delay. Files present at start are
+ * indexed as one concurrent batch. Corpus totals are kept in an {@link IncrementalAggregator}: a
+ * flush subtracts the stale result of each changed file and adds its new one, so its cost follows
+ * the changed files rather than the corpus, and the report is built on the next request after a
+ * change. Totals, vocabulary, ranking and word counts always describe the files as they are now.
+ */
+@Slf4j
+public class DirectoryWatcher {
+
+  private static final Logger logger = LoggerFactory.getLogger(DirectoryWatcher.class);
+
+  private final FileProcessor processor;
+  private final Path root;
+  private final long debounceMillis;
+  private final long maxDelayMillis;
+  private final Map<Path, FileResult> results = new ConcurrentHashMap<>();
+  private final Set<Path> pending = ConcurrentHashMap.newKeySet();
+  private final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+  private final Object scheduleLock = new Object();
+  private final Object reportLock = new Object();
+  private volatile IncrementalAggregator aggregate = new IncrementalAggregator();
+  /**
+   * Report of the current results, or {@code null} once a flush changed them
+   */
+  private CorpusReport report = new CorpusAggregator().toReport();
+  private WatchService watchService;
+  private ScheduledExecutorService scheduler;
+  private Thread eventLoop;
+  private ScheduledFuture<?> scheduledFlush;
+  private long firstPendingNanos;
+
+  public DirectoryWatcher(FileProcessor processor, Path root, long debounceMillis,
+      long maxDelayMillis) {
+    this.processor = Objects.requireNonNull(processor, "processor cannot be null");
+    this.root = Objects.requireNonNull(root, "root cannot be null");
+    if (debounceMillis < 0 || maxDelayMillis < debounceMillis) {
+      throw new IllegalArgumentException(
+          "debounceMillis must be non-negative and not exceed maxDelayMillis");
+    }
+    this.debounceMillis = debounceMillis;
+    this.maxDelayMillis = maxDelayMillis;
+  }
+
+  /**
+   * Registers the directory tree, indexes every file already present and starts listening for
+   * changes on a background thread.
+   *
+   * @throws IOException if the directory cannot be watched
+   */
+  public synchronized void start() throws IOException {
+    if (!Files.isDirectory(root)) {
+      throw new IllegalArgumentException("Not a directory: " + root);
+    }
+    if (watchService != null) {
+      throw new IllegalStateException("Watcher already started");
+    }
+    watchService = root.getFileSystem().newWatchService();
+    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "indexer-watch-flush");
+      thread.setDaemon(true);
+      return thread;
+    });
+    registerTree(root);
+    indexExistingFiles();
+    flush();
+
+    eventLoop = new Thread(this::pollEvents, "indexer-watch-events");
+    eventLoop.setDaemon(true);
+    eventLoop.start();
+    logger.info("Watching {} ({} files indexed)", root, results.size());
+  }
+
+  /**
+   * Stops watching. Pending, not yet flushed events are discarded, and the spill files of the
+   * results and the report are deleted.
+   */
+  public synchronized void stop() {
+    if (watchService == null) {
+      return;
+    }
+    try {
+      watchService.close();
+    } catch (IOException e) {
+      logger.warn("Failed to close watch service: {}", e.getMessage());
+    }
+    scheduler.shutdownNow();
+    eventLoop.interrupt();
+    watchService = null;
+    invalidateReport();
+    results.values().forEach(FileResult::close);
+  }
+
+  /**
+   * @return live, read-only view of the current result of every indexed file
+   */
+  public Map<Path, FileResult> getResults() {
+    return Collections.unmodifiableMap(results);
+  }
+
+  /**
+   * @return corpus report of the current results, rebuilt on the first call after a flush that
+   *     changed them
+   */
+  public CorpusReport getReport() {
+    synchronized (reportLock) {
+      if (report == null) {
+        report = aggregate.toReport();
+      }
+      return report;
+    }
+  }
+
+  /**
+   * Drops the cached report; the results stay live, so only its vocabulary is closed.
+   */
+  private void invalidateReport() {
+    synchronized (reportLock) {
+      if (report != null) {
+        report.closeVocabulary();
+        report = null;
+      }
+    }
+  }
+
+  /**
+   * Indexes the files found at start through the processor's concurrent batch. Results are
+   * retained uncompacted with full frequency tables, so each can later be subtracted exactly and
+   * released on its own. If the batch fails, which a fail-fast policy does on its first bad file,
+   * its results are closed and the files are left pending for the per-file flush instead.
+   */
+  private void indexExistingFiles() {
+    List<Path> files = pending.stream().filter(Files::isRegularFile).collect(Collectors.toList());
+    if (files.isEmpty()) {
+      return;
+    }
+    Map<Path, FileResult> indexed = new ConcurrentHashMap<>();
+    IncrementalAggregator initial = new IncrementalAggregator();
+    CorpusReport initialReport;
+    try {
+      initialReport = processor.processFiles(files, result -> {
+        indexed.put(result.getFilePath(), result);
+        initial.add(result);
+      }, true);
+    } catch (RuntimeException e) {
+      logger.error("Failed to index {} as a batch, indexing its files one by one: {}",
+          root, e.getMessage(), e);
+      return;
+    }
+    results.putAll(indexed);
+    aggregate = initial;
+    synchronized (reportLock) {
+      report.closeVocabulary();
+      report = initialReport;
+    }
+    pending.removeAll(files);
+  }
+
+  private void pollEvents() {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        WatchKey key = watchService.take();
+        Path directory = watchedDirectories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+          if (event.kind() == OVERFLOW) {
+            logger.warn("Watch events overflowed, rescanning {}", root);
+            markTreePending(root);
+          } else if (directory != null) {
+            onPathChanged(directory.resolve((Path) event.context()), event.kind());
+          }
+        }
+        if (!key.reset()) {
+          watchedDirectories.remove(key);
+        }
+        scheduleFlush();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ClosedWatchServiceException e) {
+      // stop() closed the service
+    }
+  }
+
+  private void onPathChanged(Path path, WatchEvent.Kind<?> kind) {
+    if (kind == ENTRY_CREATE && Files.isDirectory(path)) {
+      try {
+        registerTree(path);
+      } catch (IOException e) {
+        logger.error("Failed to watch new directory {}: {}", path, e.getMessage(), e);
+      }
+      return;
+    }
+    if (kind == ENTRY_DELETE) {
+      // A deleted directory takes every file indexed below it along
+      results.keySet().stream()
+          .filter(indexed -> indexed.startsWith(path))
+          .forEach(pending::add);
+    }
+    pending.add(path);
+  }
+
+  /**
+   * Trailing-edge debounce: every event pushes the flush back by the debounce window, but never
+   * beyond the maximum delay measured from the first event of the burst.
+   */
+  private void scheduleFlush() {
+    if (pending.isEmpty()) {
+      return;
+    }
+    synchronized (scheduleLock) {
+      long now = System.nanoTime();
+      if (scheduledFlush == null || scheduledFlush.isDone()) {
+        firstPendingNanos = now;
+      } else {
+        scheduledFlush.cancel(false);
+      }
+      long waitedMillis = TimeUnit.NANOSECONDS.toMillis(now - firstPendingNanos);
+      long delay = Math.max(0, Math.min(debounceMillis, maxDelayMillis - waitedMillis));
+      scheduledFlush = scheduler.schedule(this::flush, delay, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Re-indexes every pending path that still is a regular file and forgets the others.
+   */
+  private void flush() {
+    List<Path> batch = new ArrayList<>(pending);
+    pending.removeAll(batch);
+    int updated = 0;
+    int removed = 0;
+    List<FileResult> stale = new ArrayList<>();
+    for (Path path : batch) {
+      FileResult previous;
+      FileResult result = null;
+      if (Files.isRegularFile(path)) {
+        try {
+          // Not compacted: a shared dictionary would keep the words of every past version of
+          // every file, while plain results are released when the file changes or is deleted
+          result = processor.processFile(path);
+          previous = results.put(path, result);
+          logResult(result);
+          updated++;
+        } catch (RuntimeException e) {
+          logger.error("Failed to re-index {}: {}", path, e.getMessage(), e);
+          previous = results.remove(path);
+          if (previous != null) {
+            removed++;
+          }
+        }
+      } else {
+        previous = results.remove(path);
+        if (previous != null) {
+          removed++;
+        }
+      }
+      if (previous != null) {
+        aggregate.remove(previous);
+        stale.add(previous);
+      }
+      if (result != null) {
+        aggregate.add(result);
+      }
+    }
+    if (updated > 0 || removed > 0) {
+      invalidateReport();
+      stale.forEach(FileResult::close);
+      logger.info("Watch update: {} files re-indexed, {} removed, {} tracked, "
+          + "{} uppercase words, {} long words", updated, removed, aggregate.getFileCount(),
+          aggregate.getUppercaseTotal(), aggregate.getLongWordTotal());
+    }
+  }
+
+  private void registerTree(Path directory) throws IOException {
+    List<Path> directories;
+    try (Stream<Path> walk = Files.walk(directory)) {
+      directories = walk.filter(Files::isDirectory).collect(Collectors.toList());
+    }
+    for (Path dir : directories) {
+      WatchKey key = dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+      watchedDirectories.put(key, dir);
+    }
+    markTreePending(directory);
+  }
+
+  private void markTreePending(Path directory) {
+    results.keySet().stream()
+        .filter(indexed -> indexed.startsWith(directory))
+        .forEach(pending::add);
+    try (Stream<Path> walk = Files.walk(directory)) {
+      walk.filter(Files::isRegularFile).forEach(pending::add);
+    } catch (IOException e) {
+      logger.error("Failed to scan {}: {}", directory, e.getMessage(), e);
+    }
+  }
+
+  private void logResult(FileResult result) {
+    for (IndexingResult ruleResult : result.getResults()) {
+      logger.info("\nFile Name: {}\n {}\n", result.getFilePath().getFileName(), ruleResult);
+    }
+  }
+}
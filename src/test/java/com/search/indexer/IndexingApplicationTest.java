@@ -2,12 +2,18 @@ package com.search.indexer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.anyList;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import com.search.indexer.core.FileProcessor;
+import com.search.indexer.model.CorpusReport;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.util.List;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -35,7 +41,8 @@ class IndexingApplicationTest {
   void shouldProcessFilesWhenValidPathsProvided() throws Exception {
     IndexingApplication.setProcessor(mockFileProcessor);
     // Mocking the FileProcessor to avoid actual file operations
-    doNothing().when(mockFileProcessor).processFiles(anyList());
+    when(mockFileProcessor.processFiles(anyList()))
+        .thenReturn(new CorpusReport(0, 0, 0, List.of(), List.of()));
 
     // Execute the main method with test file paths
     String[] args =
@@ -45,4 +52,99 @@ class IndexingApplicationTest {
     // Verify that processFiles was called once
     verify(mockFileProcessor, times(1)).processFiles(anyList());
   }
-}
\ No newline at end of file
+
+  @Test
+  @DisplayName("Should index the files and run the query in query mode")
+  void shouldRunQueryMode() throws Exception {
+    IndexingApplication.setProcessor(mockFileProcessor);
+    when(mockFileProcessor.processFiles(anyList()))
+        .thenReturn(new CorpusReport(0, 0, 0, List.of(), List.of()));
+
+    IndexingApplication.main(new String[] {"--query", "micro*",
+        "src/test/resources/sample-files/test1.txt"});
+
+    verify(mockFileProcessor, times(1)).processFiles(anyList());
+  }
+
+  @Test
+  @DisplayName("Should reject query mode without files or snapshot")
+  void shouldRejectQueryWithoutFiles() {
+    Exception exception = assertThrows(Exception.class,
+        () -> IndexingApplication.main(new String[] {"--query", "micro*"}));
+
+    assertEquals("Please provide a query followed by at least one file path, "
+        + "--load <snapshot> or a snapshot.store", exception.getMessage());
+  }
+
+  @Test
+  @DisplayName("Should run the query against a snapshot without re-indexing")
+  void shouldQuerySnapshot() throws Exception {
+    IndexingApplication.setProcessor(mockFileProcessor);
+    when(mockFileProcessor.loadSnapshot(Paths.get("batch.ixsn")))
+        .thenReturn(new CorpusReport(0, 0, 0, List.of(), List.of()));
+
+    IndexingApplication.main(new String[] {"--query", "micro*", "--load", "batch.ixsn"});
+
+    verify(mockFileProcessor, times(1)).loadSnapshot(Paths.get("batch.ixsn"));
+    verify(mockFileProcessor, times(0)).processFiles(anyList());
+  }
+
+  @Test
+  @DisplayName("Should reload a snapshot in load mode")
+  void shouldLoadSnapshot() throws Exception {
+    IndexingApplication.setProcessor(mockFileProcessor);
+    when(mockFileProcessor.loadSnapshot(Paths.get("batch.ixsn")))
+        .thenReturn(new CorpusReport(0, 0, 0, List.of(), List.of()));
+
+    IndexingApplication.main(new String[] {"--load", "batch.ixsn"});
+
+    verify(mockFileProcessor, times(1)).loadSnapshot(Paths.get("batch.ixsn"));
+  }
+
+  @Test
+  @DisplayName("Should require exactly one snapshot in load mode")
+  void shouldRejectLoadWithoutSnapshot() {
+    Exception exception = assertThrows(Exception.class,
+        () -> IndexingApplication.main(new String[] {"--load"}));
+
+    assertEquals("Please provide exactly one snapshot to load", exception.getMessage());
+  }
+
+  @Test
+  @DisplayName("Should index standard input in stdin mode")
+  void shouldIndexStdin() throws Exception {
+    IndexingApplication.setProcessor(mockFileProcessor);
+    when(mockFileProcessor.processStream(any(InputStream.class), eq("extract"), any(byte[].class),
+        any())).thenReturn(new CorpusReport(0, 0, 0, List.of(), List.of()));
+
+    IndexingApplication.main(new String[] {"--stdin", "extract"});
+
+    verify(mockFileProcessor, times(1))
+        .processStream(any(InputStream.class), eq("extract"), any(byte[].class), any());
+  }
+
+  @Test
+  @DisplayName("Should accept at most one stream name in stdin mode")
+  void shouldRejectStdinWithSeveralNames() {
+    Exception exception = assertThrows(Exception.class,
+        () -> IndexingApplication.main(new String[] {"--stdin", "a", "b"}));
+
+    assertEquals("Please provide at most one name for standard input", exception.getMessage());
+  }
+
+  @Test
+  @DisplayName("Should estimate totals from a sample of a directory in sample mode")
+  void shouldSampleDirectory() throws Exception {
+    IndexingApplication.main(new String[] {"--sample", "src/test/resources/sample-files"});
+  }
+
+  @Test
+  @DisplayName("Should require a path in sample mode")
+  void shouldRejectSampleWithoutPaths() {
+    Exception exception = assertThrows(Exception.class,
+        () -> IndexingApplication.main(new String[] {"--sample"}));
+
+    assertEquals("Please provide at least one file or directory to sample",
+        exception.getMessage());
+  }
+}
@@ -179,4 +179,14 @@ class IndexerConfigTest {
         "Should throw RuntimeException when properties file is missing");
   }
 
+  @Test
+  @DisplayName("Should resolve escapes in the stream record delimiter")
+  void shouldResolveDelimiterEscapes() {
+    // Act & Assert
+    assertEquals("\0", IndexerConfig.unescape("\\0"));
+    assertEquals("\n---\n", IndexerConfig.unescape("\\n---\\n"));
+    assertEquals("\u001e|\\", IndexerConfig.unescape("\\u001e|\\\\"));
+    assertEquals("plain", IndexerConfig.unescape("plain"));
+  }
+
 }
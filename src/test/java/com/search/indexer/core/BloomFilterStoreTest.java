@@ -0,0 +1,99 @@
+package com.search.indexer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("BloomFilterStore Test Suite")
+class BloomFilterStoreTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  @DisplayName("Should answer membership for every file from the mapped store")
+  void shouldRoundTripFilters() throws IOException {
+    // Arrange
+    WordDictionary dictionary = new WordDictionary();
+    List<FileResult> results = List.of(
+        result("docs/a.txt", dictionary, "microscope", "telescope"),
+        result("docs/b.txt", dictionary, "telescope", "periscope"),
+        result("docs/empty.txt", dictionary));
+    Path store = tempDir.resolve("filters.blmf");
+
+    // Act
+    BloomFilterStore.write(store, results, 0.001);
+    BloomFilterStore mapped = BloomFilterStore.open(store);
+
+    // Assert
+    assertThat(mapped.size()).isEqualTo(3);
+    assertThat(mapped.getFile(1)).isEqualTo(Path.of("docs/b.txt"));
+    assertThat(mapped.filesMightContain("telescope")).containsExactly(0, 1);
+    assertThat(mapped.filesMightContain("microscope")).containsExactly(0);
+    assertThat(mapped.filesMightContain("stethoscope")).isEmpty();
+    assertThat(mapped.mightContain(1, "periscope")).isTrue();
+    assertThat(mapped.mightContain(2, "periscope")).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should keep a filter's size proportional to its word count")
+  void shouldSizeFiltersPerFile() throws IOException {
+    // Arrange
+    WordStatistics large = new WordStatistics();
+    for (int i = 0; i < 5_000; i++) {
+      large.processWord("longword" + i);
+    }
+    List<FileResult> results = List.of(
+        new FileResult(Path.of("large.txt"), large, List.of()),
+        result("small.txt", null, "tinyfile"));
+    Path store = tempDir.resolve("sized.blmf");
+
+    // Act
+    BloomFilterStore.write(store, results, 0.01);
+
+    // Assert: about 9.6 bits per word at 1%
+    assertThat(Files.size(store)).isBetween(5_000L, 8_000L);
+    assertThat(BloomFilterStore.open(store).mightContain(0, "longword4999")).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should reject a file that is not a store")
+  void shouldRejectForeignFile() throws IOException {
+    // Arrange
+    Path foreign = Files.writeString(tempDir.resolve("foreign.bin"), "not a bloom filter store");
+
+    // Act & Assert
+    assertThatThrownBy(() -> BloomFilterStore.open(foreign)).isInstanceOf(IOException.class);
+  }
+
+  @Test
+  @DisplayName("Should reject a file id outside the store")
+  void shouldRejectUnknownFileId() throws IOException {
+    // Arrange
+    Path store = tempDir.resolve("one.blmf");
+    BloomFilterStore.write(store, List.of(result("one.txt", null, "singleword")), 0.01);
+    BloomFilterStore mapped = BloomFilterStore.open(store);
+
+    // Act & Assert
+    assertThatThrownBy(() -> mapped.mightContain(1, "singleword"))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  private static FileResult result(String name, WordDictionary dictionary, String... words) {
+    WordStatistics statistics = new WordStatistics();
+    for (String word : words) {
+      statistics.processWord(word);
+    }
+    if (dictionary != null) {
+      statistics.compact(dictionary);
+    }
+    return new FileResult(Path.of(name), statistics, List.of());
+  }
+}
@@ -0,0 +1,84 @@
+package com.search.indexer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("BloomFilter Test Suite")
+class BloomFilterTest {
+
+  @Test
+  @DisplayName("Should never report an added word as absent")
+  void shouldHaveNoFalseNegatives() {
+    // Arrange
+    BloomFilter filter = BloomFilter.create(10_000, 0.01);
+
+    // Act
+    for (int i = 0; i < 10_000; i++) {
+      filter.add("word" + i);
+    }
+
+    // Assert
+    for (int i = 0; i < 10_000; i++) {
+      assertThat(filter.mightContain("word" + i)).isTrue();
+    }
+  }
+
+  @Test
+  @DisplayName("Should keep the false-positive rate near the configured target")
+  void shouldRespectFalsePositiveRate() {
+    // Arrange
+    BloomFilter filter = BloomFilter.create(10_000, 0.01);
+    for (int i = 0; i < 10_000; i++) {
+      filter.add("present" + i);
+    }
+
+    // Act
+    int falsePositives = 0;
+    for (int i = 0; i < 100_000; i++) {
+      if (filter.mightContain("absent" + i)) {
+        falsePositives++;
+      }
+    }
+
+    // Assert
+    assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+  }
+
+  @Test
+  @DisplayName("Should build a filter from the long words of a file")
+  void shouldBuildFromStatistics() {
+    // Arrange
+    WordStatistics statistics = new WordStatistics();
+    statistics.processWord("microscope");
+    statistics.processWord("short");
+    statistics.compact(new WordDictionary());
+
+    // Act
+    BloomFilter filter = BloomFilter.of(statistics, 0.001);
+
+    // Assert
+    assertThat(filter.mightContain("microscope")).isTrue();
+    assertThat(filter.mightContain("telescope")).isFalse();
+    assertThat(filter.getNumHashes()).isGreaterThan(1);
+  }
+
+  @Test
+  @DisplayName("Should hash words identically across runs")
+  void shouldHashStably() {
+    // Act & Assert: persisted filters depend on this value
+    assertThat(BloomFilter.hash("")).isEqualTo(BloomFilter.hash(new String("")));
+    assertThat(BloomFilter.hash("indexer")).isEqualTo(BloomFilter.hash("index" + "er"));
+    assertThat(BloomFilter.hash("indexer")).isNotEqualTo(BloomFilter.hash("indexes"));
+    assertThat(BloomFilter.secondHash(BloomFilter.hash("indexer")) & 1).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should reject a false-positive rate outside (0, 1)")
+  void shouldRejectInvalidRate() {
+    assertThatThrownBy(() -> BloomFilter.create(10, 1.0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,143 @@
+package com.search.indexer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("ChunkCache Test Suite")
+class ChunkCacheTest {
+
+  private static final String[] WORDS = {"Alpha", "beta", "Gamma", "<b>delta</b>", "epsilon",
+      "<a href='x y'>Zeta</a>", "extraordinary", "naïveté", "<i>Theta", "iota</i>", "x<y", "<>"};
+
+  @TempDir
+  Path tempDir;
+
+  private final CharBuffer chars = CharBuffer.allocate(8192);
+
+  @Test
+  @DisplayName("Should merge chunk statistics equal to those of a full scan")
+  void shouldMatchFullScan() throws IOException {
+    // Arrange
+    Path file = write("page.html", markup(40_000, 1), StandardCharsets.UTF_8);
+    ChunkCache cache = new ChunkCache(1L << 24, 1024);
+    AtomicLong read = new AtomicLong();
+
+    // Act
+    WordStatistics chunked = new WordStatistics();
+    cache.scan(file, chunked, chars, read::addAndGet);
+
+    // Assert
+    assertSameStatistics(chunked, fullScan(file));
+    assertThat(read.get()).isEqualTo(Files.size(file));
+    assertThat(cache.getMisses()).isGreaterThan(10).isEqualTo(cache.size());
+    assertThat(cache.getHits()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should only tokenize the chunks around an edit when a file is rescanned")
+  void shouldRescanOnlyEditedChunks() throws IOException {
+    // Arrange
+    String original = markup(60_000, 2);
+    Path file = write("edited.html", original, StandardCharsets.UTF_8);
+    ChunkCache cache = new ChunkCache(1L << 24, 1024);
+    cache.scan(file, new WordStatistics(), chars, count -> { });
+    long chunks = cache.getMisses();
+    int middle = original.indexOf('\n', original.length() / 2) + 1;
+    Files.writeString(file, original.substring(0, middle) + "Inserted Paragraph\n"
+        + original.substring(middle), StandardCharsets.UTF_8);
+
+    // Act
+    WordStatistics rescanned = new WordStatistics();
+    cache.scan(file, rescanned, chars, count -> { });
+
+    // Assert
+    assertSameStatistics(rescanned, fullScan(file));
+    assertThat(rescanned.getLongWords()).contains("Inserted", "Paragraph");
+    assertThat(cache.getMisses() - chunks).isBetween(1L, 3L);
+    assertThat(cache.getHits()).isGreaterThanOrEqualTo(chunks - 3);
+  }
+
+  @Test
+  @DisplayName("Should scan a file without line breaks and a UTF-16 file without chunking")
+  void shouldScanUnchunkableFiles() throws IOException {
+    // Arrange
+    Path singleLine = write("minified.html", markup(30_000, 3).replace('\n', ' '),
+        StandardCharsets.UTF_8);
+    Path utf16 = write("wide.txt", "\uFEFF" + markup(20_000, 4), StandardCharsets.UTF_16LE);
+    ChunkCache cache = new ChunkCache(1L << 24, 1024);
+
+    // Act
+    WordStatistics minified = new WordStatistics();
+    cache.scan(singleLine, minified, chars, count -> { });
+    WordStatistics wide = new WordStatistics();
+    cache.scan(utf16, wide, chars, count -> { });
+
+    // Assert
+    assertSameStatistics(minified, fullScan(singleLine));
+    assertSameStatistics(wide, fullScan(utf16));
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should evict the least recently used chunks beyond the memory budget")
+  void shouldEvictBeyondBudget() throws IOException {
+    // Arrange
+    Path file = write("large.html", markup(40_000, 5), StandardCharsets.UTF_8);
+    ChunkCache cache = new ChunkCache(8192, 1024);
+
+    // Act
+    WordStatistics statistics = new WordStatistics();
+    cache.scan(file, statistics, chars, count -> { });
+
+    // Assert
+    assertSameStatistics(statistics, fullScan(file));
+    assertThat(cache.getMemoryBytes()).isPositive().isLessThanOrEqualTo(8192);
+    assertThat(cache.size()).isLessThan((int) cache.getMisses());
+  }
+
+  private Path write(String name, String content, Charset charset) throws IOException {
+    return Files.write(tempDir.resolve(name), content.getBytes(charset));
+  }
+
+  private static String markup(int words, long seed) {
+    Random random = new Random(seed);
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < words; i++) {
+      text.append(WORDS[random.nextInt(WORDS.length)]).append(i % 200).append(' ');
+      if (random.nextInt(12) == 0) {
+        text.append(random.nextBoolean() ? "\n" : "\r\n");
+      }
+    }
+    return text.toString();
+  }
+
+  private WordStatistics fullScan(Path file) throws IOException {
+    WordStatistics statistics = new WordStatistics();
+    TextScanner scanner = new TextScanner(statistics, 8192);
+    scanner.feed(ByteBuffer.wrap(Files.readAllBytes(file)), true);
+    scanner.finish();
+    return statistics;
+  }
+
+  private static void assertSameStatistics(WordStatistics actual, WordStatistics expected) {
+    assertThat(actual.getWordCount()).isEqualTo(expected.getWordCount());
+    assertThat(actual.getUppercaseCount()).isEqualTo(expected.getUppercaseCount());
+    assertThat(actual.getLongWords()).isEqualTo(expected.getLongWords());
+    for (int length = 0; length <= expected.getLengthHistogram().getMaxLength(); length++) {
+      assertThat(actual.getLengthHistogram().getCount(length))
+          .isEqualTo(expected.getLengthHistogram().getCount(length));
+    }
+  }
+}
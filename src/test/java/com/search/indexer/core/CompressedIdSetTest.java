@@ -0,0 +1,79 @@
+package com.search.indexer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("CompressedIdSet Test Suite")
+class CompressedIdSetTest {
+
+  @Test
+  @DisplayName("Should sort, deduplicate and round-trip sparse ids")
+  void shouldRoundTripSparseIds() {
+    // Arrange
+    int[] ids = {1_000_000, 5, 300, 5, 70_000};
+
+    // Act
+    CompressedIdSet set = CompressedIdSet.of(ids, ids.length);
+
+    // Assert
+    assertThat(set.size()).isEqualTo(4);
+    assertThat(set.toArray()).containsExactly(5, 300, 70_000, 1_000_000);
+    assertThat(set.contains(300)).isTrue();
+    assertThat(set.contains(301)).isFalse();
+    assertThat(set.encodedBytes()).isLessThan(4 * Integer.BYTES);
+  }
+
+  @Test
+  @DisplayName("Should choose a compact bitmap for dense ids")
+  void shouldUseBitmapForDenseIds() {
+    // Arrange
+    int[] ids = new int[200];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = i * 2;
+    }
+
+    // Act
+    CompressedIdSet set = CompressedIdSet.of(ids, ids.length);
+
+    // Assert
+    assertThat(set.size()).isEqualTo(200);
+    assertThat(set.encodedBytes()).isEqualTo(50);
+    assertThat(set.contains(398)).isTrue();
+    assertThat(set.contains(397)).isFalse();
+    assertThat(set.contains(-1)).isFalse();
+    assertThat(set.toArray()).startsWith(0, 2, 4).endsWith(396, 398);
+  }
+
+  @Test
+  @DisplayName("Should only use the first count entries")
+  void shouldHonourCount() {
+    // Act
+    CompressedIdSet set = CompressedIdSet.of(new int[] {9, 3, 7}, 2);
+
+    // Assert
+    assertThat(set.toArray()).containsExactly(3, 9);
+  }
+
+  @Test
+  @DisplayName("Should handle an empty set")
+  void shouldHandleEmptySet() {
+    // Act
+    CompressedIdSet set = CompressedIdSet.of(new int[0], 0);
+
+    // Assert
+    assertThat(set.size()).isZero();
+    assertThat(set.contains(0)).isFalse();
+    assertThat(set.toArray()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should reject negative ids")
+  void shouldRejectNegativeIds() {
+    // Act & Assert
+    assertThatThrownBy(() -> CompressedIdSet.of(new int[] {-1, 2}, 2))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,202 @@
+package com.search.indexer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.search.indexer.model.CorpusReport;
+import com.search.indexer.model.FailureCategory;
+import com.search.indexer.model.FileFailure;
+import com.search.indexer.model.TermCount;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("CorpusAggregator Test Suite")
+class CorpusAggregatorTest {
+
+  @Test
+  @DisplayName("Should merge totals and vocabulary from concurrent workers")
+  void shouldMergeConcurrently() throws InterruptedException {
+    // Arrange
+    CorpusAggregator aggregator = new CorpusAggregator();
+    WordDictionary dictionary = new WordDictionary();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    // Act
+    for (int i = 0; i < 1000; i++) {
+      int index = i;
+      executor.execute(() -> aggregator.add(
+          result("file" + index, dictionary, "Common", "application", "special" + index % 10)));
+    }
+    executor.shutdown();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+    CorpusReport report = aggregator.toReport();
+
+    // Assert
+    assertThat(report.getFileCount()).isEqualTo(1000);
+    assertThat(report.getUppercaseTotal()).isEqualTo(1000);
+    assertThat(report.getLongWordTotal()).isEqualTo(3000);
+    assertThat(report.getVocabulary()).hasSize(12).startsWith("Common", "application", "special0");
+  }
+
+  @Test
+  @DisplayName("Should rank files by uppercase count, then by long-word count")
+  void shouldRankFiles() {
+    // Arrange
+    CorpusAggregator aggregator = new CorpusAggregator();
+    aggregator.add(result("low", null, "lowercase"));
+    aggregator.add(result("high", null, "Upper", "Another", "Third"));
+    aggregator.add(result("tie", null, "Upper", "Another", "Thirdword", "longerword"));
+
+    // Act
+    List<FileResult> ranked = aggregator.toReport().getRankedFiles();
+
+    // Assert
+    assertThat(ranked).extracting(FileResult::getFilePath)
+        .containsExactly(Path.of("tie"), Path.of("high"), Path.of("low"));
+  }
+
+  @Test
+  @DisplayName("Should spill the vocabulary beyond its budget and delete it when closed")
+  void shouldSpillVocabulary(@TempDir Path spillDir) throws IOException {
+    // Arrange: a one-byte budget spills after every word
+    CorpusAggregator aggregator = new CorpusAggregator(64 * 1024, 1, spillDir);
+    aggregator.add(result("a.txt", null, "Zebras", "Apples"));
+    aggregator.add(result("b.txt", null, "Bananas", "Apples"));
+
+    // Act
+    CorpusReport report = aggregator.toReport();
+    List<String> streamed = new ArrayList<>();
+    report.forEachVocabularyWord(streamed::add);
+
+    // Assert
+    assertThat(streamed).containsExactly("Apples", "Bananas", "Zebras");
+    assertThat(report.getVocabularySize()).isEqualTo(3);
+    assertThat(report.toString()).contains("Distinct long words: 3 (4 across files)");
+    assertThat(spillDir).isNotEmptyDirectory();
+    assertThatThrownBy(aggregator::toReport).isInstanceOf(IllegalStateException.class);
+    report.close();
+    assertThat(spillDir).isEmptyDirectory();
+  }
+
+  @Test
+  @DisplayName("Should close the results of a discarded batch, including late ones")
+  void shouldCloseResultsWhenDiscarded(@TempDir Path spillDir) throws IOException {
+    // Arrange
+    CorpusAggregator aggregator = new CorpusAggregator(64 * 1024, 0, spillDir);
+    aggregator.add(new FileResult(Path.of("a.txt"), spilled(spillDir, "Alphabet", "Zeppelin"),
+        List.of()));
+
+    // Act
+    aggregator.discard();
+    aggregator.add(new FileResult(Path.of("b.txt"), spilled(spillDir, "Latecomer"), List.of()));
+
+    // Assert
+    assertThat(spillDir).isEmptyDirectory();
+    assertThatThrownBy(aggregator::toReport).isInstanceOf(IllegalStateException.class);
+  }
+
+  private static WordStatistics spilled(Path spillDir, String... words) {
+    WordStatistics statistics = new WordStatistics(1, spillDir);
+    for (String word : words) {
+      statistics.processWord(word);
+    }
+    return statistics;
+  }
+
+  private static FileResult result(String name, WordDictionary dictionary, String... words) {
+    WordStatistics statistics = new WordStatistics();
+    for (String word : words) {
+      statistics.processWord(word);
+    }
+    if (dictionary != null) {
+      statistics.compact(dictionary);
+    }
+    return new FileResult(Path.of(name), statistics, List.of());
+  }
+
+  @Test
+  @DisplayName("Should report failures ordered by path")
+  void shouldReportFailures() {
+    // Arrange
+    CorpusAggregator aggregator = new CorpusAggregator();
+    aggregator.add(result("ok", null, "Word"));
+    aggregator.addFailure(new FileFailure(Path.of("zeta"), FailureCategory.IO_ERROR, "boom", 3));
+    aggregator.addFailure(new FileFailure(Path.of("alpha"), FailureCategory.NOT_FOUND, "gone", 1));
+
+    // Act
+    CorpusReport report = aggregator.toReport();
+
+    // Assert
+    assertThat(report.getFileCount()).isEqualTo(1);
+    assertThat(report.getFailures()).extracting(FileFailure::getFilePath)
+        .containsExactly(Path.of("alpha"), Path.of("zeta"));
+  }
+
+  @Test
+  @DisplayName("Should merge word and phrase frequencies and keep only top terms per file")
+  void shouldMergeFrequencies() {
+    // Arrange
+    CorpusAggregator aggregator = new CorpusAggregator();
+    WordStatistics first = frequencies("The board approved the merger.");
+    WordStatistics second = frequencies("the merger closed; the board resigned");
+
+    // Act
+    aggregator.add(new FileResult(Path.of("a.txt"), first, List.of()));
+    aggregator.add(new FileResult(Path.of("b.txt"), second, List.of()));
+    CorpusReport report = aggregator.toReport();
+
+    // Assert
+    assertThat(report.getTopWords()).extracting(TermCount::toString)
+        .containsExactly("the (4)", "board (2)", "merger (2)");
+    assertThat(report.getTopPhrases()).extracting(TermCount::getTerm)
+        .contains("the merger", "the board");
+    assertThat(report.toString()).contains("Top words: the (4), board (2), merger (2)");
+    assertThat(first.isTrackingFrequencies()).isFalse();
+    assertThat(first.getTopWords()).extracting(TermCount::getTerm).startsWith("the");
+  }
+
+  @Test
+  @DisplayName("Should merge the top terms of results that were already aggregated")
+  void shouldMergeSummarizedFrequencies() {
+    // Arrange
+    FileResult first = new FileResult(Path.of("a.txt"),
+        frequencies("The board approved the merger."), List.of());
+    FileResult second = new FileResult(Path.of("b.txt"),
+        frequencies("the merger closed; the board resigned"), List.of());
+    CorpusAggregator initial = new CorpusAggregator();
+    initial.add(first);
+    initial.add(second);
+    CorpusReport expected = initial.toReport();
+
+    // Act
+    CorpusAggregator again = new CorpusAggregator();
+    again.add(first);
+    again.add(second);
+    CorpusReport report = again.toReport();
+
+    // Assert
+    assertThat(report.getTopWords()).extracting(TermCount::toString)
+        .startsWith("the (4)", "board (2)")
+        .hasSameSizeAs(expected.getTopWords());
+    assertThat(report.getTopPhrases()).isNotEmpty().hasSameSizeAs(expected.getTopPhrases());
+    assertThat(report.getUppercaseTotal()).isEqualTo(expected.getUppercaseTotal());
+  }
+
+  private static WordStatistics frequencies(String text) {
+    WordStatistics statistics = new WordStatistics();
+    statistics.trackFrequencies(64 * 1024, 3);
+    for (String word : text.split(" ")) {
+      statistics.processWord(word);
+    }
+    return statistics;
+  }
+}
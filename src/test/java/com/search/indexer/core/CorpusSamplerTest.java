@@ -0,0 +1,248 @@
+package com.search.indexer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import com.search.indexer.model.Estimate;
+import com.search.indexer.model.SampleReport;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("CorpusSampler Test Suite")
+class CorpusSamplerTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  @DisplayName("Should report exact totals when every file and range is sampled")
+  void shouldReportExactTotalsForCensus() throws IOException {
+    // Arrange
+    List<Path> files = corpus(12, 1);
+    files.add(write("single-line.html", "<p>Alpha Extraordinary</p> ".repeat(300),
+        StandardCharsets.UTF_8));
+    files.add(write("wide.txt", "Wide Characters\r\nlonger words\r\n".repeat(100),
+        StandardCharsets.UTF_16));
+    CorpusSampler sampler = new CorpusSampler(1, 1, 512, 3, 0.95, 4);
+
+    // Act
+    SampleReport report = sampler.estimate(files);
+
+    // Assert
+    Totals exact = scanAll(files);
+    assertExact(report.getWordTotal(), exact.words);
+    assertExact(report.getUppercaseTotal(), exact.uppercase);
+    assertExact(report.getLongWordTotal(), exact.longWords);
+    assertExact(report.getVocabulary(), exact.vocabulary.size());
+    assertThat(report.getSampledFiles()).isEqualTo(files.size());
+    assertThat(report.getSampledBytes()).isGreaterThanOrEqualTo(report.getTotalBytes());
+  }
+
+  @Test
+  @DisplayName("Should cover the true totals with intervals from a stratified sample")
+  void shouldEstimateTotalsFromSample() throws IOException {
+    // Arrange
+    List<Path> files = corpus(300, 2);
+    CorpusSampler sampler = new CorpusSampler(0.2, 0.25, 2048, 11, 0.99, 4);
+
+    // Act
+    SampleReport report = sampler.estimate(files);
+
+    // Assert
+    Totals exact = scanAll(files);
+    assertThat(report.getSampledFiles()).isLessThan(100);
+    assertThat(report.getSampledBytes()).isLessThan(report.getTotalBytes() / 4);
+    assertThat(report.getStrata()).isGreaterThan(3);
+    assertThat(report.getWordTotal().contains(exact.words)).isTrue();
+    assertThat(report.getUppercaseTotal().contains(exact.uppercase)).isTrue();
+    assertThat(report.getLongWordTotal().contains(exact.longWords)).isTrue();
+    assertThat(report.getWordTotal().getValue()).isCloseTo(exact.words,
+        within(exact.words * 0.1));
+    assertThat(report.getVocabulary().getValue())
+        .isGreaterThanOrEqualTo(report.getObservedVocabulary())
+        .isLessThanOrEqualTo(exact.vocabulary.size() * 1.2);
+  }
+
+  @Test
+  @DisplayName("Should cover the true totals at about the confidence level from small strata")
+  void shouldCoverTotalsFromSmallStrata() throws IOException {
+    // Arrange
+    List<Path> files = corpus(80, 4);
+    Totals exact = scanAll(files);
+    int runs = 60;
+
+    // Act
+    int covered = 0;
+    for (int seed = 0; seed < runs; seed++) {
+      SampleReport report = new CorpusSampler(0.01, 0.5, 2048, seed, 0.9, 4).estimate(files);
+      if (report.getWordTotal().contains(exact.words)) {
+        covered++;
+      }
+    }
+
+    // Assert
+    assertThat(covered).isGreaterThanOrEqualTo((int) (runs * 0.9));
+  }
+
+  @Test
+  @DisplayName("Should draw the same sample for the same seed")
+  void shouldBeReproducible() throws IOException {
+    // Arrange
+    List<Path> files = corpus(100, 3);
+    List<Path> shuffled = new ArrayList<>(files);
+    Collections.shuffle(shuffled, new Random(5));
+
+    // Act
+    SampleReport first = new CorpusSampler(0.1, 0.3, 1024, 42, 0.95, 1).estimate(files);
+    SampleReport second = new CorpusSampler(0.1, 0.3, 1024, 42, 0.95, 4).estimate(shuffled);
+
+    // Assert
+    assertThat(second.getSampledBytes()).isEqualTo(first.getSampledBytes());
+    assertThat(second.getWordTotal().getValue()).isEqualTo(first.getWordTotal().getValue());
+    assertThat(second.getVocabulary().getValue()).isEqualTo(first.getVocabulary().getValue());
+  }
+
+  @Test
+  @DisplayName("Should group files into strata of sizes within a factor of four")
+  void shouldStratifyBySize() {
+    // Assert
+    assertThat(CorpusSampler.stratum(0)).isZero();
+    assertThat(CorpusSampler.stratum(2)).isEqualTo(CorpusSampler.stratum(3));
+    assertThat(CorpusSampler.stratum(4)).isEqualTo(CorpusSampler.stratum(15));
+    assertThat(CorpusSampler.stratum(16)).isEqualTo(CorpusSampler.stratum(4) + 1);
+    assertThat(CorpusSampler.sampleSize(1000, 0.01)).isEqualTo(10);
+    assertThat(CorpusSampler.sampleSize(10, 0.01)).isEqualTo(2);
+    assertThat(CorpusSampler.sampleSize(1, 0.01)).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should draw distinct indexes in ascending order")
+  void shouldDrawDistinctIndexes() {
+    // Act
+    long[] drawn = CorpusSampler.draw(50, 20, new SplittableRandom(1));
+    long[] all = CorpusSampler.draw(5, 5, new SplittableRandom(1));
+
+    // Assert
+    assertThat(drawn).hasSize(20).isSorted().doesNotHaveDuplicates();
+    assertThat(drawn[19]).isLessThan(50);
+    assertThat(all).containsExactly(0, 1, 2, 3, 4);
+  }
+
+  @Test
+  @DisplayName("Should compute normal quantiles and the Chao2 estimate")
+  void shouldComputeQuantilesAndChao2() {
+    // Act
+    double z = CorpusSampler.zScore(0.95);
+    Estimate withDoubletons = CorpusSampler.chao2(100, 20, 10, 50, z);
+    Estimate withoutDoubletons = CorpusSampler.chao2(100, 4, 0, 50, z);
+    Estimate noSingletons = CorpusSampler.chao2(100, 0, 5, 50, z);
+
+    // Assert
+    assertThat(z).isCloseTo(1.96, within(1e-3));
+    assertThat(CorpusSampler.zScore(0.99)).isCloseTo(2.576, within(1e-3));
+    assertThat(withDoubletons.getValue()).isCloseTo(100 + 0.98 * 20 * 20 / 20.0, within(1e-9));
+    assertThat(withDoubletons.getLower()).isGreaterThan(100).isLessThan(119.6);
+    assertThat(withDoubletons.getUpper()).isGreaterThan(119.6);
+    assertThat(withoutDoubletons.getValue()).isCloseTo(100 + 0.98 * 4 * 3 / 2.0, within(1e-9));
+    assertThat(noSingletons.getValue()).isEqualTo(100);
+    assertThat(noSingletons.getLower()).isEqualTo(100);
+  }
+
+  @Test
+  @DisplayName("Should compute Student-t quantiles for small and fractional degrees of freedom")
+  void shouldComputeStudentQuantiles() {
+    // Assert
+    assertThat(CorpusSampler.tScore(0.95, 1)).isCloseTo(12.706, within(1e-3));
+    assertThat(CorpusSampler.tScore(0.95, 2)).isCloseTo(4.303, within(1e-3));
+    assertThat(CorpusSampler.tScore(0.95, 4)).isCloseTo(2.776, within(5e-3));
+    assertThat(CorpusSampler.tScore(0.95, 10)).isCloseTo(2.228, within(5e-3));
+    assertThat(CorpusSampler.tScore(0.99, 10)).isCloseTo(3.169, within(5e-3));
+    assertThat(CorpusSampler.tScore(0.95, 2.5))
+        .isLessThan(CorpusSampler.tScore(0.95, 2))
+        .isGreaterThan(CorpusSampler.tScore(0.95, 3));
+    assertThat(CorpusSampler.tScore(0.95, Double.POSITIVE_INFINITY))
+        .isEqualTo(CorpusSampler.zScore(0.95));
+    assertThat(CorpusSampler.tScore(0.95, 1e6)).isCloseTo(1.96, within(1e-3));
+  }
+
+  @Test
+  @DisplayName("Should reject invalid rates and an empty corpus")
+  void shouldRejectInvalidArguments() {
+    assertThatThrownBy(() -> new CorpusSampler(0, 0.1, 1024, 1, 0.95, 1))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new CorpusSampler(0.1, 0.1, 1024, 1, 1, 1))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new CorpusSampler(0.1, 0.1, 1024, 1, 0.95, 1).estimate(List.of()))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private List<Path> corpus(int count, long seed) throws IOException {
+    Random random = new Random(seed);
+    List<Path> files = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      // Sizes spread over several orders of magnitude, most files small
+      int words = (int) Math.pow(10, 1 + random.nextDouble() * 3);
+      files.add(write("doc" + seed + "-" + i + ".txt", text(words, random),
+          StandardCharsets.UTF_8));
+    }
+    return files;
+  }
+
+  private static String text(int words, Random random) {
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < words; i++) {
+      String word = "word" + (int) Math.abs(random.nextGaussian() * 400);
+      text.append(random.nextInt(5) == 0 ? "Title" + word : word)
+          .append(random.nextInt(10) == 0 ? '\n' : ' ');
+    }
+    return text.toString();
+  }
+
+  private Path write(String name, String content, Charset charset) throws IOException {
+    return Files.write(tempDir.resolve(name), content.getBytes(charset));
+  }
+
+  private static Totals scanAll(List<Path> files) throws IOException {
+    Totals totals = new Totals();
+    for (Path file : files) {
+      WordStatistics statistics = new WordStatistics();
+      TextScanner scanner = new TextScanner(statistics, 8192);
+      scanner.feed(ByteBuffer.wrap(Files.readAllBytes(file)), true);
+      scanner.finish();
+      totals.words += statistics.getWordCount();
+      totals.uppercase += statistics.getUppercaseCount();
+      totals.longWords += statistics.getLengthHistogram().countLongerThan(5);
+      totals.vocabulary.addAll(statistics.getLongWords());
+    }
+    return totals;
+  }
+
+  private static void assertExact(Estimate estimate, long expected) {
+    assertThat(estimate.getValue()).isEqualTo(expected);
+    assertThat(estimate.getLower()).isEqualTo(expected);
+    assertThat(estimate.getUpper()).isEqualTo(expected);
+  }
+
+  private static final class Totals {
+
+    private long words;
+    private long uppercase;
+    private long longWords;
+    private final Set<String> vocabulary = new HashSet<>();
+  }
+}
@@ -0,0 +1,65 @@
+package com.search.indexer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("CountMinSketch Test Suite")
+class CountMinSketchTest {
+
+  @Test
+  @DisplayName("Should never underestimate and stay within the error bound")
+  void shouldEstimateWithinBound() {
+    // Arrange
+    CountMinSketch sketch = new CountMinSketch(4, 1024);
+
+    // Act
+    for (int i = 0; i < 50_000; i++) {
+      sketch.add(BloomFilter.hash("item" + (i % 5000)), 1);
+    }
+    sketch.add(BloomFilter.hash("heavy"), 1000);
+
+    // Assert
+    assertThat(sketch.getTotal()).isEqualTo(51_000);
+    assertThat(sketch.estimate(BloomFilter.hash("heavy")))
+        .isBetween(1000, 1000 + (int) sketch.getErrorBound());
+    for (int i = 0; i < 5000; i += 97) {
+      assertThat(sketch.estimate(BloomFilter.hash("item" + i))).isGreaterThanOrEqualTo(10);
+    }
+  }
+
+  @Test
+  @DisplayName("Should size the sketch from a memory budget with power-of-two rows")
+  void shouldSizeFromBudget() {
+    // Act
+    CountMinSketch sketch = CountMinSketch.forBudget(100_000);
+
+    // Assert
+    assertThat(sketch.getDepth()).isEqualTo(4);
+    assertThat(sketch.getWidth()).isEqualTo(4096);
+    assertThat(sketch.getMemoryBytes()).isLessThanOrEqualTo(100_000);
+    assertThat(new CountMinSketch(2, 1000).getWidth()).isEqualTo(1024);
+  }
+
+  @Test
+  @DisplayName("Should merge sketches of the same dimensions only")
+  void shouldMerge() {
+    // Arrange
+    CountMinSketch first = new CountMinSketch(4, 256);
+    CountMinSketch second = new CountMinSketch(4, 256);
+    long hash = BloomFilter.hash("shared");
+    first.add(hash, 3);
+    second.add(hash, 4);
+
+    // Act
+    first.merge(second);
+
+    // Assert
+    assertThat(first.estimate(hash)).isEqualTo(7);
+    assertThat(first.getTotal()).isEqualTo(7);
+    assertThatThrownBy(() -> first.merge(new CountMinSketch(4, 512)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
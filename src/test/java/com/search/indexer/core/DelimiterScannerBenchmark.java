@@ -0,0 +1,100 @@
+package com.search.indexer.core;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Compares the scanning kernels on generated prose and markup corpora, tokenizing them end to end
+ * and with the delimiter search alone. Not part of the test suite; run after
+ * {@code mvn test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt} with
+ * <pre>
+ * java --add-modules jdk.incubator.vector -cp target/classes:target/test-classes:$(cat cp.txt) \
+ *     com.search.indexer.core.DelimiterScannerBenchmark [megabytes]
+ * </pre>
+ */
+public final class DelimiterScannerBenchmark {
+
+  private static final int WINDOW = 8192;
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int MEASURED_ROUNDS = 10;
+
+  private DelimiterScannerBenchmark() {
+  }
+
+  public static void main(String[] args) {
+    int megabytes = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+    DelimiterScanner[] kernels = {DelimiterScanner.SCALAR,
+        DelimiterScanner.forKernel(DelimiterScanner.KERNEL_VECTOR)};
+    for (boolean markup : new boolean[] {false, true}) {
+      char[] corpus = corpus(megabytes << 20, markup, new Random(7));
+      System.out.println(markup ? "Markup-heavy corpus" : "Prose corpus");
+      for (DelimiterScanner kernel : kernels) {
+        double scan = measure(() -> scanOnly(kernel, corpus), corpus.length);
+        double tokenize = measure(() -> tokenize(kernel, corpus), corpus.length);
+        System.out.printf(Locale.ROOT, "  %-18s scan %8.1f MB/s   tokenize %8.1f MB/s%n",
+            kernel.getName(), scan, tokenize);
+      }
+    }
+  }
+
+  private static double measure(Runnable run, long chars) {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      run.run();
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      run.run();
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    return chars * 2.0 * MEASURED_ROUNDS / seconds / (1 << 20);
+  }
+
+  private static void scanOnly(DelimiterScanner kernel, char[] corpus) {
+    long stops = 0;
+    int i = 0;
+    while (i < corpus.length) {
+      i = kernel.wordEnd(corpus, i, corpus.length) + 1;
+      stops++;
+    }
+    if (stops == 0) {
+      throw new IllegalStateException("No delimiters found");
+    }
+  }
+
+  private static void tokenize(DelimiterScanner kernel, char[] corpus) {
+    WordStatistics statistics = new WordStatistics(0);
+    StreamingTokenizer tokenizer = new StreamingTokenizer(statistics, 64, 4096, 4096, kernel);
+    for (int offset = 0; offset < corpus.length; offset += WINDOW) {
+      tokenizer.feed(corpus, offset, Math.min(WINDOW, corpus.length - offset));
+    }
+    tokenizer.finish();
+  }
+
+  /**
+   * Prose of short words with a tag every few lines, or markup with long attribute-laden tags and
+   * long tokens such as URLs between short runs of text
+   */
+  private static char[] corpus(int size, boolean markup, Random random) {
+    StringBuilder text = new StringBuilder(size + 512);
+    String[] words = {"the", "indexer", "scans", "Large", "documents", "of", "text", "and",
+        "markup", "quickly", "Performance", "matters", "a", "vectorized", "kernel"};
+    while (text.length() < size) {
+      if (markup || random.nextInt(12) == 0) {
+        text.append("<div class=\"content-block highlighted\" data-id=\"").append(random.nextInt())
+            .append("\" style=\"margin: 0 auto; width: 80%; font-family: Helvetica, sans\">");
+      }
+      if (markup) {
+        text.append("https://example.com/documents/").append(Long.toHexString(random.nextLong()))
+            .append("/index.html?query=vectorized-scanning&page=").append(random.nextInt(100));
+        text.append(' ');
+      }
+      text.append(words[random.nextInt(words.length)]);
+      text.append(random.nextInt(15) == 0 ? '\n' : ' ');
+      if (markup || random.nextInt(20) == 0) {
+        text.append("</div>");
+      }
+    }
+    text.setLength(size);
+    return text.toString().toCharArray();
+  }
+}
@@ -0,0 +1,94 @@
+package com.search.indexer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("DelimiterScanner Test Suite")
+class DelimiterScannerTest {
+
+  private static final char[] ALPHABET = ("abcXYZ09.,;'\"<>/= \t\n\r\u000b\u001c éЖ"
+      + "  — 　中￿").toCharArray();
+
+  private final DelimiterScanner vector =
+      DelimiterScanner.forKernel(DelimiterScanner.KERNEL_VECTOR);
+
+  @Test
+  @DisplayName("Should select the vector kernel when the module is present")
+  void shouldSelectKernel() {
+    // Assert
+    assertThat(DelimiterScanner.isVectorModulePresent()).isTrue();
+    assertThat(vector).isInstanceOf(VectorDelimiterScanner.class);
+    assertThat(vector.getName()).startsWith("vector");
+    assertThat(DelimiterScanner.forKernel(DelimiterScanner.KERNEL_SCALAR))
+        .isSameAs(DelimiterScanner.SCALAR);
+  }
+
+  @Test
+  @DisplayName("Should stop at the same delimiters as the scalar kernel")
+  void shouldMatchScalarKernel() {
+    // Arrange
+    Random random = new Random(42);
+    char[] buffer = new char[4096];
+    for (int i = 0; i < buffer.length; i++) {
+      buffer[i] = random.nextInt(4) == 0 ? ALPHABET[random.nextInt(ALPHABET.length)]
+          : (char) ('a' + random.nextInt(26));
+    }
+
+    // Act & Assert
+    for (int from = 0; from < 300; from++) {
+      for (int to : new int[] {from, from + 1, from + 17, from + 63, buffer.length}) {
+        assertThat(resolveWordEnd(vector, buffer, from, to))
+            .isEqualTo(DelimiterScanner.SCALAR.wordEnd(buffer, from, to));
+        assertThat(resolveWhitespace(vector, buffer, from, to))
+            .isEqualTo(DelimiterScanner.SCALAR.whitespace(buffer, from, to));
+        assertThat(vector.tagEnd(buffer, from, to))
+            .isEqualTo(DelimiterScanner.SCALAR.tagEnd(buffer, from, to));
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Should find delimiters in every lane and in the scalar tail")
+  void shouldFindDelimiterAtEveryPosition() {
+    for (int length = 1; length <= 100; length++) {
+      for (int position = 0; position < length; position++) {
+        // Arrange
+        char[] buffer = new char[length];
+        Arrays.fill(buffer, 'w');
+        buffer[position] = ' ';
+        char[] tag = buffer.clone();
+        tag[position] = '>';
+
+        // Act & Assert
+        assertThat(vector.whitespace(buffer, 0, length)).isEqualTo(position);
+        assertThat(vector.wordEnd(buffer, 0, length)).isEqualTo(position);
+        assertThat(vector.tagEnd(tag, 0, length)).isEqualTo(position);
+        assertThat(vector.tagEnd(buffer, 0, length)).isEqualTo(length);
+      }
+    }
+  }
+
+  /**
+   * Skips candidates that the exact predicate rejects, as the tokenizers do
+   */
+  private static int resolveWordEnd(DelimiterScanner scanner, char[] buffer, int from, int to) {
+    int stop = scanner.wordEnd(buffer, from, to);
+    while (stop < to && buffer[stop] != '<' && !Character.isWhitespace(buffer[stop])) {
+      stop = scanner.wordEnd(buffer, stop + 1, to);
+    }
+    return stop;
+  }
+
+  private static int resolveWhitespace(DelimiterScanner scanner, char[] buffer, int from,
+      int to) {
+    int stop = scanner.whitespace(buffer, from, to);
+    while (stop < to && !Character.isWhitespace(buffer[stop])) {
+      stop = scanner.whitespace(buffer, stop + 1, to);
+    }
+    return stop;
+  }
+}
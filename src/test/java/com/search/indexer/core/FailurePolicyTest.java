@@ -0,0 +1,43 @@
+package com.search.indexer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("FailurePolicy Test Suite")
+class FailurePolicyTest {
+
+  @Test
+  @DisplayName("Should double the backoff for every retry up to a cap")
+  void shouldBackOffExponentially() {
+    // Arrange
+    FailurePolicy policy = FailurePolicy.continueOnError(5, 100);
+
+    // Act & Assert
+    assertThat(policy.isContinueOnError()).isTrue();
+    assertThat(policy.backoffMillis(1)).isEqualTo(100);
+    assertThat(policy.backoffMillis(2)).isEqualTo(200);
+    assertThat(policy.backoffMillis(4)).isEqualTo(800);
+    assertThat(policy.backoffMillis(60)).isEqualTo(30_000);
+  }
+
+  @Test
+  @DisplayName("Should make a single attempt when failing fast")
+  void shouldFailFast() {
+    // Act & Assert
+    assertThat(FailurePolicy.FAIL_FAST.isContinueOnError()).isFalse();
+    assertThat(FailurePolicy.FAIL_FAST.getMaxAttempts()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should reject policies without an attempt")
+  void shouldRejectInvalidPolicy() {
+    // Act & Assert
+    assertThatThrownBy(() -> FailurePolicy.continueOnError(0, 100))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> FailurePolicy.continueOnError(3, -1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -1,12 +1,22 @@
 package com.search.indexer.core;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatNoException;
 
 import com.search.indexer.exception.FileProcessingException;
+import com.search.indexer.model.CorpusReport;
+import com.search.indexer.model.FailureCategory;
+import com.search.indexer.model.FileFailure;
+import com.search.indexer.model.TermCount;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.nio.file.attribute.PosixFilePermission;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -204,4 +214,294 @@ class FileProcessorTest {
     assertThatNoException()
         .isThrownBy(() -> fileProcessor.processFiles(List.of(file)));
   }
-}
\ No newline at end of file
+
+  @Test
+  @DisplayName("Should process a single-line file spanning many chunks")
+  void shouldProcessSingleLineFileSpanningManyChunks() throws IOException {
+    // Arrange
+    StringBuilder content = new StringBuilder();
+    for (int i = 0; i < 20_000; i++) {
+      content.append("<span class='w'>Token").append(i % 100).append("</span> ");
+    }
+    Path file = createTestFile("minified.html", content.toString());
+
+    // Act
+    FileResult result = fileProcessor.processFile(file);
+
+    // Assert
+    assertThat(result.getStatistics().getUppercaseCount()).isEqualTo(20_000);
+    assertThat(result.getStatistics().getLongWords()).hasSize(100).contains("Token0", "Token99");
+  }
+
+  @Test
+  @DisplayName("Should return corpus totals for a concurrently processed batch")
+  void shouldReturnCorpusTotals() throws IOException {
+    // Arrange
+    List<Path> files = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      files.add(createTestFile("corpus" + i + ".txt", "Shared vocabulary Unique" + i));
+    }
+
+    // Act
+    CorpusReport report = fileProcessor.processFiles(files);
+
+    // Assert
+    assertThat(report.getFileCount()).isEqualTo(20);
+    assertThat(report.getUppercaseTotal()).isEqualTo(40);
+    assertThat(report.getLongWordTotal()).isEqualTo(60);
+    assertThat(report.getVocabulary()).hasSize(22).contains("vocabulary", "Unique19");
+    assertThat(report.getRankedFiles()).hasSize(20);
+  }
+
+  @Test
+  @DisplayName("Should process Latin-1 and BOM-prefixed UTF-8 files without failing")
+  void shouldProcessMixedEncodings() throws IOException {
+    // Arrange
+    Path latin1 = tempDir.resolve("latin1.html");
+    Files.write(latin1, "<p>Café résumé naïveté</p>".getBytes(StandardCharsets.ISO_8859_1));
+    Path utf8Bom = tempDir.resolve("bom.txt");
+    byte[] body = "Élégant summary".getBytes(StandardCharsets.UTF_8);
+    byte[] withBom = new byte[body.length + 3];
+    withBom[0] = (byte) 0xEF;
+    withBom[1] = (byte) 0xBB;
+    withBom[2] = (byte) 0xBF;
+    System.arraycopy(body, 0, withBom, 3, body.length);
+    Files.write(utf8Bom, withBom);
+
+    // Act
+    CorpusReport report = fileProcessor.processFiles(List.of(latin1, utf8Bom));
+
+    // Assert
+    assertThat(report.getVocabulary()).contains("résumé", "naïveté", "Élégant", "summary");
+    assertThat(report.getUppercaseTotal()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should process files one at a time when each exceeds the memory budget")
+  void shouldProcessFilesLargerThanMemoryBudget() throws IOException {
+    // Arrange
+    MemoryGovernor governor = new MemoryGovernor(1, 4, () -> 0);
+    FileProcessor governed = new FileProcessor(governor);
+    List<Path> files = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      files.add(createTestFile("budget" + i + ".txt", "Oversized content Number" + i));
+    }
+
+    // Act
+    CorpusReport report = governed.processFiles(files);
+
+    // Assert
+    assertThat(report.getFileCount()).isEqualTo(6);
+    assertThat(report.getLongWordTotal()).isEqualTo(18);
+    assertThat(governor.getReservedBytes()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should not carry state between files sharing a worker's buffers")
+  void shouldIsolateFilesSharingPooledBuffers() throws IOException {
+    // Arrange
+    StringBuilder large = new StringBuilder();
+    for (int i = 0; i < 5_000; i++) {
+      large.append("Leftover").append(i).append(' ');
+    }
+    Path largeFile = createTestFile("large.txt", large.toString());
+    Path smallFile = createTestFile("small.txt", "Tiny fileword");
+    Path emptyFile = createTestFile("empty.txt", "");
+
+    // Act
+    fileProcessor.processFile(largeFile);
+    FileResult small = fileProcessor.processFile(smallFile);
+    FileResult empty = fileProcessor.processFile(emptyFile);
+
+    // Assert
+    assertThat(small.getStatistics().getUppercaseCount()).isEqualTo(1);
+    assertThat(small.getStatistics().getLongWords()).containsExactly("fileword");
+    assertThat(empty.getStatistics().getUppercaseCount()).isZero();
+    assertThat(empty.getStatistics().getLongWordCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should reload a saved batch with the same totals")
+  void shouldReloadSavedBatch() throws IOException {
+    // Arrange
+    List<Path> files = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      files.add(createTestFile("saved" + i + ".txt", "Persisted vocabulary Entry" + i));
+    }
+    CorpusReport original = fileProcessor.processFiles(files);
+    Path snapshot = tempDir.resolve("batch.ixsn");
+    SnapshotWriter.write(snapshot, original.getRankedFiles());
+
+    // Act
+    CorpusReport reloaded = fileProcessor.loadSnapshot(snapshot);
+
+    // Assert
+    assertThat(reloaded.getFileCount()).isEqualTo(original.getFileCount());
+    assertThat(reloaded.getUppercaseTotal()).isEqualTo(original.getUppercaseTotal());
+    assertThat(reloaded.getVocabulary()).isEqualTo(original.getVocabulary());
+    assertThat(reloaded.getRankedFiles().get(0).getResults()).hasSize(2);
+  }
+
+  @Test
+  @DisplayName("Should skip failing files and report them in continue-on-error mode")
+  void shouldContinueOnError() throws IOException {
+    // Arrange
+    FileProcessor tolerant = new FileProcessor(
+        new MemoryGovernor(1L << 30, 4, () -> 0), FailurePolicy.continueOnError(3, 1));
+    Path good = createTestFile("good.txt", "Valid Content here");
+    Path other = createTestFile("other.txt", "More Valid words");
+    Path missing = tempDir.resolve("missing.txt");
+    Path directory = Files.createDirectory(tempDir.resolve("folder"));
+
+    // Act
+    CorpusReport report = tolerant.processFiles(List.of(good, missing, other, directory));
+
+    // Assert
+    assertThat(report.getFileCount()).isEqualTo(2);
+    assertThat(report.getFailures()).extracting(FileFailure::getFilePath)
+        .containsExactly(directory, missing);
+    assertThat(report.getFailures()).allSatisfy(failure -> {
+      assertThat(failure.getCategory()).isEqualTo(FailureCategory.REJECTED);
+      assertThat(failure.getAttempts()).isEqualTo(1);
+      assertThat(failure.getCause()).contains("Not a regular file");
+    });
+    assertThat(report.toString()).contains("Failed files: 2");
+  }
+
+  @Test
+  @DisplayName("Should count watch-list terms in the same scan")
+  void shouldCountKeywords() throws IOException {
+    // Arrange
+    FileProcessor processor = new FileProcessor(new MemoryGovernor(1L << 30, 4, () -> 0),
+        FailurePolicy.FAIL_FAST, KeywordAutomaton.compile(List.of("due diligence", "deal"), true));
+    Path file = createTestFile("memo.txt", "The deal needs <b>due</b> diligence.\nDeal or no deal");
+
+    // Act
+    FileResult result = processor.processFile(file);
+
+    // Assert
+    assertThat(result.getStatistics().getKeywordCounts())
+        .containsEntry("deal", 3).containsEntry("due diligence", 1);
+    assertThat(result.getResults()).hasSize(3);
+    assertThat(result.getResults().get(2).toString()).contains("4 occurrences of 2 terms");
+  }
+
+  @Test
+  @DisplayName("Should report the most frequent words and phrases per file and for the corpus")
+  void shouldReportFrequencies() throws IOException {
+    // Arrange
+    FileProcessor processor = new FileProcessor(new MemoryGovernor(1L << 30, 4, () -> 0),
+        FailurePolicy.FAIL_FAST, null, 2);
+    Path first = createTestFile("first.txt", "Due diligence, due <i>diligence</i> and more");
+    Path second = createTestFile("second.txt", "Due diligence again");
+
+    // Act
+    CorpusReport report = processor.processFiles(List.of(first, second));
+
+    // Assert
+    assertThat(report.getTopWords()).extracting(TermCount::toString)
+        .containsExactly("diligence (3)", "due (3)");
+    assertThat(report.getTopPhrases()).first().hasToString("due diligence (3)");
+    FileResult firstResult = report.getRankedFiles().stream()
+        .filter(result -> result.getFilePath().equals(first)).findFirst().orElseThrow();
+    assertThat(firstResult.getResults()).hasSize(4);
+    assertThat(firstResult.getResults().get(2).toString()).contains("diligence (2), due (2)");
+    assertThat(firstResult.getResults().get(3).toString()).contains("due diligence (2)");
+  }
+
+  @Test
+  @DisplayName("Should split a trickling stream into documents at delimiters spanning reads")
+  void shouldSplitStreamIntoDocuments() {
+    // Arrange
+    byte[] input = "First Document here\n---\nSecond -- Third Document\n---\n"
+        .getBytes(StandardCharsets.UTF_8);
+    List<FileResult> streamed = new ArrayList<>();
+
+    // Act
+    CorpusReport report = fileProcessor.processStream(new TricklingChannel(input, 3), "pipe",
+        "\n---\n".getBytes(StandardCharsets.UTF_8), streamed::add);
+
+    // Assert
+    assertThat(streamed).extracting(FileResult::getFilePath)
+        .containsExactly(Paths.get("pipe#1"), Paths.get("pipe#2"));
+    assertThat(streamed.get(0).getStatistics().getUppercaseCount()).isEqualTo(2);
+    assertThat(streamed.get(1).getStatistics().getLongWords())
+        .containsExactlyInAnyOrder("Second", "Document");
+    assertThat(report.getFileCount()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should index a stream without delimiter as one document")
+  void shouldIndexStreamAsOneDocument() {
+    // Arrange
+    StringBuilder content = new StringBuilder();
+    for (int i = 0; i < 5_000; i++) {
+      content.append("Streamed").append(i % 50).append(' ');
+    }
+    List<FileResult> streamed = new ArrayList<>();
+
+    // Act
+    CorpusReport report = fileProcessor.processStream(
+        new ByteArrayInputStream(content.toString().getBytes(StandardCharsets.UTF_8)), "stdin",
+        new byte[0], streamed::add);
+
+    // Assert
+    assertThat(streamed).singleElement().satisfies(result -> {
+      assertThat(result.getFilePath()).isEqualTo(Paths.get("stdin"));
+      assertThat(result.getStatistics().getUppercaseCount()).isEqualTo(5_000);
+      assertThat(result.getStatistics().getLongWords()).hasSize(50);
+    });
+    assertThat(report.getFileCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should yield no documents for an empty stream split by a delimiter")
+  void shouldYieldNoDocumentsForEmptyStream() {
+    // Arrange
+    List<FileResult> streamed = new ArrayList<>();
+
+    // Act
+    CorpusReport report = fileProcessor.processStream(new ByteArrayInputStream(new byte[0]),
+        "stdin", new byte[] {'\n'}, streamed::add);
+
+    // Assert
+    assertThat(streamed).isEmpty();
+    assertThat(report.getFileCount()).isZero();
+  }
+
+  /**
+   * Channel delivering at most a few bytes per read, like a slow pipe.
+   */
+  private static final class TricklingChannel implements ReadableByteChannel {
+
+    private final ByteBuffer source;
+    private final int step;
+
+    private TricklingChannel(byte[] data, int step) {
+      this.source = ByteBuffer.wrap(data);
+      this.step = step;
+    }
+
+    @Override
+    public int read(ByteBuffer target) {
+      if (!source.hasRemaining()) {
+        return -1;
+      }
+      int count = Math.min(step, Math.min(source.remaining(), target.remaining()));
+      ByteBuffer slice = source.slice();
+      slice.limit(count);
+      target.put(slice);
+      source.position(source.position() + count);
+      return count;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package com.search.indexer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.search.indexer.model.IndexingResult;
+import com.search.indexer.rules.LongWordsRule;
+import com.search.indexer.rules.UppercaseWordsRule;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("FileResult Test Suite")
+class FileResultTest {
+
+  @Test
+  @DisplayName("Should render every rule from the shared statistics")
+  void shouldRenderEveryRuleFromSharedStatistics() {
+    // Arrange
+    WordStatistics statistics = new WordStatistics();
+    statistics.processWord("Hello");
+    statistics.processWord("programming");
+    FileResult fileResult = new FileResult(Path.of("file.txt"), statistics,
+        List.of(new UppercaseWordsRule(), new LongWordsRule()));
+
+    // Act
+    List<IndexingResult> results = fileResult.getResults();
+
+    // Assert
+    assertThat(results).hasSize(2);
+    assertThat(results.get(0).toString()).contains("uppercase: 1");
+    assertThat(results.get(1).toString()).contains("programming");
+    assertThat(fileResult.getStatistics()).isSameAs(statistics);
+    assertThat(fileResult.getFilePath()).isEqualTo(Path.of("file.txt"));
+  }
+
+  @Test
+  @DisplayName("Should reject null statistics")
+  void shouldRejectNullStatistics() {
+    // Act & Assert
+    assertThatThrownBy(() -> new FileResult(Path.of("file.txt"), null, List.of()))
+        .isInstanceOf(NullPointerException.class)
+        .hasMessage("statistics cannot be null");
+  }
+}
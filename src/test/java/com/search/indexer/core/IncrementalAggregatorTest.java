@@ -0,0 +1,79 @@
+package com.search.indexer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.search.indexer.model.CorpusReport;
+import com.search.indexer.model.TermCount;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("IncrementalAggregator Test Suite")
+class IncrementalAggregatorTest {
+
+  @Test
+  @DisplayName("Should subtract a removed result from totals, vocabulary and ranking")
+  void shouldRemoveResults() {
+    // Arrange
+    IncrementalAggregator aggregator = new IncrementalAggregator();
+    FileResult first = result("a.txt", "Shared Application words");
+    FileResult second = result("b.txt", "Shared Keyboard");
+    aggregator.add(first);
+    aggregator.add(second);
+
+    // Act
+    aggregator.remove(second);
+    CorpusReport report = aggregator.toReport();
+
+    // Assert
+    assertThat(report.getFileCount()).isEqualTo(1);
+    assertThat(report.getUppercaseTotal()).isEqualTo(2);
+    assertThat(report.getVocabulary()).containsExactly("Application", "Shared");
+    assertThat(report.getRankedFiles()).containsExactly(first);
+  }
+
+  @Test
+  @DisplayName("Should keep exact word counts when a result is replaced")
+  void shouldReplaceWordCounts() {
+    // Arrange
+    IncrementalAggregator aggregator = new IncrementalAggregator();
+    FileResult stale = result("a.txt", "merger merger merger board");
+    aggregator.add(result("b.txt", "board board merger"));
+    aggregator.add(stale);
+
+    // Act
+    aggregator.remove(stale);
+    aggregator.add(result("a.txt", "board"));
+    CorpusReport report = aggregator.toReport();
+
+    // Assert
+    assertThat(report.getTopWords()).extracting(TermCount::toString)
+        .containsExactly("board (3)", "merger (1)");
+    assertThat(report.getTopPhrases()).extracting(TermCount::getTerm).contains("board board");
+  }
+
+  @Test
+  @DisplayName("Should reject a second result for a path and a result it does not hold")
+  void shouldRejectInconsistentChanges() {
+    // Arrange
+    IncrementalAggregator aggregator = new IncrementalAggregator();
+    aggregator.add(result("a.txt", "Word"));
+
+    // Act & Assert
+    assertThatThrownBy(() -> aggregator.add(result("a.txt", "Word")))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> aggregator.remove(result("b.txt", "Word")))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static FileResult result(String name, String text) {
+    WordStatistics statistics = new WordStatistics();
+    statistics.trackFrequencies(64 * 1024, 3);
+    for (String word : text.split(" ")) {
+      statistics.processWord(word);
+    }
+    return new FileResult(Path.of(name), statistics, List.of());
+  }
+}
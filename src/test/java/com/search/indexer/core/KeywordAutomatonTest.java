@@ -0,0 +1,130 @@
+package com.search.indexer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("KeywordAutomaton Test Suite")
+class KeywordAutomatonTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  @DisplayName("Should count single words ignoring case and surrounding punctuation")
+  void shouldCountWords() {
+    // Arrange
+    KeywordAutomaton automaton = KeywordAutomaton.compile(List.of("fraud", "Audit"), true);
+
+    // Act
+    Map<String, Integer> counts = count(automaton, "Fraud, audit and (fraud). Fraudulent");
+
+    // Assert
+    assertThat(counts).containsExactly(entry("audit", 1), entry("fraud", 2));
+  }
+
+  @Test
+  @DisplayName("Should count overlapping and nested phrases")
+  void shouldCountPhrases() {
+    // Arrange
+    KeywordAutomaton automaton = KeywordAutomaton.compile(
+        List.of("new york", "york city", "new york city", "city"), true);
+
+    // Act
+    Map<String, Integer> counts = count(automaton, "we love New York City and new new york");
+
+    // Assert
+    assertThat(counts).containsOnly(entry("new york", 2), entry("york city", 1),
+        entry("new york city", 1), entry("city", 1));
+  }
+
+  @Test
+  @DisplayName("Should follow failure links after a partial phrase")
+  void shouldRecoverFromPartialMatch() {
+    // Arrange
+    KeywordAutomaton automaton = KeywordAutomaton.compile(List.of("a b c", "b d"), false);
+
+    // Act
+    Map<String, Integer> counts = count(automaton, "a b d a b c");
+
+    // Assert
+    assertThat(counts).containsOnly(entry("b d", 1), entry("a b c", 1));
+  }
+
+  @Test
+  @DisplayName("Should respect case when asked to")
+  void shouldMatchCaseSensitively() {
+    // Arrange
+    KeywordAutomaton automaton = KeywordAutomaton.compile(List.of("Java"), false);
+
+    // Act & Assert
+    assertThat(count(automaton, "java Java JAVA")).containsOnly(entry("Java", 1));
+  }
+
+  @Test
+  @DisplayName("Should scale to large watch lists")
+  void shouldHandleLargeWatchList() {
+    // Arrange
+    List<String> terms = new ArrayList<>();
+    for (int i = 0; i < 50_000; i++) {
+      terms.add("term" + i + (i % 3 == 0 ? " suffix" + i : ""));
+    }
+
+    // Act
+    KeywordAutomaton automaton = KeywordAutomaton.compile(terms, true);
+
+    // Assert
+    assertThat(automaton.size()).isEqualTo(50_000);
+    assertThat(count(automaton, "term1 term3 suffix3 term4"))
+        .containsOnly(entry("term1", 1), entry("term3 suffix3", 1), entry("term4", 1));
+  }
+
+  @Test
+  @DisplayName("Should load terms from a file, skipping comments and duplicates")
+  void shouldLoadWatchList() throws IOException {
+    // Arrange
+    Path file = Files.write(tempDir.resolve("watch.txt"),
+        List.of("# compliance terms", "insider trading", "", "Insider  Trading", "bribe"));
+
+    // Act
+    KeywordAutomaton automaton = KeywordAutomaton.load(file, true);
+
+    // Assert
+    assertThat(automaton.size()).isEqualTo(2);
+    assertThat(automaton.getTerm(0)).isEqualTo("insider trading");
+  }
+
+  @Test
+  @DisplayName("Should count keywords in the word scan of the statistics")
+  void shouldTrackKeywordsInStatistics() {
+    // Arrange
+    WordStatistics statistics = new WordStatistics();
+    statistics.trackKeywords(KeywordAutomaton.compile(List.of("merger"), true));
+
+    // Act
+    for (String word : "The Merger closed; merger approved".split(" ")) {
+      statistics.processWord(word);
+    }
+
+    // Assert
+    assertThat(statistics.getKeywordCounts()).containsOnly(entry("merger", 2));
+    assertThat(new WordStatistics().getKeywordCounts()).isEmpty();
+  }
+
+  private static Map<String, Integer> count(KeywordAutomaton automaton, String text) {
+    KeywordAutomaton.Matcher matcher = automaton.matcher();
+    for (String word : text.split("\\s+")) {
+      matcher.next(word);
+    }
+    return matcher.getCounts();
+  }
+}
@@ -0,0 +1,68 @@
+package com.search.indexer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("LengthHistogram Test Suite")
+class LengthHistogramTest {
+
+  @Test
+  @DisplayName("Should count occurrences longer than any threshold")
+  void shouldCountLongerThanThreshold() {
+    // Arrange
+    LengthHistogram histogram = new LengthHistogram();
+
+    // Act
+    for (int length : new int[] {1, 3, 3, 6, 9, 9, 12}) {
+      histogram.add(length);
+    }
+
+    // Assert
+    assertThat(histogram.getTotal()).isEqualTo(7);
+    assertThat(histogram.getCount(3)).isEqualTo(2);
+    assertThat(histogram.countLongerThan(0)).isEqualTo(7);
+    assertThat(histogram.countLongerThan(5)).isEqualTo(4);
+    assertThat(histogram.countLongerThan(9)).isEqualTo(1);
+    assertThat(histogram.countLongerThan(12)).isZero();
+    assertThat(histogram.countLongerThan(-1)).isEqualTo(7);
+  }
+
+  @Test
+  @DisplayName("Should grow for words longer than its initial buckets")
+  void shouldGrowForLongWords() {
+    // Arrange
+    LengthHistogram histogram = new LengthHistogram();
+
+    // Act
+    histogram.add(4096);
+    histogram.add(40);
+
+    // Assert
+    assertThat(histogram.getMaxLength()).isEqualTo(4096);
+    assertThat(histogram.getCount(4096)).isEqualTo(1);
+    assertThat(histogram.getCount(5000)).isZero();
+    assertThat(histogram.countLongerThan(100)).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should merge the counts of another histogram")
+  void shouldMergeHistograms() {
+    // Arrange
+    LengthHistogram first = new LengthHistogram();
+    first.add(3);
+    LengthHistogram second = new LengthHistogram();
+    second.add(3);
+    second.add(100);
+
+    // Act
+    first.merge(second);
+
+    // Assert
+    assertThat(first.getTotal()).isEqualTo(3);
+    assertThat(first.getCount(3)).isEqualTo(2);
+    assertThat(first.getMaxLength()).isEqualTo(100);
+    assertThat(first.countLongerThan(50)).isEqualTo(1);
+  }
+}
@@ -0,0 +1,127 @@
+package com.search.indexer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("MemoryGovernor Test Suite")
+class MemoryGovernorTest {
+
+  private final AtomicLong pressureEvents = new AtomicLong();
+
+  @Test
+  @DisplayName("Should admit a file larger than the budget when nothing else runs")
+  void shouldAdmitOversizedFileAlone() throws InterruptedException {
+    // Arrange
+    MemoryGovernor governor = new MemoryGovernor(100, 4, pressureEvents::get);
+
+    // Act
+    MemoryGovernor.Ticket ticket = governor.acquire(1_000);
+
+    // Assert
+    assertThat(governor.getReservedBytes()).isEqualTo(1_000);
+    ticket.close();
+    assertThat(governor.getReservedBytes()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should hold back a file until enough budget is released")
+  void shouldBlockUntilBudgetReleased() throws InterruptedException {
+    // Arrange
+    MemoryGovernor governor = new MemoryGovernor(100, 4, pressureEvents::get);
+    MemoryGovernor.Ticket first = governor.acquire(80);
+    CountDownLatch admitted = new CountDownLatch(1);
+    Thread waiter = new Thread(() -> {
+      try (MemoryGovernor.Ticket ignored = governor.acquire(50)) {
+        admitted.countDown();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+
+    // Act
+    waiter.start();
+    boolean admittedEarly = admitted.await(200, TimeUnit.MILLISECONDS);
+    first.close();
+
+    // Assert
+    assertThat(admittedEarly).isFalse();
+    assertThat(admitted.await(5, TimeUnit.SECONDS)).isTrue();
+    waiter.join();
+  }
+
+  @Test
+  @DisplayName("Should count live growth of a ticket against the budget")
+  void shouldGrowReservationWithLiveMemory() throws InterruptedException {
+    // Arrange
+    MemoryGovernor governor = new MemoryGovernor(100, 4, pressureEvents::get);
+    MemoryGovernor.Ticket ticket = governor.acquire(10);
+
+    // Act
+    ticket.update(5);
+    ticket.update(60);
+
+    // Assert
+    assertThat(ticket.getBytes()).isEqualTo(60);
+    assertThat(governor.getReservedBytes()).isEqualTo(60);
+    ticket.close();
+    ticket.close();
+    assertThat(governor.getReservedBytes()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should halve concurrency on GC pressure and recover one step per quiet release")
+  void shouldAdaptConcurrencyToPressure() throws InterruptedException {
+    // Arrange
+    MemoryGovernor governor = new MemoryGovernor(1_000, 8, pressureEvents::get);
+
+    // Act
+    pressureEvents.incrementAndGet();
+    MemoryGovernor.Ticket ticket = governor.acquire(1);
+    int lowered = governor.getConcurrencyLimit();
+    ticket.close();
+    int recovered = governor.getConcurrencyLimit();
+
+    // Assert
+    assertThat(lowered).isEqualTo(4);
+    assertThat(recovered).isEqualTo(5);
+  }
+
+  @Test
+  @DisplayName("Should limit running files to the concurrency limit")
+  void shouldLimitConcurrentTickets() throws InterruptedException {
+    // Arrange
+    MemoryGovernor governor = new MemoryGovernor(1_000, 1, pressureEvents::get);
+    MemoryGovernor.Ticket first = governor.acquire(1);
+    CountDownLatch admitted = new CountDownLatch(1);
+    Thread waiter = new Thread(() -> {
+      try (MemoryGovernor.Ticket ignored = governor.acquire(1)) {
+        admitted.countDown();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+
+    // Act
+    waiter.start();
+    boolean admittedEarly = admitted.await(200, TimeUnit.MILLISECONDS);
+    first.close();
+
+    // Assert
+    assertThat(admittedEarly).isFalse();
+    assertThat(admitted.await(5, TimeUnit.SECONDS)).isTrue();
+    waiter.join();
+  }
+
+  @Test
+  @DisplayName("Should reject a non-positive budget")
+  void shouldRejectInvalidBudget() {
+    assertThatThrownBy(() -> new MemoryGovernor(0, 1, pressureEvents::get))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
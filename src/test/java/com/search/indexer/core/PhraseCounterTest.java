@@ -0,0 +1,80 @@
+package com.search.indexer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.search.indexer.model.TermCount;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("PhraseCounter Test Suite")
+class PhraseCounterTest {
+
+  @Test
+  @DisplayName("Should find the dominant bigrams and trigrams among noise")
+  void shouldFindHeavyHitters() {
+    // Arrange
+    PhraseCounter counter = new PhraseCounter(new CountMinSketch(4, 4096), 3);
+
+    // Act
+    for (int i = 0; i < 2000; i++) {
+      feed(counter, "noise" + i);
+      if (i % 4 == 0) {
+        feed(counter, "due diligence report");
+        counter.reset();
+      }
+    }
+
+    // Assert
+    assertThat(counter.top()).extracting(TermCount::getTerm).containsExactlyInAnyOrder(
+        "due diligence", "diligence report", "due diligence report");
+    assertThat(counter.top()).allSatisfy(phrase -> assertThat(phrase.getCount())
+        .isBetween(500L, 500 + counter.getErrorBound()));
+  }
+
+  @Test
+  @DisplayName("Should not count phrases across a reset")
+  void shouldResetPhrase() {
+    // Arrange
+    PhraseCounter counter = new PhraseCounter(new CountMinSketch(4, 256), 10);
+
+    // Act
+    feed(counter, "end of");
+    counter.reset();
+    feed(counter, "sentence");
+
+    // Assert
+    assertThat(counter.top()).extracting(TermCount::toString).containsExactly("end of (1)");
+  }
+
+  @Test
+  @DisplayName("Should merge counters and re-rank their candidates")
+  void shouldMerge() {
+    // Arrange
+    PhraseCounter first = new PhraseCounter(new CountMinSketch(4, 1024), 2);
+    PhraseCounter second = first.emptyCopy();
+    for (int i = 0; i < 5; i++) {
+      feed(first, "new york");
+      first.reset();
+      feed(second, "new york");
+      second.reset();
+    }
+    for (int i = 0; i < 7; i++) {
+      feed(second, "san jose");
+      second.reset();
+    }
+    feed(first, "la paz");
+
+    // Act
+    first.merge(second);
+
+    // Assert
+    assertThat(first.top()).extracting(TermCount::toString)
+        .containsExactly("new york (10)", "san jose (7)");
+  }
+
+  private static void feed(PhraseCounter counter, String text) {
+    for (String word : text.split(" ")) {
+      counter.next(word);
+    }
+  }
+}
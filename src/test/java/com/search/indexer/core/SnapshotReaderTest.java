@@ -0,0 +1,247 @@
+package com.search.indexer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+import com.search.indexer.model.FailureCategory;
+import com.search.indexer.model.FileFailure;
+import com.search.indexer.model.TermCount;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("SnapshotReader Test Suite")
+class SnapshotReaderTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  @DisplayName("Should reload counts, paths and sorted long words")
+  void shouldRoundTripResults() throws IOException {
+    // Arrange
+    WordDictionary dictionary = new WordDictionary();
+    List<FileResult> results = List.of(
+        result("docs/a.txt", dictionary, "Microscope", "microscopic", "microbial", "tiny"),
+        result("docs/empty.txt", dictionary),
+        result("docs/accents.txt", null, "naïveté", "résumé"));
+    Path snapshot = tempDir.resolve("run.ixsn");
+
+    // Act
+    SnapshotWriter.write(snapshot, results);
+    List<String> words = new ArrayList<>();
+    try (SnapshotReader reader = SnapshotReader.open(snapshot)) {
+      reader.forEachLongWord(0, words::add);
+
+      // Assert
+      assertThat(reader.size()).isEqualTo(3);
+      assertThat(reader.getFile(2)).isEqualTo(Path.of("docs/accents.txt"));
+      assertThat(reader.getUppercaseCount(0)).isEqualTo(1);
+      assertThat(reader.getLongWordCount(0)).isEqualTo(3);
+      assertThat(reader.getLongWordCount(1)).isZero();
+      assertThat(reader.containsLongWord(2, "naïveté")).isTrue();
+    }
+    assertThat(words).containsExactly("Microscope", "microbial", "microscopic");
+  }
+
+  @Test
+  @DisplayName("Should save and reload the files a batch skipped")
+  void shouldRoundTripFailures() throws IOException {
+    // Arrange
+    List<FileFailure> failures = List.of(
+        new FileFailure(Path.of("docs/missing.txt"), FailureCategory.NOT_FOUND,
+            "NoSuchFileException: docs/missing.txt", 3),
+        new FileFailure(Path.of("docs/folder"), FailureCategory.REJECTED, null, 1));
+    Path snapshot = tempDir.resolve("failures.ixsn");
+
+    // Act
+    SnapshotWriter.write(snapshot, List.of(result("docs/a.txt", null, "Present")), failures);
+
+    // Assert
+    try (SnapshotReader reader = SnapshotReader.open(snapshot)) {
+      assertThat(reader.size()).isEqualTo(1);
+      assertThat(reader.getFailures()).extracting(FileFailure::toString)
+          .containsExactly(failures.get(0).toString(), failures.get(1).toString());
+      assertThat(reader.getFailures().get(1).getCause()).isNull();
+    }
+  }
+
+  @Test
+  @DisplayName("Should find words across many front-coding blocks")
+  void shouldLookUpWordsAcrossBlocks() throws IOException {
+    // Arrange
+    WordStatistics statistics = new WordStatistics();
+    for (int i = 0; i < 1_000; i += 2) {
+      statistics.processWord(String.format("prefix%04d", i));
+    }
+    Path snapshot = tempDir.resolve("blocks.ixsn");
+    SnapshotWriter.write(snapshot,
+        List.of(new FileResult(Path.of("many.txt"), statistics, List.of())));
+
+    // Act & Assert
+    try (SnapshotReader reader = SnapshotReader.open(snapshot)) {
+      assertThat(reader.containsLongWord(0, "prefix0000")).isTrue();
+      assertThat(reader.containsLongWord(0, "prefix0032")).isTrue();
+      assertThat(reader.containsLongWord(0, "prefix0998")).isTrue();
+      assertThat(reader.containsLongWord(0, "prefix0033")).isFalse();
+      assertThat(reader.containsLongWord(0, "aaaaaaaaaa")).isFalse();
+      assertThat(reader.containsLongWord(0, "zzzzzzzzzz")).isFalse();
+    }
+  }
+
+  @Test
+  @DisplayName("Should keep records readable when aligned to small segments")
+  void shouldAlignRecordsToSegments() throws IOException {
+    // Arrange: 64-byte segments force padding and oversized records
+    List<FileResult> results = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      results.add(result("file" + i + ".txt", null, "segmented" + i, "alignment" + i));
+    }
+    results.add(result("large.txt", null, "averyveryverylongword", "anotherveryverylongword",
+        "yetanotherveryverylongword"));
+    Path snapshot = tempDir.resolve("segments.ixsn");
+
+    // Act
+    SnapshotWriter.write(snapshot, results, List.of(), 64);
+
+    // Assert
+    try (SnapshotReader reader = SnapshotReader.open(snapshot)) {
+      for (int i = 0; i < 10; i++) {
+        assertThat(reader.containsLongWord(i, "segmented" + i)).isTrue();
+      }
+      assertThat(reader.containsLongWord(10, "yetanotherveryverylongword")).isTrue();
+    }
+  }
+
+  @Test
+  @DisplayName("Should rebuild results that render like the originals")
+  void shouldLoadResults() throws IOException {
+    // Arrange
+    FileResult original = result("doc.txt", null, "Alphabet", "Bravado", "word");
+    Path snapshot = tempDir.resolve("load.ixsn");
+    SnapshotWriter.write(snapshot, List.of(original));
+
+    // Act
+    FileResult loaded;
+    try (SnapshotReader reader = SnapshotReader.open(snapshot)) {
+      loaded = reader.loadResult(0, List.of());
+    }
+
+    // Assert
+    assertThat(loaded.getFilePath()).isEqualTo(Path.of("doc.txt"));
+    assertThat(loaded.getStatistics().getUppercaseCount()).isEqualTo(2);
+    assertThat(loaded.getStatistics().getLongWords())
+        .containsExactlyInAnyOrder("Alphabet", "Bravado");
+  }
+
+  @Test
+  @DisplayName("Should reload word counts and lengths, top terms and watch-list counts")
+  void shouldLoadSummaries() throws IOException {
+    // Arrange
+    WordStatistics statistics = new WordStatistics();
+    statistics.trackKeywords(KeywordAutomaton.compile(List.of("audit", "fraud"), true));
+    statistics.trackFrequencies(1 << 20, 2);
+    for (String word : "the audit found the fraud the Audit said".split(" ")) {
+      statistics.processWord(word);
+    }
+    List<TermCount> topWords = statistics.getTopWords();
+    List<TermCount> topPhrases = statistics.getTopPhrases();
+    Path snapshot = tempDir.resolve("summaries.ixsn");
+    SnapshotWriter.write(snapshot, List.of(new FileResult(Path.of("doc.txt"), statistics,
+        List.of())));
+
+    // Act
+    WordStatistics loaded;
+    try (SnapshotReader reader = SnapshotReader.open(snapshot)) {
+      loaded = reader.loadResult(0, List.of()).getStatistics();
+    }
+
+    // Assert
+    assertThat(loaded.getWordCount()).isEqualTo(8);
+    assertThat(loaded.getLengthHistogram().getTotal()).isEqualTo(8);
+    assertThat(loaded.getLengthHistogram().getCount(3)).isEqualTo(3);
+    assertThat(loaded.getLengthHistogram().countLongerThan(4)).isEqualTo(4);
+    assertThat(loaded.getLengthHistogram().getMaxLength()).isEqualTo(5);
+    assertThat(loaded.getKeywordCounts()).containsExactly(entry("audit", 2), entry("fraud", 1));
+    assertThat(loaded.getTopWords()).extracting(TermCount::toString)
+        .containsExactlyElementsOf(topWords.stream().map(TermCount::toString).toList())
+        .startsWith("the (3)");
+    assertThat(loaded.getTopPhrases()).extracting(TermCount::toString)
+        .containsExactlyElementsOf(topPhrases.stream().map(TermCount::toString).toList());
+  }
+
+  @Test
+  @DisplayName("Should detect a corrupted record on first access")
+  void shouldDetectCorruptRecord() throws IOException {
+    // Arrange
+    Path snapshot = tempDir.resolve("corrupt.ixsn");
+    SnapshotWriter.write(snapshot, List.of(result("doc.txt", null, "corruption")));
+    try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {'X'}), 45);
+    }
+
+    // Act & Assert
+    try (SnapshotReader reader = SnapshotReader.open(snapshot)) {
+      assertThat(reader.getLongWordCount(0)).isEqualTo(1);
+      assertThatThrownBy(() -> reader.forEachLongWord(0, word -> { }))
+          .isInstanceOf(IOException.class)
+          .hasMessageContaining("corrupt");
+    }
+  }
+
+  @Test
+  @DisplayName("Should reload a result without reading its record until its words are visited")
+  void shouldLoadResultsLazily() throws IOException {
+    // Arrange
+    Path snapshot = tempDir.resolve("lazy.ixsn");
+    SnapshotWriter.write(snapshot, List.of(result("doc.txt", null, "Corruption")));
+    try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {'X'}), 45);
+    }
+
+    // Act
+    FileResult loaded;
+    try (SnapshotReader reader = SnapshotReader.open(snapshot)) {
+      loaded = reader.loadResult(0, List.of());
+    }
+
+    // Assert
+    assertThat(loaded.getStatistics().getUppercaseCount()).isEqualTo(1);
+    assertThat(loaded.getStatistics().getLongWordCount()).isEqualTo(1);
+    assertThatThrownBy(() -> loaded.getStatistics().getLongWords())
+        .isInstanceOf(UncheckedIOException.class)
+        .hasRootCauseMessage("Snapshot record of doc.txt is corrupt");
+  }
+
+  @Test
+  @DisplayName("Should reject a file that is not a snapshot")
+  void shouldRejectForeignFile() throws IOException {
+    // Arrange
+    Path foreign = Files.writeString(tempDir.resolve("foreign.bin"),
+        "this is definitely not a snapshot file");
+
+    // Act & Assert
+    assertThatThrownBy(() -> SnapshotReader.open(foreign)).isInstanceOf(IOException.class);
+  }
+
+  private static FileResult result(String name, WordDictionary dictionary, String... words) {
+    WordStatistics statistics = new WordStatistics();
+    for (String word : words) {
+      statistics.processWord(word);
+    }
+    if (dictionary != null) {
+      statistics.compact(dictionary);
+    }
+    return new FileResult(Path.of(name), statistics, List.of());
+  }
+}
@@ -0,0 +1,140 @@
+package com.search.indexer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("SpillingWordSet Test Suite")
+class SpillingWordSetTest {
+
+  @TempDir
+  Path spillDir;
+
+  @Test
+  @DisplayName("Should keep every word in memory while under budget")
+  void shouldStayInMemoryUnderBudget() {
+    // Arrange
+    SpillingWordSet set = new SpillingWordSet(1_000_000, spillDir);
+
+    // Act
+    set.add("banana");
+    set.add("apple");
+    set.add("banana");
+
+    // Assert
+    assertThat(set.hasSpilled()).isFalse();
+    assertThat(set.inMemory()).containsExactlyInAnyOrder("apple", "banana");
+    assertThat(set.size()).isEqualTo(2);
+    assertThat(spillDir.toFile().list()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should merge spilled runs in sorted order without duplicates")
+  void shouldMergeRunsSortedAndDeduplicated() {
+    // Arrange: a one-byte budget writes a run after every new word
+    SpillingWordSet set = new SpillingWordSet(1, spillDir);
+    for (String word : new String[] {"cherry", "apple", "cherry", "banana", "apple"}) {
+      set.add(word);
+    }
+
+    // Act
+    List<String> merged = new ArrayList<>();
+    set.forEachSorted(merged::add);
+
+    // Assert
+    assertThat(set.hasSpilled()).isTrue();
+    assertThat(spillDir.toFile().list()).hasSize(5);
+    assertThat(merged).containsExactly("apple", "banana", "cherry");
+    assertThat(set.size()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("Should merge in-memory words with spilled runs")
+  void shouldMergeMemoryWithRuns() {
+    // Arrange: the budget fits two words, so the third triggers a spill
+    SpillingWordSet set = new SpillingWordSet(200, spillDir);
+    set.add("delta");
+    set.add("bravo");
+    set.add("alpha");
+    set.add("charlie");
+    set.add("bravo");
+
+    // Act
+    List<String> merged = new ArrayList<>();
+    set.forEachSorted(merged::add);
+
+    // Assert
+    assertThat(set.hasSpilled()).isTrue();
+    assertThat(set.inMemory()).isNotEmpty();
+    assertThat(merged).containsExactly("alpha", "bravo", "charlie", "delta");
+  }
+
+  @Test
+  @DisplayName("Should absorb the runs and words of another set")
+  void shouldAbsorbOtherSet() {
+    // Arrange
+    SpillingWordSet spilled = new SpillingWordSet(1, spillDir);
+    spilled.add("cherry");
+    spilled.add("apple");
+    SpillingWordSet inMemory = new SpillingWordSet(1_000_000, spillDir);
+    inMemory.add("banana");
+    SpillingWordSet union = new SpillingWordSet(1_000_000, spillDir);
+
+    // Act
+    union.absorb(spilled);
+    union.absorb(inMemory);
+    List<String> merged = new ArrayList<>();
+    union.forEachSorted(merged::add);
+
+    // Assert
+    assertThat(merged).containsExactly("apple", "banana", "cherry");
+    assertThat(spilled.hasSpilled()).isFalse();
+    assertThat(spilled.size()).isZero();
+    assertThat(inMemory.size()).isZero();
+    union.delete();
+    assertThat(spillDir.toFile().list()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should consolidate runs into a single file")
+  void shouldConsolidateIntoSingleRun() {
+    // Arrange
+    SpillingWordSet set = new SpillingWordSet(1, spillDir);
+    for (String word : new String[] {"zulu", "yankee", "zulu", "xray"}) {
+      set.add(word);
+    }
+
+    // Act
+    set.consolidate();
+    List<String> merged = new ArrayList<>();
+    set.forEachSorted(merged::add);
+
+    // Assert
+    assertThat(spillDir.toFile().list()).hasSize(1);
+    assertThat(set.inMemory()).isEmpty();
+    assertThat(merged).containsExactly("xray", "yankee", "zulu");
+    assertThat(set.size()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("Should delete run files and forget all words")
+  void shouldDeleteRuns() {
+    // Arrange
+    SpillingWordSet set = new SpillingWordSet(1, spillDir);
+    set.add("alpha");
+    set.add("bravo");
+
+    // Act
+    set.delete();
+
+    // Assert
+    assertThat(spillDir.toFile().list()).isEmpty();
+    assertThat(set.hasSpilled()).isFalse();
+    assertThat(set.size()).isZero();
+  }
+}
@@ -0,0 +1,133 @@
+package com.search.indexer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.search.indexer.util.TextCleaner;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+@DisplayName("StreamingTokenizer Test Suite")
+class StreamingTokenizerTest {
+
+  private static Stream<Arguments> provideContentAndWindowSizes() {
+    String[] contents = {
+        "Simple text content with Several Words",
+        "<html><body>HTML Content inside</body></html>",
+        "Before<br/>After and <b>Bold</b>Text",
+        "Unclosed <tag stays as Literal text\nNext Line <b>closed</b>",
+        "Empty <> brackets and <<nested>> Brackets",
+        "Multi\r\nLine\rContent\nwith <span\nbroken> tags",
+        "Trailing unclosed <abc",
+        "   \n  \t  \n",
+        "<div class='test'>With attributes</div><p style='x'>Styled paragraphs</p>",
+        "Long runs and \u2014 dashes <span style='color: red; font-weight: bold'>"
+            + "Emphasised</span>\tTabbed\u00a0NoBreak Supercalifragilisticexpialidocious"
+    };
+    int[] windowSizes = {1, 2, 3, 7, 64, 8192};
+    String[] kernels = {DelimiterScanner.KERNEL_SCALAR, DelimiterScanner.KERNEL_VECTOR};
+    Stream.Builder<Arguments> builder = Stream.builder();
+    for (String content : contents) {
+      for (int windowSize : windowSizes) {
+        for (String kernel : kernels) {
+          builder.add(Arguments.of(content, windowSize, kernel));
+        }
+      }
+    }
+    return builder.build();
+  }
+
+  @ParameterizedTest
+  @MethodSource("provideContentAndWindowSizes")
+  @DisplayName("Should produce the same statistics as line-based cleaning for any window size "
+      + "and kernel")
+  void shouldMatchLineBasedProcessing(String content, int windowSize, String kernel) {
+    // Arrange
+    WordStatistics expected = lineBasedStatistics(content);
+    WordStatistics actual = new WordStatistics();
+    StreamingTokenizer tokenizer = new StreamingTokenizer(actual, 16, 4096, 4096,
+        DelimiterScanner.forKernel(kernel));
+
+    // Act
+    char[] chars = content.toCharArray();
+    for (int offset = 0; offset < chars.length; offset += windowSize) {
+      tokenizer.feed(chars, offset, Math.min(windowSize, chars.length - offset));
+    }
+    tokenizer.finish();
+
+    // Assert
+    assertThat(actual.getUppercaseCount()).isEqualTo(expected.getUppercaseCount());
+    assertThat(actual.getLongWords()).isEqualTo(expected.getLongWords());
+  }
+
+  @Test
+  @DisplayName("Should join a word split across windows")
+  void shouldJoinWordAcrossWindows() {
+    // Arrange
+    WordStatistics statistics = new WordStatistics();
+    StreamingTokenizer tokenizer = new StreamingTokenizer(statistics, 16, 4096, 4096);
+
+    // Act
+    tokenizer.feed("Program".toCharArray(), 0, 7);
+    tokenizer.feed("ming rocks".toCharArray(), 0, 10);
+    tokenizer.finish();
+
+    // Assert
+    assertThat(statistics.getLongWords()).containsExactly("Programming");
+    assertThat(statistics.getUppercaseCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should truncate words longer than the configured cap")
+  void shouldTruncateOverlongWords() {
+    // Arrange
+    WordStatistics statistics = new WordStatistics();
+    StreamingTokenizer tokenizer = new StreamingTokenizer(statistics, 4, 8, 4096);
+    char[] word = "abcdefghijklmnop".toCharArray();
+
+    // Act
+    tokenizer.feed(word, 0, word.length);
+    tokenizer.finish();
+
+    // Assert
+    assertThat(statistics.getLongWords()).containsExactly("abcdefgh");
+  }
+
+  @Test
+  @DisplayName("Should treat tags longer than the configured cap as text")
+  void shouldTreatOverlongTagsAsText() {
+    // Arrange
+    WordStatistics statistics = new WordStatistics();
+    StreamingTokenizer tokenizer = new StreamingTokenizer(statistics, 16, 4096, 4);
+    char[] content = "<abcdefgh> visible".toCharArray();
+
+    // Act
+    tokenizer.feed(content, 0, content.length);
+    tokenizer.finish();
+
+    // Assert
+    assertThat(statistics.getLongWords()).containsExactlyInAnyOrder("<abcdefgh>", "visible");
+  }
+
+  @Test
+  @DisplayName("Should reject non-positive caps")
+  void shouldRejectNonPositiveCaps() {
+    // Act & Assert
+    assertThatThrownBy(() -> new StreamingTokenizer(new WordStatistics(), 16, 0, 10))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static WordStatistics lineBasedStatistics(String content) {
+    WordStatistics statistics = new WordStatistics();
+    content.lines()
+        .map(TextCleaner::removeHtmlTags)
+        .flatMap(line -> Stream.of(line.split("\\s+")))
+        .filter(word -> !word.isEmpty())
+        .forEach(statistics::processWord);
+    return statistics;
+  }
+}
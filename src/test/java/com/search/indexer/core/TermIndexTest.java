@@ -0,0 +1,101 @@
+package com.search.indexer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("TermIndex Test Suite")
+class TermIndexTest {
+
+  private TermIndex index;
+
+  @BeforeEach
+  void setUp() {
+    WordDictionary dictionary = new WordDictionary();
+    List<FileResult> results = List.of(
+        result("a.txt", dictionary, "microscope", "microbial", "telescope"),
+        result("b.txt", dictionary, "microbial", "macrocosm"),
+        result("c.txt", null, "telescope", "microscopic"));
+    TreeSet<String> vocabulary = new TreeSet<>();
+    results.forEach(result -> result.getStatistics().forEachLongWord(vocabulary::add));
+    index = TermIndex.build(new ArrayList<>(vocabulary), results);
+  }
+
+  @Test
+  @DisplayName("Should find exact terms and their files")
+  void shouldFindExactTerm() {
+    // Act & Assert
+    assertThat(index.exact("microbial")).containsExactly("microbial");
+    assertThat(index.exact("micro")).isEmpty();
+    assertThat(index.filesOf("microbial")).containsExactly(Path.of("a.txt"), Path.of("b.txt"));
+    assertThat(index.filesOf("absent")).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should return the contiguous range of terms sharing a prefix")
+  void shouldFindPrefix() {
+    // Act & Assert
+    assertThat(index.prefix("micro"))
+        .containsExactly("microbial", "microscope", "microscopic");
+    assertThat(index.prefix("microscope")).containsExactly("microscope");
+    assertThat(index.prefix("zzz")).isEmpty();
+    assertThat(index.prefix("")).hasSize(index.size());
+  }
+
+  @Test
+  @DisplayName("Should match wildcard patterns against whole terms")
+  void shouldMatchWildcards() {
+    // Act & Assert
+    assertThat(index.wildcard("*scope")).containsExactly("microscope", "telescope");
+    assertThat(index.wildcard("m?cro*")).containsExactly("macrocosm", "microbial", "microscope",
+        "microscopic");
+    assertThat(index.wildcard("micro*c")).containsExactly("microscopic");
+    assertThat(index.wildcard("tele?cope")).containsExactly("telescope");
+    assertThat(index.wildcard("telescope")).containsExactly("telescope");
+    assertThat(index.wildcard("*x*")).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should dispatch CLI queries and map terms to files")
+  void shouldRunQueries() {
+    // Act
+    Map<String, List<Path>> prefix = index.query("micro*");
+    Map<String, List<Path>> pattern = index.query("*scop?");
+    Map<String, List<Path>> exact = index.query("telescope");
+
+    // Assert
+    assertThat(prefix).containsOnlyKeys("microbial", "microscope", "microscopic");
+    assertThat(pattern).containsOnlyKeys("microscope", "telescope");
+    assertThat(exact.get("telescope")).containsExactly(Path.of("a.txt"), Path.of("c.txt"));
+  }
+
+  @Test
+  @DisplayName("Should answer every query with nothing on an empty index")
+  void shouldHandleEmptyIndex() {
+    // Arrange
+    TermIndex empty = TermIndex.empty();
+
+    // Act & Assert
+    assertThat(empty.size()).isZero();
+    assertThat(empty.prefix("a")).isEmpty();
+    assertThat(empty.query("*")).isEmpty();
+  }
+
+  private static FileResult result(String name, WordDictionary dictionary, String... words) {
+    WordStatistics statistics = new WordStatistics();
+    for (String word : words) {
+      statistics.processWord(word);
+    }
+    if (dictionary != null) {
+      statistics.compact(dictionary);
+    }
+    return new FileResult(Path.of(name), statistics, List.of());
+  }
+}
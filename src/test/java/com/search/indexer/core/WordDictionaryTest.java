@@ -0,0 +1,75 @@
+package com.search.indexer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("WordDictionary Test Suite")
+class WordDictionaryTest {
+
+  @Test
+  @DisplayName("Should assign dense ids in first-seen order and reuse them")
+  void shouldAssignDenseStableIds() {
+    // Arrange
+    WordDictionary dictionary = new WordDictionary();
+
+    // Act
+    int first = dictionary.idOf("application");
+    int second = dictionary.idOf("javascript");
+    int again = dictionary.idOf("application");
+
+    // Assert
+    assertThat(first).isZero();
+    assertThat(second).isEqualTo(1);
+    assertThat(again).isEqualTo(first);
+    assertThat(dictionary.size()).isEqualTo(2);
+    assertThat(dictionary.wordOf(second)).isEqualTo("javascript");
+  }
+
+  @Test
+  @DisplayName("Should return -1 when looking up unknown words")
+  void shouldReturnMinusOneForUnknownWords() {
+    // Arrange
+    WordDictionary dictionary = new WordDictionary();
+
+    // Act & Assert
+    assertThat(dictionary.lookup("missing")).isEqualTo(-1);
+    assertThatThrownBy(() -> dictionary.wordOf(5))
+        .isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  @Test
+  @DisplayName("Should assign unique ids under concurrent use across many pages")
+  void shouldAssignUniqueIdsConcurrently() throws Exception {
+    // Arrange
+    WordDictionary dictionary = new WordDictionary();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    Callable<Set<Integer>> task = () -> IntStream.range(0, 20_000)
+        .mapToObj(i -> dictionary.idOf("word" + i))
+        .collect(Collectors.toSet());
+
+    // Act
+    List<Future<Set<Integer>>> futures = executor.invokeAll(List.of(task, task, task, task));
+    executor.shutdown();
+    Set<Integer> ids = new HashSet<>();
+    for (Future<Set<Integer>> future : futures) {
+      ids.addAll(future.get());
+    }
+
+    // Assert
+    assertThat(dictionary.size()).isEqualTo(20_000);
+    assertThat(ids).hasSize(20_000);
+    assertThat(dictionary.wordOf(dictionary.lookup("word19999"))).isEqualTo("word19999");
+  }
+}
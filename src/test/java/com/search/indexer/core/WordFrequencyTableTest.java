@@ -0,0 +1,90 @@
+package com.search.indexer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.search.indexer.model.TermCount;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("WordFrequencyTable Test Suite")
+class WordFrequencyTableTest {
+
+  @Test
+  @DisplayName("Should count words exactly while under budget")
+  void shouldCountExactly() {
+    // Arrange
+    WordFrequencyTable table = new WordFrequencyTable(0);
+
+    // Act
+    for (int i = 0; i < 10_000; i++) {
+      table.add("word" + (i % 1000));
+    }
+    table.add("rare");
+
+    // Assert
+    assertThat(table.size()).isEqualTo(1001);
+    assertThat(table.get("word7")).isEqualTo(10);
+    assertThat(table.get("rare")).isEqualTo(1);
+    assertThat(table.get("missing")).isZero();
+    assertThat(table.getTotal()).isEqualTo(10_001);
+    assertThat(table.getMaxError()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should return the most frequent words first, ties by word")
+  void shouldRankTopWords() {
+    // Arrange
+    WordFrequencyTable table = new WordFrequencyTable(0);
+    for (String word : "b a c a b a d".split(" ")) {
+      table.add(word);
+    }
+
+    // Act
+    List<TermCount> top = table.top(3);
+
+    // Assert
+    assertThat(top).extracting(TermCount::toString).containsExactly("a (3)", "b (2)", "c (1)");
+  }
+
+  @Test
+  @DisplayName("Should prune rare words to stay within budget and keep frequent ones")
+  void shouldPruneWithinBudget() {
+    // Arrange
+    WordFrequencyTable table = new WordFrequencyTable(64 * 1024);
+
+    // Act
+    for (int i = 0; i < 100_000; i++) {
+      table.add(i % 10 == 0 ? "frequent" + (i % 50) : "unique" + i);
+    }
+
+    // Assert
+    assertThat(table.getMemoryBytes()).isLessThanOrEqualTo(64 * 1024);
+    assertThat(table.getMaxError()).isPositive();
+    assertThat(table.top(5)).extracting(TermCount::getTerm)
+        .allMatch(word -> word.startsWith("frequent"));
+    assertThat(table.get("frequent0")).isBetween(2000 - (int) table.getMaxError(), 2000);
+    assertThat(table.getTotal()).isEqualTo(100_000);
+  }
+
+  @Test
+  @DisplayName("Should merge counts, totals and errors of another table")
+  void shouldMerge() {
+    // Arrange
+    WordFrequencyTable first = new WordFrequencyTable(0);
+    WordFrequencyTable second = new WordFrequencyTable(0);
+    first.add("alpha", 3);
+    first.add("beta");
+    second.add("alpha", 2);
+    second.add("gamma", 4);
+
+    // Act
+    first.merge(second);
+
+    // Assert
+    assertThat(first.get("alpha")).isEqualTo(5);
+    assertThat(first.get("gamma")).isEqualTo(4);
+    assertThat(first.getTotal()).isEqualTo(10);
+    assertThat(second.get("alpha")).isEqualTo(2);
+  }
+}
@@ -1,11 +1,15 @@
 package com.search.indexer.core;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Stream;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -170,4 +174,97 @@ class WordStatisticsTest {
         .as("Should contain correct set of long words")
         .containsExactlyInAnyOrderElementsOf(expectedLongWords);
   }
-}
\ No newline at end of file
+
+  @Test
+  @DisplayName("Should keep long words readable after compaction into a dictionary")
+  void shouldResolveLongWordsAfterCompaction() {
+    // Arrange
+    WordDictionary dictionary = new WordDictionary();
+    WordStatistics other = new WordStatistics();
+    other.processWord("application");
+    other.compact(dictionary);
+    wordStatistics.processWord("Application");
+    wordStatistics.processWord("application");
+    wordStatistics.processWord("tiny");
+
+    // Act
+    wordStatistics.compact(dictionary);
+
+    // Assert
+    Assertions.assertThat(wordStatistics.isCompacted()).isTrue();
+    Assertions.assertThat(wordStatistics.getLongWords())
+        .containsExactlyInAnyOrder("Application", "application");
+    Assertions.assertThat(wordStatistics.getLongWordCount()).isEqualTo(2);
+    Assertions.assertThat(wordStatistics.getUppercaseCount()).isEqualTo(1);
+    Assertions.assertThat(dictionary.size()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should reject new words once compacted")
+  void shouldRejectWordsAfterCompaction() {
+    // Arrange
+    wordStatistics.compact(new WordDictionary());
+
+    // Act & Assert
+    Assertions.assertThatThrownBy(() -> wordStatistics.processWord("late"))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  @DisplayName("Should spill long words beyond the memory budget and keep them after compaction")
+  void shouldSpillLongWordsBeyondMemoryBudget(@TempDir Path spillDir) {
+    // Arrange: room for roughly one word before each spill
+    WordStatistics spilling = new WordStatistics(100, spillDir);
+    for (String word : new String[] {"delta", "Charlie", "alphabet", "Charlie", "bravado",
+        "alphabet"}) {
+      spilling.processWord(word);
+    }
+
+    // Act
+    spilling.compact(new WordDictionary());
+    List<String> sorted = new ArrayList<>();
+    spilling.forEachLongWordSorted(sorted::add);
+
+    // Assert
+    Assertions.assertThat(spilling.hasSpilled()).isTrue();
+    Assertions.assertThat(spilling.isCompacted()).isFalse();
+    Assertions.assertThat(sorted).containsExactly("Charlie", "alphabet", "bravado");
+    Assertions.assertThat(spilling.getLongWordCount()).isEqualTo(3);
+    Assertions.assertThat(spilling.getUppercaseCount()).isEqualTo(2);
+    Assertions.assertThat(spillDir.toFile().list()).hasSize(1);
+  }
+
+  @Test
+  @DisplayName("Should merge the statistics of another part of the text")
+  void shouldMergeStatistics() {
+    // Arrange
+    wordStatistics.processWord("Shared");
+    wordStatistics.processWord("lengthy");
+    WordStatistics part = new WordStatistics();
+    part.processWord("Another");
+    part.processWord("lengthy");
+    part.processWord("bit");
+
+    // Act
+    wordStatistics.merge(part);
+
+    // Assert
+    Assertions.assertThat(wordStatistics.getWordCount()).isEqualTo(5);
+    Assertions.assertThat(wordStatistics.getUppercaseCount()).isEqualTo(2);
+    Assertions.assertThat(wordStatistics.getLongWords())
+        .containsExactlyInAnyOrder("Shared", "lengthy", "Another");
+    Assertions.assertThat(wordStatistics.getLengthHistogram().countLongerThan(5)).isEqualTo(4);
+    Assertions.assertThat(part.getWordCount()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("Should refuse to merge into statistics that follow phrases across parts")
+  void shouldRejectMergeWhenTrackingFrequencies() {
+    // Arrange
+    wordStatistics.trackFrequencies(1 << 16, 5);
+
+    // Act & Assert
+    Assertions.assertThatThrownBy(() -> wordStatistics.merge(new WordStatistics()))
+        .isInstanceOf(IllegalStateException.class);
+  }
+}
@@ -0,0 +1,100 @@
+package com.search.indexer.core;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("WorkScheduler Test Suite")
+class WorkSchedulerTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  @DisplayName("Should order files largest first")
+  void shouldOrderLargestFirst() throws IOException {
+    // Arrange
+    Path small = createFile("small.txt", 10);
+    Path large = createFile("large.txt", 1_000);
+    Path medium = createFile("medium.txt", 100);
+    WorkScheduler scheduler = new WorkScheduler(0, 0);
+
+    // Act
+    WorkScheduler.Schedule schedule = scheduler.plan(List.of(small, large, medium), 2);
+
+    // Assert
+    assertThat(schedule.getUnits()).extracting(unit -> unit.getFiles().get(0))
+        .containsExactly(large, medium, small);
+    assertThat(schedule.getTotalBytes()).isEqualTo(1_110);
+  }
+
+  @Test
+  @DisplayName("Should pack small files into units bounded by the batch size")
+  void shouldPackSmallFiles() throws IOException {
+    // Arrange
+    List<Path> files = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      files.add(createFile("tiny" + i + ".txt", 10));
+    }
+    files.add(createFile("big.txt", 500));
+    WorkScheduler scheduler = new WorkScheduler(100, 40);
+
+    // Act
+    WorkScheduler.Schedule schedule = scheduler.plan(files, 4);
+
+    // Assert
+    assertThat(schedule.getUnits()).hasSize(4);
+    assertThat(schedule.getUnits().get(0).getFiles()).hasSize(1);
+    assertThat(schedule.getUnits().get(0).getBytes()).isEqualTo(500);
+    assertThat(schedule.getUnits().subList(1, 4))
+        .allSatisfy(unit -> assertThat(unit.getBytes()).isLessThanOrEqualTo(40));
+    assertThat(schedule.getUnits()).flatExtracting(WorkScheduler.WorkUnit::getFiles)
+        .containsExactlyInAnyOrderElementsOf(files);
+  }
+
+  @Test
+  @DisplayName("Should predict the makespan of greedy largest-first assignment")
+  void shouldPredictLptMakespan() throws IOException {
+    // Arrange: LPT puts 7 | 5+2 | 4+3 on three workers
+    List<Path> files = new ArrayList<>();
+    int[] sizes = {2, 7, 3, 5, 4};
+    for (int i = 0; i < sizes.length; i++) {
+      files.add(createFile("job" + i + ".txt", sizes[i]));
+    }
+    WorkScheduler scheduler = new WorkScheduler(0, 0);
+
+    // Act
+    WorkScheduler.Schedule schedule = scheduler.plan(files, 3);
+
+    // Assert
+    assertThat(schedule.getPredictedMakespanBytes()).isEqualTo(7);
+  }
+
+  @Test
+  @DisplayName("Should treat missing files as empty and summarize a recorded run")
+  void shouldSummarizeRun() throws IOException {
+    // Arrange
+    Path missing = tempDir.resolve("missing.txt");
+    Path present = createFile("present.txt", 50);
+    WorkScheduler.Schedule schedule = new WorkScheduler(0, 0).plan(List.of(missing, present), 2);
+
+    // Act
+    schedule.record(0, 1_000_000);
+    String summary = schedule.summarize(0, 2_000_000);
+
+    // Assert
+    assertThat(schedule.getUnits().get(1).getFiles()).containsExactly(missing);
+    assertThat(summary).contains("2 units on 2 workers", "actual 2.0 ms", "tail idle 75.0%");
+  }
+
+  private Path createFile(String name, int size) throws IOException {
+    return Files.write(tempDir.resolve(name), new byte[size]);
+  }
+}
@@ -0,0 +1,202 @@
+package com.search.indexer.daemon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.search.indexer.core.FileProcessor;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("IndexingDaemon Test Suite")
+class IndexingDaemonTest {
+
+  @TempDir
+  Path tempDir;
+
+  private IndexingDaemon daemon;
+  private DaemonClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    daemon = new IndexingDaemon(new FileProcessor(), 0, 2, 10, tempDir.resolve("auth/token"));
+    daemon.start();
+    client = new DaemonClient(daemon.getPort(), tempDir.resolve("auth/token"));
+  }
+
+  @AfterEach
+  void tearDown() {
+    daemon.stop();
+  }
+
+  @Test
+  @DisplayName("Should return the full report when waiting for a job")
+  void shouldReturnReportForSynchronousJob() throws Exception {
+    // Arrange
+    Path file = createTestFile("sync.txt", "Hello wonderful World");
+
+    // Act
+    DaemonClient.Response response = client.submit(List.of(file.toString()), true);
+
+    // Assert
+    assertThat(response.getStatusCode()).isEqualTo(200);
+    assertThat(response.getBody())
+        .contains("STATUS SUCCEEDED")
+        .contains("File Name: sync.txt")
+        .contains("Number of words starting with uppercase: 2")
+        .contains("wonderful");
+  }
+
+  @Test
+  @DisplayName("Should expose asynchronous jobs by id")
+  void shouldExposeAsynchronousJobById() throws Exception {
+    // Arrange
+    Path file = createTestFile("async.txt", "Some Content");
+
+    // Act
+    DaemonClient.Response submitted = client.submit(List.of(file.toString()), false);
+    String jobId = submitted.getBody().lines().findFirst().orElseThrow().substring(4);
+    daemon.getJob(jobId).getCompletion().get(5, TimeUnit.SECONDS);
+    DaemonClient.Response status = client.status(jobId);
+
+    // Assert
+    assertThat(submitted.getStatusCode()).isEqualTo(202);
+    assertThat(status.getStatusCode()).isEqualTo(200);
+    assertThat(status.getBody())
+        .contains("JOB " + jobId)
+        .contains("STATUS SUCCEEDED")
+        .contains("File Name: async.txt");
+  }
+
+  @Test
+  @DisplayName("Should isolate a failing job from a successful one")
+  void shouldIsolateFailingJobs() throws Exception {
+    // Arrange
+    Path valid = createTestFile("valid.txt", "Valid Content");
+    Path missing = tempDir.resolve("missing.txt");
+
+    // Act
+    DaemonClient.Response failed = client.submit(List.of(missing.toString()), true);
+    DaemonClient.Response succeeded = client.submit(List.of(valid.toString()), true);
+
+    // Assert
+    assertThat(failed.getStatusCode()).isEqualTo(500);
+    assertThat(failed.getBody()).contains("STATUS FAILED").contains("Not a regular file");
+    assertThat(succeeded.getStatusCode()).isEqualTo(200);
+    assertThat(succeeded.getBody()).contains("STATUS SUCCEEDED");
+  }
+
+  @Test
+  @DisplayName("Should drop the file results of a job whose batch failed")
+  void shouldDropResultsOfFailedJob() throws Exception {
+    // Arrange
+    Path valid = createTestFile("valid.txt", "Valid Content");
+    Path missing = tempDir.resolve("missing.txt");
+
+    // Act
+    IndexingJob job = daemon.submit(List.of(valid, missing)).getCompletion().get();
+
+    // Assert
+    assertThat(job.getStatus()).isEqualTo(IndexingJob.Status.FAILED);
+    assertThat(job.render()).contains("STATUS FAILED").doesNotContain("File Name");
+  }
+
+  @Test
+  @DisplayName("Should reject requests without the daemon token")
+  void shouldRejectRequestsWithoutToken() throws Exception {
+    // Arrange
+    Path file = createTestFile("secret.txt", "Secret Content");
+    DaemonClient intruder = new DaemonClient(daemon.getPort(), "not-the-token");
+
+    // Act
+    DaemonClient.Response submitted = intruder.submit(List.of(file.toString()), true);
+    DaemonClient.Response status = intruder.status("any");
+
+    // Assert
+    assertThat(submitted.getStatusCode()).isEqualTo(401);
+    assertThat(submitted.getBody()).doesNotContain("Secret");
+    assertThat(status.getStatusCode()).isEqualTo(401);
+  }
+
+  @Test
+  @DisplayName("Should write the token readable by its owner only")
+  void shouldWriteOwnerOnlyToken() throws Exception {
+    // Act
+    Path token = tempDir.resolve("auth/token");
+
+    // Assert
+    assertThat(Files.readString(token)).hasSize(64);
+    assertThat(Files.getPosixFilePermissions(token))
+        .containsExactlyInAnyOrder(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE);
+  }
+
+  @Test
+  @DisplayName("Should report the corpus totals of a finished job")
+  void shouldReportCorpusTotals() throws Exception {
+    // Arrange
+    Path first = createTestFile("first.txt", "Alpha Beta");
+    Path second = createTestFile("second.txt", "Gamma delta");
+
+    // Act
+    DaemonClient.Response response =
+        client.submit(List.of(first.toString(), second.toString()), true);
+
+    // Assert
+    assertThat(response.getBody())
+        .contains("File Name: first.txt")
+        .contains("File Name: second.txt")
+        .contains("CORPUS : 2 files")
+        .contains("Total words starting with uppercase: 3");
+  }
+
+  @Test
+  @DisplayName("Should return 404 for unknown job ids")
+  void shouldReturnNotFoundForUnknownJob() throws Exception {
+    // Act
+    DaemonClient.Response response = client.status("does-not-exist");
+
+    // Assert
+    assertThat(response.getStatusCode()).isEqualTo(404);
+    assertThat(response.isSuccess()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should evict finished jobs beyond the retention limit")
+  void shouldEvictFinishedJobsBeyondRetention() throws Exception {
+    // Arrange
+    Path file = createTestFile("retention.txt", "Content");
+    IndexingJob first = daemon.submit(List.of(file));
+    first.getCompletion().get(5, TimeUnit.SECONDS);
+
+    // Act
+    for (int i = 0; i < 10; i++) {
+      daemon.submit(List.of(file)).getCompletion().get(5, TimeUnit.SECONDS);
+    }
+
+    // Assert
+    assertThat(daemon.getJob(first.getId())).isNull();
+  }
+
+  @Test
+  @DisplayName("Should reject empty job submissions")
+  void shouldRejectEmptySubmissions() {
+    // Act & Assert
+    assertThatThrownBy(() -> daemon.submit(List.of()))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("filePaths cannot be empty");
+  }
+
+  private Path createTestFile(String fileName, String content) throws IOException {
+    Path file = tempDir.resolve(fileName);
+    Files.writeString(file, content);
+    return file;
+  }
+}
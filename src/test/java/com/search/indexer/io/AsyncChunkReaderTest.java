@@ -0,0 +1,140 @@
+package com.search.indexer.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("AsyncChunkReader Test Suite")
+class AsyncChunkReaderTest {
+
+  private static final int CHUNK = 7;
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  @DisplayName("Should deliver every byte of the file in order")
+  void shouldDeliverChunksInOrder() throws IOException {
+    // Arrange
+    byte[] content = "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8);
+    Path file = Files.write(tempDir.resolve("fox.txt"), content);
+    BufferPool pool = new BufferPool(8, AsyncChunkReader.HEADROOM + CHUNK);
+    ByteArrayOutputStream collected = new ByteArrayOutputStream();
+    int chunks = 0;
+
+    // Act
+    try (AsyncChunkReader reader = new AsyncChunkReader(file, pool, 3)) {
+      ByteBuffer chunk;
+      while ((chunk = reader.take()) != null) {
+        assertThat(chunk.remaining()).isLessThanOrEqualTo(CHUNK);
+        byte[] bytes = new byte[chunk.remaining()];
+        chunk.get(bytes);
+        collected.write(bytes);
+        reader.release(chunk);
+        chunks++;
+      }
+      assertThat(reader.isExhausted()).isTrue();
+    }
+
+    // Assert
+    assertThat(collected.toByteArray()).isEqualTo(content);
+    assertThat(chunks).isEqualTo((content.length + CHUNK - 1) / CHUNK);
+  }
+
+  @Test
+  @DisplayName("Should report an empty file as exhausted without chunks")
+  void shouldHandleEmptyFile() throws IOException {
+    // Arrange
+    Path file = Files.write(tempDir.resolve("empty.txt"), new byte[0]);
+    BufferPool pool = new BufferPool(2, AsyncChunkReader.HEADROOM + CHUNK);
+
+    // Act & Assert
+    try (AsyncChunkReader reader = new AsyncChunkReader(file, pool, 2)) {
+      assertThat(reader.take()).isNull();
+      assertThat(reader.isExhausted()).isTrue();
+    }
+  }
+
+  @Test
+  @DisplayName("Should make progress when read-ahead of other files holds the whole pool")
+  void shouldProgressWithExhaustedPool() throws IOException {
+    // Arrange
+    Path first = Files.write(tempDir.resolve("first.txt"), new byte[CHUNK * 3]);
+    Path second = Files.write(tempDir.resolve("second.txt"), new byte[CHUNK * 3]);
+    BufferPool pool = new BufferPool(2, AsyncChunkReader.HEADROOM + CHUNK);
+    long total = 0;
+
+    // Act
+    try (AsyncChunkReader ahead = new AsyncChunkReader(first, pool, 2);
+        AsyncChunkReader current = new AsyncChunkReader(second, pool, 2)) {
+      ByteBuffer chunk;
+      while ((chunk = current.take()) != null) {
+        total += chunk.remaining();
+        current.release(chunk);
+      }
+      assertThat(ahead.isExhausted()).isFalse();
+    }
+
+    // Assert
+    assertThat(total).isEqualTo(CHUNK * 3);
+  }
+
+  @Test
+  @DisplayName("Should carry an incomplete sequence into the headroom of the next chunk")
+  void shouldCarryIncompleteSequence() throws IOException {
+    // Arrange: "€" is three bytes and straddles the first chunk boundary
+    byte[] content = "abcde€fgh".getBytes(StandardCharsets.UTF_8);
+    Path file = Files.write(tempDir.resolve("euro.txt"), content);
+    BufferPool pool = new BufferPool(4, AsyncChunkReader.HEADROOM + CHUNK);
+    ChunkDecoder decoder = ChunkDecoder.forEncoding(
+        new DetectedEncoding(StandardCharsets.UTF_8, 0, false), CodingErrorAction.REPORT);
+    CharBuffer out = CharBuffer.allocate(64);
+
+    // Act
+    try (AsyncChunkReader reader = new AsyncChunkReader(file, pool, 2)) {
+      ByteBuffer chunk = reader.take();
+      while (chunk != null) {
+        boolean last = reader.isExhausted();
+        decoder.decode(chunk, out, last);
+        ByteBuffer next = last ? null : reader.take();
+        if (next != null && chunk.hasRemaining()) {
+          next = reader.carryOver(chunk, next);
+        }
+        reader.release(chunk);
+        chunk = next;
+      }
+    }
+
+    // Assert
+    assertThat(out.flip().toString()).isEqualTo("abcde€fgh");
+  }
+
+  @Test
+  @DisplayName("Should hand out pooled buffers up to the pool size only")
+  void shouldBoundPooledBuffers() {
+    // Arrange
+    BufferPool pool = new BufferPool(1, 32);
+
+    // Act
+    ByteBuffer pooled = pool.tryAcquire();
+    ByteBuffer refused = pool.tryAcquire();
+    ByteBuffer temporary = pool.acquire();
+    pool.release(pooled);
+
+    // Assert
+    assertThat(pooled).isNotNull();
+    assertThat(refused).isNull();
+    assertThat(temporary.capacity()).isEqualTo(32);
+    assertThat(pool.tryAcquire()).isSameAs(pooled);
+  }
+}
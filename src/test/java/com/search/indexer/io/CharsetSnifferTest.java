@@ -0,0 +1,85 @@
+package com.search.indexer.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("CharsetSniffer Test Suite")
+class CharsetSnifferTest {
+
+  private static final Charset WINDOWS_1252 = Charset.forName("windows-1252");
+
+  @Test
+  @DisplayName("Should detect byte order marks")
+  void shouldDetectByteOrderMarks() {
+    // Act
+    DetectedEncoding utf8 = sniff(new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF, 'a'}, true);
+    DetectedEncoding utf16be = sniff(new byte[] {(byte) 0xFE, (byte) 0xFF, 0, 'a'}, true);
+    DetectedEncoding utf16le = sniff(new byte[] {(byte) 0xFF, (byte) 0xFE, 'a', 0}, true);
+
+    // Assert
+    assertThat(utf8.getCharset()).isEqualTo(StandardCharsets.UTF_8);
+    assertThat(utf8.getBomLength()).isEqualTo(3);
+    assertThat(utf16be.getCharset()).isEqualTo(StandardCharsets.UTF_16BE);
+    assertThat(utf16le.getCharset()).isEqualTo(StandardCharsets.UTF_16LE);
+    assertThat(utf16le.getBomLength()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should flag pure 7-bit content as ASCII")
+  void shouldDetectAscii() {
+    // Act
+    DetectedEncoding encoding = sniff("Plain <b>ASCII</b> text".getBytes(StandardCharsets.US_ASCII),
+        true);
+
+    // Assert
+    assertThat(encoding.isAscii()).isTrue();
+    assertThat(encoding.getBomLength()).isZero();
+    assertThat(encoding.getFallback()).isEqualTo(WINDOWS_1252);
+  }
+
+  @Test
+  @DisplayName("Should detect UTF-8 and tolerate a sequence cut by the sample end")
+  void shouldDetectUtf8() {
+    // Arrange
+    byte[] bytes = "café naïve €".getBytes(StandardCharsets.UTF_8);
+
+    // Act
+    DetectedEncoding full = sniff(bytes, true);
+    DetectedEncoding truncated = CharsetSniffer.sniff(bytes, 0, bytes.length - 1, false,
+        WINDOWS_1252);
+
+    // Assert
+    assertThat(full.getCharset()).isEqualTo(StandardCharsets.UTF_8);
+    assertThat(full.isAscii()).isFalse();
+    assertThat(truncated.getCharset()).isEqualTo(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  @DisplayName("Should fall back to the single-byte charset for Latin-1 content")
+  void shouldFallBackForLatin1() {
+    // Act
+    DetectedEncoding encoding = sniff("café naïve".getBytes(StandardCharsets.ISO_8859_1), true);
+
+    // Assert
+    assertThat(encoding.getCharset()).isEqualTo(WINDOWS_1252);
+  }
+
+  @Test
+  @DisplayName("Should detect UTF-16 without a byte order mark")
+  void shouldDetectUtf16WithoutBom() {
+    // Act
+    DetectedEncoding encoding = sniff("Hello UTF-16 text".getBytes(StandardCharsets.UTF_16LE),
+        true);
+
+    // Assert
+    assertThat(encoding.getCharset()).isEqualTo(StandardCharsets.UTF_16LE);
+  }
+
+  private static DetectedEncoding sniff(byte[] bytes, boolean complete) {
+    return CharsetSniffer.sniff(bytes, 0, bytes.length, complete, WINDOWS_1252);
+  }
+}
@@ -0,0 +1,141 @@
+package com.search.indexer.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ChunkDecoder Test Suite")
+class ChunkDecoderTest {
+
+  @Test
+  @DisplayName("Should switch from the ASCII fast path to UTF-8 on the first high byte")
+  void shouldFallBackFromAsciiToUtf8() throws CharacterCodingException {
+    // Arrange
+    ChunkDecoder decoder = ChunkDecoder.forEncoding(
+        new DetectedEncoding(StandardCharsets.US_ASCII, 0, true), CodingErrorAction.REPORT);
+    byte[] bytes = "plain then café".getBytes(StandardCharsets.UTF_8);
+
+    // Act
+    String decoded = decodeInChunks(decoder, bytes, 3);
+
+    // Assert
+    assertThat(decoded).isEqualTo("plain then café");
+  }
+
+  @Test
+  @DisplayName("Should switch from the ASCII fast path to the fallback when the rest is not UTF-8")
+  void shouldFallBackFromAsciiToSingleByteCharset() throws CharacterCodingException {
+    // Arrange
+    Charset windows1252 = Charset.forName("windows-1252");
+    DetectedEncoding encoding = new DetectedEncoding(StandardCharsets.US_ASCII, 0, true,
+        windows1252);
+    String text = "plain ascii head ".repeat(100) + "“Quoted” café €";
+
+    // Act
+    String legacy = decodeInChunks(ChunkDecoder.forEncoding(encoding, CodingErrorAction.REPORT),
+        text.getBytes(windows1252), 64);
+    String utf8 = decodeInChunks(ChunkDecoder.forEncoding(encoding, CodingErrorAction.REPORT),
+        text.getBytes(StandardCharsets.UTF_8), 64);
+
+    // Assert
+    assertThat(legacy).isEqualTo(text);
+    assertThat(utf8).isEqualTo(text);
+  }
+
+  @Test
+  @DisplayName("Should decode multi-byte sequences split across chunks")
+  void shouldDecodeSplitSequences() throws CharacterCodingException {
+    // Arrange
+    ChunkDecoder decoder = ChunkDecoder.forEncoding(
+        new DetectedEncoding(StandardCharsets.UTF_8, 0, false), CodingErrorAction.REPORT);
+    byte[] bytes = "€uro – naïve".getBytes(StandardCharsets.UTF_8);
+
+    // Act
+    String decoded = decodeInChunks(decoder, bytes, 1);
+
+    // Assert
+    assertThat(decoded).isEqualTo("€uro – naïve");
+  }
+
+  @Test
+  @DisplayName("Should decode single-byte charsets through a lookup table")
+  void shouldDecodeSingleByteCharsets() throws CharacterCodingException {
+    // Arrange
+    Charset windows1252 = Charset.forName("windows-1252");
+    ChunkDecoder decoder = ChunkDecoder.forEncoding(new DetectedEncoding(windows1252, 0, false),
+        CodingErrorAction.REPORT);
+    byte[] bytes = "“Quoted” café €".getBytes(windows1252);
+
+    // Act
+    String decoded = decodeInChunks(decoder, bytes, 4);
+
+    // Assert
+    assertThat(decoded).isEqualTo("“Quoted” café €");
+  }
+
+  @Test
+  @DisplayName("Should replace or report unmapped bytes as configured")
+  void shouldApplyErrorAction() throws CharacterCodingException {
+    // Arrange
+    DetectedEncoding encoding = new DetectedEncoding(Charset.forName("windows-1252"), 0, false);
+    byte[] bytes = {'a', (byte) 0x81, 'b'};
+
+    // Act
+    String replaced = decodeInChunks(
+        ChunkDecoder.forEncoding(encoding, CodingErrorAction.REPLACE), bytes, 8);
+    String ignored = decodeInChunks(
+        ChunkDecoder.forEncoding(encoding, CodingErrorAction.IGNORE), bytes, 8);
+
+    // Assert
+    assertThat(replaced).isEqualTo("a\uFFFDb");
+    assertThat(ignored).isEqualTo("ab");
+    assertThatThrownBy(() -> decodeInChunks(
+        ChunkDecoder.forEncoding(encoding, CodingErrorAction.REPORT), bytes, 8))
+        .isInstanceOf(MalformedInputException.class);
+  }
+
+  @Test
+  @DisplayName("Should parse configured error actions")
+  void shouldParseErrorActions() {
+    // Act & Assert
+    assertThat(ChunkDecoder.parseErrorAction("REPORT")).isEqualTo(CodingErrorAction.REPORT);
+    assertThat(ChunkDecoder.parseErrorAction("ignore")).isEqualTo(CodingErrorAction.IGNORE);
+    assertThat(ChunkDecoder.parseErrorAction("replace")).isEqualTo(CodingErrorAction.REPLACE);
+    assertThatThrownBy(() -> ChunkDecoder.parseErrorAction("skip"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static String decodeInChunks(ChunkDecoder decoder, byte[] bytes, int chunkSize)
+      throws CharacterCodingException {
+    StringBuilder result = new StringBuilder();
+    ByteBuffer in = ByteBuffer.allocate(bytes.length);
+    CharBuffer out = CharBuffer.allocate(4);
+    int offset = 0;
+    while (true) {
+      int length = Math.min(chunkSize, bytes.length - offset);
+      in.put(bytes, offset, length);
+      offset += length;
+      boolean endOfInput = offset == bytes.length;
+      in.flip();
+      do {
+        decoder.decode(in, out, endOfInput);
+        out.flip();
+        result.append(out);
+        out.clear();
+      } while (in.hasRemaining() && (endOfInput || in.remaining() >= 4));
+      in.compact();
+      if (endOfInput) {
+        return result.toString();
+      }
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package com.search.indexer.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("DecodingReader Test Suite")
+class DecodingReaderTest {
+
+  private static final int SNIFF_WINDOW = 64;
+
+  @Test
+  @DisplayName("Should read lines in the fallback charset for a high byte past the sniff window")
+  void shouldFallBackAfterSniffWindow() throws IOException {
+    // Arrange
+    Charset latin1 = StandardCharsets.ISO_8859_1;
+    String text = "plain ascii head\n".repeat(10) + "café naïve\nlast line";
+    byte[] bytes = text.getBytes(latin1);
+    DetectedEncoding encoding = CharsetSniffer.sniff(bytes, 0, SNIFF_WINDOW, false, latin1);
+
+    // Act
+    String decoded;
+    try (BufferedReader reader = new BufferedReader(new DecodingReader(
+        new ByteArrayInputStream(bytes),
+        ChunkDecoder.forEncoding(encoding, CodingErrorAction.REPORT), 32))) {
+      decoded = reader.lines().collect(Collectors.joining("\n"));
+    }
+
+    // Assert
+    assertThat(encoding.isAscii()).isTrue();
+    assertThat(decoded).isEqualTo(text);
+  }
+
+  @Test
+  @DisplayName("Should read UTF-8 lines split across buffers")
+  void shouldReadUtf8AcrossBuffers() throws IOException {
+    // Arrange
+    String text = "€uro – naïve\nsecond ☃ line\n";
+    byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+    DetectedEncoding encoding = new DetectedEncoding(StandardCharsets.UTF_8, 0, false);
+
+    // Act
+    StringBuilder decoded = new StringBuilder();
+    try (DecodingReader reader = new DecodingReader(new ByteArrayInputStream(bytes),
+        ChunkDecoder.forEncoding(encoding, CodingErrorAction.REPORT), 5)) {
+      char[] buffer = new char[3];
+      int read;
+      while ((read = reader.read(buffer, 0, buffer.length)) >= 0) {
+        decoded.append(buffer, 0, read);
+      }
+    }
+
+    // Assert
+    assertThat(decoded.toString()).isEqualTo(text);
+  }
+}
@@ -0,0 +1,51 @@
+package com.search.indexer.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.search.indexer.core.FileResult;
+import com.search.indexer.core.WordStatistics;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("CorpusReport Test Suite")
+class CorpusReportTest {
+
+  @Test
+  @DisplayName("Should render totals and only the top ten files")
+  void shouldRenderTotalsAndTopFiles() {
+    // Arrange
+    List<FileResult> files = new ArrayList<>();
+    for (int i = 0; i < 12; i++) {
+      files.add(new FileResult(Path.of("file" + i), new WordStatistics(), List.of()));
+    }
+    CorpusReport report = new CorpusReport(12, 30, 5, List.of("alpha", "beta"), files);
+
+    // Act
+    String rendered = report.toString();
+
+    // Assert
+    assertThat(rendered)
+        .contains("CORPUS : 12 files")
+        .contains("uppercase: 30")
+        .contains("Distinct long words: 2 (5 across files)")
+        .contains("10. file9")
+        .doesNotContain("file10");
+  }
+
+  @Test
+  @DisplayName("Should expose immutable copies of its lists")
+  void shouldExposeImmutableLists() {
+    // Arrange
+    List<String> vocabulary = new ArrayList<>(List.of("alpha"));
+    CorpusReport report = new CorpusReport(1, 0, 1, vocabulary, List.of());
+
+    // Act
+    vocabulary.add("beta");
+
+    // Assert
+    assertThat(report.getVocabulary()).containsExactly("alpha");
+  }
+}
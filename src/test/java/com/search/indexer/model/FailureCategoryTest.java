@@ -0,0 +1,61 @@
+package com.search.indexer.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.search.indexer.exception.FileProcessingException;
+import java.io.IOException;
+import java.nio.charset.MalformedInputException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("FailureCategory Test Suite")
+class FailureCategoryTest {
+
+  @Test
+  @DisplayName("Should classify failures by the first I/O error in the cause chain")
+  void shouldClassifyByCause() {
+    // Act & Assert
+    assertThat(FailureCategory.of(new SecurityException("File too large: x")))
+        .isEqualTo(FailureCategory.REJECTED);
+    assertThat(FailureCategory.of(wrap(new NoSuchFileException("x"))))
+        .isEqualTo(FailureCategory.NOT_FOUND);
+    assertThat(FailureCategory.of(wrap(new AccessDeniedException("x"))))
+        .isEqualTo(FailureCategory.ACCESS_DENIED);
+    assertThat(FailureCategory.of(wrap(new MalformedInputException(1))))
+        .isEqualTo(FailureCategory.MALFORMED_INPUT);
+    assertThat(FailureCategory.of(wrap(new IOException("Stale file handle"))))
+        .isEqualTo(FailureCategory.IO_ERROR);
+    assertThat(FailureCategory.of(new IllegalStateException("bug")))
+        .isEqualTo(FailureCategory.UNEXPECTED);
+  }
+
+  @Test
+  @DisplayName("Should only treat generic I/O errors as transient")
+  void shouldOnlyRetryIoErrors() {
+    // Act & Assert
+    for (FailureCategory category : FailureCategory.values()) {
+      assertThat(category.isTransient()).isEqualTo(category == FailureCategory.IO_ERROR);
+    }
+  }
+
+  @Test
+  @DisplayName("Should describe a failure by its root cause")
+  void shouldDescribeRootCause() {
+    // Act
+    FileFailure failure = FileFailure.of(Path.of("doc.txt"),
+        wrap(new AccessDeniedException("doc.txt")), 1);
+
+    // Assert
+    assertThat(failure.getCategory()).isEqualTo(FailureCategory.ACCESS_DENIED);
+    assertThat(failure.getCause()).isEqualTo("AccessDeniedException: doc.txt");
+    assertThat(failure.toString())
+        .isEqualTo("doc.txt\tACCESS_DENIED\t1\tAccessDeniedException: doc.txt");
+  }
+
+  private static FileProcessingException wrap(IOException cause) {
+    return new FileProcessingException("Failed to process file: x", cause);
+  }
+}
@@ -0,0 +1,42 @@
+package com.search.indexer.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("SampleReport Test Suite")
+class SampleReportTest {
+
+  @Test
+  @DisplayName("Should render the estimates with their intervals and the share read")
+  void shouldRenderEstimates() {
+    // Arrange
+    SampleReport report = new SampleReport(1000, 40, 1 << 30, 1 << 20, 6, 0.95,
+        new Estimate(5000.4, 100, 4804, 5196), new Estimate(700, 20, 661, 739),
+        Estimate.exact(120), new Estimate(900, 50, 820, 1010), 780);
+
+    // Act
+    String rendered = report.toString();
+
+    // Assert
+    assertThat(rendered)
+        .contains("SAMPLE : 40 of 1000 files from 6 size strata, 1048576 of 1073741824 bytes")
+        .contains("95% confidence")
+        .contains("Words: 5000 [4804, 5196]")
+        .contains("uppercase: 700 [661, 739]")
+        .contains("Long word occurrences: 120 [120, 120]")
+        .contains("Distinct long words: 900 [820, 1010], 780 observed");
+  }
+
+  @Test
+  @DisplayName("Should reject an interval that does not contain the estimate")
+  void shouldRejectIntervalWithoutEstimate() {
+    // Act & Assert
+    assertThatThrownBy(() -> new Estimate(10, 1, 11, 12))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(new Estimate(10, 1, 9, 11).contains(11)).isTrue();
+    assertThat(new Estimate(10, 1, 9, 11).contains(12)).isFalse();
+  }
+}
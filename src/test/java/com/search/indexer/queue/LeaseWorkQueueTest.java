@@ -0,0 +1,152 @@
+package com.search.indexer.queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("LeaseWorkQueue Test Suite")
+class LeaseWorkQueueTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  @DisplayName("Should hand out each batch to one owner in order")
+  void shouldClaimBatchesInOrder() throws IOException {
+    // Arrange
+    LeaseWorkQueue queue = new LeaseWorkQueue(tempDir, 60_000);
+    List<Path> files = paths(5);
+
+    // Act
+    int batches = queue.enqueue(files, 2);
+    LeaseWorkQueue.Lease first = queue.claim("a").orElseThrow();
+    LeaseWorkQueue.Lease second = queue.claim("b").orElseThrow();
+    LeaseWorkQueue.Lease third = queue.claim("a").orElseThrow();
+
+    // Assert
+    assertThat(batches).isEqualTo(3);
+    assertThat(first.getFiles()).containsExactlyElementsOf(files.subList(0, 2));
+    assertThat(second.getFiles()).containsExactlyElementsOf(files.subList(2, 4));
+    assertThat(third.getFiles()).containsExactly(files.get(4));
+    assertThat(queue.claim("c")).isEmpty();
+    assertThat(queue.isDrained()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should never give the same batch to two concurrent claimers")
+  void shouldClaimEachBatchOnce() throws Exception {
+    // Arrange
+    LeaseWorkQueue queue = new LeaseWorkQueue(tempDir, 60_000);
+    List<Path> files = paths(200);
+    queue.enqueue(files, 1);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Path> claimed = Collections.synchronizedList(new ArrayList<>());
+
+    // Act
+    List<Future<?>> claimers = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      String owner = "owner" + i;
+      claimers.add(executor.submit(() -> {
+        Optional<LeaseWorkQueue.Lease> lease;
+        while ((lease = queue.claim(owner)).isPresent()) {
+          claimed.addAll(lease.get().getFiles());
+        }
+        return null;
+      }));
+    }
+    for (Future<?> claimer : claimers) {
+      claimer.get();
+    }
+    executor.shutdown();
+
+    // Assert
+    assertThat(claimed).hasSize(200).containsExactlyInAnyOrderElementsOf(files);
+  }
+
+  @Test
+  @DisplayName("Should re-queue an expired lease and discard its late results")
+  void shouldRequeueExpiredLease() throws IOException {
+    // Arrange
+    LeaseWorkQueue queue = new LeaseWorkQueue(tempDir, 60_000);
+    queue.enqueue(paths(1), 10);
+    LeaseWorkQueue.Lease lost = queue.claim("crashed").orElseThrow();
+    expireLeases();
+
+    // Act
+    int requeued = queue.requeueExpired();
+    LeaseWorkQueue.Lease retaken = queue.claim("healthy").orElseThrow();
+
+    // Assert
+    assertThat(requeued).isEqualTo(1);
+    assertThat(queue.renew(lost)).isFalse();
+    assertThat(queue.complete(lost, List.of())).isFalse();
+    assertThat(retaken.getBatch()).isEqualTo(lost.getBatch());
+    assertThat(queue.renew(retaken)).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should keep renewed leases")
+  void shouldKeepRenewedLease() throws IOException {
+    // Arrange
+    LeaseWorkQueue queue = new LeaseWorkQueue(tempDir, 60_000);
+    queue.enqueue(paths(1), 10);
+    LeaseWorkQueue.Lease lease = queue.claim("worker").orElseThrow();
+    expireLeases();
+
+    // Act
+    queue.renew(lease);
+
+    // Assert
+    assertThat(queue.requeueExpired()).isZero();
+    assertThat(queue.claim("other")).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should store results of completed batches and drain")
+  void shouldCompleteBatches() throws IOException {
+    // Arrange
+    LeaseWorkQueue queue = new LeaseWorkQueue(tempDir, 60_000);
+    queue.enqueue(paths(4), 2);
+
+    // Act
+    Optional<LeaseWorkQueue.Lease> lease;
+    while ((lease = queue.claim("worker")).isPresent()) {
+      assertThat(queue.complete(lease.get(), List.of())).isTrue();
+    }
+
+    // Assert
+    assertThat(queue.isDrained()).isTrue();
+    assertThat(queue.getCompletedSnapshots()).hasSize(2)
+        .allSatisfy(snapshot -> assertThat(snapshot.toString()).endsWith(".ixsn"));
+  }
+
+  private void expireLeases() throws IOException {
+    try (Stream<Path> leases = Files.list(tempDir.resolve(LeaseWorkQueue.LEASED))) {
+      for (Path lease : (Iterable<Path>) leases::iterator) {
+        Files.setLastModifiedTime(lease, FileTime.fromMillis(System.currentTimeMillis() - 120_000));
+      }
+    }
+  }
+
+  private static List<Path> paths(int count) {
+    List<Path> paths = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      paths.add(Path.of("corpus", "file" + i + ".txt"));
+    }
+    return paths;
+  }
+}
@@ -0,0 +1,155 @@
+package com.search.indexer.queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.search.indexer.core.FailurePolicy;
+import com.search.indexer.core.FileProcessor;
+import com.search.indexer.core.MemoryGovernor;
+import com.search.indexer.model.CorpusReport;
+import com.search.indexer.model.FileFailure;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("QueueWorker Test Suite")
+class QueueWorkerTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  @DisplayName("Should index every queued file exactly once across instances")
+  void shouldShareQueueBetweenInstances() throws Exception {
+    // Arrange
+    Path queueDirectory = tempDir.resolve("queue");
+    List<Path> files = createFiles(10);
+    new LeaseWorkQueue(queueDirectory, 60_000).enqueue(files, 2);
+    FileProcessor processor = new FileProcessor();
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    // Act
+    List<Future<Integer>> workers = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      QueueWorker worker = new QueueWorker(new LeaseWorkQueue(queueDirectory, 60_000), processor,
+          "instance" + i, 60_000, 10);
+      workers.add(executor.submit(worker::run));
+    }
+    int completed = 0;
+    for (Future<Integer> worker : workers) {
+      completed += worker.get();
+    }
+    executor.shutdown();
+
+    // Assert
+    LeaseWorkQueue queue = new LeaseWorkQueue(queueDirectory, 60_000);
+    CorpusReport merged = processor.loadSnapshots(queue.getCompletedSnapshots());
+    assertThat(completed).isEqualTo(5);
+    assertThat(queue.isDrained()).isTrue();
+    assertThat(merged.getFileCount()).isEqualTo(10);
+    assertThat(merged.getUppercaseTotal())
+        .isEqualTo(processor.processFiles(files).getUppercaseTotal());
+  }
+
+  @Test
+  @DisplayName("Should take over the batch of a crashed instance once its lease expires")
+  void shouldTakeOverExpiredLease() throws Exception {
+    // Arrange
+    Path queueDirectory = tempDir.resolve("queue");
+    LeaseWorkQueue queue = new LeaseWorkQueue(queueDirectory, 60_000);
+    queue.enqueue(createFiles(3), 3);
+    queue.claim("crashed").orElseThrow();
+    try (Stream<Path> leases = Files.list(queueDirectory.resolve(LeaseWorkQueue.LEASED))) {
+      for (Path lease : (Iterable<Path>) leases::iterator) {
+        Files.setLastModifiedTime(lease, FileTime.fromMillis(System.currentTimeMillis() - 120_000));
+      }
+    }
+    QueueWorker worker = new QueueWorker(queue, new FileProcessor(), "survivor", 60_000, 10);
+
+    // Act
+    int completed = worker.run();
+
+    // Assert
+    assertThat(completed).isEqualTo(1);
+    assertThat(queue.isDrained()).isTrue();
+    assertThat(queue.getCompletedSnapshots()).hasSize(1);
+  }
+
+  @Test
+  @DisplayName("Should keep the files skipped in continue-on-error mode with the batch results")
+  void shouldKeepFailuresOfBatches() throws Exception {
+    // Arrange
+    Path queueDirectory = tempDir.resolve("queue");
+    LeaseWorkQueue queue = new LeaseWorkQueue(queueDirectory, 60_000);
+    List<Path> files = createFiles(2);
+    Path missing = tempDir.resolve("missing.txt");
+    files.add(missing);
+    queue.enqueue(files, 3);
+    FileProcessor tolerant = new FileProcessor(new MemoryGovernor(1L << 30, 4, () -> 0),
+        FailurePolicy.continueOnError(1, 1));
+
+    // Act
+    new QueueWorker(queue, tolerant, "tolerant", 60_000, 10).run();
+
+    // Assert
+    CorpusReport merged = tolerant.loadSnapshots(queue.getCompletedSnapshots());
+    assertThat(merged.getFileCount()).isEqualTo(2);
+    assertThat(merged.getFailures()).extracting(FileFailure::getFilePath)
+        .containsExactly(missing);
+  }
+
+  @Test
+  @DisplayName("Should move a failing batch aside and drain the rest of the queue")
+  void shouldMoveFailedBatchAside() throws Exception {
+    // Arrange
+    Path queueDirectory = tempDir.resolve("queue");
+    LeaseWorkQueue queue = new LeaseWorkQueue(queueDirectory, 60_000);
+    List<Path> files = createFiles(4);
+    files.add(1, tempDir.resolve("missing.txt"));
+    queue.enqueue(files, 2);
+    FileProcessor processor = new FileProcessor();
+
+    // Act
+    int completed = new QueueWorker(queue, processor, "strict", 60_000, 10).run();
+
+    // Assert
+    assertThat(completed).isEqualTo(2);
+    assertThat(queue.isDrained()).isTrue();
+    assertThat(queue.getFailedBatches()).hasSize(1);
+    Path failed = queue.getFailedBatches().get(0);
+    assertThat(Files.readAllLines(failed)).contains(files.get(1).toString());
+    assertThat(Files.readString(failed.resolveSibling(
+        failed.getFileName() + LeaseWorkQueue.CAUSE_SUFFIX))).contains("missing.txt");
+    assertThat(processor.loadSnapshots(queue.getCompletedSnapshots()).getFileCount())
+        .isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("Should build an owner id without the lease separator")
+  void shouldBuildDefaultOwner() {
+    // Act
+    String owner = QueueWorker.defaultOwner();
+
+    // Assert
+    assertThat(owner).isNotEmpty().doesNotContain(LeaseWorkQueue.OWNER_SEPARATOR)
+        .endsWith(String.valueOf(ProcessHandle.current().pid()));
+  }
+
+  private List<Path> createFiles(int count) throws IOException {
+    List<Path> files = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      files.add(Files.writeString(tempDir.resolve("doc" + i + ".txt"),
+          "Queued Content number" + i));
+    }
+    return files;
+  }
+}
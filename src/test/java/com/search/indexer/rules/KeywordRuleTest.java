@@ -0,0 +1,53 @@
+package com.search.indexer.rules;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.search.indexer.core.WordStatistics;
+import com.search.indexer.model.IndexingResult;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class KeywordRuleTest {
+
+  private KeywordRule rule;
+  private WordStatistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    rule = new KeywordRule();
+    statistics = mock(WordStatistics.class);
+  }
+
+  @Test
+  @DisplayName("Should list matched terms with their counts and the total")
+  void process_MatchedTerms_ListsCounts() {
+    // Arrange
+    when(statistics.getKeywordCounts())
+        .thenReturn(new TreeMap<>(Map.of("fraud", 3, "wire transfer", 1)));
+
+    // Act
+    IndexingResult result = rule.process(statistics);
+
+    // Assert
+    assertTrue(result.toString()
+        .contains("4 occurrences of 2 terms: fraud (3), wire transfer (1)"));
+  }
+
+  @Test
+  @DisplayName("Should report no occurrences when nothing matched")
+  void process_NoMatches_ReportsZero() {
+    // Arrange
+    when(statistics.getKeywordCounts()).thenReturn(Map.of());
+
+    // Act
+    IndexingResult result = rule.process(statistics);
+
+    // Assert
+    assertTrue(result.toString().contains("0 occurrences of 0 terms"));
+  }
+}
@@ -0,0 +1,99 @@
+package com.search.indexer.rules;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.search.indexer.core.WordDictionary;
+import com.search.indexer.core.WordStatistics;
+import com.search.indexer.model.IndexingResult;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LengthThresholdRuleTest {
+
+  private WordStatistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    statistics = new WordStatistics();
+    for (String word : "Short words, lengthy sentences and extraordinarily verbose prose verbose"
+        .split(" ")) {
+      statistics.processWord(word);
+    }
+  }
+
+  @Test
+  @DisplayName("Should report several thresholds from the same statistics")
+  void process_SeveralThresholds_ListsWordsPerThreshold() {
+    // Arrange
+    LengthThresholdRule rule = new LengthThresholdRule(8, 5, 8);
+
+    // Act
+    String result = rule.process(statistics).toString();
+
+    // Assert
+    assertTrue(result.contains("Longer than 5 characters: 6 occurrences, 5 distinct: "
+        + "extraordinarily, lengthy, sentences, verbose, words,"));
+    assertTrue(result.contains("Longer than 8 characters: 2 occurrences, 2 distinct: "
+        + "extraordinarily, sentences"));
+    assertTrue(result.indexOf("Longer than 5") < result.indexOf("Longer than 8"));
+  }
+
+  @Test
+  @DisplayName("Should count occurrences below the minimum word length without listing words")
+  void process_ThresholdBelowMinimum_ReportsCountOnly() {
+    // Arrange
+    LengthThresholdRule rule = new LengthThresholdRule(3);
+
+    // Act
+    IndexingResult result = rule.process(statistics);
+
+    // Assert
+    assertTrue(result.toString().contains(
+        "Longer than 3 characters: 8 occurrences, words not kept below 6 characters"));
+  }
+
+  @Test
+  @DisplayName("Should report zero occurrences for statistics without words")
+  void process_EmptyStatistics_ReportsZeroOccurrences() {
+    // Arrange
+    WordStatistics empty = new WordStatistics();
+    empty.compact(new WordDictionary());
+
+    // Act
+    String result = new LengthThresholdRule(5).process(empty).toString();
+
+    // Assert
+    assertTrue(result.contains("Longer than 5 characters: 0 occurrences, 0 distinct: "));
+  }
+
+  @Test
+  @DisplayName("Should list only the first spilled words per threshold and count the rest")
+  void process_SpilledWordsBeyondLimit_ReturnsTruncatedLists(@TempDir Path spillDir) {
+    // Arrange
+    WordStatistics spilled = new WordStatistics(1, spillDir);
+    for (String word : new String[] {"Zebras", "Apples", "Bananas", "Cherries"}) {
+      spilled.processWord(word);
+    }
+
+    // Act
+    String result = new LengthThresholdRule(new int[] {5, 6}, 2).process(spilled).toString();
+
+    // Assert
+    assertTrue(result.contains("Longer than 5 characters: 4 occurrences, 4 distinct: "
+        + "Apples, Bananas ... and 2 more"));
+    assertTrue(result.contains("Longer than 6 characters: 2 occurrences, 2 distinct: "
+        + "Bananas, Cherries"));
+    assertFalse(result.contains("Cherries ... and"));
+  }
+
+  @Test
+  @DisplayName("Should require at least one threshold")
+  void constructor_NoThresholds_Throws() {
+    assertThrows(IllegalArgumentException.class, LengthThresholdRule::new);
+  }
+}
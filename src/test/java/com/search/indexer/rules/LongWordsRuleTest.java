@@ -1,18 +1,25 @@
 package com.search.indexer.rules;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.search.indexer.core.WordStatistics;
 import com.search.indexer.model.IndexingResult;
+import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class LongWordsRuleTest {
 
@@ -30,7 +37,7 @@ class LongWordsRuleTest {
   void process_NoLongWords_ReturnsEmptyList() {
     // Arrange
     Set<String> emptySet = new HashSet<>();
-    when(statistics.getLongWords()).thenReturn(emptySet);
+    stubLongWords(emptySet);
 
     // Act
     IndexingResult result = rule.process(statistics);
@@ -38,7 +45,7 @@ class LongWordsRuleTest {
     // Assert
     assertTrue(result.toString().contains("Words longer than"));
     assertTrue(result.toString().endsWith(": "));
-    verify(statistics).getLongWords();
+    verify(statistics).forEachLongWordSorted(any());
   }
 
   @Test
@@ -47,14 +54,14 @@ class LongWordsRuleTest {
     // Arrange
     Set<String> singleWord = new HashSet<>();
     singleWord.add("Testing");
-    when(statistics.getLongWords()).thenReturn(singleWord);
+    stubLongWords(singleWord);
 
     // Act
     IndexingResult result = rule.process(statistics);
 
     // Assert
     assertTrue(result.toString().contains("Testing"));
-    verify(statistics).getLongWords();
+    verify(statistics).forEachLongWordSorted(any());
   }
 
   @Test
@@ -65,7 +72,7 @@ class LongWordsRuleTest {
     words.add("Zebra");
     words.add("Apple");
     words.add("Banana");
-    when(statistics.getLongWords()).thenReturn(words);
+    stubLongWords(words);
 
     // Act
     IndexingResult result = rule.process(statistics);
@@ -73,14 +80,14 @@ class LongWordsRuleTest {
     // Assert
     String resultStr = result.toString();
     assertTrue(resultStr.contains("Apple, Banana, Zebra"));
-    verify(statistics).getLongWords();
+    verify(statistics).forEachLongWordSorted(any());
   }
 
   @Test
   @DisplayName("Should include correct rule name in result")
   void process_VerifyRuleName() {
     // Arrange
-    when(statistics.getLongWords()).thenReturn(new HashSet<>());
+    stubLongWords(new HashSet<>());
 
     // Act
     IndexingResult result = rule.process(statistics);
@@ -96,7 +103,7 @@ class LongWordsRuleTest {
     Set<String> words = new HashSet<>();
     words.add("Test-Case");
     words.add("Hello_World");
-    when(statistics.getLongWords()).thenReturn(words);
+    stubLongWords(words);
 
     // Act
     IndexingResult result = rule.process(statistics);
@@ -104,7 +111,7 @@ class LongWordsRuleTest {
     // Assert
     String resultStr = result.toString();
     assertTrue(resultStr.contains("Hello_World, Test-Case"));
-    verify(statistics).getLongWords();
+    verify(statistics).forEachLongWordSorted(any());
   }
 
   @Test
@@ -115,7 +122,7 @@ class LongWordsRuleTest {
     for (int i = 0; i < 1000; i++) {
       words.add("Word" + String.format("%03d", i));
     }
-    when(statistics.getLongWords()).thenReturn(words);
+    stubLongWords(words);
 
     // Act
     IndexingResult result = rule.process(statistics);
@@ -124,6 +131,48 @@ class LongWordsRuleTest {
     assertNotNull(result);
     assertTrue(result.toString().contains("Word000"));
     assertTrue(result.toString().contains("Word999"));
-    verify(statistics).getLongWords();
+    verify(statistics).forEachLongWordSorted(any());
   }
-}
\ No newline at end of file
+
+  @Test
+  @DisplayName("Should list spilled long words in sorted order without duplicates")
+  void process_SpilledWords_ReturnsMergedSortedList(@TempDir Path spillDir) {
+    // Arrange: a one-byte budget spills after every word
+    WordStatistics spilled = new WordStatistics(1, spillDir);
+    for (String word : new String[] {"Zebras", "Apples", "Bananas", "Apples", "Zebras"}) {
+      spilled.processWord(word);
+    }
+
+    // Act
+    IndexingResult result = rule.process(spilled);
+
+    // Assert
+    assertTrue(spilled.hasSpilled());
+    assertTrue(result.toString().endsWith(": Apples, Bananas, Zebras"));
+    assertEquals(3, spilled.getLongWordCount());
+  }
+
+  @Test
+  @DisplayName("Should list only the first spilled long words and count the rest")
+  void process_SpilledWordsBeyondLimit_ReturnsTruncatedList(@TempDir Path spillDir) {
+    // Arrange
+    WordStatistics spilled = new WordStatistics(1, spillDir);
+    for (String word : new String[] {"Zebras", "Apples", "Bananas", "Cherries"}) {
+      spilled.processWord(word);
+    }
+
+    // Act
+    IndexingResult result = new LongWordsRule(2).process(spilled);
+
+    // Assert
+    assertTrue(result.toString().endsWith(": Apples, Bananas ... and 2 more"));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void stubLongWords(Set<String> words) {
+    doAnswer(invocation -> {
+      new TreeSet<>(words).forEach(invocation.getArgument(0, Consumer.class));
+      return null;
+    }).when(statistics).forEachLongWordSorted(any());
+  }
+}
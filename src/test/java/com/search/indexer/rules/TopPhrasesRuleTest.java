@@ -0,0 +1,39 @@
+package com.search.indexer.rules;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.search.indexer.core.WordStatistics;
+import com.search.indexer.model.IndexingResult;
+import com.search.indexer.model.TermCount;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TopPhrasesRuleTest {
+
+  private TopPhrasesRule rule;
+  private WordStatistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    rule = new TopPhrasesRule();
+    statistics = mock(WordStatistics.class);
+  }
+
+  @Test
+  @DisplayName("Should list the most frequent phrases with their counts in order")
+  void process_TopPhrases_ListsCounts() {
+    // Arrange
+    when(statistics.getTopPhrases())
+        .thenReturn(List.of(new TermCount("the deal", 4), new TermCount("a deal", 2)));
+
+    // Act
+    IndexingResult result = rule.process(statistics);
+
+    // Assert
+    assertTrue(result.toString().contains("RESULT : the deal (4), a deal (2)"));
+  }
+}
@@ -0,0 +1,39 @@
+package com.search.indexer.rules;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.search.indexer.core.WordStatistics;
+import com.search.indexer.model.IndexingResult;
+import com.search.indexer.model.TermCount;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TopWordsRuleTest {
+
+  private TopWordsRule rule;
+  private WordStatistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    rule = new TopWordsRule();
+    statistics = mock(WordStatistics.class);
+  }
+
+  @Test
+  @DisplayName("Should list the most frequent words with their counts in order")
+  void process_TopWords_ListsCounts() {
+    // Arrange
+    when(statistics.getTopWords())
+        .thenReturn(List.of(new TermCount("deal", 4), new TermCount("merger", 2)));
+
+    // Act
+    IndexingResult result = rule.process(statistics);
+
+    // Assert
+    assertTrue(result.toString().contains("RESULT : deal (4), merger (2)"));
+  }
+}
@@ -0,0 +1,154 @@
+package com.search.indexer.shard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.search.indexer.IndexingApplication;
+import com.search.indexer.core.FileProcessor;
+import com.search.indexer.exception.FileProcessingException;
+import com.search.indexer.model.CorpusReport;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("ShardCoordinator Test Suite")
+class ShardCoordinatorTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  @DisplayName("Should split files into shards of similar size")
+  void shouldBalanceShards() throws IOException {
+    // Arrange
+    List<Path> files = new ArrayList<>();
+    files.add(createFile("large.txt", 600));
+    files.add(createFile("medium.txt", 400));
+    for (int i = 0; i < 4; i++) {
+      files.add(createFile("small" + i + ".txt", 50));
+    }
+
+    // Act
+    List<List<Path>> shards = ShardCoordinator.partition(files, 2);
+
+    // Assert
+    assertThat(shards).hasSize(2);
+    assertThat(shards).map(ShardCoordinatorTest::bytes).containsExactlyInAnyOrder(600L, 600L);
+    assertThat(shards).flatMap(shard -> shard).containsExactlyInAnyOrderElementsOf(files);
+  }
+
+  @Test
+  @DisplayName("Should not create more shards than files")
+  void shouldNotCreateEmptyShards() throws IOException {
+    // Arrange
+    List<Path> files = List.of(createFile("a.txt", 10), createFile("b.txt", 20));
+
+    // Act
+    List<List<Path>> shards = ShardCoordinator.partition(files, 8);
+
+    // Assert
+    assertThat(shards).hasSize(2).allSatisfy(shard -> assertThat(shard).hasSize(1));
+  }
+
+  @Test
+  @DisplayName("Should merge the results of worker JVMs into one report")
+  void shouldMergeWorkerResults() throws Exception {
+    // Arrange
+    List<Path> files = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      files.add(Files.writeString(tempDir.resolve("doc" + i + ".txt"),
+          "Sharded Indexing of document" + i));
+    }
+    FileProcessor processor = new FileProcessor();
+    ShardCoordinator coordinator = coordinator(processor, 0);
+
+    // Act
+    CorpusReport sharded = coordinator.processFiles(files);
+
+    // Assert
+    CorpusReport local = processor.processFiles(files);
+    assertThat(sharded.getFileCount()).isEqualTo(4);
+    assertThat(sharded.getUppercaseTotal()).isEqualTo(local.getUppercaseTotal());
+    assertThat(sharded.getVocabulary()).isEqualTo(local.getVocabulary());
+  }
+
+  @Test
+  @DisplayName("Should re-run only the shard whose worker crashed")
+  void shouldRetryCrashedShard() throws Exception {
+    // Arrange
+    List<Path> files = List.of(
+        Files.writeString(tempDir.resolve("one.txt"), "Retried content"),
+        Files.writeString(tempDir.resolve("two.txt"), "Stable content"));
+    AtomicInteger launches = new AtomicInteger();
+    AtomicInteger crashes = new AtomicInteger();
+    ShardCoordinator coordinator = new ShardCoordinator(new FileProcessor(), 2, 1, List.of(),
+        IndexingApplication.class.getName()) {
+      @Override
+      Process startWorker(List<String> command, Path log) throws IOException {
+        launches.incrementAndGet();
+        if (command.get(command.size() - 1).endsWith("shard-0.ixsn")
+            && crashes.getAndIncrement() == 0) {
+          return super.startWorker(crashingCommand(command), log);
+        }
+        return super.startWorker(command, log);
+      }
+    };
+
+    // Act
+    CorpusReport report = coordinator.processFiles(files);
+
+    // Assert
+    assertThat(report.getFileCount()).isEqualTo(2);
+    assertThat(launches).hasValue(3);
+  }
+
+  @Test
+  @DisplayName("Should fail the batch when a shard keeps crashing")
+  void shouldFailAfterRetries() throws IOException {
+    // Arrange
+    List<Path> files = List.of(Files.writeString(tempDir.resolve("doc.txt"), "Content"));
+    AtomicInteger launches = new AtomicInteger();
+    ShardCoordinator coordinator = new ShardCoordinator(new FileProcessor(), 1, 1, List.of(),
+        IndexingApplication.class.getName()) {
+      @Override
+      Process startWorker(List<String> command, Path log) throws IOException {
+        launches.incrementAndGet();
+        return super.startWorker(crashingCommand(command), log);
+      }
+    };
+
+    // Act & Assert
+    assertThatThrownBy(() -> coordinator.processFiles(files))
+        .isInstanceOf(FileProcessingException.class)
+        .hasMessageContaining("Shard 0 failed after 2 attempts");
+    assertThat(launches).hasValue(2);
+  }
+
+  private static ShardCoordinator coordinator(FileProcessor processor, int retries) {
+    return new ShardCoordinator(processor, 2, retries, List.of(),
+        IndexingApplication.class.getName());
+  }
+
+  /**
+   * @return the worker command with a main class that does not exist, so the JVM exits with 1
+   */
+  private static List<String> crashingCommand(List<String> command) {
+    List<String> crashing = new ArrayList<>(command);
+    crashing.set(crashing.indexOf(IndexingApplication.class.getName()), "NoSuchWorker");
+    return crashing;
+  }
+
+  private Path createFile(String name, int bytes) throws IOException {
+    return Files.write(tempDir.resolve(name), new byte[bytes]);
+  }
+
+  private static long bytes(List<Path> shard) {
+    return shard.stream().mapToLong(file -> file.toFile().length()).sum();
+  }
+}
@@ -0,0 +1,86 @@
+package com.search.indexer.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ProgressReporter Test Suite")
+class ProgressReporterTest {
+
+  private static final long SECOND = 1_000_000_000L;
+
+  @Test
+  @DisplayName("Should report instantaneous and average throughput with a byte-weighted ETA")
+  void shouldReportThroughputAndEta() {
+    // Arrange
+    ProgressReporter progress = new ProgressReporter(1_000, 4, 0);
+
+    // Act
+    progress.addBytes(200);
+    progress.fileCompleted(30);
+    String first = progress.sample(SECOND);
+    progress.addBytes(600);
+    progress.fileCompleted(70);
+    String second = progress.sample(2 * SECOND);
+
+    // Assert
+    assertThat(first).startsWith("1/4 files, 200 B/1000 B (20.0%), 30 words")
+        .contains("200 B/s now", "200 B/s avg", "ETA 0:00:04");
+    assertThat(second).startsWith("2/4 files, 800 B/1000 B (80.0%), 100 words")
+        .contains("600 B/s now", "400 B/s avg", "ETA 0:00:00");
+  }
+
+  @Test
+  @DisplayName("Should sum counters from concurrent workers")
+  void shouldCountConcurrently() throws Exception {
+    // Arrange
+    ProgressReporter progress = new ProgressReporter(0, 8_000);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    // Act
+    List<Future<?>> workers = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      workers.add(executor.submit(() -> {
+        for (int file = 0; file < 1_000; file++) {
+          progress.addBytes(10);
+          progress.fileCompleted(2);
+        }
+      }));
+    }
+    for (Future<?> worker : workers) {
+      worker.get();
+    }
+    executor.shutdown();
+
+    // Assert
+    assertThat(progress.getBytes()).isEqualTo(80_000);
+    assertThat(progress.getWords()).isEqualTo(16_000);
+    assertThat(progress.getFiles()).isEqualTo(8_000);
+  }
+
+  @Test
+  @DisplayName("Should report an unknown ETA before any bytes are read")
+  void shouldReportUnknownEtaWithoutThroughput() {
+    // Arrange
+    ProgressReporter progress = new ProgressReporter(1_000, 1, 0);
+
+    // Act & Assert
+    assertThat(progress.sample(SECOND)).endsWith("ETA unknown");
+  }
+
+  @Test
+  @DisplayName("Should format sizes and durations for humans")
+  void shouldFormatSizesAndDurations() {
+    // Act & Assert
+    assertThat(ProgressReporter.formatBytes(512)).isEqualTo("512 B");
+    assertThat(ProgressReporter.formatBytes(1536)).isEqualTo("1.5 KB");
+    assertThat(ProgressReporter.formatBytes(3L << 30)).isEqualTo("3.0 GB");
+    assertThat(ProgressReporter.formatDuration(3_725)).isEqualTo("1:02:05");
+  }
+}
@@ -0,0 +1,161 @@
+package com.search.indexer.watch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.search.indexer.core.FileProcessor;
+import com.search.indexer.core.FileResult;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("DirectoryWatcher Test Suite")
+class DirectoryWatcherTest {
+
+  private static final long TIMEOUT_MILLIS = 10_000;
+
+  @TempDir
+  Path tempDir;
+
+  private DirectoryWatcher watcher;
+
+  @BeforeEach
+  void setUp() {
+    watcher = new DirectoryWatcher(new FileProcessor(), tempDir, 50, 500);
+  }
+
+  @AfterEach
+  void tearDown() {
+    watcher.stop();
+  }
+
+  @Test
+  @DisplayName("Should index files already present when started")
+  void shouldIndexExistingFilesOnStart() throws IOException {
+    // Arrange
+    Path file = Files.writeString(tempDir.resolve("existing.txt"), "Existing Content");
+
+    // Act
+    watcher.start();
+
+    // Assert
+    assertThat(watcher.getResults()).containsKey(file);
+    assertThat(watcher.getResults().get(file).getStatistics().getUppercaseCount()).isEqualTo(2);
+    assertThat(watcher.getResults().get(file).getStatistics().isCompacted()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should index created files, refresh modified ones and drop deleted ones")
+  void shouldTrackCreateModifyDelete() throws Exception {
+    // Arrange
+    watcher.start();
+    Path file = tempDir.resolve("live.txt");
+
+    // Act & Assert - create
+    Files.writeString(file, "First version");
+    awaitCondition(() -> uppercaseCount(file) == 1);
+
+    // Act & Assert - modify
+    Files.writeString(file, "Second Version With More Capitals");
+    awaitCondition(() -> uppercaseCount(file) == 5);
+
+    // Act & Assert - delete
+    Files.delete(file);
+    awaitCondition(() -> !watcher.getResults().containsKey(file));
+  }
+
+  @Test
+  @DisplayName("Should keep the corpus report current after every flush")
+  void shouldKeepCorpusReportCurrent() throws Exception {
+    // Arrange
+    Files.writeString(tempDir.resolve("first.txt"), "First Existing File");
+    watcher.start();
+    Path second = tempDir.resolve("second.txt");
+
+    // Act
+    Files.writeString(second, "Another Capitalized Document");
+
+    // Assert
+    awaitCondition(() -> watcher.getReport().getFileCount() == 2);
+    assertThat(watcher.getReport().getUppercaseTotal()).isEqualTo(6);
+    assertThat(watcher.getReport().getVocabulary()).contains("Capitalized", "Existing");
+
+    // Act & Assert - delete
+    Files.delete(second);
+    awaitCondition(() -> watcher.getReport().getFileCount() == 1);
+    assertThat(watcher.getReport().getUppercaseTotal()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("Should replace the result of a file indexed at start in the corpus report")
+  void shouldReplaceInitialResultInReport() throws Exception {
+    // Arrange
+    Path file = Files.writeString(tempDir.resolve("first.txt"), "First Existing File");
+    Files.writeString(tempDir.resolve("other.txt"), "Other");
+    watcher.start();
+
+    // Act
+    Files.writeString(file, "only lowercase application words");
+
+    // Assert
+    awaitCondition(() -> watcher.getReport().getUppercaseTotal() == 1);
+    assertThat(watcher.getReport().getFileCount()).isEqualTo(2);
+    assertThat(watcher.getReport().getVocabulary()).containsExactly("application", "lowercase");
+  }
+
+  @Test
+  @DisplayName("Should watch directories created after start")
+  void shouldWatchNewSubdirectories() throws Exception {
+    // Arrange
+    watcher.start();
+    Path subdirectory = Files.createDirectory(tempDir.resolve("nested"));
+
+    // Act
+    Path file = Files.writeString(subdirectory.resolve("inner.txt"), "Inner Text");
+
+    // Assert
+    awaitCondition(() -> uppercaseCount(file) == 2);
+  }
+
+  @Test
+  @DisplayName("Should reject a debounce window larger than the maximum delay")
+  void shouldRejectInvalidDebounceSettings() {
+    // Act & Assert
+    assertThatThrownBy(() -> new DirectoryWatcher(new FileProcessor(), tempDir, 100, 10))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  @DisplayName("Should reject a path that is not a directory")
+  void shouldRejectNonDirectoryRoot() throws IOException {
+    // Arrange
+    Path file = Files.writeString(tempDir.resolve("plain.txt"), "text");
+    DirectoryWatcher fileWatcher = new DirectoryWatcher(new FileProcessor(), file, 10, 10);
+
+    // Act & Assert
+    assertThatThrownBy(fileWatcher::start)
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Not a directory");
+  }
+
+  private int uppercaseCount(Path file) {
+    FileResult result = watcher.getResults().get(file);
+    return result == null ? -1 : result.getStatistics().getUppercaseCount();
+  }
+
+  private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+    while (!condition.getAsBoolean()) {
+      if (System.currentTimeMillis() > deadline) {
+        throw new AssertionError("Condition not met within " + TIMEOUT_MILLIS + " ms");
+      }
+      Thread.sleep(20);
+    }
+  }
+}